@@ -1,7 +1,6 @@
 package com.lospitufos.cobblemon.admin;
 
 import com.cobblemon.mod.common.Cobblemon;
-import com.cobblemon.mod.common.api.pokemon.PokemonSpecies;
 import com.cobblemon.mod.common.api.storage.party.PlayerPartyStore;
 import com.cobblemon.mod.common.api.storage.pc.PCStore;
 import com.cobblemon.mod.common.pokemon.Pokemon;
@@ -9,6 +8,12 @@ import com.cobblemon.mod.common.pokemon.Species;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import com.lospitufos.cobblemon.core.TaskScope;
+import com.lospitufos.cobblemon.data.PokemonSpec;
+import com.lospitufos.cobblemon.delivery.DeliveryEngine;
+import com.lospitufos.cobblemon.delivery.DeliveryRequest;
+import com.lospitufos.cobblemon.outbox.Outbox;
+import com.lospitufos.cobblemon.storage.PCSpeciesIndex;
 import com.lospitufos.cobblemon.utils.HttpClient;
 import com.lospitufos.cobblemon.utils.ModLogger;
 import net.minecraft.server.MinecraftServer;
@@ -17,8 +22,6 @@ import net.minecraft.text.Text;
 import net.minecraft.util.Formatting;
 
 import java.util.UUID;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -33,17 +36,24 @@ public class AdminSyncManager {
 
     private final HttpClient httpClient;
     private final ModLogger logger;
-    private final ScheduledExecutorService scheduler;
+    private final PCSpeciesIndex pcIndex;
+    private final DeliveryEngine deliveryEngine;
+    private final Outbox outbox;
+    private final TaskScope scheduler;
     private MinecraftServer server;
 
     // Poll intervals
     private static final int ANNOUNCEMENT_POLL_SECONDS = 10;
     private static final int POKEMON_SYNC_POLL_SECONDS = 15;
 
-    public AdminSyncManager(HttpClient httpClient, ModLogger logger) {
+    public AdminSyncManager(HttpClient httpClient, ModLogger logger, PCSpeciesIndex pcIndex, DeliveryEngine deliveryEngine,
+                            Outbox outbox, TaskScope scheduler) {
         this.httpClient = httpClient;
         this.logger = logger;
-        this.scheduler = Executors.newScheduledThreadPool(2);
+        this.pcIndex = pcIndex;
+        this.deliveryEngine = deliveryEngine;
+        this.outbox = outbox;
+        this.scheduler = scheduler;
     }
 
     public void initialize(MinecraftServer server) {
@@ -76,6 +86,7 @@ public class AdminSyncManager {
      */
     private void pollAnnouncements() {
         if (server == null) return;
+        if (httpClient.isOffline()) return; // Suspended until the backend is back
 
         try {
             httpClient.getAsync("/api/announcements/ingame/poll")
@@ -168,6 +179,7 @@ public class AdminSyncManager {
      */
     private void pollPokemonOperations() {
         if (server == null) return;
+        if (httpClient.isOffline()) return; // Suspended until the backend is back
 
         try {
             httpClient.getAsync("/api/pokemon-sync/poll-all")
@@ -222,11 +234,23 @@ public class AdminSyncManager {
             return;
         }
 
+        // ADD data is parsed and validated here, off the main thread
+        PokemonSpec spec = null;
+        if ("ADD".equals(operationType)) {
+            try {
+                spec = PokemonSpec.fromJson(operation.getAsJsonObject("pokemon"), 5);
+            } catch (Exception e) {
+                confirmOperation(operationId, false, e.getMessage());
+                return;
+            }
+        }
+        PokemonSpec addSpec = spec;
+
         // Execute on main thread
         server.execute(() -> {
             try {
                 if ("ADD".equals(operationType)) {
-                    handleAddPokemon(player, operation, operationId);
+                    handleAddPokemon(player, addSpec, operationId);
                 } else if ("REMOVE".equals(operationType)) {
                     handleRemovePokemon(player, operation, operationId);
                 } else {
@@ -240,84 +264,59 @@ public class AdminSyncManager {
     }
 
     /**
-     * Handle ADD Pokemon operation
+     * Handle ADD Pokemon operation (spec already validated)
      */
-    private void handleAddPokemon(ServerPlayerEntity player, JsonObject operation, String operationId) {
+    private void handleAddPokemon(ServerPlayerEntity player, PokemonSpec spec, String operationId) {
         try {
-            JsonObject pokemonData = operation.getAsJsonObject("pokemon");
-            if (pokemonData == null) {
-                confirmOperation(operationId, false, "No pokemon data provided");
-                return;
-            }
+            Species species = spec.getSpecies();
 
-            String speciesName = pokemonData.has("species") ? pokemonData.get("species").getAsString() : "";
-            if (speciesName.isEmpty()) {
-                confirmOperation(operationId, false, "No species provided");
+            if (operationId.isEmpty()) {
+                // Without an ID the delivery cannot be made idempotent
+                logger.warn("[POKEMON-SYNC] Skipping ADD operation without ID for " + player.getName().getString());
                 return;
             }
 
-            // Get species
-            Species species = PokemonSpecies.INSTANCE.getByName(speciesName.toLowerCase());
-            if (species == null) {
-                confirmOperation(operationId, false, "Unknown species: " + speciesName);
-                return;
-            }
-
-            // Create Pokemon
-            Pokemon pokemon = species.create(
-                pokemonData.has("level") ? pokemonData.get("level").getAsInt() : 5
-            );
-
-            // Set properties
-            if (pokemonData.has("shiny") && pokemonData.get("shiny").getAsBoolean()) {
-                pokemon.setShiny(true);
-            }
-
-            if (pokemonData.has("nature")) {
-                try {
-                    var nature = com.cobblemon.mod.common.api.pokemon.Natures.INSTANCE.getNature(
-                        new net.minecraft.util.Identifier("cobblemon", pokemonData.get("nature").getAsString().toLowerCase())
-                    );
-                    if (nature != null) {
-                        pokemon.setNature(nature);
+            JsonObject confirmation = new JsonObject();
+            confirmation.addProperty("operationId", operationId);
+            confirmation.addProperty("success", true);
+
+            // Placement (party first, PC when full) and the confirmation go through the delivery engine
+            deliveryEngine.submit(DeliveryRequest.builder("admin:" + operationId, player.getUuid())
+                .pokemon(spec::create)
+                .confirm("/api/pokemon-sync/confirm", confirmation)
+                .reject("/api/pokemon-sync/confirm", reason -> {
+                    JsonObject payload = new JsonObject();
+                    payload.addProperty("operationId", operationId);
+                    payload.addProperty("success", false);
+                    payload.addProperty("error", reason);
+                    return payload;
+                })
+                .listener(new DeliveryRequest.Listener() {
+                    @Override
+                    public void onDelivered(ServerPlayerEntity p, DeliveryRequest.Receipt receipt) {
+                        Pokemon pokemon = receipt.pokemon.get(0);
+                        if (receipt.toParty > 0) {
+                            p.sendMessage(Text.literal("§a§l✓ §r§aRecibiste un §e" + species.getName() + " §aLv." + pokemon.getLevel() + "§a!"), false);
+                        } else {
+                            p.sendMessage(Text.literal("§a§l✓ §r§aRecibiste un §e" + species.getName() + " §aLv." + pokemon.getLevel() + " §7(enviado al PC - party llena)"), false);
+                        }
+
+                        // Play sound
+                        p.playSound(
+                            net.minecraft.sound.SoundEvents.ENTITY_PLAYER_LEVELUP,
+                            1.0f, 1.0f
+                        );
+
+                        logger.info("[POKEMON-SYNC] Added " + species.getName() + " to " + p.getName().getString());
                     }
-                } catch (Exception e) {
-                    // Use default nature
-                }
-            }
-
-            // Set IVs if provided
-            if (pokemonData.has("ivs")) {
-                JsonObject ivs = pokemonData.getAsJsonObject("ivs");
-                if (ivs.has("hp")) pokemon.getIvs().set(com.cobblemon.mod.common.api.pokemon.stats.Stats.HP, ivs.get("hp").getAsInt());
-                if (ivs.has("attack")) pokemon.getIvs().set(com.cobblemon.mod.common.api.pokemon.stats.Stats.ATTACK, ivs.get("attack").getAsInt());
-                if (ivs.has("defense")) pokemon.getIvs().set(com.cobblemon.mod.common.api.pokemon.stats.Stats.DEFENCE, ivs.get("defense").getAsInt());
-                if (ivs.has("spAttack")) pokemon.getIvs().set(com.cobblemon.mod.common.api.pokemon.stats.Stats.SPECIAL_ATTACK, ivs.get("spAttack").getAsInt());
-                if (ivs.has("spDefense")) pokemon.getIvs().set(com.cobblemon.mod.common.api.pokemon.stats.Stats.SPECIAL_DEFENCE, ivs.get("spDefense").getAsInt());
-                if (ivs.has("speed")) pokemon.getIvs().set(com.cobblemon.mod.common.api.pokemon.stats.Stats.SPEED, ivs.get("speed").getAsInt());
-            }
 
-            // Add to party or PC
-            PlayerPartyStore party = Cobblemon.INSTANCE.getStorage().getParty(player);
-            
-            if (party.size() < 6) {
-                party.add(pokemon);
-                player.sendMessage(Text.literal("§a§l✓ §r§aRecibiste un §e" + species.getName() + " §aLv." + pokemon.getLevel() + "§a!"), false);
-            } else {
-                // Party full, add to PC
-                PCStore pc = Cobblemon.INSTANCE.getStorage().getPC(player);
-                pc.add(pokemon);
-                player.sendMessage(Text.literal("§a§l✓ §r§aRecibiste un §e" + species.getName() + " §aLv." + pokemon.getLevel() + " §7(enviado al PC - party llena)"), false);
-            }
-
-            // Play sound
-            player.playSound(
-                net.minecraft.sound.SoundEvents.ENTITY_PLAYER_LEVELUP,
-                1.0f, 1.0f
-            );
-
-            logger.info("[POKEMON-SYNC] Added " + species.getName() + " to " + player.getName().getString());
-            confirmOperation(operationId, true, null);
+                    @Override
+                    public void onDeferred(ServerPlayerEntity p, String reason) {
+                        // Keep operation in queue (don't confirm) - retried on the next poll
+                        logger.debug("[POKEMON-SYNC] Operation " + operationId + " deferred: " + reason);
+                    }
+                })
+                .build());
 
         } catch (Exception e) {
             logger.error("[POKEMON-SYNC] Error adding Pokemon: " + e.getMessage());
@@ -361,27 +360,22 @@ public class AdminSyncManager {
                 }
             }
 
-            // Search in PC
+            // Search in PC (index lookup, no box scan)
             PCStore pc = Cobblemon.INSTANCE.getStorage().getPC(player);
-            
-            // Iterate through all boxes
-            for (int boxIndex = 0; boxIndex < pc.getBoxes().size(); boxIndex++) {
-                com.cobblemon.mod.common.api.storage.pc.PCBox box = pc.getBoxes().get(boxIndex);
-                for (int slot = 0; slot < 30; slot++) {
-                    Pokemon p = box.get(slot);
-                    if (p != null && p.getUuid().equals(targetUuid)) {
-                        String speciesName = p.getSpecies().getName();
-                        
-                        // Use the PC's remove method instead of box.set(null)
-                        // This properly handles the removal and triggers save
-                        pc.remove(p);
-                        
-                        player.sendMessage(Text.literal("§c§l⚠ §r§c" + speciesName + " fue removido del PC: §7" + reason), false);
-                        logger.info("[POKEMON-SYNC] Removed " + speciesName + " from " + player.getName().getString() + "'s PC (box " + boxIndex + ", slot " + slot + ")");
-                        confirmOperation(operationId, true, null);
-                        return;
-                    }
-                }
+            Pokemon inPc = pcIndex.findInPC(player, targetUuid);
+            if (inPc != null) {
+                String speciesName = inPc.getSpecies().getName();
+                var position = pcIndex.getPosition(player, targetUuid);
+
+                // Use the PC's remove method instead of box.set(null)
+                // This properly handles the removal and triggers save
+                pc.remove(inPc);
+
+                player.sendMessage(Text.literal("§c§l⚠ §r§c" + speciesName + " fue removido del PC: §7" + reason), false);
+                logger.info("[POKEMON-SYNC] Removed " + speciesName + " from " + player.getName().getString() + "'s PC"
+                    + (position != null ? " (box " + position.getBox() + ", slot " + position.getSlot() + ")" : ""));
+                confirmOperation(operationId, true, null);
+                return;
             }
 
             // Not found - log more details for debugging
@@ -409,7 +403,7 @@ public class AdminSyncManager {
             payload.addProperty("error", error);
         }
 
-        httpClient.postAsync("/api/pokemon-sync/confirm", payload)
+        outbox.enqueue("/api/pokemon-sync/confirm", payload)
             .exceptionally(e -> {
                 logger.debug("[POKEMON-SYNC] Failed to confirm operation: " + e.getMessage());
                 return null;
@@ -418,13 +412,6 @@ public class AdminSyncManager {
 
     public void shutdown() {
         logger.info("AdminSyncManager shutting down...");
-        scheduler.shutdown();
-        try {
-            if (!scheduler.awaitTermination(5, TimeUnit.SECONDS)) {
-                scheduler.shutdownNow();
-            }
-        } catch (InterruptedException e) {
-            scheduler.shutdownNow();
-        }
+        scheduler.shutdown(5, TimeUnit.SECONDS);
     }
 }
@@ -0,0 +1,303 @@
+package com.lospitufos.cobblemon.cache;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Expiring Cache - bounded in-memory cache with write-based expiry and background refresh
+ *
+ * Features:
+ * - Size bound: the oldest written entry is evicted first
+ * - Expire-after-write: each entry owns one TimerWheel timeout, so cleanup costs only the entries that expire
+ * - Refresh-after-write: a read past the refresh age starts one async reload and keeps serving the old value
+ * - A reload never resurrects an invalidated entry or overwrites a newer write
+ * - Lock-free reads (ConcurrentHashMap); writes take the cache lock for the eviction order
+ */
+public final class ExpiringCache<K, V> {
+
+    /**
+     * Reloads a value in the background. Gets the value being refreshed; completing with null keeps it as is
+     */
+    @FunctionalInterface
+    public interface Reloader<K, V> {
+        CompletableFuture<V> reload(K key, V oldValue);
+    }
+
+    /**
+     * Receives each live entry with its write time (for snapshots)
+     */
+    @FunctionalInterface
+    public interface EntryVisitor<K, V> {
+        void visit(K key, V value, long writtenAt);
+    }
+
+    private final String name;
+    private final TimerWheel wheel;
+    private final int maximumSize;
+    private final long expireAfterWriteMs;
+    private final long refreshAfterWriteMs;
+    private final Reloader<K, V> reloader;
+
+    private final ConcurrentHashMap<K, Entry<K, V>> map = new ConcurrentHashMap<>();
+    private final Map<K, Boolean> refreshing = new ConcurrentHashMap<>();
+
+    // Write order, oldest first - guarded by this
+    private final Entry<K, V> order = new Entry<>(null, null, 0, 0);
+    private long generation = 0; // bumped by invalidation, guarded by this
+
+    private ExpiringCache(Builder<K, V> builder) {
+        this.name = builder.name;
+        this.wheel = builder.wheel;
+        this.maximumSize = builder.maximumSize;
+        this.expireAfterWriteMs = builder.expireAfterWriteMs;
+        this.refreshAfterWriteMs = builder.refreshAfterWriteMs;
+        this.reloader = builder.reloader;
+        order.before = order;
+        order.after = order;
+    }
+
+    public static <K, V> Builder<K, V> builder(String name, TimerWheel wheel) {
+        return new Builder<>(name, wheel);
+    }
+
+    // ============================================
+    // READS
+    // ============================================
+
+    /**
+     * The cached value, or null if absent or expired. Starts a background refresh when due
+     */
+    public V getIfPresent(K key) {
+        Entry<K, V> entry = map.get(key);
+        if (entry == null) return null;
+
+        long now = System.currentTimeMillis();
+        if (now >= entry.expiresAt) {
+            // The timer may lag by up to a tick - never serve past the deadline
+            expire(entry);
+            return null;
+        }
+
+        if (reloader != null && now - entry.writtenAt >= refreshAfterWriteMs) {
+            refresh(key);
+        }
+        return entry.value;
+    }
+
+    public boolean containsKey(K key) {
+        Entry<K, V> entry = map.get(key);
+        return entry != null && System.currentTimeMillis() < entry.expiresAt;
+    }
+
+    public int size() {
+        return map.size();
+    }
+
+    /**
+     * Visit every live entry (weakly consistent, like ConcurrentHashMap iteration)
+     */
+    public void forEach(EntryVisitor<K, V> visitor) {
+        long now = System.currentTimeMillis();
+        for (Entry<K, V> entry : map.values()) {
+            if (now < entry.expiresAt) {
+                visitor.visit(entry.key, entry.value, entry.writtenAt);
+            }
+        }
+    }
+
+    // ============================================
+    // WRITES
+    // ============================================
+
+    public void put(K key, V value) {
+        put(key, value, System.currentTimeMillis());
+    }
+
+    /**
+     * Insert with an explicit write time (restoring a snapshot). Already expired values are dropped
+     */
+    public void put(K key, V value, long writtenAt) {
+        if (key == null || value == null) return;
+
+        long expiresAt = expireAfterWriteMs > 0 ? writtenAt + expireAfterWriteMs : Long.MAX_VALUE;
+        if (expiresAt <= System.currentTimeMillis()) return;
+
+        synchronized (this) {
+            install(key, value, writtenAt, expiresAt);
+        }
+    }
+
+    public void invalidate(K key) {
+        synchronized (this) {
+            generation++;
+            Entry<K, V> entry = map.remove(key);
+            if (entry != null) {
+                discard(entry);
+            }
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (this) {
+            generation++;
+            while (order.after != order) {
+                Entry<K, V> entry = order.after;
+                map.remove(entry.key, entry);
+                discard(entry);
+            }
+        }
+    }
+
+    /**
+     * Reload the key in the background (at most one reload in flight per key)
+     */
+    public void refresh(K key) {
+        if (reloader == null || refreshing.putIfAbsent(key, Boolean.TRUE) != null) return;
+
+        Entry<K, V> current = map.get(key);
+        long startedGeneration;
+        synchronized (this) {
+            startedGeneration = generation;
+        }
+        long startedAt = System.currentTimeMillis();
+
+        CompletableFuture<V> future;
+        try {
+            future = reloader.reload(key, current != null ? current.value : null);
+        } catch (RuntimeException e) {
+            refreshing.remove(key);
+            return;
+        }
+
+        future.whenComplete((value, error) -> {
+            refreshing.remove(key);
+            if (error != null || value == null) return;
+
+            long now = System.currentTimeMillis();
+            synchronized (this) {
+                if (generation != startedGeneration) return; // invalidated meanwhile
+                Entry<K, V> latest = map.get(key);
+                if (latest != null && latest.writtenAt > startedAt) return; // newer write won
+                install(key, value, now, expireAfterWriteMs > 0 ? now + expireAfterWriteMs : Long.MAX_VALUE);
+            }
+        });
+    }
+
+    // ============================================
+    // INTERNALS (callers hold the lock unless noted)
+    // ============================================
+
+    private void install(K key, V value, long writtenAt, long expiresAt) {
+        Entry<K, V> entry = new Entry<>(key, value, writtenAt, expiresAt);
+        Entry<K, V> previous = map.put(key, entry);
+        if (previous != null) {
+            discard(previous);
+        }
+
+        entry.linkLast(order);
+        if (expiresAt != Long.MAX_VALUE) {
+            entry.timeout = wheel.schedule(expiresAt, () -> expire(entry));
+        }
+
+        while (maximumSize > 0 && map.size() > maximumSize && order.after != order) {
+            Entry<K, V> eldest = order.after;
+            map.remove(eldest.key, eldest);
+            discard(eldest);
+        }
+    }
+
+    private void discard(Entry<K, V> entry) {
+        entry.unlink();
+        if (entry.timeout != null) {
+            entry.timeout.cancel();
+            entry.timeout = null;
+        }
+    }
+
+    /**
+     * Drop the entry if it is still the current one for its key (no lock needed by the caller)
+     */
+    private void expire(Entry<K, V> entry) {
+        synchronized (this) {
+            if (map.remove(entry.key, entry)) {
+                discard(entry);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ExpiringCache[" + name + ", size=" + map.size() + "]";
+    }
+
+    private static final class Entry<K, V> {
+        final K key;
+        final V value;
+        final long writtenAt;
+        final long expiresAt;
+        TimerWheel.Timeout timeout;
+        Entry<K, V> before;
+        Entry<K, V> after;
+
+        Entry(K key, V value, long writtenAt, long expiresAt) {
+            this.key = key;
+            this.value = value;
+            this.writtenAt = writtenAt;
+            this.expiresAt = expiresAt;
+        }
+
+        void linkLast(Entry<K, V> head) {
+            before = head.before;
+            after = head;
+            head.before.after = this;
+            head.before = this;
+        }
+
+        void unlink() {
+            if (before == null) return;
+            before.after = after;
+            after.before = before;
+            before = null;
+            after = null;
+        }
+    }
+
+    // ============================================
+    // BUILDER
+    // ============================================
+
+    public static final class Builder<K, V> {
+        private final String name;
+        private final TimerWheel wheel;
+        private int maximumSize = 0;
+        private long expireAfterWriteMs = 0;
+        private long refreshAfterWriteMs = 0;
+        private Reloader<K, V> reloader = null;
+
+        private Builder(String name, TimerWheel wheel) {
+            this.name = name;
+            this.wheel = wheel;
+        }
+
+        public Builder<K, V> maximumSize(int maximumSize) {
+            this.maximumSize = maximumSize;
+            return this;
+        }
+
+        public Builder<K, V> expireAfterWrite(long ms) {
+            this.expireAfterWriteMs = ms;
+            return this;
+        }
+
+        public Builder<K, V> refreshAfterWrite(long ms, Reloader<K, V> reloader) {
+            this.refreshAfterWriteMs = ms;
+            this.reloader = reloader;
+            return this;
+        }
+
+        public ExpiringCache<K, V> build() {
+            return new ExpiringCache<>(this);
+        }
+    }
+}
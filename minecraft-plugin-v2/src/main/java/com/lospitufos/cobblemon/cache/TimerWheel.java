@@ -0,0 +1,239 @@
+package com.lospitufos.cobblemon.cache;
+
+import com.lospitufos.cobblemon.utils.ModLogger;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Timer Wheel - hierarchical timing wheel for large numbers of one-shot deadlines
+ *
+ * Features:
+ * - Schedule and cancel are O(1): a timer is a node in a doubly-linked bucket
+ * - Four levels of 64 buckets (tick, 64 ticks, 64² ticks, 64³ ticks), ~194 days at a 1s tick
+ * - A bucket of a higher level cascades into the level below when its turn comes
+ * - One tick costs the timers that are due (plus the occasional cascade) - never a scan of every timer
+ * - No thread of its own: the PluginRuntime scheduler calls advance() every tick
+ * - Tasks run on the ticking thread, outside the lock: keep them short or hand the work off
+ */
+public final class TimerWheel {
+
+    /**
+     * Handle to a scheduled task
+     */
+    public interface Timeout {
+        /** Cancel the task. False if it already ran or was cancelled */
+        boolean cancel();
+
+        boolean isPending();
+    }
+
+    private static final int WHEEL_BITS = 6;
+    private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+    private static final int LEVELS = 4;
+    private static final long MAX_SPAN_TICKS = 1L << (WHEEL_BITS * LEVELS);
+
+    private final String name;
+    private final long tickMs;
+    private final ModLogger logger;
+    private final long origin;
+    private final Node[][] wheels = new Node[LEVELS][WHEEL_SIZE];
+
+    private long currentTick = 0; // guarded by this
+    private int pending = 0;      // guarded by this
+    private boolean stopped = false; // guarded by this
+
+    public TimerWheel(String name, long tickMs, ModLogger logger) {
+        this.name = name;
+        this.tickMs = tickMs;
+        this.logger = logger;
+        this.origin = System.currentTimeMillis();
+
+        for (int level = 0; level < LEVELS; level++) {
+            for (int slot = 0; slot < WHEEL_SIZE; slot++) {
+                wheels[level][slot] = new Node(null, null);
+            }
+        }
+    }
+
+    // ============================================
+    // SCHEDULING
+    // ============================================
+
+    /**
+     * Run task once the wall clock reaches deadlineMs (at tick granularity, never early)
+     */
+    public Timeout schedule(long deadlineMs, Runnable task) {
+        // Round up: a deadline inside a tick fires at the end of that tick
+        long deadlineTick = Math.floorDiv(deadlineMs - origin + tickMs - 1, tickMs);
+        Node node = new Node(this, task);
+
+        synchronized (this) {
+            if (stopped) {
+                node.state = Node.CANCELLED;
+                return node;
+            }
+            // Already due - next tick (the current bucket has been drained)
+            node.deadlineTick = Math.max(deadlineTick, currentTick + 1);
+            insert(node);
+            pending++;
+        }
+        return node;
+    }
+
+    /**
+     * Run task after delayMs
+     */
+    public Timeout scheduleAfter(long delayMs, Runnable task) {
+        return schedule(System.currentTimeMillis() + delayMs, task);
+    }
+
+    public synchronized int size() {
+        return pending;
+    }
+
+    private void insert(Node node) {
+        long delta = node.deadlineTick - currentTick;
+        long target = node.deadlineTick;
+
+        if (delta >= MAX_SPAN_TICKS) {
+            // Beyond the last level: park in the farthest bucket, re-placed when it cascades
+            target = currentTick + MAX_SPAN_TICKS - 1;
+            delta = MAX_SPAN_TICKS - 1;
+        }
+
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= (1L << (WHEEL_BITS * (level + 1)))) {
+            level++;
+        }
+        int slot = (int) ((target >>> (WHEEL_BITS * level)) & WHEEL_MASK);
+        wheels[level][slot].append(node);
+    }
+
+    // ============================================
+    // TICKING
+    // ============================================
+
+    /**
+     * Advance the wheel to nowMs and run every task that came due
+     */
+    public void advance(long nowMs) {
+        List<Node> due = null;
+
+        synchronized (this) {
+            long targetTick = Math.floorDiv(nowMs - origin, tickMs);
+
+            while (currentTick < targetTick) {
+                currentTick++;
+
+                // Highest level first: its timers may land in the lower buckets handled right after
+                for (int level = LEVELS - 1; level >= 1; level--) {
+                    long levelMask = (1L << (WHEEL_BITS * level)) - 1;
+                    if ((currentTick & levelMask) == 0) {
+                        int slot = (int) ((currentTick >>> (WHEEL_BITS * level)) & WHEEL_MASK);
+                        cascade(wheels[level][slot]);
+                    }
+                }
+
+                Node bucket = wheels[0][(int) (currentTick & WHEEL_MASK)];
+                while (bucket.next != bucket) {
+                    Node node = bucket.next;
+                    node.unlink();
+                    node.state = Node.FIRED;
+                    pending--;
+                    if (due == null) due = new ArrayList<>();
+                    due.add(node);
+                }
+            }
+        }
+
+        if (due == null) return;
+        for (Node node : due) {
+            try {
+                node.task.run();
+            } catch (Exception e) {
+                logger.error("Timer task failed (" + name + "): " + e.getMessage());
+            }
+        }
+    }
+
+    private void cascade(Node bucket) {
+        while (bucket.next != bucket) {
+            Node node = bucket.next;
+            node.unlink();
+            insert(node);
+        }
+    }
+
+    /**
+     * Drop every pending timer - nothing fires or gets scheduled after shutdown
+     */
+    public synchronized void shutdown() {
+        stopped = true;
+        for (Node[] wheel : wheels) {
+            for (Node bucket : wheel) {
+                while (bucket.next != bucket) {
+                    Node node = bucket.next;
+                    node.unlink();
+                    node.state = Node.CANCELLED;
+                }
+            }
+        }
+        pending = 0;
+    }
+
+    // ============================================
+    // NODES
+    // ============================================
+
+    private static final class Node implements Timeout {
+        static final int PENDING = 0;
+        static final int FIRED = 1;
+        static final int CANCELLED = 2;
+
+        final TimerWheel wheel; // null for bucket sentinels
+        final Runnable task;
+        long deadlineTick;
+        int state = PENDING;
+        Node prev = this;
+        Node next = this;
+
+        Node(TimerWheel wheel, Runnable task) {
+            this.wheel = wheel;
+            this.task = task;
+        }
+
+        void append(Node node) {
+            node.prev = prev;
+            node.next = this;
+            prev.next = node;
+            prev = node;
+        }
+
+        void unlink() {
+            prev.next = next;
+            next.prev = prev;
+            prev = this;
+            next = this;
+        }
+
+        @Override
+        public boolean cancel() {
+            synchronized (wheel) {
+                if (state != PENDING) return false;
+                unlink();
+                state = CANCELLED;
+                wheel.pending--;
+                return true;
+            }
+        }
+
+        @Override
+        public boolean isPending() {
+            synchronized (wheel) {
+                return state == PENDING;
+            }
+        }
+    }
+}
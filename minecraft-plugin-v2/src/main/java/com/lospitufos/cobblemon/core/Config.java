@@ -8,6 +8,8 @@ import java.io.*;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * Configuration manager for the plugin
@@ -42,6 +44,9 @@ public class Config {
     private String discordWebhookUrl = "";
     private boolean sendVerificationNotifications = false;
 
+    // Rate limit overrides: action name -> [burst, refillMs] (empty = built-in defaults)
+    private Map<String, int[]> rateLimits = new HashMap<>();
+
     /**
      * Load configuration from file, creating default if doesn't exist
      */
@@ -136,6 +141,10 @@ public class Config {
         return sendVerificationNotifications;
     }
 
+    public Map<String, int[]> getRateLimits() {
+        return rateLimits;
+    }
+
     // Setters for runtime modification
     public void setWebApiUrl(String url) {
         this.webApiUrl = url;
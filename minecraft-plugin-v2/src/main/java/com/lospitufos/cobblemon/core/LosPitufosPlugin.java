@@ -2,7 +2,10 @@ package com.lospitufos.cobblemon.core;
 
 import com.lospitufos.cobblemon.utils.ModLogger;
 import com.lospitufos.cobblemon.utils.HttpClient;
+import com.lospitufos.cobblemon.utils.ChatMessages;
+import com.lospitufos.cobblemon.utils.ConnectivityMonitor;
 import com.lospitufos.cobblemon.utils.DiscordWebhookManager;
+import com.lospitufos.cobblemon.utils.RateLimiter;
 import com.lospitufos.cobblemon.verification.VerificationManager;
 import com.lospitufos.cobblemon.starter.StarterManager;
 import com.lospitufos.cobblemon.sync.WebSyncManager;
@@ -12,20 +15,41 @@ import com.lospitufos.cobblemon.playershop.PlayerShopManager;
 import com.lospitufos.cobblemon.tournament.TournamentManager;
 import com.lospitufos.cobblemon.tournament.TournamentCommands;
 import com.lospitufos.cobblemon.tournament.BattleListener;
+import com.lospitufos.cobblemon.economy.BalanceLedger;
+import com.lospitufos.cobblemon.economy.CoalescingBalanceLedger;
+import com.lospitufos.cobblemon.economy.CobbleDollarsManager;
+import com.lospitufos.cobblemon.economy.CommandBalanceLedger;
+import com.lospitufos.cobblemon.economy.EconomyJournal;
+import com.lospitufos.cobblemon.economy.JournalingBalanceLedger;
 import com.lospitufos.cobblemon.economy.EconomyManager;
 import com.lospitufos.cobblemon.gacha.GachaManager;
 import com.lospitufos.cobblemon.tutorias.TutoriasManager;
 import com.lospitufos.cobblemon.admin.AdminSyncManager;
+import com.lospitufos.cobblemon.data.SpeciesRegistry;
+import com.lospitufos.cobblemon.storage.PCSpeciesIndex;
+import com.lospitufos.cobblemon.storage.WarmCacheSnapshot;
+import com.lospitufos.cobblemon.delivery.DeliveryEngine;
+import com.lospitufos.cobblemon.outbox.Outbox;
+import com.lospitufos.cobblemon.session.ActivityTracker;
+import com.lospitufos.cobblemon.session.PlayerSessionRegistry;
 
 import net.fabricmc.api.DedicatedServerModInitializer;
 import net.fabricmc.fabric.api.command.v2.CommandRegistrationCallback;
 import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayConnectionEvents;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.server.command.CommandManager;
+import net.minecraft.server.command.ServerCommandSource;
+import net.minecraft.text.Text;
 import net.minecraft.command.argument.EntityArgumentType;
+import com.mojang.brigadier.arguments.IntegerArgumentType;
 import com.mojang.brigadier.arguments.StringArgumentType;
 
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -44,14 +68,38 @@ public class LosPitufosPlugin implements DedicatedServerModInitializer {
     public static final String MOD_ID = "cobblemon-lospitufos-v2";
     public static final String VERSION = "2.0.0";
 
+    private static final DateTimeFormatter LEDGER_TIME_FORMAT =
+        DateTimeFormatter.ofPattern("dd/MM HH:mm").withZone(ZoneId.systemDefault());
+
     private static LosPitufosPlugin instance;
     private static MinecraftServer server;
 
     // Core components
+    private PluginRuntime runtime;
     private Config config;
     private HttpClient httpClient;
     private ModLogger logger;
     private DiscordWebhookManager discordWebhook;
+    private RateLimiter rateLimiter;
+
+    // Per-player state for online players (opened on join, retired on disconnect)
+    private PlayerSessionRegistry sessionRegistry;
+
+
+    // Shared storage indexes
+    private PCSpeciesIndex pcSpeciesIndex;
+    private CobbleDollarsManager cobbleDollarsManager;
+
+    // Every CobbleDollars balance change goes through the ledger (journaled, then coalesced)
+    private CoalescingBalanceLedger coalescingLedger;
+    private JournalingBalanceLedger balanceLedger;
+    private EconomyJournal economyJournal;
+
+    // Shared main-thread delivery path (gacha, shop, market, admin sync, starters)
+    private DeliveryEngine deliveryEngine;
+
+    // Durable write-ahead log for backend mutations
+    private Outbox outbox;
 
     // Feature managers
     private VerificationManager verificationManager;
@@ -88,13 +136,31 @@ public class LosPitufosPlugin implements DedicatedServerModInitializer {
             return;
         }
 
+        // Background threads - one scheduler + shared workers, every subsystem gets a scope on them
+        runtime = new PluginRuntime(logger);
+
         // Initialize HTTP client
-        httpClient = new HttpClient(config.getWebApiUrl(), logger);
+        httpClient = new HttpClient(config.getWebApiUrl(), logger,
+            runtime.scope("http", 8), runtime.scope("connectivity", 1));
         logger.info("HTTP Client initialized: " + config.getWebApiUrl());
         
         // Initialize Discord webhook
         discordWebhook = new DiscordWebhookManager(config.getDiscordWebhookUrl(), logger);
 
+        // Shared command/poll rate limiter (idle buckets dropped on disconnect)
+        rateLimiter = new RateLimiter(logger, runtime.getTimerWheel());
+        rateLimiter.configure(config.getRateLimits());
+        ServerPlayConnectionEvents.DISCONNECT.register((handler, server1) -> {
+            if (handler.getPlayer() != null) {
+                rateLimiter.release(handler.getPlayer().getUuid());
+            }
+        });
+
+        // Player sessions - registered before any manager so its join handler runs first
+        sessionRegistry = new PlayerSessionRegistry(logger);
+        sessionRegistry.initialize();
+        new ActivityTracker(sessionRegistry, logger).initialize();
+
         // Register commands EARLY (before server starts)
         registerCommands();
 
@@ -138,7 +204,7 @@ public class LosPitufosPlugin implements DedicatedServerModInitializer {
             dispatcher.register(
                 CommandManager.literal("claimshop")
                     .executes(context -> {
-                        if (shopManager != null) {
+                        if (shopManager != null && rateLimiter.tryAcquire(context.getSource().getPlayer(), RateLimiter.Action.SHOP_CLAIM)) {
                             shopManager.handleClaimCommand(context.getSource().getPlayer());
                         }
                         return 1;
@@ -150,7 +216,7 @@ public class LosPitufosPlugin implements DedicatedServerModInitializer {
             dispatcher.register(
                 CommandManager.literal("claimmarket")
                     .executes(context -> {
-                        if (playerShopManager != null) {
+                        if (playerShopManager != null && rateLimiter.tryAcquire(context.getSource().getPlayer(), RateLimiter.Action.MARKET_CLAIM)) {
                             playerShopManager.handleClaimCommand(context.getSource().getPlayer());
                         }
                         return 1;
@@ -172,7 +238,7 @@ public class LosPitufosPlugin implements DedicatedServerModInitializer {
                 dispatcher.register(
                     CommandManager.literal("syncnow")
                         .executes(context -> {
-                            if (syncManager != null) {
+                            if (syncManager != null && rateLimiter.tryAcquire(context.getSource().getPlayer(), RateLimiter.Action.SYNC_NOW)) {
                                 syncManager.handleSyncCommand(context.getSource().getPlayer());
                             }
                             return 1;
@@ -186,6 +252,13 @@ public class LosPitufosPlugin implements DedicatedServerModInitializer {
                             .requires(source -> source.hasPermissionLevel(2)) // OP only
                             .executes(context -> {
                                 if (syncManager != null) {
+                                    // Server-wide bucket: one full resync per minute regardless of who asks
+                                    if (!rateLimiter.tryAcquire(RateLimiter.GLOBAL, RateLimiter.Action.RANKING_SYNC)) {
+                                        long seconds = (rateLimiter.getRetryAfterMs(RateLimiter.GLOBAL, RateLimiter.Action.RANKING_SYNC) + 999) / 1000;
+                                        context.getSource().sendFeedback(() -> net.minecraft.text.Text.literal(
+                                            "§cRanking sincronizado recientemente. Espera " + seconds + " segundos."), false);
+                                        return 0;
+                                    }
                                     syncManager.handleRankingSyncCommand(context.getSource());
                                 }
                                 return 1;
@@ -212,6 +285,50 @@ public class LosPitufosPlugin implements DedicatedServerModInitializer {
                 logger.info("✓ Admin commands registered");
             }
 
+            // Admin status: /lospitufos status (backend connectivity + queued work)
+            dispatcher.register(
+                CommandManager.literal("lospitufos")
+                    .then(CommandManager.literal("status")
+                        .requires(source -> source.hasPermissionLevel(2))
+                        .executes(context -> {
+                            ConnectivityMonitor connectivity = httpClient.getConnectivity();
+                            long ageSeconds = connectivity.getStateAgeMs() / 1000;
+                            String color = switch (connectivity.getState()) {
+                                case HEALTHY -> "§a";
+                                case DEGRADED -> "§e";
+                                case OFFLINE -> "§c";
+                            };
+                            context.getSource().sendFeedback(() -> ChatMessages.lines(
+                                "§6§lLos Pitufos - Estado",
+                                "§7Backend: " + color + connectivity.getState() + " §7(desde hace " + ageSeconds + "s)",
+                                connectivity.getState() == ConnectivityMonitor.State.HEALTHY
+                                    ? "§7Datos en caché: §aal día"
+                                    : "§7Datos en caché: §esin actualizar hace " + ageSeconds + "s",
+                                "§7Mutaciones en cola: §f" + (outbox != null ? outbox.getPendingCount() : 0)
+                            ), false);
+                            return 1;
+                        })
+                    )
+                    // /lospitufos ledger <player> [limit] - recent balance changes from the economy journal
+                    .then(CommandManager.literal("ledger")
+                        .requires(source -> source.hasPermissionLevel(2))
+                        .then(CommandManager.argument("player", StringArgumentType.word())
+                            .executes(context -> showLedger(context.getSource(),
+                                StringArgumentType.getString(context, "player"), 10))
+                            .then(CommandManager.argument("limit", IntegerArgumentType.integer(1, 100))
+                                .executes(context -> showLedger(context.getSource(),
+                                    StringArgumentType.getString(context, "player"),
+                                    IntegerArgumentType.getInteger(context, "limit")))
+                            )
+                        )
+                    )
+                    // /lospitufos runtime - background task scopes (queue depth, failures, run times)
+                    .then(CommandManager.literal("runtime")
+                        .requires(source -> source.hasPermissionLevel(2))
+                        .executes(context -> showRuntime(context.getSource()))
+                    )
+            );
+
             // Tournament commands: /torneo join|leave|info
             dispatcher.register(
                 CommandManager.literal("torneo")
@@ -451,69 +568,165 @@ public class LosPitufosPlugin implements DedicatedServerModInitializer {
         });
     }
 
+    /**
+     * Query the economy journal off-thread and answer on the main thread
+     */
+    private int showLedger(ServerCommandSource source, String playerName, int limit) {
+        if (economyJournal == null) {
+            source.sendError(Text.literal("§cEl diario de economía no está disponible"));
+            return 0;
+        }
+
+        economyJournal.query(playerName, limit).thenAccept(entries -> server.execute(() -> {
+            if (entries.isEmpty()) {
+                source.sendFeedback(() -> Text.literal("§7Sin movimientos registrados para §f" + playerName), false);
+                return;
+            }
+
+            List<String> lines = new ArrayList<>();
+            lines.add("§6§lDiario de economía - " + playerName + " §7(últimos " + entries.size() + ")");
+            for (EconomyJournal.Entry entry : entries) {
+                String amount = switch (entry.op) {
+                    case CREDIT -> "§a+" + entry.amount;
+                    case DEBIT -> "§c-" + entry.amount;
+                    case SET -> "§e=" + entry.amount;
+                };
+                lines.add("§8#" + entry.seq + " §7" + LEDGER_TIME_FORMAT.format(Instant.ofEpochMilli(entry.timestamp))
+                    + " " + amount + " CD §7" + entry.reason);
+            }
+            source.sendFeedback(() -> ChatMessages.lines(lines.toArray(new String[0])), false);
+        }));
+        return 1;
+    }
+
+    /**
+     * Per-scope counters of the plugin runtime
+     */
+    private int showRuntime(ServerCommandSource source) {
+        List<String> lines = new ArrayList<>();
+        lines.add("§6§lLos Pitufos - Tareas §7(" + runtime.getWorkerThreads() + "/" + runtime.getMaxWorkerThreads() + " hilos, "
+            + runtime.getTimerWheel().size() + " temporizadores)");
+        for (TaskScope.Stats stats : runtime.stats()) {
+            String queued = stats.queued > 0 ? "§e" + stats.queued : "§a0";
+            String failed = stats.failed > 0 ? "§c" + stats.failed : "§a0";
+            lines.add("§f" + stats.name + " §7activas " + stats.active + "/" + stats.quota
+                + " · cola " + queued + " §7· hechas " + stats.completed
+                + " · fallos " + failed + " §7· media " + stats.averageRunMicros() + "µs"
+                + " · máx " + (stats.maxRunNanos / 1_000_000) + "ms"
+                + (stats.skipped > 0 ? " · saltadas §e" + stats.skipped : ""));
+        }
+        source.sendFeedback(() -> ChatMessages.lines(lines.toArray(new String[0])), false);
+        return 1;
+    }
+
     private void onServerStarted(MinecraftServer minecraftServer) {
         server = minecraftServer;
         logger.info("Server started - Initializing feature modules...");
 
         try {
+            // Outbox first - replays mutations left over from the last run
+            outbox = new Outbox(httpClient, logger, runtime.scope("outbox", 1));
+            outbox.initialize();
+
+            // Caches left by the last clean shutdown - restored into each manager before it starts polling
+            WarmCacheSnapshot warmCache = WarmCacheSnapshot.load(logger);
+
+            // Shared species registry (dex/name lookups, category flags, types) - used by every module
+            int registered = SpeciesRegistry.build();
+            logger.info("✓ Species registry built (" + registered + " species)");
+
+            // Shared PC species index (used by fusion and admin sync)
+            pcSpeciesIndex = new PCSpeciesIndex(logger);
+            pcSpeciesIndex.initialize(server);
+
+            // Shared CobbleDollars balance cache (web sync, shop)
+            cobbleDollarsManager = new CobbleDollarsManager(logger, runtime.scope("cobbledollars", 1));
+            cobbleDollarsManager.initialize();
+
+            // Balance ledger (journaled, credits merged per tick, applied through the command adapter)
+            CommandBalanceLedger commandLedger = new CommandBalanceLedger(logger);
+            commandLedger.initialize(server);
+            coalescingLedger = new CoalescingBalanceLedger(commandLedger, logger);
+            coalescingLedger.initialize(server);
+            economyJournal = new EconomyJournal(logger, runtime.scope("economy-journal", 1));
+            economyJournal.initialize();
+            balanceLedger = new JournalingBalanceLedger(coalescingLedger, economyJournal);
+
+            // Single delivery engine - every Pokemon/item delivery goes through it
+            deliveryEngine = new DeliveryEngine(httpClient, logger, runtime.getTimerWheel(), runtime.scope("delivery", 1));
+            deliveryEngine.initialize(server);
+
             // Initialize feature managers
             if (config.isVerificationEnabled()) {
-                verificationManager = new VerificationManager(httpClient, logger);
+                verificationManager = new VerificationManager(httpClient, logger, sessionRegistry, runtime.getTimerWheel(),
+                    runtime.scope("verification", 1));
+                verificationManager.restoreWarmCache(warmCache);
                 verificationManager.initialize(server, config);
                 logger.info("✓ Verification system enabled");
             }
 
             if (config.isStarterManagementEnabled()) {
-                starterManager = new StarterManager(httpClient, logger);
+                starterManager = new StarterManager(httpClient, logger, deliveryEngine);
                 starterManager.initialize(server);
                 logger.info("✓ Starter management enabled");
             }
 
             if (config.isWebSyncEnabled()) {
-                syncManager = new WebSyncManager(httpClient, logger, config);
+                syncManager = new WebSyncManager(httpClient, logger, config, cobbleDollarsManager, runtime.scope("web-sync", 1));
                 syncManager.initialize(server);
                 logger.info("✓ Web sync enabled");
             }
 
             if (config.isLevelCapsEnabled()) {
-                levelCapManager = new LevelCapManager(httpClient, logger, config);
+                levelCapManager = new LevelCapManager(httpClient, logger, config, runtime.getTimerWheel(),
+                    runtime.scope("level-caps", 1));
                 levelCapManager.initialize(server);
                 logger.info("✓ Level caps enabled");
             }
 
-            shopManager = new ShopManager(httpClient, logger);
+            shopManager = new ShopManager(httpClient, logger, cobbleDollarsManager, deliveryEngine, balanceLedger,
+                runtime.scope("shop", 1));
             shopManager.initialize(server);
             logger.info("✓ Shop system enabled");
 
             // Initialize Player Shop (Marketplace) system
-            playerShopManager = new PlayerShopManager(httpClient, logger);
+            playerShopManager = new PlayerShopManager(httpClient, logger, deliveryEngine, balanceLedger,
+                runtime.scope("player-shop", 1));
             playerShopManager.initialize(server);
             logger.info("✓ Player Shop (Marketplace) system enabled");
 
             // Initialize tournament system
-            tournamentManager = new TournamentManager(httpClient, logger);
+            tournamentManager = new TournamentManager(httpClient, logger, outbox, runtime.getTimerWheel(),
+                runtime.scope("tournament", 2));
+            tournamentManager.restoreWarmCache(warmCache);
             tournamentManager.initialize(server);
-            battleListener = new BattleListener(tournamentManager, logger);
+            battleListener = new BattleListener(tournamentManager, logger, runtime.scope("battle-listener", 1));
             battleListener.initialize(server);
             logger.info("✓ Tournament system enabled");
 
             // Initialize economy system (rewards for captures, battles, etc.)
-            economyManager = new EconomyManager(httpClient, logger);
+            economyManager = new EconomyManager(httpClient, logger, outbox, balanceLedger, sessionRegistry,
+                runtime.getTimerWheel(), runtime.scope("economy-store", 1), runtime.scope("economy", 1));
+            economyManager.restoreWarmCache(warmCache);
             economyManager.initialize(server);
             logger.info("✓ Economy system enabled");
 
             // Initialize gacha system (Pokemon gacha rewards delivery)
-            gachaManager = new GachaManager(httpClient, logger);
+            gachaManager = new GachaManager(httpClient, logger, pcSpeciesIndex, rateLimiter, deliveryEngine, outbox, balanceLedger,
+                runtime.getTimerWheel(), runtime.scope("gacha", 1));
+            gachaManager.restoreWarmCache(warmCache);
             gachaManager.initialize(server);
             logger.info("✓ Gacha system enabled");
 
             // Initialize tutorías system (battle log capture for AI analysis)
-            tutoriasManager = new TutoriasManager(httpClient, logger);
+            tutoriasManager = new TutoriasManager(httpClient, logger,
+                runtime.scope("battle-log-spool", 1), runtime.scope("battle-log-upload", 1));
             tutoriasManager.initialize(server);
             logger.info("✓ Tutorías system enabled");
 
             // Initialize admin sync system (bidirectional Pokemon sync + in-game announcements)
-            adminSyncManager = new AdminSyncManager(httpClient, logger);
+            adminSyncManager = new AdminSyncManager(httpClient, logger, pcSpeciesIndex, deliveryEngine, outbox,
+                runtime.scope("admin-sync", 2));
             adminSyncManager.initialize(server);
             logger.info("✓ Admin sync system enabled");
 
@@ -530,6 +743,18 @@ public class LosPitufosPlugin implements DedicatedServerModInitializer {
     private void onServerStopping(MinecraftServer minecraftServer) {
         logger.info("Server stopping - Shutting down gracefully...");
 
+        // Snapshot caches before the managers clear them (level caps keep their own snapshot)
+        WarmCacheSnapshot warmCache = new WarmCacheSnapshot(logger);
+        if (verificationManager != null)
+            verificationManager.saveWarmCache(warmCache);
+        if (tournamentManager != null)
+            tournamentManager.saveWarmCache(warmCache);
+        if (economyManager != null)
+            economyManager.saveWarmCache(warmCache);
+        if (gachaManager != null)
+            gachaManager.saveWarmCache(warmCache);
+        warmCache.save();
+
         // Cleanup managers
         if (adminSyncManager != null)
             adminSyncManager.shutdown();
@@ -555,6 +780,26 @@ public class LosPitufosPlugin implements DedicatedServerModInitializer {
             starterManager.shutdown();
         if (verificationManager != null)
             verificationManager.shutdown();
+        if (deliveryEngine != null)
+            deliveryEngine.shutdown();
+        if (coalescingLedger != null)
+            coalescingLedger.shutdown();
+        if (economyJournal != null)
+            economyJournal.shutdown();
+        if (cobbleDollarsManager != null)
+            cobbleDollarsManager.shutdown();
+        if (pcSpeciesIndex != null)
+            pcSpeciesIndex.shutdown();
+        if (outbox != null)
+            outbox.shutdown();
+        if (sessionRegistry != null)
+            sessionRegistry.shutdown();
+
+        // Threads last: HTTP finishes in-flight requests, then the runtime stops everything left
+        if (httpClient != null)
+            httpClient.shutdown();
+        if (runtime != null)
+            runtime.shutdown();
 
         logger.info("✓ Shutdown complete");
     }
@@ -612,6 +857,18 @@ public class LosPitufosPlugin implements DedicatedServerModInitializer {
         return discordWebhook;
     }
     
+    public RateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+
+    public PlayerSessionRegistry getSessionRegistry() {
+        return sessionRegistry;
+    }
+
+    public PluginRuntime getRuntime() {
+        return runtime;
+    }
+    
     public EconomyManager getEconomyManager() {
         return economyManager;
     }
@@ -623,4 +880,28 @@ public class LosPitufosPlugin implements DedicatedServerModInitializer {
     public TutoriasManager getTutoriasManager() {
         return tutoriasManager;
     }
+    
+    public PCSpeciesIndex getPCSpeciesIndex() {
+        return pcSpeciesIndex;
+    }
+    
+    public CobbleDollarsManager getCobbleDollarsManager() {
+        return cobbleDollarsManager;
+    }
+    
+    public BalanceLedger getBalanceLedger() {
+        return balanceLedger;
+    }
+    
+    public EconomyJournal getEconomyJournal() {
+        return economyJournal;
+    }
+    
+    public DeliveryEngine getDeliveryEngine() {
+        return deliveryEngine;
+    }
+    
+    public Outbox getOutbox() {
+        return outbox;
+    }
 }
@@ -0,0 +1,131 @@
+package com.lospitufos.cobblemon.core;
+
+import com.lospitufos.cobblemon.cache.TimerWheel;
+import com.lospitufos.cobblemon.utils.ModLogger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Plugin Runtime - the plugin's only background threads
+ *
+ * Features:
+ * - One scheduling thread: every delayed/periodic task of every subsystem, plus the timer wheel tick
+ * - One shared worker pool (named daemon threads, idle ones retire) that runs the actual work
+ * - Subsystems get a TaskScope with a concurrency quota and counters instead of their own pool
+ * - The pool is sized to the sum of all quotas (grown as scopes register): every scope can always run
+ *   its full quota, so a scope stuck on slow HTTP never delays another scope's work
+ * - Threads are still only created on demand - a big quota total costs nothing while idle
+ * - Shut down last: subsystems stop their scopes first, then the threads go
+ */
+public final class PluginRuntime {
+
+    private static final long WORKER_KEEP_ALIVE_SECONDS = 60;
+    private static final long TIMER_TICK_MS = 1000;
+
+    private final ModLogger logger;
+    private final ScheduledThreadPoolExecutor scheduler;
+    private final ThreadPoolExecutor workers;
+    private final TimerWheel timerWheel;
+    private final Map<String, TaskScope> scopes = new ConcurrentHashMap<>();
+    private int quotaTotal = 0;                                        // Guarded by this
+
+    public PluginRuntime(ModLogger logger) {
+        this.logger = logger;
+
+        this.scheduler = new ScheduledThreadPoolExecutor(1, namedDaemon("LosPitufos-Scheduler"));
+        this.scheduler.setRemoveOnCancelPolicy(true); // Cancelled timers don't sit in the queue
+
+        this.workers = new ThreadPoolExecutor(1, 1,
+            WORKER_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), namedDaemon("LosPitufos-Worker"));
+        this.workers.allowCoreThreadTimeOut(true);
+
+        // The wheel only moves deadlines around - its tick runs on the scheduling thread
+        this.timerWheel = new TimerWheel("timers", TIMER_TICK_MS, logger);
+        this.scheduler.scheduleAtFixedRate(() -> timerWheel.advance(System.currentTimeMillis()),
+            TIMER_TICK_MS, TIMER_TICK_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * The subsystem's scope (created on first call; later calls return the same scope)
+     */
+    public TaskScope scope(String name, int quota) {
+        return scopes.computeIfAbsent(name, key -> {
+            TaskScope scope = new TaskScope(key, quota, scheduler, workers, logger);
+            reserve(scope.getQuota());
+            return scope;
+        });
+    }
+
+    /**
+     * Grow the pool by the new scope's quota (never shrinks - scopes live as long as the runtime)
+     */
+    private synchronized void reserve(int quota) {
+        quotaTotal += quota;
+        workers.setMaximumPoolSize(quotaTotal);
+        workers.setCorePoolSize(quotaTotal);
+    }
+
+    public TimerWheel getTimerWheel() {
+        return timerWheel;
+    }
+
+    /**
+     * Counters of every scope, by name
+     */
+    public List<TaskScope.Stats> stats() {
+        List<TaskScope.Stats> stats = new ArrayList<>();
+        for (TaskScope scope : scopes.values()) {
+            stats.add(scope.stats());
+        }
+        stats.sort((a, b) -> a.name.compareTo(b.name));
+        return stats;
+    }
+
+    public int getWorkerThreads() {
+        return workers.getPoolSize();
+    }
+
+    public synchronized int getMaxWorkerThreads() {
+        return quotaTotal;
+    }
+
+    public void shutdown() {
+        // Stragglers - scopes their owners didn't stop
+        for (TaskScope scope : scopes.values()) {
+            if (!scope.isShutdown()) {
+                scope.shutdown(0, TimeUnit.SECONDS);
+            }
+        }
+
+        timerWheel.shutdown();
+        scheduler.shutdownNow();
+
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(5, TimeUnit.SECONDS)) {
+                workers.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            workers.shutdownNow();
+        }
+        logger.info("Plugin runtime stopped");
+    }
+
+    private static ThreadFactory namedDaemon(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, prefix + "-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+}
@@ -0,0 +1,267 @@
+package com.lospitufos.cobblemon.core;
+
+import com.lospitufos.cobblemon.utils.ModLogger;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Task Scope - one subsystem's handle on the shared PluginRuntime
+ *
+ * Features:
+ * - Same calls the managers used on their own executors (execute, schedule, fixed rate/delay)
+ * - Quota: at most N of the scope's tasks run at once on the shared workers, the rest wait in FIFO order
+ *   (quota 1 = serial, like the single-thread executors it replaces)
+ * - Periodic tasks never pile up: a run is skipped while the previous one is still queued or running
+ * - Instrumentation: submitted/completed/failed/skipped counters, queue depth, run time (total + max)
+ * - shutdown() stops the scope's timers and lets queued work drain; the runtime owns the threads
+ */
+public final class TaskScope implements Executor {
+
+    private final String name;
+    private final int quota;
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService workers;
+    private final ModLogger logger;
+
+    private final Queue<Runnable> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger active = new AtomicInteger();
+    private final List<ScheduledFuture<?>> periodic = new CopyOnWriteArrayList<>();
+    private volatile boolean closed = false;
+
+    // Instrumentation
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+    private final AtomicLong totalRunNanos = new AtomicLong();
+    private final AtomicLong maxRunNanos = new AtomicLong();
+
+    TaskScope(String name, int quota, ScheduledExecutorService scheduler, ExecutorService workers, ModLogger logger) {
+        this.name = name;
+        this.quota = Math.max(1, quota);
+        this.scheduler = scheduler;
+        this.workers = workers;
+        this.logger = logger;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getQuota() {
+        return quota;
+    }
+
+    // ============================================
+    // SUBMISSION
+    // ============================================
+
+    /**
+     * Run the task on a shared worker, within the scope's quota
+     */
+    @Override
+    public void execute(Runnable task) {
+        if (closed) {
+            throw new RejectedExecutionException("Task scope " + name + " is shut down");
+        }
+        submitted.incrementAndGet();
+        queue.add(task);
+        drain();
+    }
+
+    /**
+     * Run the task once after the delay
+     */
+    public ScheduledFuture<?> schedule(Runnable task, long delay, TimeUnit unit) {
+        return scheduler.schedule(() -> dispatch(task), delay, unit);
+    }
+
+    /**
+     * Run the task every period (a run still in progress makes the next one skip)
+     */
+    public ScheduledFuture<?> scheduleAtFixedRate(Runnable task, long initialDelay, long period, TimeUnit unit) {
+        return track(scheduler.scheduleAtFixedRate(periodicDispatch(task), initialDelay, period, unit));
+    }
+
+    /**
+     * Run the task repeatedly, at least delay apart (a run still in progress makes the next one skip)
+     */
+    public ScheduledFuture<?> scheduleWithFixedDelay(Runnable task, long initialDelay, long delay, TimeUnit unit) {
+        return track(scheduler.scheduleWithFixedDelay(periodicDispatch(task), initialDelay, delay, unit));
+    }
+
+    private ScheduledFuture<?> track(ScheduledFuture<?> future) {
+        periodic.add(future);
+        if (closed) {
+            future.cancel(false);
+        }
+        return future;
+    }
+
+    private Runnable periodicDispatch(Runnable task) {
+        AtomicBoolean inFlight = new AtomicBoolean(false);
+        Runnable run = () -> {
+            try {
+                task.run();
+            } finally {
+                inFlight.set(false);
+            }
+        };
+        return () -> {
+            if (!inFlight.compareAndSet(false, true)) {
+                skipped.incrementAndGet();
+                return;
+            }
+            if (!dispatch(run)) {
+                inFlight.set(false);
+            }
+        };
+    }
+
+    /**
+     * Timer fired: hand the task to the workers unless the scope was shut down meanwhile
+     */
+    private boolean dispatch(Runnable task) {
+        if (closed) return false;
+        try {
+            execute(task);
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    // ============================================
+    // QUOTA
+    // ============================================
+
+    private void drain() {
+        while (!queue.isEmpty()) {
+            int running = active.get();
+            if (running >= quota) return;
+            if (!active.compareAndSet(running, running + 1)) continue;
+
+            Runnable task = queue.poll();
+            if (task == null) {
+                active.decrementAndGet();
+                continue;
+            }
+
+            try {
+                workers.execute(() -> run(task));
+            } catch (RejectedExecutionException e) {
+                // Runtime already stopped - nothing will run this
+                active.decrementAndGet();
+                queue.clear();
+                return;
+            }
+        }
+    }
+
+    private void run(Runnable task) {
+        long start = System.nanoTime();
+        try {
+            task.run();
+            completed.incrementAndGet();
+        } catch (Throwable t) {
+            failed.incrementAndGet();
+            logger.error("Task failed (" + name + "): " + t.getMessage());
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            totalRunNanos.addAndGet(elapsed);
+            maxRunNanos.accumulateAndGet(elapsed, Math::max);
+            active.decrementAndGet();
+            drain();
+        }
+    }
+
+    // ============================================
+    // LIFECYCLE
+    // ============================================
+
+    /**
+     * Stop the scope's timers and refuse new work, then wait up to the timeout for queued work to finish
+     */
+    public void shutdown(long timeout, TimeUnit unit) {
+        closed = true;
+        for (ScheduledFuture<?> future : periodic) {
+            future.cancel(false);
+        }
+        periodic.clear();
+
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while ((active.get() > 0 || !queue.isEmpty()) && System.nanoTime() < deadline) {
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        if (!queue.isEmpty()) {
+            logger.warn("Task scope " + name + " shut down with " + queue.size() + " queued tasks dropped");
+            queue.clear();
+        }
+    }
+
+    public boolean isShutdown() {
+        return closed;
+    }
+
+    // ============================================
+    // INSTRUMENTATION
+    // ============================================
+
+    public Stats stats() {
+        return new Stats(name, quota, active.get(), queue.size(), submitted.get(), completed.get(),
+            failed.get(), skipped.get(), totalRunNanos.get(), maxRunNanos.get());
+    }
+
+    /**
+     * Point-in-time counters of one scope
+     */
+    public static final class Stats {
+        public final String name;
+        public final int quota;
+        public final int active;
+        public final int queued;
+        public final long submitted;
+        public final long completed;
+        public final long failed;
+        public final long skipped;
+        public final long totalRunNanos;
+        public final long maxRunNanos;
+
+        Stats(String name, int quota, int active, int queued, long submitted, long completed,
+              long failed, long skipped, long totalRunNanos, long maxRunNanos) {
+            this.name = name;
+            this.quota = quota;
+            this.active = active;
+            this.queued = queued;
+            this.submitted = submitted;
+            this.completed = completed;
+            this.failed = failed;
+            this.skipped = skipped;
+            this.totalRunNanos = totalRunNanos;
+            this.maxRunNanos = maxRunNanos;
+        }
+
+        public long averageRunMicros() {
+            long runs = completed + failed;
+            return runs > 0 ? totalRunNanos / runs / 1000 : 0;
+        }
+    }
+}
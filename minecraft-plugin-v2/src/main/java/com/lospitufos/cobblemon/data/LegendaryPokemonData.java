@@ -11,6 +11,9 @@ import java.util.Set;
  * - Legendary Monuments
  * - AFP (Additional Forms Pack)
  * - Cobblemon Lore
+ *
+ * Estas listas son la fuente; las consultas por especie usan SpeciesRegistry (tabla por Pokédex).
+ * Las funciones por nombre se mantienen para llamadas que solo tienen el nombre.
  */
 public class LegendaryPokemonData {
     
@@ -230,58 +233,46 @@ public class LegendaryPokemonData {
     // FUNCIONES DE UTILIDAD
     // ============================================
     
-    /**
-     * Normaliza el nombre de especie para comparación
-     */
-    private static String normalize(String species) {
-        return species.toLowerCase()
-            .replace(" ", "")
-            .replace("-", "")
-            .replace("_", "")
-            .replace(":", "");
-    }
-    
     /**
      * Verifica si un Pokémon es legendario
      */
     public static boolean isLegendary(String species) {
-        return LEGENDARY_POKEMON.contains(normalize(species));
+        return (SpeciesRegistry.flags(species) & SpeciesRegistry.LEGENDARY) != 0;
     }
     
     /**
      * Verifica si un Pokémon es mítico
      */
     public static boolean isMythical(String species) {
-        return MYTHICAL_POKEMON.contains(normalize(species));
+        return (SpeciesRegistry.flags(species) & SpeciesRegistry.MYTHICAL) != 0;
     }
     
     /**
      * Verifica si un Pokémon es Ultra Bestia
      */
     public static boolean isUltraBeast(String species) {
-        return ULTRA_BEASTS.contains(normalize(species));
+        return (SpeciesRegistry.flags(species) & SpeciesRegistry.ULTRA_BEAST) != 0;
     }
     
     /**
      * Verifica si un Pokémon es Paradox
      */
     public static boolean isParadox(String species) {
-        return PARADOX_POKEMON.contains(normalize(species));
+        return (SpeciesRegistry.flags(species) & SpeciesRegistry.PARADOX) != 0;
     }
     
     /**
      * Verifica si un Pokémon es restringido (los más poderosos)
      */
     public static boolean isRestricted(String species) {
-        return RESTRICTED_POKEMON.contains(normalize(species));
+        return (SpeciesRegistry.flags(species) & SpeciesRegistry.RESTRICTED) != 0;
     }
     
     /**
      * Verifica si un Pokémon es Mega (por nombre)
      */
     public static boolean isMega(String species) {
-        String normalized = normalize(species);
-        return normalized.contains("mega") || normalized.endsWith("megax") || normalized.endsWith("megay");
+        return (SpeciesRegistry.flags(species) & SpeciesRegistry.MEGA) != 0;
     }
     
     /**
@@ -0,0 +1,272 @@
+package com.lospitufos.cobblemon.data;
+
+import com.cobblemon.mod.common.api.pokemon.Natures;
+import com.cobblemon.mod.common.api.pokemon.stats.Stat;
+import com.cobblemon.mod.common.api.pokemon.stats.Stats;
+import com.cobblemon.mod.common.pokemon.Gender;
+import com.cobblemon.mod.common.pokemon.Nature;
+import com.cobblemon.mod.common.pokemon.Pokemon;
+import com.cobblemon.mod.common.pokemon.Species;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import net.minecraft.text.Text;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pokémon Spec - a Pokémon to be created; the mod's single JSON -> Pokémon path (market, gacha, admin)
+ *
+ * Features:
+ * - Parsed and validated on any thread: species (Pokédex first, name as fallback), clamped level, IVs and EVs
+ * - Immutable once built: safe to cache and hand between threads
+ * - Species, nature and gender already resolved when built (natures cached by name)
+ * - The main thread only runs create(): species.create + applying the fields, no parsing or lookups
+ * - Invalid data throws IllegalArgumentException with the reason (used to reject the delivery)
+ */
+public final class PokemonSpec {
+
+    public static final int MIN_LEVEL = 1;
+    public static final int MAX_LEVEL = 100;
+    public static final int MAX_IV = 31;
+    public static final int MAX_EV = 252;
+
+    // Order of the IV/EV arrays
+    private static final Stat[] STATS = {
+        Stats.HP, Stats.ATTACK, Stats.DEFENCE, Stats.SPECIAL_ATTACK, Stats.SPECIAL_DEFENCE, Stats.SPEED
+    };
+    // Web JSON keys, in the same order
+    private static final String[] STAT_KEYS = { "hp", "attack", "defense", "spAttack", "spDefense", "speed" };
+    private static final int UNSET = -1;
+
+    // Natures by normalized name (Optional.empty = no such nature)
+    private static final Map<String, Optional<Nature>> NATURES = new ConcurrentHashMap<>();
+
+    private final Species species;
+    private final int level;
+    private final boolean shiny;
+    private final Gender gender;
+    private final Nature nature;
+    private final int[] ivs;
+    private final int[] evs;
+    private final String nickname;
+
+    private PokemonSpec(Builder builder) {
+        this.species = builder.species;
+        this.level = builder.level;
+        this.shiny = builder.shiny;
+        this.gender = builder.gender;
+        this.nature = builder.nature;
+        this.ivs = builder.ivs.clone();
+        this.evs = builder.evs.clone();
+        this.nickname = builder.nickname;
+    }
+
+    public static Builder builder(Species species) {
+        if (species == null) {
+            throw new IllegalArgumentException("Unknown species");
+        }
+        return new Builder(species);
+    }
+
+    // ============================================
+    // PARSING (any thread)
+    // ============================================
+
+    /**
+     * Species by Pokédex number and name (whichever exists) - fails with the reason if neither is found
+     */
+    public static Builder builder(int dex, String name) {
+        if (dex <= 0 && (name == null || name.isEmpty())) {
+            throw new IllegalArgumentException("No species provided");
+        }
+        Species species = SpeciesRegistry.resolve(dex, name);
+        if (species == null) {
+            throw new IllegalArgumentException("Unknown species: " + name + (dex > 0 ? " (ID: " + dex + ")" : ""));
+        }
+        return new Builder(species);
+    }
+
+    /**
+     * Web format (market and admin): speciesId, species, level, shiny, gender, nature, ivs, evs, nickname
+     */
+    public static PokemonSpec fromJson(JsonObject data, int defaultLevel) {
+        if (data == null) {
+            throw new IllegalArgumentException("No pokemon data provided");
+        }
+
+        int dex = intField(data, "speciesId", 0);
+        String name = stringField(data, "species");
+        Builder builder = builder(dex, name)
+            .level(intField(data, "level", defaultLevel))
+            .shiny(data.has("shiny") && !data.get("shiny").isJsonNull() && data.get("shiny").getAsBoolean())
+            .gender(stringField(data, "gender"))
+            .nature(stringField(data, "nature"))
+            .nickname(stringField(data, "nickname"));
+
+        JsonObject ivs = objectField(data, "ivs");
+        JsonObject evs = objectField(data, "evs");
+        for (int i = 0; i < STATS.length; i++) {
+            if (ivs != null && ivs.has(STAT_KEYS[i])) builder.iv(STATS[i], ivs.get(STAT_KEYS[i]).getAsInt());
+            if (evs != null && evs.has(STAT_KEYS[i])) builder.ev(STATS[i], evs.get(STAT_KEYS[i]).getAsInt());
+        }
+        return builder.build();
+    }
+
+    private static int intField(JsonObject data, String key, int fallback) {
+        JsonElement value = data.get(key);
+        if (value == null || value.isJsonNull()) return fallback;
+        try {
+            return value.getAsInt();
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid " + key + ": " + value);
+        }
+    }
+
+    private static String stringField(JsonObject data, String key) {
+        JsonElement value = data.get(key);
+        return value == null || value.isJsonNull() ? null : value.getAsString();
+    }
+
+    private static JsonObject objectField(JsonObject data, String key) {
+        JsonElement value = data.get(key);
+        return value != null && value.isJsonObject() ? value.getAsJsonObject() : null;
+    }
+
+    /**
+     * Nature by name ("Adamant", "cobblemon:adamant") - null if there is none
+     */
+    static Nature resolveNature(String name) {
+        if (name == null || name.isBlank()) return null;
+        String key = name.trim().toLowerCase(Locale.ROOT);
+        return NATURES.computeIfAbsent(key, k -> Optional.ofNullable(Natures.INSTANCE.getNature(k))).orElse(null);
+    }
+
+    // ============================================
+    // CREATION (main thread)
+    // ============================================
+
+    /**
+     * Create the Pokémon - call on the main thread (the DeliveryEngine does)
+     */
+    public Pokemon create() {
+        Pokemon pokemon = species.create(level);
+        if (shiny) {
+            pokemon.setShiny(true);
+        }
+        if (gender != null) {
+            pokemon.setGender(gender);
+        }
+        if (nature != null) {
+            pokemon.setNature(nature);
+        }
+        for (int i = 0; i < STATS.length; i++) {
+            if (ivs[i] != UNSET) pokemon.getIvs().set(STATS[i], ivs[i]);
+            if (evs[i] != UNSET) pokemon.getEvs().set(STATS[i], evs[i]);
+        }
+        if (nickname != null) {
+            pokemon.setNickname(Text.literal(nickname));
+        }
+        return pokemon;
+    }
+
+    public Species getSpecies() {
+        return species;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    public boolean isShiny() {
+        return shiny;
+    }
+
+    @Override
+    public String toString() {
+        return "PokemonSpec[" + species.getName() + " Lv." + level + (shiny ? " shiny" : "") + "]";
+    }
+
+    // ============================================
+    // BUILDER
+    // ============================================
+
+    /**
+     * Out-of-range values are clamped; unknown gender/nature are ignored (the random ones stay)
+     */
+    public static final class Builder {
+        private final Species species;
+        private int level = MIN_LEVEL;
+        private boolean shiny;
+        private Gender gender;
+        private Nature nature;
+        private final int[] ivs = new int[STATS.length];
+        private final int[] evs = new int[STATS.length];
+        private String nickname;
+
+        private Builder(Species species) {
+            this.species = species;
+            Arrays.fill(ivs, UNSET);
+            Arrays.fill(evs, UNSET);
+        }
+
+        public Builder level(int level) {
+            this.level = Math.max(MIN_LEVEL, Math.min(MAX_LEVEL, level));
+            return this;
+        }
+
+        public Builder shiny(boolean shiny) {
+            this.shiny = shiny;
+            return this;
+        }
+
+        public Builder gender(String gender) {
+            if (gender == null || gender.isBlank()) return this;
+            try {
+                this.gender = Gender.valueOf(gender.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                // Keep the default gender
+            }
+            return this;
+        }
+
+        public Builder nature(String nature) {
+            Nature resolved = resolveNature(nature);
+            if (resolved != null) {
+                this.nature = resolved;
+            }
+            return this;
+        }
+
+        public Builder iv(Stat stat, int value) {
+            int index = indexOf(stat);
+            if (index >= 0) ivs[index] = Math.max(0, Math.min(MAX_IV, value));
+            return this;
+        }
+
+        public Builder ev(Stat stat, int value) {
+            int index = indexOf(stat);
+            if (index >= 0) evs[index] = Math.max(0, Math.min(MAX_EV, value));
+            return this;
+        }
+
+        public Builder nickname(String nickname) {
+            this.nickname = nickname == null || nickname.isEmpty() ? null : nickname;
+            return this;
+        }
+
+        public PokemonSpec build() {
+            return new PokemonSpec(this);
+        }
+
+        private static int indexOf(Stat stat) {
+            for (int i = 0; i < STATS.length; i++) {
+                if (STATS[i] == stat) return i;
+            }
+            return -1;
+        }
+    }
+}
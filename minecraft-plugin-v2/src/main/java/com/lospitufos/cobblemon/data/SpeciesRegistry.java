@@ -0,0 +1,280 @@
+package com.lospitufos.cobblemon.data;
+
+import com.cobblemon.mod.common.api.pokemon.PokemonSpecies;
+import com.cobblemon.mod.common.pokemon.Species;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Species Registry - the mod's single source of species metadata
+ *
+ * Features:
+ * - Built once at server start from Cobblemon's species registry
+ * - Pokédex number -> Species and normalized name -> Species (gacha, shop, admin and starter lookups)
+ * - One category bitmask per Pokédex number: checking a species is an array read, no strings created
+ * - Normalized name (interned) and types (interned, lowercase) per species
+ * - Species that don't fit the table (repeated or 0 dex number in addons) go to a separate identity map
+ * - Categories come from our own lists (LegendaryPokemonData), normalized the same way as lookups
+ * - Species registered after the build are resolved through Cobblemon's registry
+ */
+public final class SpeciesRegistry {
+
+    public static final int LEGENDARY = 1;
+    public static final int MYTHICAL = 1 << 1;
+    public static final int ULTRA_BEAST = 1 << 2;
+    public static final int PARADOX = 1 << 3;
+    public static final int RESTRICTED = 1 << 4;
+    public static final int MEGA = 1 << 5;
+
+    /** Categories that count as "legendary" for rewards and bonuses */
+    public static final int LEGENDARY_LIKE = LEGENDARY | MYTHICAL | ULTRA_BEAST;
+
+    private static volatile Table table;
+
+    private static final List<String> NO_TYPES = List.of();
+
+    private SpeciesRegistry() {}
+
+    private static final class Table {
+        final byte[] flagsByDex;
+        final Species[] speciesByDex;
+        final String[] keyByDex;
+        final Map<Species, Integer> overflowFlags = new IdentityHashMap<>();
+        final Map<Species, String> overflowKeys = new IdentityHashMap<>();
+        final Map<String, Species> byKey = new HashMap<>();
+        final Map<Species, List<String>> types = new IdentityHashMap<>();
+
+        Table(int maxDex) {
+            this.flagsByDex = new byte[maxDex + 1];
+            this.speciesByDex = new Species[maxDex + 1];
+            this.keyByDex = new String[maxDex + 1];
+        }
+    }
+
+    // ============================================
+    // BUILD
+    // ============================================
+
+    /**
+     * (Re)build the table from the species registry. Returns how many species were classified
+     */
+    public static int build() {
+        Collection<Species> all = PokemonSpecies.INSTANCE.getSpecies();
+
+        int maxDex = 0;
+        for (Species species : all) {
+            maxDex = Math.max(maxDex, species.getNationalPokedexNumber());
+        }
+
+        Table built = new Table(maxDex);
+        for (Species species : all) {
+            String key = normalize(species.getName()).intern();
+            int flags = computeFlags(key);
+            int dex = species.getNationalPokedexNumber();
+
+            built.byKey.putIfAbsent(key, species);
+            List<String> typeNames = new ArrayList<>(2);
+            species.getTypes().forEach(type -> typeNames.add(type.getName().toLowerCase(Locale.ROOT).intern()));
+            built.types.put(species, List.copyOf(typeNames));
+
+            if (dex > 0 && built.speciesByDex[dex] == null) {
+                built.speciesByDex[dex] = species;
+                built.flagsByDex[dex] = (byte) flags;
+                built.keyByDex[dex] = key;
+            } else {
+                built.overflowFlags.put(species, flags);
+                built.overflowKeys.put(species, key);
+            }
+        }
+
+        table = built;
+        return all.size();
+    }
+
+    private static Table table() {
+        Table current = table;
+        if (current == null) {
+            build();
+            current = table;
+        }
+        return current;
+    }
+
+    // ============================================
+    // LOOKUPS
+    // ============================================
+
+    /**
+     * Species by Pokédex number (null if there is none)
+     */
+    public static Species byDex(int dex) {
+        Table t = table();
+        if (dex > 0 && dex < t.speciesByDex.length && t.speciesByDex[dex] != null) {
+            return t.speciesByDex[dex];
+        }
+        return dex > 0 ? PokemonSpecies.INSTANCE.getByPokedexNumber(dex, "") : null;
+    }
+
+    /**
+     * Species by name, ignoring case, spaces, '-', '_' and ':' ("Ho-Oh", "ho_oh", "hooh") - null if there is none
+     */
+    public static Species byName(String name) {
+        if (name == null || name.isEmpty()) return null;
+        Species species = table().byKey.get(normalize(name));
+        return species != null ? species : PokemonSpecies.INSTANCE.getByName(name.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Pokédex number first, name as fallback (backend data carries both)
+     */
+    public static Species resolve(int dex, String name) {
+        Species species = byDex(dex);
+        return species != null ? species : byName(name);
+    }
+
+    /**
+     * The species' types in lowercase ("fire", "flying"), immutable list
+     */
+    public static List<String> types(Species species) {
+        if (species == null) return NO_TYPES;
+        List<String> cached = table().types.get(species);
+        if (cached != null) return cached;
+
+        List<String> typeNames = new ArrayList<>(2);
+        species.getTypes().forEach(type -> typeNames.add(type.getName().toLowerCase(Locale.ROOT)));
+        return typeNames;
+    }
+
+    // ============================================
+    // CATEGORIES BY SPECIES
+    // ============================================
+
+    /**
+     * Category bitmask of a species (allocation-free for registered species)
+     */
+    public static int flags(Species species) {
+        if (species == null) return 0;
+        Table t = table();
+        int dex = species.getNationalPokedexNumber();
+        if (dex > 0 && dex < t.speciesByDex.length && t.speciesByDex[dex] == species) {
+            return t.flagsByDex[dex];
+        }
+        Integer overflow = t.overflowFlags.get(species);
+        if (overflow != null) return overflow;
+
+        // Registered after the table was built
+        return computeFlags(normalize(species.getName()));
+    }
+
+    /**
+     * Category bitmask by Pokédex number (0 if there is none)
+     */
+    public static int flags(int dex) {
+        Table t = table();
+        return dex > 0 && dex < t.flagsByDex.length ? t.flagsByDex[dex] : 0;
+    }
+
+    /**
+     * Category bitmask by name (normalizes the name - prefer the Species overload when you have one)
+     */
+    public static int flags(String species) {
+        return species == null ? 0 : computeFlags(normalize(species));
+    }
+
+    public static boolean has(Species species, int flag) {
+        return (flags(species) & flag) != 0;
+    }
+
+    /**
+     * Legendary, mythical or ultra beast (capture and synergy bonuses)
+     */
+    public static boolean isLegendary(Species species) {
+        return has(species, LEGENDARY_LIKE);
+    }
+
+    /**
+     * True if the species owns its table slot (Pokédex number lookups are valid for it)
+     */
+    public static boolean isIndexed(Species species) {
+        Table t = table();
+        int dex = species.getNationalPokedexNumber();
+        return dex > 0 && dex < t.speciesByDex.length && t.speciesByDex[dex] == species;
+    }
+
+    /**
+     * Highest Pokédex number in the table
+     */
+    public static int maxDex() {
+        return table().speciesByDex.length - 1;
+    }
+
+    /**
+     * Visit every classified species (in the table and outside it)
+     */
+    public static void forEachSpecies(Consumer<Species> action) {
+        Table t = table();
+        for (Species species : t.speciesByDex) {
+            if (species != null) action.accept(species);
+        }
+        t.overflowFlags.keySet().forEach(action);
+    }
+
+    /**
+     * Normalized species name (precomputed and interned for registered species)
+     */
+    public static String key(Species species) {
+        Table t = table();
+        int dex = species.getNationalPokedexNumber();
+        if (dex > 0 && dex < t.speciesByDex.length && t.speciesByDex[dex] == species) {
+            return t.keyByDex[dex];
+        }
+        String overflow = t.overflowKeys.get(species);
+        return overflow != null ? overflow : normalize(species.getName());
+    }
+
+    /**
+     * Normalize a species name for comparison ("Ho-Oh", "Type: Null" -> "hooh", "typenull").
+     * Same rules as the old LegendaryPokemonData matching: lowercase, drop spaces, '-', '_' and ':'. Other
+     * punctuation is kept, so "Mr. Mime" stays "mr.mime" and falls back to Cobblemon's own name lookup
+     */
+    public static String normalize(String species) {
+        StringBuilder sb = new StringBuilder(species.length());
+        for (int i = 0; i < species.length(); i++) {
+            char c = species.charAt(i);
+            if (c == ' ' || c == '-' || c == '_' || c == ':') continue;
+            sb.append(Character.toLowerCase(c));
+        }
+        return sb.toString();
+    }
+
+    // ============================================
+    // CATEGORIES
+    // ============================================
+
+    private static final Set<String> LEGENDARY_KEYS = normalizeAll(LegendaryPokemonData.LEGENDARY_POKEMON);
+    private static final Set<String> MYTHICAL_KEYS = normalizeAll(LegendaryPokemonData.MYTHICAL_POKEMON);
+    private static final Set<String> ULTRA_BEAST_KEYS = normalizeAll(LegendaryPokemonData.ULTRA_BEASTS);
+    private static final Set<String> PARADOX_KEYS = normalizeAll(LegendaryPokemonData.PARADOX_POKEMON);
+    private static final Set<String> RESTRICTED_KEYS = normalizeAll(LegendaryPokemonData.RESTRICTED_POKEMON);
+
+    private static Set<String> normalizeAll(Set<String> names) {
+        Set<String> keys = new HashSet<>();
+        for (String name : names) {
+            keys.add(normalize(name));
+        }
+        return keys;
+    }
+
+    private static int computeFlags(String key) {
+        int flags = 0;
+        if (LEGENDARY_KEYS.contains(key)) flags |= LEGENDARY;
+        if (MYTHICAL_KEYS.contains(key)) flags |= MYTHICAL;
+        if (ULTRA_BEAST_KEYS.contains(key)) flags |= ULTRA_BEAST;
+        if (PARADOX_KEYS.contains(key)) flags |= PARADOX;
+        if (RESTRICTED_KEYS.contains(key)) flags |= RESTRICTED;
+        // Plain substring match, as before - this also flags Meganium and Yanmega
+        if (key.contains("mega")) flags |= MEGA;
+        return flags;
+    }
+}
@@ -0,0 +1,825 @@
+package com.lospitufos.cobblemon.delivery;
+
+import com.cobblemon.mod.common.Cobblemon;
+import com.cobblemon.mod.common.api.storage.party.PlayerPartyStore;
+import com.cobblemon.mod.common.api.storage.pc.PCBox;
+import com.cobblemon.mod.common.api.storage.pc.PCStore;
+import com.cobblemon.mod.common.pokemon.Pokemon;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.reflect.TypeToken;
+import com.lospitufos.cobblemon.cache.TimerWheel;
+import com.lospitufos.cobblemon.core.TaskScope;
+import com.lospitufos.cobblemon.utils.ConnectivityMonitor;
+import com.lospitufos.cobblemon.utils.HttpClient;
+import com.lospitufos.cobblemon.utils.ModLogger;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.minecraft.entity.player.PlayerInventory;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.network.ServerPlayerEntity;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Delivery Engine - the single main-thread path for Pokemon and item deliveries
+ *
+ * Features:
+ * - Gacha, shop, market, admin sync and starters all submit DeliveryRequests
+ * - Capacity planned up front (party, PC, inventory): a request is placed whole or not at all
+ * - Drained on END_SERVER_TICK within a small per-tick time budget
+ * - Persistent idempotency record per delivery ID - a re-listed delivery is never placed twice
+ *   (journaled before anything is placed, fsynced once per tick batch on the IO scope before its
+ *   confirmations go out; confirmed ones moved to a Bloom-fronted IdempotencyStore)
+ * - A placement that throws halfway is rolled back (Pokemon removed, record voided) and deferred
+ * - Backend confirmations collected per tick batch and sent off-thread; only unsent ones are retried,
+ *   one the backend never saw land comes back with the next re-listing
+ */
+public class DeliveryEngine {
+
+    private static final String RECORD_DIR = "config/cobblemon-lospitufos-v2";
+    private static final String RECORD_FILE = "deliveries.json";
+    private static final String JOURNAL_FILE = "deliveries.log";
+    private static final Gson GSON = new GsonBuilder().create();
+    private static final Type RECORD_MAP_TYPE = new TypeToken<Map<String, DeliveryRecord>>() {}.getType();
+
+    private static final long TICK_BUDGET_NANOS = 2_000_000L;           // 2ms of each 50ms tick
+    private static final int MAX_REQUESTS_PER_TICK = 16;
+    private static final int RECORD_RETENTION_DAYS = 7;
+    private static final int STORE_EXPIRY_MINUTES = 60;
+    private static final int ACK_RETRY_SECONDS = 30;
+    private static final int MAX_REJECT_ATTEMPTS = 10;                 // Rejects are informational - give up eventually
+    private static final int PARTY_SIZE = 6;
+    private static final int SLOTS_PER_BOX = 30;
+
+    private final HttpClient httpClient;
+    private final ModLogger logger;
+    private final Queue<DeliveryRequest> queue = new ConcurrentLinkedQueue<>();
+    private final Set<String> queued = ConcurrentHashMap.newKeySet();
+    private final Map<String, DeliveryRecord> records = new ConcurrentHashMap<>();   // Not yet in the store
+    private final IdempotencyStore store;
+    private final List<Ack> batchAcks = new ArrayList<>();             // Main thread only
+    private final Queue<Ack> retryAcks = new ConcurrentLinkedQueue<>();
+    private final Set<String> acksInFlight = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean recordsDirty = new AtomicBoolean(false);
+    private final AtomicBoolean journalUnsynced = new AtomicBoolean(false);
+    private final Object journalLock = new Object();
+    private volatile FileChannel journal;                               // Appended on the main thread, truncated by saves
+    private final TaskScope io;                                        // Quota 1: serial saves and ack sends
+    private MinecraftServer server;
+
+    public DeliveryEngine(HttpClient httpClient, ModLogger logger, TimerWheel timers, TaskScope io) {
+        this.httpClient = httpClient;
+        this.logger = logger;
+        this.io = io;
+        this.store = new IdempotencyStore(logger, RECORD_RETENTION_DAYS, timers);
+    }
+
+    public void initialize(MinecraftServer server) {
+        this.server = server;
+
+        store.initialize();
+        loadRecords();
+        openJournal();
+
+        // Anything placed but never acknowledged before the last shutdown goes out again
+        for (Map.Entry<String, DeliveryRecord> entry : records.entrySet()) {
+            if (!entry.getValue().acked && entry.getValue().ackPath != null) {
+                retryAcks.add(Ack.forRecord(entry.getKey(), entry.getValue()));
+            }
+        }
+
+        ServerTickEvents.END_SERVER_TICK.register(server1 -> drain());
+
+        io.scheduleAtFixedRate(this::retryPendingAcks, ACK_RETRY_SECONDS, ACK_RETRY_SECONDS, TimeUnit.SECONDS);
+        io.scheduleAtFixedRate(store::expire, STORE_EXPIRY_MINUTES, STORE_EXPIRY_MINUTES, TimeUnit.MINUTES);
+
+        // Confirmations held back while the backend was down go out as soon as it answers again
+        httpClient.getConnectivity().addListener((previous, current) -> {
+            if (current == ConnectivityMonitor.State.HEALTHY) {
+                io.execute(this::retryPendingAcks);
+            }
+        });
+
+        logger.info("✓ Delivery engine initialized (" + store.getRetainedCount() + " confirmed deliveries, "
+            + retryAcks.size() + " unconfirmed)");
+    }
+
+    // ============================================
+    // SUBMISSION (any thread)
+    // ============================================
+
+    /**
+     * Queue a delivery. Returns false if it was already delivered or is already queued.
+     * Never reads disk: an ID the store may hold but memory doesn't is confirmed on the IO scope,
+     * and if it was delivered after all the listener gets onAlreadyDelivered instead.
+     */
+    public boolean submit(DeliveryRequest request) {
+        if (request == null) return false;
+
+        DeliveryRecord record = findRecord(request.id);
+        if (record != null) {
+            skipDelivered(request.id, record);
+            return false;
+        }
+
+        if (!queued.add(request.id)) return false;
+
+        if (!store.mightContain(request.id)) {
+            queue.add(request);
+            return true;
+        }
+
+        // Filter hit outside the recent cache - confirm against the day files off the tick thread
+        try {
+            io.execute(() -> confirmNotDelivered(request));
+        } catch (RejectedExecutionException e) {
+            queued.remove(request.id);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * IO scope: a request whose ID hit the store's filter is queued only if the day files don't hold it
+     */
+    private void confirmNotDelivered(DeliveryRequest request) {
+        DeliveryRecord stored = store.find(request.id);
+        if (stored == null) {
+            queue.add(request);
+            return;
+        }
+
+        queued.remove(request.id);
+        skipDelivered(request.id, stored);
+        server.execute(() -> {
+            try {
+                request.listener.onAlreadyDelivered(server.getPlayerManager().getPlayer(request.playerUuid));
+            } catch (Exception e) {
+                logger.error("Error in delivery listener: " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Already placed - the backend is still listing it, so our ack never landed
+     */
+    private void skipDelivered(String deliveryId, DeliveryRecord record) {
+        if (record.ackPath != null) {
+            retryAcks.add(Ack.forRecord(deliveryId, record));
+        }
+        logger.debug("Delivery " + deliveryId + " already completed, skipping");
+    }
+
+    /**
+     * May read the store's day files - IO threads only
+     */
+    public boolean isDelivered(String deliveryId) {
+        return findRecord(deliveryId) != null || store.find(deliveryId) != null;
+    }
+
+    /**
+     * Memory only (never blocks): records not yet in the store, then the store's recent cache
+     */
+    private DeliveryRecord findRecord(String deliveryId) {
+        DeliveryRecord record = records.get(deliveryId);
+        return record != null ? record : store.findRecent(deliveryId);
+    }
+
+    public int getQueuedCount() {
+        return queue.size();
+    }
+
+    // ============================================
+    // MAIN THREAD DRAIN
+    // ============================================
+
+    private void drain() {
+        if (queue.isEmpty()) return;
+
+        long deadline = System.nanoTime() + TICK_BUDGET_NANOS;
+        int processed = 0;
+
+        // Always make progress on at least one request, then stop at the budget
+        while (processed < MAX_REQUESTS_PER_TICK && (processed == 0 || System.nanoTime() < deadline)) {
+            DeliveryRequest request = queue.poll();
+            if (request == null) break;
+            process(request);
+            processed++;
+        }
+
+        flushBatch();
+    }
+
+    private void process(DeliveryRequest request) {
+        ServerPlayerEntity player = server.getPlayerManager().getPlayer(request.playerUuid);
+        try {
+            if (player == null || player.isDisconnected()) {
+                defer(request, null, "Player offline");
+                return;
+            }
+
+            if (request.requirement != null && !request.requirement.test(player)) {
+                fail(request, player, request.requirementReason);
+                return;
+            }
+
+            // Materialize everything before touching storage - bad data fails the whole request
+            List<Pokemon> pokemon = new ArrayList<>(request.pokemon.size());
+            List<ItemStack> items = new ArrayList<>(request.items.size());
+            try {
+                for (var factory : request.pokemon) {
+                    Pokemon created = factory.get();
+                    if (created == null) {
+                        fail(request, player, "Could not create Pokemon");
+                        return;
+                    }
+                    pokemon.add(created);
+                }
+                for (var factory : request.items) {
+                    ItemStack created = factory.get();
+                    if (created == null || created.isEmpty()) {
+                        fail(request, player, "Could not create item");
+                        return;
+                    }
+                    items.add(created);
+                }
+            } catch (Exception e) {
+                fail(request, player, e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+                return;
+            }
+
+            // Capacity plan
+            PlayerPartyStore party = Cobblemon.INSTANCE.getStorage().getParty(player);
+            int partyFree = countFreePartySlots(party);
+            int toParty = Math.min(partyFree, pokemon.size());
+
+            if (request.partyOnly && pokemon.size() > partyFree) {
+                defer(request, player, "Party full");
+                return;
+            }
+
+            PCStore pc = null;
+            if (pokemon.size() > toParty) {
+                pc = Cobblemon.INSTANCE.getStorage().getPC(player);
+                if (pokemon.size() - toParty > countFreePcSlots(pc)) {
+                    defer(request, player, "Party and PC full");
+                    return;
+                }
+            }
+
+            if (!request.dropOverflow && !fitsInventory(player.getInventory(), items)) {
+                defer(request, player, "Inventory full");
+                return;
+            }
+
+            // Commit - the record is in the journal before anything is placed, so a crash can't place it twice
+            // (a process crash keeps the written line; the batch fsync covers power loss before any ack is sent)
+            DeliveryRecord record = new DeliveryRecord(request, System.currentTimeMillis());
+            try {
+                commitRecord(request.id, record);
+            } catch (IOException e) {
+                logger.error("Delivery " + request.id + ": could not persist record: " + e.getMessage());
+                defer(request, player, "Could not persist delivery record");
+                return;
+            }
+
+            DeliveryRequest.Receipt receipt = new DeliveryRequest.Receipt();
+            try {
+                for (int i = 0; i < pokemon.size(); i++) {
+                    Pokemon p = pokemon.get(i);
+                    if (i < toParty && party.add(p)) {
+                        receipt.toParty++;
+                    } else {
+                        if (pc == null) pc = Cobblemon.INSTANCE.getStorage().getPC(player);
+                        if (!pc.add(p)) {
+                            throw new IllegalStateException("could not place " + p.getSpecies().getName() + " despite planned capacity");
+                        }
+                        receipt.toPc++;
+                    }
+                    receipt.pokemon.add(p);
+                }
+            } catch (Exception e) {
+                // Only Pokemon are placed so far - take them back so the whole request can be retried
+                rollback(request.id, player, pokemon, party);
+                throw e;
+            }
+
+            // Last step that may still abort: a side effect that ran is never rolled back or repeated
+            boolean sideEffectDone;
+            try {
+                sideEffectDone = request.beforeCommit == null || request.beforeCommit.getAsBoolean();
+            } catch (Exception e) {
+                sideEffectDone = false;
+            }
+            if (!sideEffectDone) {
+                rollback(request.id, player, pokemon, party);
+                defer(request, player, "Pre-delivery step failed");
+                return;
+            }
+
+            // Items can't be taken back once merged into stacks, so from here on nothing aborts:
+            // whatever doesn't go into the inventory is dropped at the player's feet
+            for (ItemStack stack : items) {
+                try {
+                    player.getInventory().insertStack(stack);
+                } catch (Exception e) {
+                    logger.error("Delivery " + request.id + ": inventory insert failed, dropping item: " + e.getMessage());
+                }
+                if (stack.isEmpty()) {
+                    receipt.itemsInserted++;
+                } else {
+                    player.dropItem(stack, false);
+                    receipt.itemsDropped++;
+                }
+            }
+
+            if (record.ackPath != null) {
+                batchAcks.add(Ack.forRecord(request.id, record));
+            }
+            queued.remove(request.id);
+            request.listener.onDelivered(player, receipt);
+
+        } catch (Exception e) {
+            logger.error("Error processing delivery " + request.id + ": " + e.getMessage());
+            if (queued.contains(request.id)) {
+                defer(request, player, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Undo a half-placed request: remove whatever Pokemon made it into storage, then void the record
+     */
+    private void rollback(String deliveryId, ServerPlayerEntity player, List<Pokemon> pokemon, PlayerPartyStore party) {
+        PCStore pc = Cobblemon.INSTANCE.getStorage().getPC(player);
+        for (Pokemon p : pokemon) {
+            try {
+                if (!party.remove(p)) {
+                    pc.remove(p);
+                }
+            } catch (Exception e) {
+                logger.error("Delivery " + deliveryId + ": could not roll back " + p.getSpecies().getName() + ": " + e.getMessage());
+            }
+        }
+        voidRecord(deliveryId);
+    }
+
+    private void defer(DeliveryRequest request, ServerPlayerEntity player, String reason) {
+        queued.remove(request.id);
+        logger.debug("Delivery " + request.id + " deferred: " + reason);
+        try {
+            request.listener.onDeferred(player, reason);
+        } catch (Exception e) {
+            logger.error("Error in delivery listener: " + e.getMessage());
+        }
+    }
+
+    private void fail(DeliveryRequest request, ServerPlayerEntity player, String reason) {
+        queued.remove(request.id);
+        logger.warn("Delivery " + request.id + " failed: " + reason);
+        if (request.rejectPath != null && request.rejectPayload != null) {
+            batchAcks.add(Ack.forReject(request.id, request.rejectPath, request.rejectPayload.apply(reason)));
+        }
+        try {
+            request.listener.onFailed(player, reason);
+        } catch (Exception e) {
+            logger.error("Error in delivery listener: " + e.getMessage());
+        }
+    }
+
+    // ============================================
+    // CAPACITY
+    // ============================================
+
+    private int countFreePartySlots(PlayerPartyStore party) {
+        if (party == null) return 0;
+        int free = 0;
+        for (int i = 0; i < PARTY_SIZE; i++) {
+            if (party.get(i) == null) free++;
+        }
+        return free;
+    }
+
+    private int countFreePcSlots(PCStore pc) {
+        if (pc == null) return 0;
+        int free = 0;
+        for (PCBox box : pc.getBoxes()) {
+            for (int slot = 0; slot < SLOTS_PER_BOX; slot++) {
+                if (box.get(slot) == null) free++;
+            }
+        }
+        return free;
+    }
+
+    /**
+     * Conservative check that every stack fits in the main inventory (merging into partial stacks first)
+     */
+    private boolean fitsInventory(PlayerInventory inventory, List<ItemStack> stacks) {
+        if (stacks.isEmpty()) return true;
+
+        int emptySlots = 0;
+        for (ItemStack slot : inventory.main) {
+            if (slot.isEmpty()) emptySlots++;
+        }
+
+        Set<Item> merged = new HashSet<>();
+        for (ItemStack stack : stacks) {
+            int remaining = stack.getCount();
+
+            // Partial-stack room is only credited once per item type
+            if (stack.isStackable() && merged.add(stack.getItem())) {
+                for (ItemStack slot : inventory.main) {
+                    if (!slot.isEmpty() && ItemStack.areItemsAndComponentsEqual(slot, stack)) {
+                        remaining -= Math.max(0, slot.getMaxCount() - slot.getCount());
+                    }
+                }
+            }
+
+            if (remaining > 0) {
+                int perSlot = Math.max(1, stack.getMaxCount());
+                emptySlots -= (remaining + perSlot - 1) / perSlot;
+                if (emptySlots < 0) return false;
+            }
+        }
+        return true;
+    }
+
+    // ============================================
+    // BACKEND CONFIRMATIONS
+    // ============================================
+
+    /**
+     * Hand this tick's confirmations to the IO scope in one go - the journal is synced there, once, before they go out
+     */
+    private void flushBatch() {
+        if (batchAcks.isEmpty() && !recordsDirty.get()) return;
+
+        List<Ack> batch = new ArrayList<>(batchAcks);
+        batchAcks.clear();
+
+        io.execute(() -> {
+            if (!syncJournal() && !batch.isEmpty()) {
+                // Not durable yet - the records stay unconfirmed and go out with the next retry
+                retryAcks.addAll(batch);
+                return;
+            }
+            for (Ack ack : batch) {
+                send(ack);
+            }
+            saveRecordsIfDirty();
+        });
+    }
+
+    private void retryPendingAcks() {
+        if (httpClient.isOffline()) {
+            saveRecordsIfDirty();
+            return;
+        }
+
+        try {
+            if (!syncJournal()) return;
+
+            Ack ack;
+            int pending = retryAcks.size();
+            for (int i = 0; i < pending && (ack = retryAcks.poll()) != null; i++) {
+                send(ack);
+            }
+            saveRecordsIfDirty();
+        } catch (Exception e) {
+            logger.error("Error retrying delivery confirmations: " + e.getMessage());
+        }
+    }
+
+    /**
+     * The key stays in acksInFlight until the HTTP attempt itself finishes (bounded by the client's read timeout)
+     */
+    private void send(Ack ack) {
+        if (!acksInFlight.add(ack.key)) return;
+
+        CompletableFuture<HttpClient.PostOutcome> attempt;
+        try {
+            attempt = httpClient.postOnceAsync(ack.path, ack.payload);
+        } catch (Exception e) {
+            attempt = CompletableFuture.completedFuture(HttpClient.PostOutcome.notSent(e.getMessage()));
+        }
+
+        attempt.whenComplete((outcome, error) -> {
+            try {
+                if (error != null) {
+                    outcome = HttpClient.PostOutcome.unknown(error.getMessage());
+                }
+
+                if (outcome.status == HttpClient.PostOutcome.Status.NOT_SENT) {
+                    // Never reached the backend - safe to send again
+                    if (!httpClient.isOffline()) {
+                        ack.attempts++;
+                    }
+                    if (ack.recordId == null && ack.attempts >= MAX_REJECT_ATTEMPTS) {
+                        logger.warn("Giving up on delivery rejection " + ack.key);
+                        return;
+                    }
+                    retryAcks.add(ack);
+                    return;
+                }
+
+                // Answered (even a refusal is final) or possibly applied: not resent on a timer.
+                // If it didn't land the backend keeps listing the delivery and submit() sends it again.
+                if (outcome.status != HttpClient.PostOutcome.Status.DELIVERED || !isAccepted(outcome.response)) {
+                    logger.warn("Delivery confirmation " + ack.key + " not accepted ("
+                        + (outcome.error != null ? outcome.error : outcome.response) + ")");
+                }
+                if (ack.recordId != null) {
+                    DeliveryRecord record = records.get(ack.recordId);
+                    if (record != null && !record.acked) {
+                        record.acked = true;
+                        recordsDirty.set(true);
+                    }
+                }
+            } finally {
+                acksInFlight.remove(ack.key);
+            }
+        });
+    }
+
+    private static boolean isAccepted(JsonObject response) {
+        if (response == null) return false;
+        return !response.has("success") || response.get("success").getAsBoolean();
+    }
+
+    // ============================================
+    // IDEMPOTENCY RECORD
+    // ============================================
+
+    private void loadRecords() {
+        Path file = Paths.get(RECORD_DIR, RECORD_FILE);
+        if (Files.exists(file)) {
+            try (Reader reader = Files.newBufferedReader(file)) {
+                Map<String, DeliveryRecord> loaded = GSON.fromJson(reader, RECORD_MAP_TYPE);
+                if (loaded != null) {
+                    records.putAll(loaded);
+                    // Records from before the store existed are moved there on the first save
+                    recordsDirty.set(true);
+                }
+            } catch (Exception e) {
+                logger.error("Error loading delivery records: " + e.getMessage());
+            }
+        }
+
+        replayJournal(Paths.get(RECORD_DIR, JOURNAL_FILE));
+    }
+
+    /**
+     * Records committed since the last save (one JSON line each, a void line cancels a rolled-back one)
+     */
+    private void replayJournal(Path file) {
+        if (!Files.exists(file)) return;
+
+        int replayed = 0;
+        try (BufferedReader reader = Files.newBufferedReader(file)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                JsonObject json;
+                try {
+                    json = JsonParser.parseString(line).getAsJsonObject();
+                } catch (Exception e) {
+                    break; // Torn tail write
+                }
+
+                String id = json.get("id").getAsString();
+                if (json.has("void")) {
+                    records.remove(id);
+                } else if (!records.containsKey(id) && store.find(id) == null) {
+                    records.put(id, GSON.fromJson(json.get("record"), DeliveryRecord.class));
+                }
+                replayed++;
+            }
+        } catch (Exception e) {
+            logger.error("Error replaying delivery journal: " + e.getMessage());
+        }
+
+        if (replayed > 0) {
+            recordsDirty.set(true);
+        }
+    }
+
+    private void openJournal() {
+        try {
+            Path dir = Paths.get(RECORD_DIR);
+            if (!Files.exists(dir)) {
+                Files.createDirectories(dir);
+            }
+            journal = FileChannel.open(dir.resolve(JOURNAL_FILE), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            // Same as before the journal existed: records only reach disk with the next save
+            logger.error("Delivery journal unavailable, records will not be durable before placing: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Main thread: one small append per delivery, before it is placed (no fsync here - see syncJournal)
+     */
+    private void commitRecord(String deliveryId, DeliveryRecord record) throws IOException {
+        synchronized (journalLock) {
+            appendJournal(deliveryId, record);
+            records.put(deliveryId, record);
+        }
+        recordsDirty.set(true);
+    }
+
+    private void voidRecord(String deliveryId) {
+        synchronized (journalLock) {
+            records.remove(deliveryId);
+            try {
+                appendJournal(deliveryId, null);
+            } catch (IOException e) {
+                logger.error("Delivery " + deliveryId + ": could not void record after rollback: " + e.getMessage());
+            }
+        }
+        recordsDirty.set(true);
+    }
+
+    private void appendJournal(String deliveryId, DeliveryRecord record) throws IOException {
+        if (journal == null) return;
+
+        JsonObject line = new JsonObject();
+        line.addProperty("id", deliveryId);
+        if (record != null) {
+            line.add("record", GSON.toJsonTree(record));
+        } else {
+            line.addProperty("void", true);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap((line + "\n").getBytes(StandardCharsets.UTF_8));
+        while (buffer.hasRemaining()) {
+            journal.write(buffer);
+        }
+        journalUnsynced.set(true);
+    }
+
+    /**
+     * IO scope: one fsync for every line appended since the last one. False if the journal could not be synced
+     */
+    private boolean syncJournal() {
+        if (!journalUnsynced.compareAndSet(true, false)) return true;
+
+        // Not under journalLock: the main thread keeps appending while the disk catches up
+        FileChannel channel = journal;
+        try {
+            if (channel != null) channel.force(false);
+            return true;
+        } catch (IOException e) {
+            journalUnsynced.set(true);
+            logger.error("Error syncing delivery journal: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private void saveRecordsIfDirty() {
+        if (!recordsDirty.compareAndSet(true, false)) return;
+
+        try {
+            // Confirmed (or nothing to confirm) - append to the store, only then drop from memory
+            Map<String, DeliveryRecord> confirmed = new HashMap<>();
+            for (Map.Entry<String, DeliveryRecord> entry : records.entrySet()) {
+                if (entry.getValue().acked || entry.getValue().ackPath == null) {
+                    confirmed.put(entry.getKey(), entry.getValue());
+                }
+            }
+            store.append(confirmed);
+            records.keySet().removeAll(confirmed.keySet());
+
+            Path dir = Paths.get(RECORD_DIR);
+            if (!Files.exists(dir)) {
+                Files.createDirectories(dir);
+            }
+
+            // Snapshot and journal length together: the journal is only cleared if nothing was committed since
+            Map<String, DeliveryRecord> snapshot;
+            long journalLength;
+            synchronized (journalLock) {
+                snapshot = new HashMap<>(records);
+                journalLength = journal != null ? journal.size() : 0;
+            }
+
+            // Write-then-rename so a crash never leaves a truncated record file
+            Path file = dir.resolve(RECORD_FILE);
+            Path temp = dir.resolve(RECORD_FILE + ".tmp");
+            try (Writer writer = Files.newBufferedWriter(temp)) {
+                GSON.toJson(snapshot, RECORD_MAP_TYPE, writer);
+            }
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                channel.force(true);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            FileChannel truncated = null;
+            synchronized (journalLock) {
+                if (journal != null && journalLength > 0 && journal.size() == journalLength) {
+                    journal.truncate(0);
+                    truncated = journal;
+                }
+            }
+            if (truncated != null) {
+                truncated.force(true);
+            }
+
+        } catch (Exception e) {
+            recordsDirty.set(true);
+            logger.error("Error saving delivery records: " + e.getMessage());
+        }
+    }
+
+    public void shutdown() {
+        logger.info("Delivery engine shutting down...");
+
+        if (!queue.isEmpty()) {
+            // Not placed yet - the owning systems will list them again on next start
+            logger.info("Dropping " + queue.size() + " queued deliveries (will be re-polled)");
+            queue.clear();
+            queued.clear();
+        }
+
+        // Queued saves and ack batches finish first
+        io.shutdown(5, TimeUnit.SECONDS);
+
+        // Final synchronous save (IO scope is stopped)
+        recordsDirty.set(true);
+        saveRecordsIfDirty();
+
+        synchronized (journalLock) {
+            try {
+                if (journal != null) journal.close();
+            } catch (IOException e) {
+                logger.debug("Error closing delivery journal: " + e.getMessage());
+            }
+            journal = null;
+        }
+        logger.info("✓ Delivery engine shutdown complete");
+    }
+
+    // ============================================
+    // INNER CLASSES
+    // ============================================
+
+    /**
+     * Persisted per delivery ID (Gson-serialized)
+     */
+    static class DeliveryRecord {
+        String player;
+        long deliveredAt;
+        boolean acked;
+        String ackPath;
+        JsonObject ackPayload;
+
+        DeliveryRecord() {}
+
+        DeliveryRecord(DeliveryRequest request, long deliveredAt) {
+            this.player = request.playerUuid.toString();
+            this.deliveredAt = deliveredAt;
+            this.ackPath = request.confirmPath;
+            this.ackPayload = request.confirmPayload;
+        }
+    }
+
+    private static class Ack {
+        final String key;
+        final String recordId;
+        final String path;
+        final JsonObject payload;
+        int attempts;
+
+        private Ack(String key, String recordId, String path, JsonObject payload) {
+            this.key = key;
+            this.recordId = recordId;
+            this.path = path;
+            this.payload = payload;
+        }
+
+        static Ack forRecord(String id, DeliveryRecord record) {
+            return new Ack("confirm:" + id, id, record.ackPath, record.ackPayload);
+        }
+
+        static Ack forReject(String id, String path, JsonObject payload) {
+            return new Ack("reject:" + id, null, path, payload != null ? payload : new JsonObject());
+        }
+    }
+}
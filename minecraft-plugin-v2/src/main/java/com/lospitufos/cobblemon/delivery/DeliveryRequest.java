@@ -0,0 +1,188 @@
+package com.lospitufos.cobblemon.delivery;
+
+import com.cobblemon.mod.common.pokemon.Pokemon;
+import com.google.gson.JsonObject;
+import net.minecraft.item.ItemStack;
+import net.minecraft.server.network.ServerPlayerEntity;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * One unit of in-game delivery submitted to the DeliveryEngine
+ *
+ * Features:
+ * - Stable ID (namespaced, e.g. "gacha:<rewardId>") used as the idempotency key
+ * - Pokemon / items are created lazily on the main thread by the engine
+ * - Backend confirmation described as (path, payload) so it can be persisted and retried
+ * - Listener callbacks always run on the main thread
+ *
+ * Immutable once built - build with DeliveryRequest.builder(id, player).
+ */
+public final class DeliveryRequest {
+
+    final String id;
+    final UUID playerUuid;
+    final List<Supplier<Pokemon>> pokemon;
+    final List<Supplier<ItemStack>> items;
+    final boolean partyOnly;
+    final boolean dropOverflow;
+    final Predicate<ServerPlayerEntity> requirement;
+    final String requirementReason;
+    final BooleanSupplier beforeCommit;
+    final String confirmPath;
+    final JsonObject confirmPayload;
+    final String rejectPath;
+    final Function<String, JsonObject> rejectPayload;
+    final Listener listener;
+
+    private DeliveryRequest(Builder builder) {
+        this.id = builder.id;
+        this.playerUuid = builder.playerUuid;
+        this.pokemon = Collections.unmodifiableList(new ArrayList<>(builder.pokemon));
+        this.items = Collections.unmodifiableList(new ArrayList<>(builder.items));
+        this.partyOnly = builder.partyOnly;
+        this.dropOverflow = builder.dropOverflow;
+        this.requirement = builder.requirement;
+        this.requirementReason = builder.requirementReason;
+        this.beforeCommit = builder.beforeCommit;
+        this.confirmPath = builder.confirmPath;
+        this.confirmPayload = builder.confirmPayload;
+        this.rejectPath = builder.rejectPath;
+        this.rejectPayload = builder.rejectPayload;
+        this.listener = builder.listener;
+    }
+
+    public static Builder builder(String id, UUID playerUuid) {
+        return new Builder(id, playerUuid);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public UUID getPlayerUuid() {
+        return playerUuid;
+    }
+
+    /**
+     * Result callbacks (main thread). The player is null if they went offline.
+     */
+    public interface Listener {
+        /** Everything was placed - show messages, play sounds */
+        default void onDelivered(ServerPlayerEntity player, Receipt receipt) {}
+
+        /** Not delivered this time (no room, offline, pre-commit step failed) - safe to resubmit later */
+        default void onDeferred(ServerPlayerEntity player, String reason) {}
+
+        /** Permanently failed (bad data, requirement not met) - reject ack already queued */
+        default void onFailed(ServerPlayerEntity player, String reason) {}
+
+        /** Accepted by submit, then found already delivered on disk - nothing placed, confirmation resent */
+        default void onAlreadyDelivered(ServerPlayerEntity player) {}
+    }
+
+    /**
+     * Where a delivered request ended up
+     */
+    public static final class Receipt {
+        public int toParty;
+        public int toPc;
+        public int itemsInserted;
+        public int itemsDropped;
+        public final List<Pokemon> pokemon = new ArrayList<>();
+    }
+
+    public static final class Builder {
+        private final String id;
+        private final UUID playerUuid;
+        private final List<Supplier<Pokemon>> pokemon = new ArrayList<>();
+        private final List<Supplier<ItemStack>> items = new ArrayList<>();
+        private boolean partyOnly;
+        private boolean dropOverflow;
+        private Predicate<ServerPlayerEntity> requirement;
+        private String requirementReason;
+        private BooleanSupplier beforeCommit;
+        private String confirmPath;
+        private JsonObject confirmPayload;
+        private String rejectPath;
+        private Function<String, JsonObject> rejectPayload;
+        private Listener listener = new Listener() {};
+
+        private Builder(String id, UUID playerUuid) {
+            if (id == null || id.isEmpty() || playerUuid == null) {
+                throw new IllegalArgumentException("Delivery requires an id and a player");
+            }
+            this.id = id;
+            this.playerUuid = playerUuid;
+        }
+
+        /** Pokemon factory, called on the main thread. Return null or throw to fail the request. */
+        public Builder pokemon(Supplier<Pokemon> factory) {
+            pokemon.add(factory);
+            return this;
+        }
+
+        /** Item factory, called on the main thread. Return null/empty or throw to fail the request. */
+        public Builder item(Supplier<ItemStack> factory) {
+            items.add(factory);
+            return this;
+        }
+
+        /** Pokemon must go to the party (never the PC) */
+        public Builder partyOnly() {
+            this.partyOnly = true;
+            return this;
+        }
+
+        /** Drop items that don't fit instead of deferring the whole request */
+        public Builder dropOverflow() {
+            this.dropOverflow = true;
+            return this;
+        }
+
+        /** Checked before planning - a false result fails the request with the given reason */
+        public Builder require(Predicate<ServerPlayerEntity> requirement, String reason) {
+            this.requirement = requirement;
+            this.requirementReason = reason;
+            return this;
+        }
+
+        /** Side effect run once the Pokemon are placed, before items - false rolls them back and defers the request */
+        public Builder beforeCommit(BooleanSupplier action) {
+            this.beforeCommit = action;
+            return this;
+        }
+
+        /** Backend acknowledgement sent (and retried) once the delivery is placed */
+        public Builder confirm(String path, JsonObject payload) {
+            this.confirmPath = path;
+            this.confirmPayload = payload != null ? payload : new JsonObject();
+            return this;
+        }
+
+        /** Backend notification sent when the request permanently fails */
+        public Builder reject(String path, Function<String, JsonObject> payloadForReason) {
+            this.rejectPath = path;
+            this.rejectPayload = payloadForReason;
+            return this;
+        }
+
+        public Builder listener(Listener listener) {
+            if (listener != null) {
+                this.listener = listener;
+            }
+            return this;
+        }
+
+        public DeliveryRequest build() {
+            return new DeliveryRequest(this);
+        }
+    }
+}
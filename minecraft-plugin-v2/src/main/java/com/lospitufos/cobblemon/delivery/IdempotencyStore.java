@@ -0,0 +1,339 @@
+package com.lospitufos.cobblemon.delivery;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import com.lospitufos.cobblemon.cache.ExpiringCache;
+import com.lospitufos.cobblemon.cache.TimerWheel;
+import com.lospitufos.cobblemon.utils.ModLogger;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Stream;
+
+/**
+ * Idempotency Store - confirmed delivery IDs on disk, a Bloom filter in memory
+ *
+ * Features:
+ * - One append-only file per UTC day (one JSON line per delivery), whole days dropped after the retention window
+ * - Appends are fsynced before they return: only then may the engine drop the records from its journal
+ * - Bloom filter over every retained ID answers "never delivered" without touching disk
+ * - Recently confirmed IDs also kept in a bounded in-memory cache - most re-listings resolve there
+ * - A filter hit outside the cache is confirmed against the day files, so a false positive never blocks a delivery
+ * - Fixed filter and cache size: memory stays flat however many deliveries the window holds
+ * - Filter rebuilt from disk at startup and whenever a day expires
+ * - Appends, expiry, rebuilds and disk lookups on DeliveryEngine's IO scope only (serial);
+ *   memory lookups (recent cache, filter) from any thread
+ */
+class IdempotencyStore {
+
+    private static final String STORE_DIR = "config/cobblemon-lospitufos-v2/deliveries";
+    private static final String FILE_SUFFIX = ".log";
+    private static final DateTimeFormatter DAY_FORMAT = DateTimeFormatter.BASIC_ISO_DATE; // yyyyMMdd
+    private static final Gson GSON = new GsonBuilder().create();
+
+    private static final int FILTER_CAPACITY = 100_000;  // IDs per retention window before false positives climb
+    private static final int BITS_PER_ID = 10;           // ~1% false positives at capacity (~122KB)
+    private static final int HASH_COUNT = 7;
+    private static final int RECENT_CAPACITY = 8192;
+    private static final long RECENT_MAX_AGE_MS = 24 * 60 * 60 * 1000L;
+
+    private final ModLogger logger;
+    private final int retentionDays;
+    private final Path dir = Paths.get(STORE_DIR);
+    private final ExpiringCache<String, DeliveryEngine.DeliveryRecord> recent;
+    private volatile BloomFilter filter = new BloomFilter(FILTER_CAPACITY * BITS_PER_ID, HASH_COUNT);
+    private int retainedIds = 0;
+
+    /**
+     * One line of a day file
+     */
+    private static class Line {
+        String id;
+        String player;
+        long deliveredAt;
+        String ackPath;
+        JsonObject ackPayload;
+    }
+
+    IdempotencyStore(ModLogger logger, int retentionDays, TimerWheel timers) {
+        this.logger = logger;
+        this.retentionDays = retentionDays;
+        this.recent = ExpiringCache.<String, DeliveryEngine.DeliveryRecord>builder("delivery.recent", timers)
+            .maximumSize(RECENT_CAPACITY)
+            .expireAfterWrite(RECENT_MAX_AGE_MS)
+            .build();
+    }
+
+    /**
+     * Drop expired days and build the filter from what is left
+     */
+    void initialize() {
+        try {
+            if (!Files.exists(dir)) {
+                Files.createDirectories(dir);
+            }
+        } catch (IOException e) {
+            logger.error("Error creating delivery store folder: " + e.getMessage());
+        }
+        deleteExpiredDays();
+        rebuildFilter();
+    }
+
+    int getRetainedCount() {
+        return retainedIds;
+    }
+
+    // ============================================
+    // LOOKUP
+    // ============================================
+
+    /**
+     * Any thread: the record if it was confirmed recently, null if unknown to memory
+     */
+    DeliveryEngine.DeliveryRecord findRecent(String id) {
+        return recent.getIfPresent(id);
+    }
+
+    /**
+     * Any thread: false means the ID was never confirmed within the window
+     */
+    boolean mightContain(String id) {
+        return filter.mightContain(id);
+    }
+
+    /**
+     * IO scope: the stored record for a delivery ID, or null if it was never confirmed within the window
+     */
+    DeliveryEngine.DeliveryRecord find(String id) {
+        DeliveryEngine.DeliveryRecord cached = recent.getIfPresent(id);
+        if (cached != null) return cached;
+        if (!filter.mightContain(id)) return null;
+
+        // Newest day first - re-listed deliveries are almost always recent
+        for (Path file : dayFiles(Comparator.reverseOrder())) {
+            try (BufferedReader reader = Files.newBufferedReader(file)) {
+                String raw;
+                while ((raw = reader.readLine()) != null) {
+                    // Cheap pre-check before parsing the line
+                    if (!raw.contains(id)) continue;
+                    Line line = parse(raw);
+                    if (line != null && id.equals(line.id)) {
+                        DeliveryEngine.DeliveryRecord record = toRecord(line);
+                        recent.put(id, record);
+                        return record;
+                    }
+                }
+            } catch (IOException e) {
+                logger.debug("Could not read delivery store " + file.getFileName() + ": " + e.getMessage());
+            }
+        }
+        return null;
+    }
+
+    // ============================================
+    // WRITING (IO scope)
+    // ============================================
+
+    /**
+     * Append confirmed deliveries to today's file and fsync it. Only once this returns may they leave memory
+     * (and the engine's journal)
+     */
+    void append(Map<String, DeliveryEngine.DeliveryRecord> confirmed) throws IOException {
+        if (confirmed.isEmpty()) return;
+
+        StringBuilder lines = new StringBuilder();
+        for (Map.Entry<String, DeliveryEngine.DeliveryRecord> entry : confirmed.entrySet()) {
+            Line line = new Line();
+            line.id = entry.getKey();
+            line.player = entry.getValue().player;
+            line.deliveredAt = entry.getValue().deliveredAt;
+            line.ackPath = entry.getValue().ackPath;
+            line.ackPayload = entry.getValue().ackPayload;
+            lines.append(GSON.toJson(line)).append('\n');
+        }
+
+        Path file = dir.resolve(LocalDate.now(ZoneOffset.UTC).format(DAY_FORMAT) + FILE_SUFFIX);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer buffer = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+
+        for (Map.Entry<String, DeliveryEngine.DeliveryRecord> entry : confirmed.entrySet()) {
+            filter.add(entry.getKey());
+            recent.put(entry.getKey(), entry.getValue());
+        }
+        retainedIds += confirmed.size();
+    }
+
+    /**
+     * Delete days past the retention window; rebuild the filter so their IDs stop matching
+     */
+    void expire() {
+        if (deleteExpiredDays() > 0) {
+            rebuildFilter();
+        }
+    }
+
+    private int deleteExpiredDays() {
+        String oldestKept = LocalDate.now(ZoneOffset.UTC).minusDays(retentionDays).format(DAY_FORMAT);
+        int deleted = 0;
+        for (Path file : dayFiles(Comparator.naturalOrder())) {
+            if (dayOf(file).compareTo(oldestKept) >= 0) break;
+            try {
+                Files.deleteIfExists(file);
+                deleted++;
+            } catch (IOException e) {
+                logger.error("Error deleting expired delivery store " + file.getFileName() + ": " + e.getMessage());
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * Also re-seeds the recent cache with the last day's confirmations (at their original write time)
+     */
+    private void rebuildFilter() {
+        BloomFilter rebuilt = new BloomFilter(FILTER_CAPACITY * BITS_PER_ID, HASH_COUNT);
+        long recentSince = System.currentTimeMillis() - RECENT_MAX_AGE_MS;
+        int count = 0;
+        for (Path file : dayFiles(Comparator.naturalOrder())) {
+            try (BufferedReader reader = Files.newBufferedReader(file)) {
+                String raw;
+                while ((raw = reader.readLine()) != null) {
+                    Line line = parse(raw);
+                    if (line != null && line.id != null) {
+                        rebuilt.add(line.id);
+                        if (line.deliveredAt >= recentSince) {
+                            recent.put(line.id, toRecord(line), line.deliveredAt);
+                        }
+                        count++;
+                    }
+                }
+            } catch (IOException e) {
+                logger.error("Error reading delivery store " + file.getFileName() + ": " + e.getMessage());
+            }
+        }
+        filter = rebuilt;
+        retainedIds = count;
+
+        if (count > FILTER_CAPACITY) {
+            logger.warn("Delivery store holds " + count + " IDs (filter sized for " + FILTER_CAPACITY
+                + ") - lookups will hit disk more often");
+        }
+    }
+
+    // ============================================
+    // FILES
+    // ============================================
+
+    private List<Path> dayFiles(Comparator<String> order) {
+        List<Path> files = new ArrayList<>();
+        if (!Files.exists(dir)) return files;
+
+        try (Stream<Path> stream = Files.list(dir)) {
+            stream.filter(p -> p.getFileName().toString().endsWith(FILE_SUFFIX))
+                .sorted(Comparator.comparing(this::dayOf, order))
+                .forEach(files::add);
+        } catch (IOException e) {
+            logger.error("Error listing delivery store: " + e.getMessage());
+        }
+        return files;
+    }
+
+    private String dayOf(Path file) {
+        String name = file.getFileName().toString();
+        return name.substring(0, name.length() - FILE_SUFFIX.length());
+    }
+
+    /**
+     * Null for a torn last line (crash mid-append) - it is simply ignored
+     */
+    private static Line parse(String raw) {
+        try {
+            return GSON.fromJson(raw, Line.class);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static DeliveryEngine.DeliveryRecord toRecord(Line line) {
+        DeliveryEngine.DeliveryRecord record = new DeliveryEngine.DeliveryRecord();
+        record.player = line.player;
+        record.deliveredAt = line.deliveredAt;
+        record.acked = true;
+        record.ackPath = line.ackPath;
+        record.ackPayload = line.ackPayload;
+        return record;
+    }
+
+    // ============================================
+    // BLOOM FILTER
+    // ============================================
+
+    /**
+     * Fixed-size Bloom filter over strings (double hashing on a 64-bit FNV-1a hash)
+     */
+    private static class BloomFilter {
+        private final AtomicLongArray bits;
+        private final int size;
+        private final int hashes;
+
+        BloomFilter(int size, int hashes) {
+            this.bits = new AtomicLongArray((size + 63) / 64);
+            this.size = size;
+            this.hashes = hashes;
+        }
+
+        void add(String key) {
+            long hash = hash(key);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 0; i < hashes; i++) {
+                int bit = Math.floorMod(h1 + i * h2, size);
+                long mask = 1L << (bit & 63);
+                int word = bit >>> 6;
+                long current;
+                do {
+                    current = bits.get(word);
+                } while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask));
+            }
+        }
+
+        boolean mightContain(String key) {
+            long hash = hash(key);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 0; i < hashes; i++) {
+                int bit = Math.floorMod(h1 + i * h2, size);
+                if ((bits.get(bit >>> 6) & (1L << (bit & 63))) == 0) return false;
+            }
+            return true;
+        }
+
+        private static long hash(String key) {
+            long hash = 0xcbf29ce484222325L;
+            for (int i = 0; i < key.length(); i++) {
+                hash ^= key.charAt(i);
+                hash *= 0x100000001b3L;
+            }
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.lospitufos.cobblemon.economy;
+
+/**
+ * Balance Ledger - the one way the mod changes a player's CobbleDollars balance
+ *
+ * Features:
+ * - credit / debit / set by player name (the name CobbleDollars resolves)
+ * - Every change carries a short reason code ("capture", "market-sale", ...) for the economy journal
+ * - Implementations decide how the change is applied (see CommandBalanceLedger, CoalescingBalanceLedger)
+ * - MUST be called from the main thread
+ */
+public interface BalanceLedger {
+
+    /**
+     * Add CobbleDollars to a player's balance (amount <= 0 is ignored)
+     */
+    void credit(String playerName, int amount, String reason);
+
+    /**
+     * Remove CobbleDollars from a player's balance (amount <= 0 is ignored)
+     */
+    void debit(String playerName, int amount, String reason);
+
+    /**
+     * Overwrite a player's balance (used when the backend is the source of truth)
+     */
+    void set(String playerName, int balance, String reason);
+}
@@ -0,0 +1,99 @@
+package com.lospitufos.cobblemon.economy;
+
+import com.lospitufos.cobblemon.utils.ModLogger;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.minecraft.server.MinecraftServer;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Coalescing Balance Ledger - merges credits to the same player within a tick
+ *
+ * Features:
+ * - Credits are summed per player and applied once at the end of the tick
+ *   (capture + evolution + synergy pool in one tick = one balance change)
+ * - Debits and sets apply immediately, after flushing that player's pending credits,
+ *   so the order of changes for a player is preserved
+ * - Everything left over is applied on shutdown
+ * - MUST be called from the main thread
+ */
+public class CoalescingBalanceLedger implements BalanceLedger {
+
+    private static final String COALESCED_REASON = "coalesced";
+
+    private final BalanceLedger delegate;
+    private final ModLogger logger;
+    private final Map<String, Long> pendingCredits = new LinkedHashMap<>(); // main thread only
+    private volatile boolean running = false;
+
+    public CoalescingBalanceLedger(BalanceLedger delegate, ModLogger logger) {
+        this.delegate = delegate;
+        this.logger = logger;
+    }
+
+    public void initialize(MinecraftServer server) {
+        running = true;
+        ServerTickEvents.END_SERVER_TICK.register(s -> {
+            if (running) flush();
+        });
+        logger.info("✓ Balance ledger initialized (credits coalesced per tick)");
+    }
+
+    @Override
+    public void credit(String playerName, int amount, String reason) {
+        if (amount <= 0) return;
+        if (!running) {
+            delegate.credit(playerName, amount, reason);
+            return;
+        }
+        pendingCredits.merge(playerName, (long) amount, Long::sum);
+    }
+
+    @Override
+    public void debit(String playerName, int amount, String reason) {
+        if (amount <= 0) return;
+        flush(playerName);
+        delegate.debit(playerName, amount, reason);
+    }
+
+    @Override
+    public void set(String playerName, int balance, String reason) {
+        // A set overrides anything credited earlier in the tick
+        pendingCredits.remove(playerName);
+        delegate.set(playerName, balance, reason);
+    }
+
+    /**
+     * Apply every pending credit
+     */
+    public void flush() {
+        if (pendingCredits.isEmpty()) return;
+
+        for (Map.Entry<String, Long> entry : pendingCredits.entrySet()) {
+            apply(entry.getKey(), entry.getValue());
+        }
+        pendingCredits.clear();
+    }
+
+    private void flush(String playerName) {
+        Long pending = pendingCredits.remove(playerName);
+        if (pending != null) {
+            apply(playerName, pending);
+        }
+    }
+
+    private void apply(String playerName, long amount) {
+        // Sums past int range go out in several changes
+        while (amount > 0) {
+            int chunk = (int) Math.min(amount, Integer.MAX_VALUE);
+            delegate.credit(playerName, chunk, COALESCED_REASON);
+            amount -= chunk;
+        }
+    }
+
+    public void shutdown() {
+        flush();
+        running = false;
+    }
+}
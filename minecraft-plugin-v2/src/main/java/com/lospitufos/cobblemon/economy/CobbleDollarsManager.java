@@ -2,39 +2,140 @@ package com.lospitufos.cobblemon.economy;
 
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
+import com.lospitufos.cobblemon.core.TaskScope;
 import com.lospitufos.cobblemon.utils.ModLogger;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.nio.file.*;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
 /**
  * Manages CobbleDollars economy integration
  * Reads player balance from cobbledollarsplayerdata folder
+ *
+ * Features:
+ * - Balances cached in memory, reads are map lookups
+ * - A WatchService on the folder re-parses only the files that changed (polled, never holds a thread)
+ * - Writes and watch polls share one serial IO scope (temp file + atomic move), the cache is updated at once
+ * - Watch events for a player with a local write still queued are ignored - the cache already has the newer value
+ * - Without a watcher (folder missing at startup) every read goes to disk as before
  */
 public class CobbleDollarsManager {
-    
+
     private static final String COBBLEDOLLARS_PATH = "world/cobbledollarsplayerdata";
+    private static final String FILE_SUFFIX = ".json";
+    private static final long WATCH_POLL_MS = 500;
+
     private final ModLogger logger;
-    
-    public CobbleDollarsManager(ModLogger logger) {
+    private final Path dataDir = Paths.get(COBBLEDOLLARS_PATH);
+    private final Map<UUID, Integer> balances = new ConcurrentHashMap<>();
+    private final Map<UUID, Integer> writesInFlight = new ConcurrentHashMap<>();   // Queued local writes per player
+    private final TaskScope io;                                        // Quota 1: writes and watch polls in order
+    private WatchService watchService;
+    private volatile boolean watching = false;
+
+    public CobbleDollarsManager(ModLogger logger, TaskScope io) {
         this.logger = logger;
+        this.io = io;
+    }
+
+    /**
+     * Start watching the CobbleDollars folder (no-op if the mod is not installed)
+     */
+    public void initialize() {
+        if (!isCobbleDollarsInstalled()) {
+            logger.warn("CobbleDollars data folder not found - balances will be read from disk on demand");
+            return;
+        }
+
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            dataDir.register(watchService,
+                StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY,
+                StandardWatchEventKinds.ENTRY_DELETE);
+        } catch (IOException e) {
+            logger.error("Could not watch CobbleDollars data folder: " + e.getMessage());
+            return;
+        }
+
+        watching = true;
+        io.execute(this::warmCache);
+        io.scheduleWithFixedDelay(this::pollWatcher, WATCH_POLL_MS, WATCH_POLL_MS, TimeUnit.MILLISECONDS);
+
+        logger.info("✓ CobbleDollars balance cache initialized");
     }
-    
+
     /**
      * Get player's CobbleDollars balance
      * Returns 0 if file doesn't exist or error occurs
      */
     public int getPlayerBalance(UUID playerUuid) {
+        if (!watching) {
+            Integer balance = readBalance(playerUuid);
+            return balance != null ? balance : 0;
+        }
+
+        Integer cached = balances.get(playerUuid);
+        if (cached != null) return cached;
+
+        // First read for this player - load once, the watcher keeps it fresh afterwards
+        Integer balance = readBalance(playerUuid);
+        if (balance == null) return 0;
+        balances.putIfAbsent(playerUuid, balance);
+        return balance;
+    }
+
+    /**
+     * Set player's CobbleDollars balance
+     * Creates file if it doesn't exist. The write happens off-thread; reads see the new value immediately
+     */
+    public void setPlayerBalance(UUID playerUuid, int balance) {
+        // Counted before it is queued, so a watch poll that runs first already skips this player
+        writesInFlight.merge(playerUuid, 1, Integer::sum);
+        if (watching) {
+            balances.put(playerUuid, balance);
+        }
         try {
-            Path playerFile = Paths.get(COBBLEDOLLARS_PATH, playerUuid.toString() + ".json");
-            
+            io.execute(() -> {
+                try {
+                    writeBalance(playerUuid, balance);
+                } finally {
+                    writesInFlight.computeIfPresent(playerUuid, (uuid, count) -> count > 1 ? count - 1 : null);
+                }
+            });
+        } catch (RuntimeException e) {
+            writesInFlight.computeIfPresent(playerUuid, (uuid, count) -> count > 1 ? count - 1 : null);
+            throw e;
+        }
+    }
+
+    /**
+     * Check if CobbleDollars mod is installed
+     */
+    public boolean isCobbleDollarsInstalled() {
+        return Files.exists(dataDir) && Files.isDirectory(dataDir);
+    }
+
+    // ============================================
+    // FILE ACCESS
+    // ============================================
+
+    /**
+     * Parse a player's file, null if missing or unreadable
+     */
+    private Integer readBalance(UUID playerUuid) {
+        try {
+            Path playerFile = dataDir.resolve(playerUuid.toString() + FILE_SUFFIX);
+
             if (Files.exists(playerFile)) {
                 String content = Files.readString(playerFile);
                 JsonObject data = JsonParser.parseString(content).getAsJsonObject();
-                
+
                 // CobbleDollars mod saves the balance as "cobbledollars" (lowercase), not "balance"
                 if (data.has("cobbledollars")) {
                     return data.get("cobbledollars").getAsInt();
@@ -43,41 +144,132 @@ public class CobbleDollarsManager {
         } catch (IOException e) {
             logger.debug("Could not read CobbleDollars data for " + playerUuid + ": " + e.getMessage());
         } catch (Exception e) {
-            logger.error("Error parsing CobbleDollars data for " + playerUuid + ": " + e.getMessage());
+            // Usually a half-written file - the next MODIFY event re-reads it
+            logger.debug("Could not parse CobbleDollars data for " + playerUuid + ": " + e.getMessage());
         }
-        
-        return 0;
+
+        return null;
     }
-    
-    /**
-     * Set player's CobbleDollars balance
-     * Creates file if it doesn't exist
-     */
-    public boolean setPlayerBalance(UUID playerUuid, int balance) {
+
+    private void writeBalance(UUID playerUuid, int balance) {
         try {
-            Path dataDir = Paths.get(COBBLEDOLLARS_PATH);
             if (!Files.exists(dataDir)) {
                 Files.createDirectories(dataDir);
             }
-            
-            Path playerFile = dataDir.resolve(playerUuid.toString() + ".json");
-            
+
+            Path playerFile = dataDir.resolve(playerUuid.toString() + FILE_SUFFIX);
+            Path temp = dataDir.resolve(playerUuid.toString() + FILE_SUFFIX + ".tmp");
+
+            // Keep any other fields the mod stores next to the balance
             JsonObject data = new JsonObject();
+            if (Files.exists(playerFile)) {
+                try {
+                    data = JsonParser.parseString(Files.readString(playerFile)).getAsJsonObject();
+                } catch (Exception e) {
+                    data = new JsonObject();
+                }
+            }
             data.addProperty("cobbledollars", balance);
-            
-            Files.writeString(playerFile, data.toString());
-            return true;
+
+            Files.writeString(temp, data.toString());
+            Files.move(temp, playerFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
         } catch (IOException e) {
             logger.error("Could not write CobbleDollars data for " + playerUuid + ": " + e.getMessage());
-            return false;
+            // Let the next read go back to whatever is actually on disk
+            balances.remove(playerUuid);
         }
     }
-    
+
+    // ============================================
+    // WATCHER
+    // ============================================
+
     /**
-     * Check if CobbleDollars mod is installed
+     * Apply every change queued since the last poll (non-blocking)
      */
-    public boolean isCobbleDollarsInstalled() {
-        Path dataDir = Paths.get(COBBLEDOLLARS_PATH);
-        return Files.exists(dataDir) && Files.isDirectory(dataDir);
+    private void pollWatcher() {
+        while (watching) {
+            WatchKey key;
+            try {
+                key = watchService.poll();
+            } catch (ClosedWatchServiceException e) {
+                return;
+            }
+            if (key == null) return;
+
+            for (WatchEvent<?> event : key.pollEvents()) {
+                if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                    // Lost events - drop everything, reads reload lazily
+                    balances.clear();
+                    continue;
+                }
+
+                UUID uuid = uuidOf((Path) event.context());
+                if (uuid == null) continue;
+
+                // An older external write - our queued write replaces it, and its own event reloads the file
+                if (writesInFlight.containsKey(uuid)) continue;
+
+                if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE) {
+                    balances.remove(uuid);
+                } else {
+                    Integer balance = readBalance(uuid);
+                    if (balance != null) {
+                        balances.put(uuid, balance);
+                    }
+                }
+            }
+
+            if (!key.reset()) {
+                logger.warn("CobbleDollars data folder is no longer watchable - falling back to disk reads");
+                watching = false;
+                balances.clear();
+                break;
+            }
+        }
+    }
+
+    private void warmCache() {
+        try (Stream<Path> files = Files.list(dataDir)) {
+            files.forEach(file -> {
+                UUID uuid = uuidOf(file.getFileName());
+                if (uuid == null) return;
+                Integer balance = readBalance(uuid);
+                if (balance != null) {
+                    balances.putIfAbsent(uuid, balance);
+                }
+            });
+            logger.debug("Cached " + balances.size() + " CobbleDollars balances");
+        } catch (IOException e) {
+            logger.debug("Could not pre-load CobbleDollars balances: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Player UUID from a "<uuid>.json" file name, null for anything else (including our temp files)
+     */
+    private UUID uuidOf(Path fileName) {
+        String name = fileName.toString();
+        if (!name.endsWith(FILE_SUFFIX)) return null;
+        try {
+            return UUID.fromString(name.substring(0, name.length() - FILE_SUFFIX.length()));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    public void shutdown() {
+        watching = false;
+
+        // Pending balance writes must reach disk
+        io.shutdown(5, TimeUnit.SECONDS);
+
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                logger.debug("Error closing CobbleDollars watcher: " + e.getMessage());
+            }
+        }
     }
 }
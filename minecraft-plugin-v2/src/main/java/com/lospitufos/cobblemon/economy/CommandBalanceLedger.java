@@ -0,0 +1,56 @@
+package com.lospitufos.cobblemon.economy;
+
+import com.lospitufos.cobblemon.utils.ModLogger;
+import net.minecraft.server.MinecraftServer;
+
+/**
+ * Command Balance Ledger - applies balance changes through the /cobbledollars command
+ *
+ * Features:
+ * - Fallback adapter: CobbleDollars exposes no API on our compile classpath, only its command
+ * - Runs silently as the server command source
+ * - MUST be called from the main thread
+ */
+public class CommandBalanceLedger implements BalanceLedger {
+
+    private final ModLogger logger;
+    private MinecraftServer server;
+
+    public CommandBalanceLedger(ModLogger logger) {
+        this.logger = logger;
+    }
+
+    public void initialize(MinecraftServer server) {
+        this.server = server;
+    }
+
+    @Override
+    public void credit(String playerName, int amount, String reason) {
+        if (amount <= 0) return;
+        run("cobbledollars give " + playerName + " " + amount);
+    }
+
+    @Override
+    public void debit(String playerName, int amount, String reason) {
+        if (amount <= 0) return;
+        run("cobbledollars remove " + playerName + " " + amount);
+    }
+
+    @Override
+    public void set(String playerName, int balance, String reason) {
+        run("cobbledollars set " + playerName + " " + Math.max(0, balance));
+    }
+
+    private void run(String command) {
+        if (server == null) return;
+
+        try {
+            server.getCommandManager().executeWithPrefix(
+                server.getCommandSource().withSilent(),
+                command
+            );
+        } catch (Exception e) {
+            logger.error("Error running balance command '" + command + "': " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,415 @@
+package com.lospitufos.cobblemon.economy;
+
+import com.lospitufos.cobblemon.core.TaskScope;
+import com.lospitufos.cobblemon.utils.ModLogger;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Economy Journal - append-only local record of every balance change
+ *
+ * Features:
+ * - One binary record per ledger call: sequence number, time, operation, amount, player, reason
+ * - Sequence numbers are assigned on the calling thread and continue across restarts
+ * - Records go to an open segment on a background thread; flushed every second
+ * - Segments roll after SEGMENT_MAX_BYTES or SEGMENT_MAX_AGE_MS and are gzip-compressed in the background
+ * - Per-segment player index (.idx) so a player query only opens segments that mention them
+ * - Oldest segments dropped once the journal exceeds MAX_TOTAL_BYTES
+ * - A torn record at the end of a segment (crash mid-write) ends that segment, nothing else is lost
+ */
+public class EconomyJournal {
+
+    private static final String JOURNAL_DIR = "config/cobblemon-lospitufos-v2/journal";
+    private static final String OPEN_FILE = "current.open";
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String COMPRESSED_SUFFIX = ".seg.gz";
+    private static final String INDEX_SUFFIX = ".idx";
+
+    private static final int MAGIC = 0x4C504A4E; // "LPJN"
+    private static final int VERSION = 1;
+
+    private static final long SEGMENT_MAX_BYTES = 4L * 1024 * 1024;
+    private static final long SEGMENT_MAX_AGE_MS = 60 * 60 * 1000L;
+    private static final long MAX_TOTAL_BYTES = 256L * 1024 * 1024;
+    private static final int FLUSH_SECONDS = 1;
+
+    public enum Op { CREDIT, DEBIT, SET }
+
+    /**
+     * One balance change as stored in the journal
+     */
+    public static class Entry {
+        public final long seq;
+        public final long timestamp;
+        public final Op op;
+        public final int amount;
+        public final String player;
+        public final String reason;
+
+        Entry(long seq, long timestamp, Op op, int amount, String player, String reason) {
+            this.seq = seq;
+            this.timestamp = timestamp;
+            this.op = op;
+            this.amount = amount;
+            this.player = player;
+            this.reason = reason;
+        }
+    }
+
+    private final ModLogger logger;
+    private final Path dir = Paths.get(JOURNAL_DIR);
+    private final AtomicLong nextSeq = new AtomicLong(1);
+    private final TaskScope io;                                        // Quota 1: serial, owns the open segment
+
+    // Closed segments: base name ("journal-<first>-<last>") -> lowercase player names in it
+    private final Map<String, Set<String>> index = new ConcurrentHashMap<>();
+
+    // Open segment state (IO scope only)
+    private DataOutputStream out;
+    private long openFirstSeq;
+    private long openLastSeq;
+    private long openBytes;
+    private long openSince;
+    private final Set<String> openPlayers = new HashSet<>();
+
+    public EconomyJournal(ModLogger logger, TaskScope io) {
+        this.logger = logger;
+        this.io = io;
+    }
+
+    /**
+     * Recover the sequence and index from disk (synchronous - before the first balance change)
+     */
+    public void initialize() {
+        try {
+            if (!Files.exists(dir)) {
+                Files.createDirectories(dir);
+            }
+
+            long lastSeq = 0;
+            for (String base : segmentBases()) {
+                lastSeq = Math.max(lastSeq, lastSeqOf(base));
+                index.put(base, loadIndex(base));
+            }
+
+            // Segment left open by the last run - close it as it is
+            Path open = dir.resolve(OPEN_FILE);
+            if (Files.exists(open)) {
+                List<Entry> leftover = readSegment(open, false);
+                if (leftover.isEmpty()) {
+                    Files.deleteIfExists(open);
+                } else {
+                    Set<String> players = new HashSet<>();
+                    for (Entry entry : leftover) {
+                        players.add(entry.player.toLowerCase(Locale.ROOT));
+                    }
+                    long first = leftover.get(0).seq;
+                    long last = leftover.get(leftover.size() - 1).seq;
+                    closeSegment(open, first, last, players);
+                    lastSeq = Math.max(lastSeq, last);
+                }
+            }
+
+            nextSeq.set(lastSeq + 1);
+        } catch (IOException e) {
+            logger.error("Error recovering economy journal: " + e.getMessage());
+        }
+
+        // Anything closed but not yet compressed (crash during compression)
+        for (String base : index.keySet()) {
+            if (Files.exists(dir.resolve(base + SEGMENT_SUFFIX))) {
+                io.execute(() -> compress(base));
+            }
+        }
+        io.execute(this::enforceRetention);
+        io.scheduleAtFixedRate(this::tick, FLUSH_SECONDS, FLUSH_SECONDS, TimeUnit.SECONDS);
+
+        logger.info("✓ Economy journal initialized (" + index.size() + " segments, next #" + nextSeq.get() + ")");
+    }
+
+    // ============================================
+    // WRITING
+    // ============================================
+
+    /**
+     * Record a balance change. Cheap on the calling thread: the write happens in the background
+     */
+    public void record(Op op, String playerName, int amount, String reason) {
+        Entry entry = new Entry(nextSeq.getAndIncrement(), System.currentTimeMillis(), op, amount,
+            playerName, reason != null ? reason : "");
+        try {
+            io.execute(() -> write(entry));
+        } catch (RejectedExecutionException e) {
+            logger.warn("Economy journal closed - not recorded: #" + entry.seq + " " + op + " " + amount + " " + playerName);
+        }
+    }
+
+    private void write(Entry entry) {
+        try {
+            if (out == null) {
+                out = new DataOutputStream(new BufferedOutputStream(
+                    Files.newOutputStream(dir.resolve(OPEN_FILE), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)));
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                openFirstSeq = entry.seq;
+                openBytes = 8;
+                openSince = System.currentTimeMillis();
+                openPlayers.clear();
+            }
+
+            int before = out.size();
+            out.writeLong(entry.seq);
+            out.writeLong(entry.timestamp);
+            out.writeByte(entry.op.ordinal());
+            out.writeInt(entry.amount);
+            out.writeUTF(entry.player);
+            out.writeUTF(entry.reason);
+            openBytes += out.size() - before;
+            openLastSeq = entry.seq;
+            openPlayers.add(entry.player.toLowerCase(Locale.ROOT));
+
+            if (openBytes >= SEGMENT_MAX_BYTES) {
+                roll();
+            }
+        } catch (IOException e) {
+            logger.error("Error writing economy journal #" + entry.seq + ": " + e.getMessage());
+        }
+    }
+
+    private void tick() {
+        if (out == null) return;
+        try {
+            out.flush();
+            if (System.currentTimeMillis() - openSince >= SEGMENT_MAX_AGE_MS) {
+                roll();
+            }
+        } catch (IOException e) {
+            logger.error("Error flushing economy journal: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Close the open segment and compress it (IO scope)
+     */
+    private void roll() throws IOException {
+        if (out == null) return;
+        out.close();
+        out = null;
+
+        String base = closeSegment(dir.resolve(OPEN_FILE), openFirstSeq, openLastSeq, new HashSet<>(openPlayers));
+        compress(base);
+        enforceRetention();
+    }
+
+    private String closeSegment(Path open, long firstSeq, long lastSeq, Set<String> players) throws IOException {
+        String base = String.format("%s%019d-%019d", SEGMENT_PREFIX, firstSeq, lastSeq);
+        Files.move(open, dir.resolve(base + SEGMENT_SUFFIX), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        Files.write(dir.resolve(base + INDEX_SUFFIX), players, StandardCharsets.UTF_8);
+        index.put(base, players);
+        return base;
+    }
+
+    private void compress(String base) {
+        Path plain = dir.resolve(base + SEGMENT_SUFFIX);
+        Path compressed = dir.resolve(base + COMPRESSED_SUFFIX);
+        Path temp = dir.resolve(base + COMPRESSED_SUFFIX + ".tmp");
+        try {
+            try (InputStream in = Files.newInputStream(plain);
+                 OutputStream raw = Files.newOutputStream(temp);
+                 OutputStream gz = new GZIPOutputStream(raw)) {
+                in.transferTo(gz);
+            }
+            Files.move(temp, compressed, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            Files.delete(plain);
+        } catch (IOException e) {
+            logger.error("Error compressing economy journal segment " + base + ": " + e.getMessage());
+        }
+    }
+
+    private void enforceRetention() {
+        try {
+            List<String> bases = segmentBases();
+            long total = 0;
+            for (String base : bases) {
+                total += sizeOf(base);
+            }
+
+            // Oldest first
+            for (String base : bases) {
+                if (total <= MAX_TOTAL_BYTES) break;
+                total -= sizeOf(base);
+                index.remove(base);
+                Files.deleteIfExists(dir.resolve(base + COMPRESSED_SUFFIX));
+                Files.deleteIfExists(dir.resolve(base + SEGMENT_SUFFIX));
+                Files.deleteIfExists(dir.resolve(base + INDEX_SUFFIX));
+                logger.info("Economy journal segment dropped (size limit): " + base);
+            }
+        } catch (IOException e) {
+            logger.error("Error trimming economy journal: " + e.getMessage());
+        }
+    }
+
+    // ============================================
+    // QUERIES
+    // ============================================
+
+    /**
+     * Most recent entries for a player (newest first), read on the journal thread
+     */
+    public CompletableFuture<List<Entry>> query(String playerName, int limit) {
+        String key = playerName.toLowerCase(Locale.ROOT);
+        return CompletableFuture.supplyAsync(() -> {
+            List<Entry> result = new ArrayList<>();
+            try {
+                // Open segment first (newest)
+                if (out != null) {
+                    out.flush();
+                    collect(readSegment(dir.resolve(OPEN_FILE), false), key, result);
+                }
+
+                List<String> bases = segmentBases();
+                Collections.reverse(bases);
+                for (String base : bases) {
+                    if (result.size() >= limit) break;
+                    Set<String> players = index.get(base);
+                    if (players == null || !players.contains(key)) continue;
+
+                    Path compressed = dir.resolve(base + COMPRESSED_SUFFIX);
+                    List<Entry> entries = Files.exists(compressed)
+                        ? readSegment(compressed, true)
+                        : readSegment(dir.resolve(base + SEGMENT_SUFFIX), false);
+                    collect(entries, key, result);
+                }
+            } catch (IOException e) {
+                logger.error("Error querying economy journal: " + e.getMessage());
+            }
+            return result.size() > limit ? new ArrayList<>(result.subList(0, limit)) : result;
+        }, io);
+    }
+
+    public long getLastSequence() {
+        return nextSeq.get() - 1;
+    }
+
+    /**
+     * Append the player's entries from one segment, newest first
+     */
+    private void collect(List<Entry> entries, String key, List<Entry> result) {
+        for (int i = entries.size() - 1; i >= 0; i--) {
+            Entry entry = entries.get(i);
+            if (entry.player.toLowerCase(Locale.ROOT).equals(key)) {
+                result.add(entry);
+            }
+        }
+    }
+
+    // ============================================
+    // FILES
+    // ============================================
+
+    private List<Entry> readSegment(Path file, boolean gzip) throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        if (!Files.exists(file)) return entries;
+
+        // The raw stream is its own resource: a bad GZIP header throws before the wrapper exists
+        try (InputStream raw = Files.newInputStream(file);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(gzip ? new GZIPInputStream(raw) : raw))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                logger.warn("Skipping unrecognized economy journal segment: " + file.getFileName());
+                return entries;
+            }
+            Op[] ops = Op.values();
+            while (true) {
+                long seq = in.readLong();
+                long timestamp = in.readLong();
+                int op = in.readUnsignedByte();
+                int amount = in.readInt();
+                String player = in.readUTF();
+                String reason = in.readUTF();
+                if (op >= ops.length) break;
+                entries.add(new Entry(seq, timestamp, ops[op], amount, player, reason));
+            }
+        } catch (EOFException e) {
+            // End of segment (or a torn last record)
+        }
+        return entries;
+    }
+
+    private Set<String> loadIndex(String base) throws IOException {
+        Path idx = dir.resolve(base + INDEX_SUFFIX);
+        if (Files.exists(idx)) {
+            return new HashSet<>(Files.readAllLines(idx, StandardCharsets.UTF_8));
+        }
+
+        // Index lost - rebuild it from the segment
+        Path compressed = dir.resolve(base + COMPRESSED_SUFFIX);
+        List<Entry> entries = Files.exists(compressed)
+            ? readSegment(compressed, true)
+            : readSegment(dir.resolve(base + SEGMENT_SUFFIX), false);
+        Set<String> players = new HashSet<>();
+        for (Entry entry : entries) {
+            players.add(entry.player.toLowerCase(Locale.ROOT));
+        }
+        Files.write(idx, players, StandardCharsets.UTF_8);
+        return players;
+    }
+
+    /**
+     * Closed segment base names, oldest first
+     */
+    private List<String> segmentBases() throws IOException {
+        Set<String> bases = new TreeSet<>();
+        try (Stream<Path> files = Files.list(dir)) {
+            files.map(p -> p.getFileName().toString())
+                .filter(name -> name.startsWith(SEGMENT_PREFIX))
+                .forEach(name -> {
+                    if (name.endsWith(COMPRESSED_SUFFIX)) {
+                        bases.add(name.substring(0, name.length() - COMPRESSED_SUFFIX.length()));
+                    } else if (name.endsWith(SEGMENT_SUFFIX)) {
+                        bases.add(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+                    }
+                });
+        }
+        return new ArrayList<>(bases);
+    }
+
+    private long lastSeqOf(String base) {
+        try {
+            return Long.parseLong(base.substring(base.lastIndexOf('-') + 1));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private long sizeOf(String base) throws IOException {
+        long size = 0;
+        for (String suffix : new String[] { COMPRESSED_SUFFIX, SEGMENT_SUFFIX }) {
+            Path file = dir.resolve(base + suffix);
+            if (Files.exists(file)) size += Files.size(file);
+        }
+        return size;
+    }
+
+    public void shutdown() {
+        // Let queued records reach the open segment, then flush it (stays open, closed on next start)
+        io.shutdown(5, TimeUnit.SECONDS);
+
+        if (out != null) {
+            try {
+                out.close();
+            } catch (IOException e) {
+                logger.error("Error closing economy journal: " + e.getMessage());
+            }
+            out = null;
+        }
+    }
+}
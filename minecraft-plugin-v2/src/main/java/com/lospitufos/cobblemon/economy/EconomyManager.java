@@ -2,11 +2,21 @@ package com.lospitufos.cobblemon.economy;
 
 import com.cobblemon.mod.common.Cobblemon;
 import com.cobblemon.mod.common.api.events.CobblemonEvents;
-import com.cobblemon.mod.common.api.pokemon.PokemonSpecies;
-import com.cobblemon.mod.common.api.pokemon.stats.Stats;
 import com.cobblemon.mod.common.api.storage.party.PlayerPartyStore;
 import com.cobblemon.mod.common.pokemon.Pokemon;
+import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import com.lospitufos.cobblemon.cache.ExpiringCache;
+import com.lospitufos.cobblemon.cache.TimerWheel;
+import com.lospitufos.cobblemon.core.TaskScope;
+import com.lospitufos.cobblemon.data.SpeciesRegistry;
+import com.lospitufos.cobblemon.outbox.Outbox;
+import com.lospitufos.cobblemon.session.PlayerSession;
+import com.lospitufos.cobblemon.session.PlayerSessionRegistry;
+import com.lospitufos.cobblemon.session.SessionKey;
+import com.lospitufos.cobblemon.storage.WarmCacheSnapshot;
+import com.lospitufos.cobblemon.utils.ChatMessages;
 import com.lospitufos.cobblemon.utils.HttpClient;
 import com.lospitufos.cobblemon.utils.ModLogger;
 import net.fabricmc.fabric.api.networking.v1.ServerPlayConnectionEvents;
@@ -35,17 +45,27 @@ public class EconomyManager {
     
     private final ModLogger logger;
     private final HttpClient httpClient;
+    private final Outbox outbox;
+    private final BalanceLedger ledger;
+    private final PlayerSessionRegistry sessions;
+    private final PitufipuntosCache pitufipuntos;
+    private final TimerWheel timers;
     private MinecraftServer server;
-    private final ScheduledExecutorService scheduler;
+    private final TaskScope scheduler;
     
-    // Player data tracking
-    private final Map<UUID, PlayerEconomyData> playerData = new ConcurrentHashMap<>();
-    private final Map<UUID, Long> lastPlaytimeReward = new ConcurrentHashMap<>();
+    // Player data tracking: online players' data lives on their session, offline lookups go to the local store
+    private static final SessionKey<EconomySession> SESSION = SessionKey.of("economy", EconomySession::new);
+    private final EconomyStore store;
     
     // Active bounties (species name -> reward)
     private final Map<String, Integer> activeBounties = new ConcurrentHashMap<>();
     private long lastBountyRotation = 0;
     
+    // Web syncs already applied in-game - the backend keeps listing them until the queued confirm lands
+    private static final int MAX_APPLIED_SYNCS = 4096;
+    private static final long APPLIED_SYNC_TTL_MS = 24 * 60 * 60 * 1000L;
+    private final ExpiringCache<String, Boolean> appliedSyncs;
+    
     // ============================================
     // REWARD CONFIGURATION (balanced for 15k+ economy)
     // ============================================
@@ -108,10 +128,13 @@ public class EconomyManager {
     private static final double DISTRIBUTION_PERCENT = 0.60; // 60% of penalty distributed to online players
     private static final int XP_PER_CD = 10; // 10 XP per CobbleDollar converted
     
-    // Track player activity (last action timestamp)
-    private final Map<UUID, Long> lastPlayerActivity = new ConcurrentHashMap<>();
+    // Player activity is the session's last activity timestamp (kept current by the ActivityTracker)
     private static final long AFK_THRESHOLD_MS = 10 * 60 * 1000; // 10 minutes without activity = AFK
     
+    // Per-player deadlines on the timer wheel
+    private static final long SYNERGY_FIRST_CHECK_MS = 2 * 60 * 1000; // After login (backend data has arrived by then)
+    private static final long SYNERGY_RETRY_MS = 5 * 60 * 1000;       // Next check if a reward couldn't be given
+    
     // Accumulated synergy pool for distribution
     private int synergyDistributionPool = 0;
     
@@ -134,55 +157,21 @@ public class EconomyManager {
         "spoink", "spinda", "trapinch", "cacnea", "swablu", "barboach"
     );
     
-    // Legendary and Mythical Pokémon list
-    private static final Set<String> LEGENDARY_POKEMON = Set.of(
-        // Gen 1
-        "articuno", "zapdos", "moltres", "mewtwo", "mew",
-        // Gen 2
-        "raikou", "entei", "suicune", "lugia", "ho-oh", "celebi",
-        // Gen 3
-        "regirock", "regice", "registeel", "latias", "latios",
-        "kyogre", "groudon", "rayquaza", "jirachi", "deoxys",
-        // Gen 4
-        "uxie", "mesprit", "azelf", "dialga", "palkia", "heatran",
-        "regigigas", "giratina", "cresselia", "phione", "manaphy",
-        "darkrai", "shaymin", "arceus",
-        // Gen 5
-        "victini", "cobalion", "terrakion", "virizion", "tornadus",
-        "thundurus", "reshiram", "zekrom", "landorus", "kyurem",
-        "keldeo", "meloetta", "genesect",
-        // Gen 6
-        "xerneas", "yveltal", "zygarde", "diancie", "hoopa", "volcanion",
-        // Gen 7
-        "type:null", "silvally", "tapukoko", "tapulele", "tapubulu", "tapufini",
-        "cosmog", "cosmoem", "solgaleo", "lunala", "nihilego", "buzzwole",
-        "pheromosa", "xurkitree", "celesteela", "kartana", "guzzlord",
-        "necrozma", "magearna", "marshadow", "poipole", "naganadel",
-        "stakataka", "blacephalon", "zeraora",
-        // Gen 8
-        "zacian", "zamazenta", "eternatus", "kubfu", "urshifu",
-        "zarude", "regieleki", "regidrago", "glastrier", "spectrier",
-        "calyrex",
-        // Gen 9
-        "koraidon", "miraidon", "tinglu", "chienpao", "wochien", "chiyu",
-        "roaringmoon", "ironvaliant", "walkingwake", "ironleaves"
-    );
-    
-    /**
-     * Check if a species is legendary or mythical
-     */
-    private boolean isLegendary(String species) {
-        return LEGENDARY_POKEMON.contains(species.toLowerCase());
-    }
-    
-    public EconomyManager(HttpClient httpClient, ModLogger logger) {
+    public EconomyManager(HttpClient httpClient, ModLogger logger, Outbox outbox, BalanceLedger ledger,
+                          PlayerSessionRegistry sessions, TimerWheel timers, TaskScope storeWriter, TaskScope scheduler) {
         this.httpClient = httpClient;
         this.logger = logger;
-        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
-            Thread t = new Thread(r, "Economy-Manager");
-            t.setDaemon(true);
-            return t;
-        });
+        this.outbox = outbox;
+        this.ledger = ledger;
+        this.sessions = sessions;
+        this.store = new EconomyStore(logger, storeWriter);
+        this.pitufipuntos = new PitufipuntosCache(timers, SYNERGY_REWARD_INTERVAL_MS);
+        this.appliedSyncs = ExpiringCache.<String, Boolean>builder("economy.applied-syncs", timers)
+            .maximumSize(MAX_APPLIED_SYNCS)
+            .expireAfterWrite(APPLIED_SYNC_TTL_MS)
+            .build();
+        this.timers = timers;
+        this.scheduler = scheduler;
     }
     
     /**
@@ -192,36 +181,17 @@ public class EconomyManager {
         this.server = server;
         logger.info("Economy system initializing...");
         
+        // Local player state (read synchronously at login)
+        store.initialize();
+        
         // Register Cobblemon event listeners
         registerEventListeners();
         
-        // Start playtime reward checker
-        scheduler.scheduleAtFixedRate(
-            this::checkPlaytimeRewards,
-            60, // Initial delay 1 min
-            60, // Check every minute
-            TimeUnit.SECONDS
-        );
+        // Playtime and synergy rewards run on per-player timers (scheduled at login)
         
-        // Start synergy reward checker (every 5 minutes, checks if 2h passed)
+        // Distribute synergy pool to online players every 30 minutes (on the server thread)
         scheduler.scheduleAtFixedRate(
-            this::checkSynergyRewards,
-            2 * 60, // Initial delay 2 min
-            5 * 60, // Check every 5 minutes
-            TimeUnit.SECONDS
-        );
-        
-        // Start activity tracker (updates last activity for non-AFK players)
-        scheduler.scheduleAtFixedRate(
-            this::trackPlayerActivity,
-            30, // Initial delay 30s
-            60, // Check every minute
-            TimeUnit.SECONDS
-        );
-        
-        // Distribute synergy pool to online players every 30 minutes
-        scheduler.scheduleAtFixedRate(
-            this::distributeSynergyPool,
+            () -> server.execute(this::distributeSynergyPool),
             15 * 60, // Initial delay 15 min
             30 * 60, // Every 30 minutes
             TimeUnit.SECONDS
@@ -245,6 +215,7 @@ public class EconomyManager {
         logger.info("  - Daily rewards: " + DAILY_REWARDS[0] + "-" + DAILY_REWARDS[6] + " CD (7-day streak)");
         logger.info("  - Bounties: " + BOUNTY_COUNT + " active (" + BOUNTY_MIN_REWARD + "-" + BOUNTY_MAX_REWARD + " CD)");
         logger.info("  - Synergy rewards: Every 2h (accumulates offline, AFK penalty)");
+        logger.info("  - Playtime/synergy: per-player timers, activity from movement and interactions");
         logger.info("  - Web sync polling: Every 5 seconds");
     }
     
@@ -260,6 +231,16 @@ public class EconomyManager {
             }, 2, TimeUnit.SECONDS);
         });
         
+        // Disconnect - drop the player's reward timers (their session is retired right after)
+        ServerPlayConnectionEvents.DISCONNECT.register((handler, server1) -> {
+            if (handler.getPlayer() == null) return;
+            PlayerSession session = sessions.find(handler.getPlayer().getUuid());
+            EconomySession economy = session != null ? session.peek(SESSION) : null;
+            if (economy != null) {
+                economy.cancelTimers();
+            }
+        });
+        
         // Capture event
         CobblemonEvents.POKEMON_CAPTURED.subscribe(com.cobblemon.mod.common.api.Priority.NORMAL, event -> {
             ServerPlayerEntity player = event.getPlayer();
@@ -280,6 +261,14 @@ public class EconomyManager {
             }
         });
         
+        // EV changes don't show in the Pitufipuntos stamp - drop the Pokémon's cached score
+        CobblemonEvents.EV_GAINED_EVENT_POST.subscribe(com.cobblemon.mod.common.api.Priority.NORMAL, event -> {
+            Pokemon pokemon = event.getPokemon();
+            if (pokemon != null) {
+                pitufipuntos.invalidate(pokemon.getUuid());
+            }
+        });
+        
         logger.info("  - Event listeners registered");
     }
 
@@ -305,8 +294,8 @@ public class EconomyManager {
             message.append(" §e+").append(CAPTURE_SHINY_BONUS).append(" §7(shiny!)");
         }
         
-        // Legendary bonus - check against known legendaries list
-        if (isLegendary(species)) {
+        // Legendary bonus - flags from the shared species registry
+        if (SpeciesRegistry.isLegendary(pokemon.getSpecies())) {
             reward += CAPTURE_LEGENDARY_BONUS;
             message.append(" §d+").append(CAPTURE_LEGENDARY_BONUS).append(" §7(legendario!)");
         }
@@ -315,6 +304,7 @@ public class EconomyManager {
         PlayerEconomyData data = getPlayerData(uuid);
         if (!data.caughtSpecies.contains(species)) {
             data.caughtSpecies.add(species);
+            saveLocal(uuid, data);
             reward += CAPTURE_FIRST_CATCH_BONUS;
             message.append(" §b+").append(CAPTURE_FIRST_CATCH_BONUS).append(" §7(nueva especie!)");
             
@@ -333,7 +323,7 @@ public class EconomyManager {
         }
         
         // Give reward
-        giveReward(player, reward);
+        giveReward(player, reward, "capture");
         player.sendMessage(Text.literal(message.toString()));
         
         logger.debug("Capture reward: " + player.getName().getString() + " got " + reward + " CD for " + species);
@@ -345,7 +335,7 @@ public class EconomyManager {
     private void onPokemonEvolved(ServerPlayerEntity player, Pokemon pokemon) {
         if (player == null || pokemon == null) return;
         
-        giveReward(player, EVOLUTION_REWARD);
+        giveReward(player, EVOLUTION_REWARD, "evolution");
         player.sendMessage(Text.literal("§a+" + EVOLUTION_REWARD + " CD §7(evolución de " + pokemon.getSpecies().getName() + ")"));
         
         logger.debug("Evolution reward: " + player.getName().getString() + " got " + EVOLUTION_REWARD + " CD");
@@ -358,7 +348,7 @@ public class EconomyManager {
         if (player == null || !isPvE) return; // Only PvE rewards
         
         int reward = BATTLE_WIN_BASE + (enemyLevel * BATTLE_WIN_PER_LEVEL);
-        giveReward(player, reward);
+        giveReward(player, reward, "battle");
         player.sendMessage(Text.literal("§a+" + reward + " CD §7(victoria en batalla)"));
         
         logger.debug("Battle reward: " + player.getName().getString() + " got " + reward + " CD");
@@ -370,7 +360,7 @@ public class EconomyManager {
     private void checkPokedexMilestones(ServerPlayerEntity player, int speciesCount) {
         Integer reward = POKEDEX_MILESTONES.get(speciesCount);
         if (reward != null) {
-            giveReward(player, reward);
+            giveReward(player, reward, "milestone");
             player.sendMessage(Text.literal(""));
             player.sendMessage(Text.literal("§6§l★ ¡MILESTONE POKÉDEX! ★"));
             player.sendMessage(Text.literal("§e" + speciesCount + " especies capturadas"));
@@ -382,34 +372,48 @@ public class EconomyManager {
     }
     
     /**
-     * Check playtime rewards for all online players
+     * Start the player's playtime and synergy timers (main thread, at login)
      */
-    private void checkPlaytimeRewards() {
-        if (server == null) return;
+    private void startRewardTimers(ServerPlayerEntity player) {
+        PlayerSession session = sessions.get(player);
+        if (session == null) return;
+        
+        EconomySession economy = session.get(SESSION);
+        long now = System.currentTimeMillis();
+        economy.lastPlaytimeRewardAt = now;
+        schedulePlaytime(player.getUuid(), economy, now + PLAYTIME_INTERVAL_MS);
+        scheduleSynergy(player.getUuid(), economy, now + SYNERGY_FIRST_CHECK_MS);
+    }
+    
+    private void schedulePlaytime(UUID uuid, EconomySession economy, long deadline) {
+        TimerWheel.Timeout previous = economy.playtimeTimer;
+        if (previous != null) previous.cancel();
+        economy.playtimeTimer = timers.schedule(deadline, () -> server.execute(() -> onPlaytimeDue(uuid)));
+    }
+    
+    private void scheduleSynergy(UUID uuid, EconomySession economy, long deadline) {
+        TimerWheel.Timeout previous = economy.synergyTimer;
+        if (previous != null) previous.cancel();
+        economy.synergyTimer = timers.schedule(deadline, () -> server.execute(() -> onSynergyDue(uuid)));
+    }
+    
+    /**
+     * Playtime timer fired - give the reward and start the next period (main thread)
+     */
+    private void onPlaytimeDue(UUID uuid) {
+        ServerPlayerEntity player = server.getPlayerManager().getPlayer(uuid);
+        PlayerSession session = sessions.find(uuid);
+        if (player == null || player.isDisconnected() || session == null) return;
         
+        EconomySession economy = session.get(SESSION);
         long now = System.currentTimeMillis();
         
-        for (ServerPlayerEntity player : server.getPlayerManager().getPlayerList()) {
-            if (player == null || player.isDisconnected()) continue;
-            
-            UUID uuid = player.getUuid();
-            Long lastReward = lastPlaytimeReward.get(uuid);
-            
-            if (lastReward == null) {
-                // First time tracking this player
-                lastPlaytimeReward.put(uuid, now);
-                continue;
-            }
-            
-            if (now - lastReward >= PLAYTIME_INTERVAL_MS) {
-                // Give playtime reward
-                giveReward(player, PLAYTIME_REWARD);
-                player.sendMessage(Text.literal("§a+" + PLAYTIME_REWARD + " CD §7(30 min jugando)"));
-                lastPlaytimeReward.put(uuid, now);
-                
-                logger.debug("Playtime reward: " + player.getName().getString() + " got " + PLAYTIME_REWARD + " CD");
-            }
-        }
+        giveReward(player, PLAYTIME_REWARD, "playtime");
+        player.sendMessage(Text.literal("§a+" + PLAYTIME_REWARD + " CD §7(30 min jugando)"));
+        economy.lastPlaytimeRewardAt = now;
+        schedulePlaytime(uuid, economy, now + PLAYTIME_INTERVAL_MS);
+        
+        logger.debug("Playtime reward: " + player.getName().getString() + " got " + PLAYTIME_REWARD + " CD");
     }
     
     /**
@@ -420,12 +424,35 @@ public class EconomyManager {
         
         UUID uuid = player.getUuid();
         
-        // Load economy data from backend (async)
-        loadEconomyDataFromBackend(uuid);
-        
         // SYNC BALANCE FROM BACKEND (for web gacha purchases)
         syncBalanceFromBackend(player);
         
+        // Local copy first - read synchronously so the daily reward sees real data
+        boolean hasLocal = loadLocalData(uuid);
+        
+        // Reconcile with the backend in the background
+        CompletableFuture<Void> backendLoad = loadEconomyDataFromBackend(uuid);
+        
+        if (hasLocal) {
+            processDailyReward(player);
+        } else {
+            // First login on this server - wait for the backend copy (or its failure) before deciding
+            backendLoad.whenComplete((ignored, ex) -> server.execute(() -> {
+                if (!player.isDisconnected()) {
+                    processDailyReward(player);
+                }
+            }));
+        }
+        
+        // Playtime and synergy timers start from this login
+        startRewardTimers(player);
+    }
+    
+    /**
+     * Give the daily reward if a new day started since the last one
+     */
+    private void processDailyReward(ServerPlayerEntity player) {
+        UUID uuid = player.getUuid();
         PlayerEconomyData data = getPlayerData(uuid);
         
         long now = System.currentTimeMillis();
@@ -450,6 +477,7 @@ public class EconomyManager {
             int reward = DAILY_REWARDS[rewardIndex];
             
             data.lastDailyReward = now;
+            saveLocal(uuid, data);
             
             // Save to backend
             saveDailyRewardToBackend(uuid, now, data.dailyStreak);
@@ -457,7 +485,7 @@ public class EconomyManager {
             // Delay the message slightly so player sees it after login
             scheduler.schedule(() -> {
                 server.execute(() -> {
-                    giveReward(player, reward);
+                    giveReward(player, reward, "daily");
                     player.sendMessage(Text.literal(""));
                     player.sendMessage(Text.literal("§6§l✦ RECOMPENSA DIARIA ✦"));
                     player.sendMessage(Text.literal("§eDía " + data.dailyStreak + " de racha"));
@@ -474,9 +502,6 @@ public class EconomyManager {
             
             logger.info("Daily reward: " + player.getName().getString() + " day " + data.dailyStreak + ", got " + reward + " CD");
         }
-        
-        // Reset playtime tracking
-        lastPlaytimeReward.put(uuid, now);
     }
     
     // ============================================
@@ -484,10 +509,11 @@ public class EconomyManager {
     // ============================================
     
     /**
-     * Load economy data from backend (async)
+     * Load economy data from backend (async) and merge it into the local copy
+     * Newest timestamp wins, caught species are merged
      */
-    private void loadEconomyDataFromBackend(UUID uuid) {
-        httpClient.getAsync("/api/players/economy/" + uuid.toString())
+    private CompletableFuture<Void> loadEconomyDataFromBackend(UUID uuid) {
+        return httpClient.getAsync("/api/players/economy/" + uuid.toString())
             .thenAccept(response -> {
                 if (response != null && response.has("success") && response.get("success").getAsBoolean()) {
                     PlayerEconomyData data = getPlayerData(uuid);
@@ -495,28 +521,31 @@ public class EconomyManager {
                     // Load synergy timestamp
                     if (response.has("lastSynergyReward") && !response.get("lastSynergyReward").isJsonNull()) {
                         String timestamp = response.get("lastSynergyReward").getAsString();
-                        data.lastSynergyReward = Instant.parse(timestamp).toEpochMilli();
+                        data.lastSynergyReward = Math.max(data.lastSynergyReward, Instant.parse(timestamp).toEpochMilli());
                     }
                     
-                    // Load daily reward data
+                    // Load daily reward data (the streak belongs to whichever side claimed last)
                     if (response.has("lastDailyReward") && !response.get("lastDailyReward").isJsonNull()) {
                         String timestamp = response.get("lastDailyReward").getAsString();
-                        data.lastDailyReward = Instant.parse(timestamp).toEpochMilli();
-                    }
-                    
-                    if (response.has("dailyStreak")) {
-                        data.dailyStreak = response.get("dailyStreak").getAsInt();
+                        long backendDaily = Instant.parse(timestamp).toEpochMilli();
+                        if (backendDaily > data.lastDailyReward) {
+                            data.lastDailyReward = backendDaily;
+                            if (response.has("dailyStreak")) {
+                                data.dailyStreak = response.get("dailyStreak").getAsInt();
+                            }
+                        }
                     }
                     
                     // Load caught species
                     if (response.has("caughtSpecies") && response.get("caughtSpecies").isJsonArray()) {
-                        data.caughtSpecies.clear();
                         response.get("caughtSpecies").getAsJsonArray().forEach(element -> {
                             data.caughtSpecies.add(element.getAsString());
                         });
                     }
                     
-                    logger.debug("Loaded economy data for " + uuid + " from backend");
+                    data.loaded = true;
+                    saveLocal(uuid, data);
+                    logger.debug("Reconciled economy data for " + uuid + " with backend");
                 }
             })
             .exceptionally(ex -> {
@@ -540,13 +569,9 @@ public class EconomyManager {
                 if (response != null && response.has("success") && response.get("success").getAsBoolean()) {
                     int backendBalance = response.has("balance") ? response.get("balance").getAsInt() : 0;
                     
-                    // Use cobbledollars set command to sync the balance
+                    // Backend is the source of truth for the balance
                     server.execute(() -> {
-                        String command = "cobbledollars set " + playerName + " " + backendBalance;
-                        server.getCommandManager().executeWithPrefix(
-                            server.getCommandSource().withSilent(),
-                            command
-                        );
+                        ledger.set(playerName, backendBalance, "backend-sync");
                         logger.info("Synced balance for " + playerName + " from backend: " + backendBalance + " CD");
                     });
                 }
@@ -563,6 +588,7 @@ public class EconomyManager {
      */
     private void pollPendingEconomySyncs() {
         if (server == null) return;
+        if (httpClient.isOffline()) return; // Suspended until the backend is back
         
         // Check for each online player
         for (ServerPlayerEntity player : server.getPlayerManager().getPlayerList()) {
@@ -591,27 +617,27 @@ public class EconomyManager {
                                     id = idElement.getAsString();
                                 }
                                 
+                                // Applied already, confirm still on its way - listing it again is expected
+                                if (appliedSyncs.containsKey(id)) continue;
+                                
                                 String type = pending.get("type").getAsString();
                                 int amount = pending.get("amount").getAsInt();
                                 String reason = pending.has("reason") ? pending.get("reason").getAsString() : "Web transaction";
                                 
-                                // Execute the transaction in-game
+                                // Execute the transaction in-game (checked again here: two polls can list it before either runs)
                                 server.execute(() -> {
-                                    String command;
+                                    if (appliedSyncs.containsKey(id)) return;
+                                    
                                     if ("remove".equals(type)) {
-                                        command = "cobbledollars remove " + playerName + " " + amount;
+                                        ledger.debit(playerName, amount, "web-sync");
                                         player.sendMessage(Text.literal("§c-" + amount + " CD §7(" + reason + ")"));
                                     } else if ("add".equals(type)) {
-                                        command = "cobbledollars give " + playerName + " " + amount;
+                                        ledger.credit(playerName, amount, "web-sync");
                                         player.sendMessage(Text.literal("§a+" + amount + " CD §7(" + reason + ")"));
                                     } else {
                                         return;
                                     }
-                                    
-                                    server.getCommandManager().executeWithPrefix(
-                                        server.getCommandSource().withSilent(),
-                                        command
-                                    );
+                                    appliedSyncs.put(id, Boolean.TRUE);
                                     
                                     logger.info("[ECONOMY SYNC] " + type + " " + amount + " CD for " + playerName + " (" + reason + ")");
                                     
@@ -630,10 +656,11 @@ public class EconomyManager {
     }
     
     /**
-     * Confirm that a pending sync has been processed
+     * Confirm that a pending sync has been processed. The ID stays in appliedSyncs for its full TTL,
+     * not just until this lands: a poll answered just before the confirm may still list it
      */
     private void confirmPendingSync(String syncId) {
-        httpClient.postAsync("/api/economy/confirm-sync/" + syncId, new JsonObject())
+        outbox.enqueue("/api/economy/confirm-sync/" + syncId, new JsonObject())
             .exceptionally(ex -> {
                 logger.error("Failed to confirm sync " + syncId + ": " + ex.getMessage());
                 return null;
@@ -648,7 +675,7 @@ public class EconomyManager {
         body.addProperty("uuid", uuid.toString());
         body.addProperty("timestamp", Instant.ofEpochMilli(timestamp).toString());
         
-        httpClient.postAsync("/api/players/economy/synergy", body)
+        outbox.enqueue("/api/players/economy/synergy", body)
             .thenAccept(response -> {
                 logger.debug("Saved synergy reward for " + uuid + " to backend");
             })
@@ -667,7 +694,7 @@ public class EconomyManager {
         body.addProperty("timestamp", Instant.ofEpochMilli(timestamp).toString());
         body.addProperty("streak", streak);
         
-        httpClient.postAsync("/api/players/economy/daily", body)
+        outbox.enqueue("/api/players/economy/daily", body)
             .thenAccept(response -> {
                 logger.debug("Saved daily reward for " + uuid + " to backend");
             })
@@ -685,7 +712,7 @@ public class EconomyManager {
         body.addProperty("uuid", uuid.toString());
         body.addProperty("species", species);
         
-        httpClient.postAsync("/api/players/economy/species", body)
+        outbox.enqueue("/api/players/economy/species", body)
             .exceptionally(ex -> {
                 logger.debug("Failed to register species to backend: " + ex.getMessage());
                 return null;
@@ -696,6 +723,62 @@ public class EconomyManager {
     // BOUNTY SYSTEM
     // ============================================
     
+    /**
+     * Write the current bounties and applied web syncs to the snapshot (bounties valid until their rotation is due)
+     */
+    public void saveWarmCache(WarmCacheSnapshot snapshot) {
+        saveAppliedSyncs(snapshot);
+        if (activeBounties.isEmpty()) return;
+        
+        JsonObject value = new JsonObject();
+        value.addProperty("rotatedAt", lastBountyRotation);
+        JsonObject bounties = new JsonObject();
+        activeBounties.forEach(bounties::addProperty);
+        value.add("bounties", bounties);
+        snapshot.put("economy.bounties", "current", value, lastBountyRotation + BOUNTY_ROTATION_MS);
+    }
+    
+    /**
+     * Write the applied web sync IDs to the snapshot - their confirms may still be in the outbox after a restart
+     */
+    private void saveAppliedSyncs(WarmCacheSnapshot snapshot) {
+        appliedSyncs.forEach((id, applied, writtenAt) ->
+            snapshot.put("economy.applied-syncs", id, new JsonPrimitive(writtenAt), writtenAt + APPLIED_SYNC_TTL_MS));
+    }
+    
+    private void restoreAppliedSyncs(WarmCacheSnapshot snapshot) {
+        for (Map.Entry<String, JsonElement> entry : snapshot.take("economy.applied-syncs").entrySet()) {
+            try {
+                appliedSyncs.put(entry.getKey(), Boolean.TRUE, entry.getValue().getAsLong());
+            } catch (Exception e) {
+                logger.debug("Skipping bad applied sync entry: " + entry.getKey());
+            }
+        }
+    }
+    
+    /**
+     * Restore bounties and applied web syncs (call before initialize, so the startup rotation keeps them
+     * and the first pending-sync poll skips syncs applied before the restart)
+     */
+    public void restoreWarmCache(WarmCacheSnapshot snapshot) {
+        restoreAppliedSyncs(snapshot);
+        
+        JsonElement current = snapshot.take("economy.bounties").get("current");
+        if (current == null) return;
+        
+        try {
+            JsonObject value = current.getAsJsonObject();
+            for (Map.Entry<String, JsonElement> entry : value.getAsJsonObject("bounties").entrySet()) {
+                activeBounties.put(entry.getKey(), entry.getValue().getAsInt());
+            }
+            lastBountyRotation = value.get("rotatedAt").getAsLong();
+            logger.info("Restored bounties: " + activeBounties);
+        } catch (Exception e) {
+            logger.error("Error restoring bounties: " + e.getMessage());
+            activeBounties.clear();
+        }
+    }
+    
     /**
      * Rotate bounties every 6 hours
      */
@@ -763,39 +846,17 @@ public class EconomyManager {
     // TEAM SYNERGY REWARD SYSTEM
     // ============================================
     
-    /**
-     * Track player activity to detect AFK
-     * Called every minute to update activity timestamps
-     */
-    private void trackPlayerActivity() {
-        if (server == null) return;
-        
-        for (ServerPlayerEntity player : server.getPlayerManager().getPlayerList()) {
-            if (player == null || player.isDisconnected()) continue;
-            
-            // Check if player has moved or done something recently
-            // We track this by checking if they're not standing still
-            // For simplicity, we update activity on any online player who isn't sneaking/still
-            UUID uuid = player.getUuid();
-            
-            // Update activity if player is moving or has velocity
-            if (player.getVelocity().lengthSquared() > 0.001 || !player.isSneaking()) {
-                lastPlayerActivity.put(uuid, System.currentTimeMillis());
-            }
-        }
-    }
-    
     /**
      * Check if player is AFK (no activity in last 10 minutes)
      */
     private boolean isPlayerAFK(UUID uuid) {
-        Long lastActivity = lastPlayerActivity.get(uuid);
-        if (lastActivity == null) return true; // No activity recorded = AFK
-        return System.currentTimeMillis() - lastActivity > AFK_THRESHOLD_MS;
+        PlayerSession session = sessions.find(uuid);
+        if (session == null) return true; // No session = not playing
+        return System.currentTimeMillis() - session.getLastActivityAt() > AFK_THRESHOLD_MS;
     }
     
     /**
-     * Distribute accumulated synergy pool to online active players
+     * Distribute accumulated synergy pool to online active players (main thread)
      */
     private void distributeSynergyPool() {
         if (server == null || synergyDistributionPool <= 0) return;
@@ -819,7 +880,7 @@ public class EconomyManager {
         
         int distributed = 0;
         for (ServerPlayerEntity player : activePlayers) {
-            giveReward(player, perPlayer);
+            giveReward(player, perPlayer, "pool");
             player.sendMessage(Text.literal("§d+§f" + perPlayer + " CD §7(impuesto de sinergia redistribuido)"));
             distributed += perPlayer;
         }
@@ -829,7 +890,7 @@ public class EconomyManager {
     }
     
     /**
-     * Check synergy rewards for all online players (every 2 hours - ACCUMULATES)
+     * Synergy timer fired for one player (every 2 hours - ACCUMULATES) - main thread
      * ONLY counts PARTY Pokémon - prevents PC exploit
      * 
      * ACCUMULATES while offline! If player was offline for 6 hours, they get 3 rewards.
@@ -837,122 +898,134 @@ public class EconomyManager {
      * - 40% of penalty goes as XP to lowest level Pokémon (respecting level cap)
      * - 60% of penalty goes to distribution pool for active players
      */
-    private void checkSynergyRewards() {
-        if (server == null) return;
+    private void onSynergyDue(UUID uuid) {
+        ServerPlayerEntity player = server.getPlayerManager().getPlayer(uuid);
+        PlayerSession session = sessions.find(uuid);
+        if (player == null || player.isDisconnected() || session == null) return;
         
+        EconomySession economy = session.get(SESSION);
+        PlayerEconomyData data = getPlayerData(uuid);
         long now = System.currentTimeMillis();
         
-        for (ServerPlayerEntity player : server.getPlayerManager().getPlayerList()) {
-            if (player == null || player.isDisconnected()) continue;
-            
-            UUID uuid = player.getUuid();
-            PlayerEconomyData data = getPlayerData(uuid);
+        try {
+            rewardSynergy(player, data, now);
+        } finally {
+            // Next period counts from the last reward - a reward that couldn't be given is retried later
+            long next = Math.max(data.lastSynergyReward + SYNERGY_REWARD_INTERVAL_MS, now + SYNERGY_RETRY_MS);
+            scheduleSynergy(uuid, economy, next);
+        }
+    }
+    
+    private void rewardSynergy(ServerPlayerEntity player, PlayerEconomyData data, long now) {
+        UUID uuid = player.getUuid();
+        
+        // Initialize timestamp if first time
+        if (data.lastSynergyReward == 0) {
+            data.lastSynergyReward = now;
+            saveLocal(uuid, data);
+            logger.debug("Synergy timer started for " + player.getName().getString());
+            return;
+        }
+        
+        // Calculate how many 2-hour periods have passed (ACCUMULATES!)
+        long timeSinceLastReward = now - data.lastSynergyReward;
+        int periodsAccumulated = (int) (timeSinceLastReward / SYNERGY_REWARD_INTERVAL_MS);
+        
+        if (periodsAccumulated < 1) return;
+        
+        // Calculate synergy reward
+        try {
+            SynergyRewardResult result = calculateSynergyReward(player);
             
-            // Initialize timestamp if first time
-            if (data.lastSynergyReward == 0) {
+            if (result.reward <= 0) {
+                // Not enough Pokémon in party
                 data.lastSynergyReward = now;
-                logger.debug("Synergy timer started for " + player.getName().getString());
-                continue;
+                saveLocal(uuid, data);
+                return;
             }
             
-            // Calculate how many 2-hour periods have passed (ACCUMULATES!)
-            long timeSinceLastReward = now - data.lastSynergyReward;
-            int periodsAccumulated = (int) (timeSinceLastReward / SYNERGY_REWARD_INTERVAL_MS);
+            // Total accumulated reward
+            int totalBaseReward = result.reward * periodsAccumulated;
             
-            if (periodsAccumulated < 1) continue;
+            // Check if player is AFK - apply penalty
+            boolean isAFK = isPlayerAFK(uuid);
+            int finalReward = totalBaseReward;
+            int penaltyAmount = 0;
+            int xpGiven = 0;
+            int distributedAmount = 0;
             
-            // Calculate synergy reward
-            try {
-                SynergyRewardResult result = calculateSynergyReward(player);
-                
-                if (result.reward <= 0) {
-                    // Not enough Pokémon in party
-                    data.lastSynergyReward = now;
-                    continue;
-                }
-                
-                // Total accumulated reward
-                int totalBaseReward = result.reward * periodsAccumulated;
-                
-                // Check if player is AFK - apply penalty
-                boolean isAFK = isPlayerAFK(uuid);
-                int finalReward = totalBaseReward;
-                int penaltyAmount = 0;
-                int xpGiven = 0;
-                int distributedAmount = 0;
-                
-                if (isAFK) {
-                    // Apply 40% penalty
-                    penaltyAmount = (int) (totalBaseReward * AFK_PENALTY_PERCENT);
-                    finalReward = totalBaseReward - penaltyAmount;
-                    
-                    // Split penalty: 40% to XP, 60% to distribution pool
-                    int xpPortion = (int) (penaltyAmount * XP_CONVERSION_PERCENT);
-                    distributedAmount = penaltyAmount - xpPortion;
-                    
-                    // Give XP to lowest level Pokémon (respecting level cap)
-                    xpGiven = giveXPToLowestPokemon(player, xpPortion);
-                    
-                    // Add rest to distribution pool
-                    synergyDistributionPool += distributedAmount;
-                }
-                
-                // Give the reward
-                giveReward(player, finalReward);
-                data.lastSynergyReward = now;
-                
-                // Save to backend for persistence
-                saveSynergyRewardToBackend(uuid, now);
+            if (isAFK) {
+                // Apply 40% penalty
+                penaltyAmount = (int) (totalBaseReward * AFK_PENALTY_PERCENT);
+                finalReward = totalBaseReward - penaltyAmount;
                 
-                // Send detailed message
-                player.sendMessage(Text.literal(""));
-                player.sendMessage(Text.literal("§d§l⚡ RECOMPENSA DE SINERGIA ⚡"));
+                // Split penalty: 40% to XP, 60% to distribution pool
+                int xpPortion = (int) (penaltyAmount * XP_CONVERSION_PERCENT);
+                distributedAmount = penaltyAmount - xpPortion;
                 
-                if (periodsAccumulated > 1) {
-                    player.sendMessage(Text.literal("§7Acumulado: §e" + periodsAccumulated + " periodos §7(cada 2h)"));
-                }
+                // Give XP to lowest level Pokémon (respecting level cap)
+                xpGiven = giveXPToLowestPokemon(player, xpPortion);
                 
+                // Add rest to distribution pool
+                synergyDistributionPool += distributedAmount;
+            }
+            
+            // Give the reward
+            giveReward(player, finalReward, "synergy");
+            data.lastSynergyReward = now;
+            saveLocal(uuid, data);
+            
+            // Save to backend for persistence
+            saveSynergyRewardToBackend(uuid, now);
+            
+            // Send detailed message
+            player.sendMessage(Text.literal(""));
+            player.sendMessage(Text.literal("§d§l⚡ RECOMPENSA DE SINERGIA ⚡"));
+            
+            if (periodsAccumulated > 1) {
+                player.sendMessage(Text.literal("§7Acumulado: §e" + periodsAccumulated + " periodos §7(cada 2h)"));
+            }
+            
+            player.sendMessage(Text.literal(""));
+            player.sendMessage(Text.literal("§e📊 Desglose por periodo:"));
+            player.sendMessage(Text.literal("§7  Base: §a+" + SYNERGY_BASE_REWARD + " CD"));
+            if (result.ppBonus > 0) {
+                player.sendMessage(Text.literal("§7  Pitufipuntos (prom " + result.avgPitufipuntos + "): §a+" + result.ppBonus + " CD"));
+            }
+            if (result.fullTeamBonus > 0) {
+                player.sendMessage(Text.literal("§7  Equipo completo (6/6): §a+" + result.fullTeamBonus + " CD"));
+            }
+            if (result.typeDiversityBonus > 0) {
+                player.sendMessage(Text.literal("§7  Diversidad de tipos (" + result.uniqueTypes + "): §a+" + result.typeDiversityBonus + " CD"));
+            }
+            if (result.shinyBonus > 0) {
+                player.sendMessage(Text.literal("§e  Shinies (" + result.shinyCount + "): §a+" + result.shinyBonus + " CD"));
+            }
+            if (result.legendaryBonus > 0) {
+                player.sendMessage(Text.literal("§d  Legendarios (" + result.legendaryCount + "): §a+" + result.legendaryBonus + " CD"));
+            }
+            
+            if (isAFK) {
                 player.sendMessage(Text.literal(""));
-                player.sendMessage(Text.literal("§e📊 Desglose por periodo:"));
-                player.sendMessage(Text.literal("§7  Base: §a+" + SYNERGY_BASE_REWARD + " CD"));
-                if (result.ppBonus > 0) {
-                    player.sendMessage(Text.literal("§7  Pitufipuntos (prom " + result.avgPitufipuntos + "): §a+" + result.ppBonus + " CD"));
-                }
-                if (result.fullTeamBonus > 0) {
-                    player.sendMessage(Text.literal("§7  Equipo completo (6/6): §a+" + result.fullTeamBonus + " CD"));
-                }
-                if (result.typeDiversityBonus > 0) {
-                    player.sendMessage(Text.literal("§7  Diversidad de tipos (" + result.uniqueTypes + "): §a+" + result.typeDiversityBonus + " CD"));
-                }
-                if (result.shinyBonus > 0) {
-                    player.sendMessage(Text.literal("§e  Shinies (" + result.shinyCount + "): §a+" + result.shinyBonus + " CD"));
+                player.sendMessage(Text.literal("§c⚠ Penalización AFK (-" + (int)(AFK_PENALTY_PERCENT * 100) + "%):"));
+                player.sendMessage(Text.literal("§7  Penalizado: §c-" + penaltyAmount + " CD"));
+                if (xpGiven > 0) {
+                    player.sendMessage(Text.literal("§7  → §b" + xpGiven + " XP §7a tu Pokémon más débil"));
                 }
-                if (result.legendaryBonus > 0) {
-                    player.sendMessage(Text.literal("§d  Legendarios (" + result.legendaryCount + "): §a+" + result.legendaryBonus + " CD"));
-                }
-                
-                if (isAFK) {
-                    player.sendMessage(Text.literal(""));
-                    player.sendMessage(Text.literal("§c⚠ Penalización AFK (-" + (int)(AFK_PENALTY_PERCENT * 100) + "%):"));
-                    player.sendMessage(Text.literal("§7  Penalizado: §c-" + penaltyAmount + " CD"));
-                    if (xpGiven > 0) {
-                        player.sendMessage(Text.literal("§7  → §b" + xpGiven + " XP §7a tu Pokémon más débil"));
-                    }
-                    player.sendMessage(Text.literal("§7  → §e" + distributedAmount + " CD §7redistribuido a jugadores activos"));
-                }
-                
-                player.sendMessage(Text.literal(""));
-                player.sendMessage(Text.literal("§a§l  TOTAL RECIBIDO: +" + finalReward + " CobbleDollars"));
-                player.sendMessage(Text.literal("§7  Próxima recompensa en 2 horas"));
-                player.sendMessage(Text.literal(""));
-                
-                logger.info("Synergy reward: " + player.getName().getString() + " got " + finalReward + " CD" +
-                    (isAFK ? " (AFK penalty: -" + penaltyAmount + ", XP: " + xpGiven + ")" : "") +
-                    " (periods: " + periodsAccumulated + ", party: " + result.partySize + ")");
-                
-            } catch (Exception e) {
-                logger.error("Error calculating synergy reward for " + player.getName().getString() + ": " + e.getMessage());
+                player.sendMessage(Text.literal("§7  → §e" + distributedAmount + " CD §7redistribuido a jugadores activos"));
             }
+            
+            player.sendMessage(Text.literal(""));
+            player.sendMessage(Text.literal("§a§l  TOTAL RECIBIDO: +" + finalReward + " CobbleDollars"));
+            player.sendMessage(Text.literal("§7  Próxima recompensa en 2 horas"));
+            player.sendMessage(Text.literal(""));
+            
+            logger.info("Synergy reward: " + player.getName().getString() + " got " + finalReward + " CD" +
+                (isAFK ? " (AFK penalty: -" + penaltyAmount + ", XP: " + xpGiven + ")" : "") +
+                " (periods: " + periodsAccumulated + ", party: " + result.partySize + ")");
+            
+        } catch (Exception e) {
+            logger.error("Error calculating synergy reward for " + player.getName().getString() + ": " + e.getMessage());
         }
     }
     
@@ -1013,42 +1086,62 @@ public class EconomyManager {
     
     /**
      * Calculate synergy reward for a player based on their PARTY only
+     * Cached on the session until a party slot holds a different Pokémon or a member's score changes
      */
     private SynergyRewardResult calculateSynergyReward(ServerPlayerEntity player) {
-        SynergyRewardResult result = new SynergyRewardResult();
-        
         // Get player's party (NOT PC)
         PlayerPartyStore party = Cobblemon.INSTANCE.getStorage().getParty(player);
-        if (party == null) return result;
+        if (party == null) return new SynergyRewardResult();
+        
+        // Current members' scores (cached per Pokémon, recomputed only when their stamp changed)
+        PitufipuntosCache.Score[] members = new PitufipuntosCache.Score[6];
+        for (int i = 0; i < 6; i++) {
+            Pokemon pokemon = party.get(i);
+            if (pokemon != null) {
+                members[i] = pitufipuntos.get(pokemon);
+            }
+        }
+        
+        PlayerSession session = sessions.find(player.getUuid());
+        EconomySession economy = session != null ? session.get(SESSION) : null;
+        if (economy != null) {
+            PartySynergy cached = economy.partySynergy;
+            if (cached != null && cached.sameMembers(members)) {
+                return cached.result;
+            }
+        }
+        
+        SynergyRewardResult result = calculateSynergyReward(members);
+        if (economy != null) {
+            economy.partySynergy = new PartySynergy(members, result);
+        }
+        return result;
+    }
+    
+    private SynergyRewardResult calculateSynergyReward(PitufipuntosCache.Score[] members) {
+        SynergyRewardResult result = new SynergyRewardResult();
         
-        // Collect party Pokémon
-        List<Pokemon> partyPokemon = new ArrayList<>();
         Set<String> types = new HashSet<>();
+        int partySize = 0;
         int totalPitufipuntos = 0;
         int shinyCount = 0;
         int legendaryCount = 0;
         
-        for (int i = 0; i < 6; i++) {
-            Pokemon pokemon = party.get(i);
-            if (pokemon != null) {
-                partyPokemon.add(pokemon);
-                
-                // Calculate Pitufipuntos for this Pokémon
-                int pp = calculatePitufipuntos(pokemon);
-                totalPitufipuntos += pp;
+        for (PitufipuntosCache.Score score : members) {
+            if (score != null) {
+                partySize++;
+                totalPitufipuntos += score.pitufipuntos;
                 
                 // Track types
-                pokemon.getSpecies().getTypes().forEach(type -> 
-                    types.add(type.getName().toLowerCase())
-                );
+                types.addAll(score.types);
                 
                 // Track shinies and legendaries
-                if (pokemon.getShiny()) shinyCount++;
-                if (isLegendary(pokemon.getSpecies().getName())) legendaryCount++;
+                if (score.shiny) shinyCount++;
+                if (score.legendary) legendaryCount++;
             }
         }
         
-        result.partySize = partyPokemon.size();
+        result.partySize = partySize;
         result.shinyCount = shinyCount;
         result.legendaryCount = legendaryCount;
         result.uniqueTypes = types.size();
@@ -1091,37 +1184,26 @@ public class EconomyManager {
     }
     
     /**
-     * Calculate Pitufipuntos for a single Pokémon
-     * Simplified version of the backend calculation
+     * A party's synergy result and the member scores it was computed from (slot order)
      */
-    private int calculatePitufipuntos(Pokemon pokemon) {
-        int pp = 0;
+    private static final class PartySynergy {
+        final PitufipuntosCache.Score[] members;
+        final SynergyRewardResult result;
         
-        // Base stat estimate (400 for average Pokémon)
-        pp += 400;
-        
-        // IV bonus: IVTotal * 2
-        var ivs = pokemon.getIvs();
-        int ivTotal = ivs.get(Stats.HP) + ivs.get(Stats.ATTACK) + ivs.get(Stats.DEFENCE) +
-                      ivs.get(Stats.SPECIAL_ATTACK) + ivs.get(Stats.SPECIAL_DEFENCE) + ivs.get(Stats.SPEED);
-        pp += ivTotal * 2;
-        
-        // EV bonus: EVTotal / 4
-        var evs = pokemon.getEvs();
-        int evTotal = evs.get(Stats.HP) + evs.get(Stats.ATTACK) + evs.get(Stats.DEFENCE) +
-                      evs.get(Stats.SPECIAL_ATTACK) + evs.get(Stats.SPECIAL_DEFENCE) + evs.get(Stats.SPEED);
-        pp += evTotal / 4;
-        
-        // Level bonus: level * 5
-        pp += pokemon.getLevel() * 5;
-        
-        // Shiny bonus
-        if (pokemon.getShiny()) pp += 200;
-        
-        // Legendary bonus
-        if (isLegendary(pokemon.getSpecies().getName())) pp += 300;
+        PartySynergy(PitufipuntosCache.Score[] members, SynergyRewardResult result) {
+            this.members = members;
+            this.result = result;
+        }
         
-        return pp;
+        /**
+         * Same score objects in the same slots - a recomputed score is a new object, so identity is enough
+         */
+        boolean sameMembers(PitufipuntosCache.Score[] current) {
+            for (int i = 0; i < members.length; i++) {
+                if (members[i] != current[i]) return false;
+            }
+            return true;
+        }
     }
     
     /**
@@ -1152,36 +1234,33 @@ public class EconomyManager {
         PlayerEconomyData data = getPlayerData(uuid);
         boolean isAFK = isPlayerAFK(uuid);
         
-        player.sendMessage(Text.literal(""));
-        player.sendMessage(Text.literal("§d§l⚡ SINERGIA DE EQUIPO"));
-        player.sendMessage(Text.literal("§7Gana CD cada 2 horas basado en tu party"));
-        player.sendMessage(Text.literal("§7(¡Se acumula mientras estás offline!)"));
-        player.sendMessage(Text.literal(""));
+        ChatMessages.Builder message = ChatMessages.builder()
+            .blank()
+            .line("§d§l⚡ SINERGIA DE EQUIPO")
+            .line("§7Gana CD cada 2 horas basado en tu party")
+            .line("§7(¡Se acumula mientras estás offline!)")
+            .blank();
         
         if (result.partySize < SYNERGY_MIN_PARTY_SIZE) {
-            player.sendMessage(Text.literal("§c⚠ Necesitas mínimo " + SYNERGY_MIN_PARTY_SIZE + " Pokémon en tu party"));
-            player.sendMessage(Text.literal("§7Actualmente tienes: " + result.partySize));
+            message.line("§c⚠ Necesitas mínimo " + SYNERGY_MIN_PARTY_SIZE + " Pokémon en tu party")
+                .line("§7Actualmente tienes: " + result.partySize);
         } else {
-            player.sendMessage(Text.literal("§e📊 Tu equipo actual:"));
-            player.sendMessage(Text.literal("§7  Pokémon en party: §f" + result.partySize + "/6"));
-            player.sendMessage(Text.literal("§7  Pitufipuntos promedio: §f" + result.avgPitufipuntos));
-            player.sendMessage(Text.literal("§7  Tipos únicos: §f" + result.uniqueTypes));
-            if (result.shinyCount > 0) {
-                player.sendMessage(Text.literal("§e  Shinies: §f" + result.shinyCount));
-            }
-            if (result.legendaryCount > 0) {
-                player.sendMessage(Text.literal("§d  Legendarios: §f" + result.legendaryCount));
-            }
-            player.sendMessage(Text.literal(""));
-            player.sendMessage(Text.literal("§a  Recompensa por periodo: §f~" + result.reward + " CD"));
+            message.line("§e📊 Tu equipo actual:")
+                .line("§7  Pokémon en party: §f" + result.partySize + "/6")
+                .line("§7  Pitufipuntos promedio: §f" + result.avgPitufipuntos)
+                .line("§7  Tipos únicos: §f" + result.uniqueTypes)
+                .lineIf(result.shinyCount > 0, "§e  Shinies: §f" + result.shinyCount)
+                .lineIf(result.legendaryCount > 0, "§d  Legendarios: §f" + result.legendaryCount)
+                .blank()
+                .line("§a  Recompensa por periodo: §f~" + result.reward + " CD");
             
             // AFK status
             if (isAFK) {
                 int penalty = (int) (result.reward * AFK_PENALTY_PERCENT);
-                player.sendMessage(Text.literal("§c  ⚠ Estado: AFK §7(-" + penalty + " CD penalización)"));
-                player.sendMessage(Text.literal("§7  Muévete para evitar la penalización"));
+                message.line("§c  ⚠ Estado: AFK §7(-" + penalty + " CD penalización)")
+                    .line("§7  Muévete para evitar la penalización");
             } else {
-                player.sendMessage(Text.literal("§a  ✓ Estado: Activo §7(sin penalización)"));
+                message.line("§a  ✓ Estado: Activo §7(sin penalización)");
             }
         }
         
@@ -1195,25 +1274,25 @@ public class EconomyManager {
             int hoursLeft = (int) (timeLeft / (60 * 60 * 1000));
             int minsLeft = (int) ((timeLeft % (60 * 60 * 1000)) / (60 * 1000));
             
-            player.sendMessage(Text.literal(""));
+            message.blank();
             if (periodsAccumulated > 0) {
                 int accumulated = result.reward * periodsAccumulated;
-                player.sendMessage(Text.literal("§6  ¡Tienes " + periodsAccumulated + " periodo(s) acumulado(s)!"));
-                player.sendMessage(Text.literal("§a  Total pendiente: ~" + accumulated + " CD"));
+                message.line("§6  ¡Tienes " + periodsAccumulated + " periodo(s) acumulado(s)!")
+                    .line("§a  Total pendiente: ~" + accumulated + " CD");
             }
-            player.sendMessage(Text.literal("§7  Próximo periodo en: " + hoursLeft + "h " + minsLeft + "m"));
+            message.line("§7  Próximo periodo en: " + hoursLeft + "h " + minsLeft + "m");
         } else {
-            player.sendMessage(Text.literal("§a  ¡Primera recompensa en ~2h!"));
+            message.line("§a  ¡Primera recompensa en ~2h!");
         }
         
         // Distribution pool info
         if (synergyDistributionPool > 0) {
-            player.sendMessage(Text.literal(""));
-            player.sendMessage(Text.literal("§e  Pool de redistribución: §f" + synergyDistributionPool + " CD"));
-            player.sendMessage(Text.literal("§7  (Se reparte cada 30 min a jugadores activos)"));
+            message.blank()
+                .line("§e  Pool de redistribución: §f" + synergyDistributionPool + " CD")
+                .line("§7  (Se reparte cada 30 min a jugadores activos)");
         }
         
-        player.sendMessage(Text.literal(""));
+        player.sendMessage(message.blank().build());
     }
     
     // ============================================
@@ -1221,23 +1300,59 @@ public class EconomyManager {
     // ============================================
     
     /**
-     * Give CobbleDollars reward to player using command
+     * Give CobbleDollars reward to player (credits in the same tick are merged by the ledger)
      */
-    private void giveReward(ServerPlayerEntity player, int amount) {
+    private void giveReward(ServerPlayerEntity player, int amount, String reason) {
         if (player == null || amount <= 0) return;
         
-        String command = "cobbledollars give " + player.getName().getString() + " " + amount;
-        server.getCommandManager().executeWithPrefix(
-            server.getCommandSource().withSilent(),
-            command
-        );
+        String playerName = player.getName().getString();
+        if (server.isOnThread()) {
+            ledger.credit(playerName, amount, reason);
+        } else {
+            // Reward timers hand over to the server thread - this covers any caller that does not
+            server.execute(() -> ledger.credit(playerName, amount, reason));
+        }
     }
     
     /**
-     * Get or create player economy data
+     * Get player economy data - the session's copy while online, a fresh store read while offline
      */
     private PlayerEconomyData getPlayerData(UUID uuid) {
-        return playerData.computeIfAbsent(uuid, k -> new PlayerEconomyData());
+        PlayerSession session = sessions.find(uuid);
+        if (session == null) {
+            return loadFromStore(uuid);
+        }
+        
+        EconomySession economy = session.get(SESSION);
+        PlayerEconomyData data = economy.data;
+        if (data == null) {
+            synchronized (economy) {
+                if (economy.data == null) {
+                    economy.data = loadFromStore(uuid);
+                }
+                data = economy.data;
+            }
+        }
+        return data;
+    }
+    
+    private PlayerEconomyData loadFromStore(UUID uuid) {
+        PlayerEconomyData local = store.load(uuid);
+        return local != null ? local : new PlayerEconomyData();
+    }
+    
+    /**
+     * Pull the player's local copy into memory; false if this server has never seen them
+     */
+    private boolean loadLocalData(UUID uuid) {
+        return getPlayerData(uuid).loaded;
+    }
+    
+    /**
+     * Queue the player's data for the local store (written off-thread)
+     */
+    private void saveLocal(UUID uuid, PlayerEconomyData data) {
+        store.markDirty(uuid, data);
     }
     
     /**
@@ -1245,25 +1360,36 @@ public class EconomyManager {
      */
     public void shutdown() {
         logger.info("Economy system shutting down...");
-        scheduler.shutdown();
-        try {
-            if (!scheduler.awaitTermination(5, TimeUnit.SECONDS)) {
-                scheduler.shutdownNow();
-            }
-        } catch (InterruptedException e) {
-            scheduler.shutdownNow();
-        }
+        scheduler.shutdown(5, TimeUnit.SECONDS);
+        store.shutdown();
         logger.info("✓ Economy system shutdown complete");
     }
     
+    /**
+     * Economy extension of a player's session
+     */
+    static class EconomySession {
+        volatile PlayerEconomyData data;       // Loaded on first access
+        volatile long lastPlaytimeRewardAt = 0; // 0 = not tracked yet
+        volatile PartySynergy partySynergy;     // Last synergy result, reused while the party is unchanged
+        TimerWheel.Timeout playtimeTimer;       // Main thread only
+        TimerWheel.Timeout synergyTimer;        // Main thread only
+        
+        void cancelTimers() {
+            if (playtimeTimer != null) playtimeTimer.cancel();
+            if (synergyTimer != null) synergyTimer.cancel();
+        }
+    }
+    
     /**
      * Player economy data storage
      */
-    private static class PlayerEconomyData {
+    static class PlayerEconomyData {
         Set<String> caughtSpecies = ConcurrentHashMap.newKeySet();
-        int dailyStreak = 0;
-        long lastDailyReward = 0;
-        long lastSynergyReward = 0; // Tracks ONLINE time for synergy rewards
+        volatile int dailyStreak = 0;
+        volatile long lastDailyReward = 0;
+        volatile long lastSynergyReward = 0; // Tracks ONLINE time for synergy rewards
         Map<String, Integer> questProgress = new ConcurrentHashMap<>();
+        volatile boolean loaded = false; // Came from the local store or the backend (not persisted)
     }
 }
@@ -0,0 +1,147 @@
+package com.lospitufos.cobblemon.economy;
+
+import com.lospitufos.cobblemon.core.TaskScope;
+import com.lospitufos.cobblemon.utils.ModLogger;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Economy Store - local per-player copy of the economy state
+ *
+ * Features:
+ * - One small binary file per player (config/cobblemon-lospitufos-v2/economy/<uuid>.dat)
+ * - Loaded synchronously at login, so daily/synergy logic never runs on zeroed data
+ * - Changes are only marked dirty on the caller's thread and flushed by a background writer
+ * - Atomic writes (temp file + move), a torn or foreign file is treated as missing
+ * - The backend stays the source of truth across servers; EconomyManager reconciles in the background
+ */
+class EconomyStore {
+
+    private static final String STORE_DIR = "config/cobblemon-lospitufos-v2/economy";
+    private static final int MAGIC = 0x4C504543; // "LPEC"
+    private static final byte VERSION = 1;
+    private static final long FLUSH_INTERVAL_MS = 2000;
+
+    private final ModLogger logger;
+    private final Path dir = Paths.get(STORE_DIR);
+    private final Map<UUID, EconomyManager.PlayerEconomyData> dirty = new ConcurrentHashMap<>();
+    private final TaskScope io;                                        // Quota 1: one flush at a time
+
+    EconomyStore(ModLogger logger, TaskScope io) {
+        this.logger = logger;
+        this.io = io;
+    }
+
+    void initialize() {
+        try {
+            Files.createDirectories(dir);
+        } catch (IOException e) {
+            logger.error("Could not create economy store directory: " + e.getMessage());
+        }
+        io.scheduleWithFixedDelay(this::flushDirty, FLUSH_INTERVAL_MS, FLUSH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Read a player's local state, or null if there is none yet (first login on this server)
+     */
+    EconomyManager.PlayerEconomyData load(UUID uuid) {
+        // A pending write is newer than whatever is on disk
+        EconomyManager.PlayerEconomyData pending = dirty.get(uuid);
+        if (pending != null) return pending;
+
+        Path file = fileFor(uuid);
+        if (!Files.exists(file)) return null;
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readByte() != VERSION) {
+                logger.warn("Ignoring unknown economy store file for " + uuid);
+                return null;
+            }
+
+            EconomyManager.PlayerEconomyData data = new EconomyManager.PlayerEconomyData();
+            data.dailyStreak = in.readInt();
+            data.lastDailyReward = in.readLong();
+            data.lastSynergyReward = in.readLong();
+
+            int speciesCount = in.readInt();
+            for (int i = 0; i < speciesCount; i++) {
+                data.caughtSpecies.add(in.readUTF());
+            }
+
+            int questCount = in.readInt();
+            for (int i = 0; i < questCount; i++) {
+                data.questProgress.put(in.readUTF(), in.readInt());
+            }
+            data.loaded = true;
+            return data;
+        } catch (IOException e) {
+            logger.warn("Could not read economy store for " + uuid + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Schedule a player's state for writing (cheap, safe from any thread)
+     */
+    void markDirty(UUID uuid, EconomyManager.PlayerEconomyData data) {
+        dirty.put(uuid, data);
+    }
+
+    private void flushDirty() {
+        if (dirty.isEmpty()) return;
+
+        for (UUID uuid : new ArrayList<>(dirty.keySet())) {
+            EconomyManager.PlayerEconomyData data = dirty.remove(uuid);
+            if (data == null) continue;
+
+            try {
+                write(uuid, data);
+            } catch (IOException e) {
+                logger.error("Error saving economy store for " + uuid + ": " + e.getMessage());
+                dirty.putIfAbsent(uuid, data); // retry on the next flush
+            }
+        }
+    }
+
+    private void write(UUID uuid, EconomyManager.PlayerEconomyData data) throws IOException {
+        Path file = fileFor(uuid);
+        Path temp = dir.resolve(uuid + ".dat.tmp");
+
+        // Copy the collections first, they keep changing on the main thread
+        List<String> species = new ArrayList<>(data.caughtSpecies);
+        Map<String, Integer> quests = new HashMap<>(data.questProgress);
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeInt(data.dailyStreak);
+            out.writeLong(data.lastDailyReward);
+            out.writeLong(data.lastSynergyReward);
+
+            out.writeInt(species.size());
+            for (String name : species) {
+                out.writeUTF(name);
+            }
+
+            out.writeInt(quests.size());
+            for (Map.Entry<String, Integer> entry : quests.entrySet()) {
+                out.writeUTF(entry.getKey());
+                out.writeInt(entry.getValue());
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private Path fileFor(UUID uuid) {
+        return dir.resolve(uuid + ".dat");
+    }
+
+    void shutdown() {
+        // A flush already running finishes first, then whatever is still dirty is written here
+        io.shutdown(5, TimeUnit.SECONDS);
+        flushDirty();
+    }
+}
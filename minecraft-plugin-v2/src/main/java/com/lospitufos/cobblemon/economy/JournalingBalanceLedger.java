@@ -0,0 +1,40 @@
+package com.lospitufos.cobblemon.economy;
+
+/**
+ * Journaling Balance Ledger - records every balance change in the EconomyJournal, then passes it on
+ *
+ * Features:
+ * - Outermost ledger: records each call as made (before credits are merged per tick)
+ * - Ignored changes (amount <= 0) are not recorded, same as every other ledger
+ * - MUST be called from the main thread
+ */
+public class JournalingBalanceLedger implements BalanceLedger {
+
+    private final BalanceLedger delegate;
+    private final EconomyJournal journal;
+
+    public JournalingBalanceLedger(BalanceLedger delegate, EconomyJournal journal) {
+        this.delegate = delegate;
+        this.journal = journal;
+    }
+
+    @Override
+    public void credit(String playerName, int amount, String reason) {
+        if (amount <= 0) return;
+        journal.record(EconomyJournal.Op.CREDIT, playerName, amount, reason);
+        delegate.credit(playerName, amount, reason);
+    }
+
+    @Override
+    public void debit(String playerName, int amount, String reason) {
+        if (amount <= 0) return;
+        journal.record(EconomyJournal.Op.DEBIT, playerName, amount, reason);
+        delegate.debit(playerName, amount, reason);
+    }
+
+    @Override
+    public void set(String playerName, int balance, String reason) {
+        journal.record(EconomyJournal.Op.SET, playerName, Math.max(0, balance), reason);
+        delegate.set(playerName, balance, reason);
+    }
+}
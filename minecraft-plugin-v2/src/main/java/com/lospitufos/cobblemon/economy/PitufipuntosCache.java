@@ -0,0 +1,124 @@
+package com.lospitufos.cobblemon.economy;
+
+import com.cobblemon.mod.common.api.pokemon.stats.Stats;
+import com.cobblemon.mod.common.pokemon.Pokemon;
+import com.cobblemon.mod.common.pokemon.Species;
+import com.lospitufos.cobblemon.cache.ExpiringCache;
+import com.lospitufos.cobblemon.cache.TimerWheel;
+import com.lospitufos.cobblemon.data.SpeciesRegistry;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Pitufipuntos Cache - per-Pokémon score memo for synergy rewards
+ *
+ * Features:
+ * - Keyed by Pokémon UUID, each score carries a stamp of species, level and shiny (plain field reads)
+ * - A stamp mismatch (level up, evolution, level cap regularization) recomputes the score
+ * - EV changes have no cheap stamp: the EV gained event invalidates the Pokémon's entry instead
+ * - Bounded and expiring, so released/traded Pokémon and missed IV changes age out
+ * - A recomputed score is a new object: party results compare members by identity
+ */
+final class PitufipuntosCache {
+
+    private static final int MAX_POKEMON = 8192;
+
+    private final ExpiringCache<UUID, Score> scores;
+
+    PitufipuntosCache(TimerWheel timers, long maxAgeMs) {
+        this.scores = ExpiringCache.<UUID, Score>builder("economy.pitufipuntos", timers)
+            .maximumSize(MAX_POKEMON)
+            .expireAfterWrite(maxAgeMs)
+            .build();
+    }
+
+    /**
+     * The Pokémon's score - cached while its stamp still matches
+     */
+    Score get(Pokemon pokemon) {
+        UUID uuid = pokemon.getUuid();
+        Species species = pokemon.getSpecies();
+        int level = pokemon.getLevel();
+        boolean shiny = pokemon.getShiny();
+
+        Score cached = scores.getIfPresent(uuid);
+        if (cached != null && cached.matches(species, level, shiny)) {
+            return cached;
+        }
+
+        Score score = compute(pokemon, species, level, shiny);
+        scores.put(uuid, score);
+        return score;
+    }
+
+    void invalidate(UUID pokemonUuid) {
+        if (pokemonUuid != null) {
+            scores.invalidate(pokemonUuid);
+        }
+    }
+
+    int size() {
+        return scores.size();
+    }
+
+    /**
+     * Calculate Pitufipuntos for a single Pokémon
+     * Simplified version of the backend calculation
+     */
+    private static Score compute(Pokemon pokemon, Species species, int level, boolean shiny) {
+        int pp = 0;
+
+        // Base stat estimate (400 for average Pokémon)
+        pp += 400;
+
+        // IV bonus: IVTotal * 2
+        var ivs = pokemon.getIvs();
+        int ivTotal = ivs.get(Stats.HP) + ivs.get(Stats.ATTACK) + ivs.get(Stats.DEFENCE) +
+                      ivs.get(Stats.SPECIAL_ATTACK) + ivs.get(Stats.SPECIAL_DEFENCE) + ivs.get(Stats.SPEED);
+        pp += ivTotal * 2;
+
+        // EV bonus: EVTotal / 4
+        var evs = pokemon.getEvs();
+        int evTotal = evs.get(Stats.HP) + evs.get(Stats.ATTACK) + evs.get(Stats.DEFENCE) +
+                      evs.get(Stats.SPECIAL_ATTACK) + evs.get(Stats.SPECIAL_DEFENCE) + evs.get(Stats.SPEED);
+        pp += evTotal / 4;
+
+        // Level bonus: level * 5
+        pp += level * 5;
+
+        // Shiny bonus
+        if (shiny) pp += 200;
+
+        // Legendary bonus
+        boolean legendary = SpeciesRegistry.isLegendary(species);
+        if (legendary) pp += 300;
+
+        return new Score(species, level, shiny, legendary, pp, SpeciesRegistry.types(species));
+    }
+
+    /**
+     * One Pokémon's score and the stamp it was computed for
+     */
+    static final class Score {
+        final Species species;
+        final int level;
+        final boolean shiny;
+        final boolean legendary;
+        final int pitufipuntos;
+        final List<String> types;
+
+        Score(Species species, int level, boolean shiny, boolean legendary, int pitufipuntos, List<String> types) {
+            this.species = species;
+            this.level = level;
+            this.shiny = shiny;
+            this.legendary = legendary;
+            this.pitufipuntos = pitufipuntos;
+            this.types = types;
+        }
+
+        boolean matches(Species species, int level, boolean shiny) {
+            return this.species == species && this.level == level && this.shiny == shiny;
+        }
+    }
+}
@@ -1,17 +1,26 @@
 package com.lospitufos.cobblemon.gacha;
 
 import com.cobblemon.mod.common.Cobblemon;
-import com.cobblemon.mod.common.api.pokemon.PokemonSpecies;
-import com.cobblemon.mod.common.api.storage.party.PlayerPartyStore;
 import com.cobblemon.mod.common.api.storage.pc.PCStore;
+import com.cobblemon.mod.common.api.pokemon.stats.Stats;
 import com.cobblemon.mod.common.pokemon.Pokemon;
-import com.cobblemon.mod.common.pokemon.Species;
-import com.cobblemon.mod.common.pokemon.IVs;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import com.lospitufos.cobblemon.cache.ExpiringCache;
+import com.lospitufos.cobblemon.cache.TimerWheel;
+import com.lospitufos.cobblemon.core.TaskScope;
+import com.lospitufos.cobblemon.data.PokemonSpec;
+import com.lospitufos.cobblemon.delivery.DeliveryEngine;
+import com.lospitufos.cobblemon.delivery.DeliveryRequest;
+import com.lospitufos.cobblemon.economy.BalanceLedger;
+import com.lospitufos.cobblemon.outbox.Outbox;
+import com.lospitufos.cobblemon.storage.PCSpeciesIndex;
+import com.lospitufos.cobblemon.storage.WarmCacheSnapshot;
+import com.lospitufos.cobblemon.utils.ChatMessages;
 import com.lospitufos.cobblemon.utils.HttpClient;
 import com.lospitufos.cobblemon.utils.ModLogger;
+import com.lospitufos.cobblemon.utils.RateLimiter;
 import net.fabricmc.fabric.api.networking.v1.ServerPlayConnectionEvents;
 import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
@@ -34,21 +43,24 @@ import java.util.concurrent.atomic.AtomicInteger;
  * Anti-Lag Optimizations:
  * - Staggered polling (not all players at once)
  * - Extended poll intervals (90 seconds base)
- * - Command cooldowns (5 seconds per player)
- * - Batch reward delivery with delays
+ * - Command cooldowns via shared token-bucket RateLimiter
+ * - Reward placement through the shared tick-budgeted DeliveryEngine
  * - All Cobblemon API calls on main thread
  * - Comprehensive error handling
- * - Memory-efficient caching with TTL
+ * - Bounded reward cache, expired by the shared timer wheel (no periodic sweep)
  * - Rate limiting on API calls
  */
 public class GachaManager {
     
     private final HttpClient httpClient;
     private final ModLogger logger;
-    private final ScheduledExecutorService scheduler;
-    private final Map<UUID, CachedRewards> rewardCache;
-    private final Map<UUID, Long> commandCooldowns;
-    private final Map<UUID, Long> lastPollTime;
+    private final PCSpeciesIndex pcIndex;
+    private final RateLimiter rateLimiter;
+    private final DeliveryEngine deliveryEngine;
+    private final Outbox outbox;
+    private final BalanceLedger ledger;
+    private final TaskScope scheduler;
+    private final ExpiringCache<UUID, CachedRewards> rewardCache;
     private final AtomicBoolean isPolling;
     private final AtomicInteger currentPollIndex;
     private MinecraftServer server;
@@ -56,26 +68,29 @@ public class GachaManager {
     // ============== ANTI-LAG CONFIGURATION ==============
     private static final int POLL_INTERVAL_SECONDS = 90;           // Base poll interval (increased from 30)
     private static final int STAGGER_DELAY_MS = 500;               // Delay between each player poll
-    private static final int COMMAND_COOLDOWN_MS = 5000;           // 5 second cooldown on /claimgacha
-    private static final int REWARD_DELIVERY_DELAY_MS = 100;       // Delay between each reward delivery
     private static final int CACHE_TTL_MS = 120000;                // Cache rewards for 2 minutes
+    private static final int CACHE_MAX_PLAYERS = 512;              // Bound on cached reward lists
+    private static final String WARM_CACHE_SECTION = "gacha.rewards";
     private static final int MAX_REWARDS_PER_BATCH = 10;           // Max rewards to deliver at once
     private static final int JOIN_CHECK_DELAY_MS = 3000;           // Delay before checking on join
-    private static final int MIN_POLL_INTERVAL_PER_PLAYER_MS = 60000; // Min 60s between polls per player
+    private static final int FUSION_MIN_DUPLICATES = 3;            // Min copies of a species for /pitufi fusionar
     // ====================================================
     
-    public GachaManager(HttpClient httpClient, ModLogger logger) {
+    public GachaManager(HttpClient httpClient, ModLogger logger, PCSpeciesIndex pcIndex, RateLimiter rateLimiter,
+                        DeliveryEngine deliveryEngine, Outbox outbox, BalanceLedger ledger, TimerWheel timers,
+                        TaskScope scheduler) {
         this.httpClient = httpClient;
         this.logger = logger;
-        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
-            Thread t = new Thread(r, "GachaManager-Scheduler");
-            t.setDaemon(true);
-            t.setPriority(Thread.MIN_PRIORITY); // Low priority to not affect game
-            return t;
-        });
-        this.rewardCache = new ConcurrentHashMap<>();
-        this.commandCooldowns = new ConcurrentHashMap<>();
-        this.lastPollTime = new ConcurrentHashMap<>();
+        this.pcIndex = pcIndex;
+        this.rateLimiter = rateLimiter;
+        this.deliveryEngine = deliveryEngine;
+        this.outbox = outbox;
+        this.ledger = ledger;
+        this.scheduler = scheduler;
+        this.rewardCache = ExpiringCache.<UUID, CachedRewards>builder("gacha.rewards", timers)
+            .maximumSize(CACHE_MAX_PLAYERS)
+            .expireAfterWrite(CACHE_TTL_MS)
+            .build();
         this.isPolling = new AtomicBoolean(false);
         this.currentPollIndex = new AtomicInteger(0);
     }
@@ -101,10 +116,6 @@ public class GachaManager {
         scheduler.scheduleAtFixedRate(this::pollPlayersStaggered, 
             POLL_INTERVAL_SECONDS, POLL_INTERVAL_SECONDS, TimeUnit.SECONDS);
         
-        // Cleanup old cache entries periodically
-        scheduler.scheduleAtFixedRate(this::cleanupCache, 
-            60, 60, TimeUnit.SECONDS);
-        
         logger.info("✓ Gacha Manager initialized (Poll: " + POLL_INTERVAL_SECONDS + "s, Stagger: " + STAGGER_DELAY_MS + "ms)");
     }
     
@@ -116,14 +127,11 @@ public class GachaManager {
         
         UUID uuid = player.getUuid();
         
-        // Check if we polled this player recently
-        Long lastPoll = lastPollTime.get(uuid);
-        if (lastPoll != null && System.currentTimeMillis() - lastPoll < MIN_POLL_INTERVAL_PER_PLAYER_MS) {
-            return; // Skip, polled too recently
+        // Skip if we polled this player recently (GACHA_POLL bucket)
+        if (!rateLimiter.tryAcquire(uuid, RateLimiter.Action.GACHA_POLL)) {
+            return;
         }
         
-        lastPollTime.put(uuid, System.currentTimeMillis());
-        
         try {
             httpClient.getAsync("/api/pokemon-gacha/pending/" + uuid.toString())
                 .orTimeout(10, TimeUnit.SECONDS) // Timeout to prevent hanging
@@ -139,7 +147,7 @@ public class GachaManager {
                                 for (JsonElement elem : rewards) {
                                     rewardList.add(PendingReward.fromJson(elem.getAsJsonObject()));
                                 }
-                                rewardCache.put(uuid, new CachedRewards(rewardList, System.currentTimeMillis()));
+                                rewardCache.put(uuid, new CachedRewards(rewardList, rewards));
                                 
                                 // Notify on main thread
                                 server.execute(() -> {
@@ -179,6 +187,7 @@ public class GachaManager {
      */
     private void pollPlayersStaggered() {
         if (server == null) return;
+        if (httpClient.isOffline()) return; // Suspended until the backend is back
         if (!isPolling.compareAndSet(false, true)) {
             return; // Already polling, skip this cycle
         }
@@ -220,23 +229,6 @@ public class GachaManager {
         }
     }
     
-    /**
-     * Cleanup expired cache entries
-     */
-    private void cleanupCache() {
-        try {
-            long now = System.currentTimeMillis();
-            rewardCache.entrySet().removeIf(entry -> 
-                now - entry.getValue().timestamp > CACHE_TTL_MS);
-            commandCooldowns.entrySet().removeIf(entry -> 
-                now - entry.getValue() > COMMAND_COOLDOWN_MS * 2);
-            lastPollTime.entrySet().removeIf(entry -> 
-                now - entry.getValue() > MIN_POLL_INTERVAL_PER_PLAYER_MS * 2);
-        } catch (Exception e) {
-            logger.error("Error cleaning cache: " + e.getMessage());
-        }
-    }
-    
     /**
      * Handle /claimgacha command with rate limiting
      */
@@ -246,18 +238,12 @@ public class GachaManager {
         UUID uuid = player.getUuid();
         
         // Check cooldown
-        Long lastCommand = commandCooldowns.get(uuid);
-        long now = System.currentTimeMillis();
-        if (lastCommand != null && now - lastCommand < COMMAND_COOLDOWN_MS) {
-            long remaining = (COMMAND_COOLDOWN_MS - (now - lastCommand)) / 1000;
-            player.sendMessage(Text.literal("§cEspera " + remaining + " segundos antes de usar este comando de nuevo."));
+        if (!rateLimiter.tryAcquire(player, RateLimiter.Action.GACHA_CLAIM)) {
             return;
         }
-        commandCooldowns.put(uuid, now);
-        
-        // Check cache first
-        CachedRewards cached = rewardCache.get(uuid);
-        if (cached != null && !cached.rewards.isEmpty() && now - cached.timestamp < CACHE_TTL_MS) {
+        // Check cache first (expired entries are never returned)
+        CachedRewards cached = rewardCache.getIfPresent(uuid);
+        if (cached != null && !cached.rewards.isEmpty()) {
             // Use cached rewards
             deliverRewardsAsync(player, new ArrayList<>(cached.rewards));
             return;
@@ -294,7 +280,7 @@ public class GachaManager {
                             }
                             
                             // Update cache
-                            rewardCache.put(uuid, new CachedRewards(rewardList, System.currentTimeMillis()));
+                            rewardCache.put(uuid, new CachedRewards(rewardList, rewardsArray));
                             
                             // Deliver on main thread
                             server.execute(() -> deliverRewardsAsync(player, rewardList));
@@ -338,6 +324,7 @@ public class GachaManager {
      */
     public void handleCasinoDeposit(ServerPlayerEntity player, int amount) {
         if (player == null || server == null) return;
+        if (!rateLimiter.tryAcquire(player, RateLimiter.Action.CASINO)) return;
         if (amount <= 0) {
             player.sendMessage(Text.literal("§cLa cantidad debe ser mayor a 0."));
             return;
@@ -351,16 +338,10 @@ public class GachaManager {
         // First, remove the money in-game
         server.execute(() -> {
             try {
-                // Execute the remove command - executeWithPrefix returns void
-                // We'll check balance via API response instead
-                String removeCommand = "cobbledollars remove " + playerName + " " + amount;
-                server.getCommandManager().executeWithPrefix(
-                    server.getCommandSource().withSilent(),
-                    removeCommand
-                );
+                // The ledger gives no result back - we check balance via API response instead
+                ledger.debit(playerName, amount, "casino-deposit");
                 
-                // Note: We can't check if command succeeded directly since executeWithPrefix returns void
-                // The cobbledollars mod will fail silently if not enough balance
+                // Note: The cobbledollars mod will fail silently if not enough balance
                 // We proceed and let the API handle validation
                 
                 // Money removed successfully, now add credits via API
@@ -377,22 +358,20 @@ public class GachaManager {
                                     int newCredits = response.get("credits").getAsInt();
                                     int stardust = response.has("stardust") ? response.get("stardust").getAsInt() : 0;
                                     
-                                    player.sendMessage(Text.literal(""));
-                                    player.sendMessage(Text.literal("§6§l★ CASINO DEPOSIT ★"));
-                                    player.sendMessage(Text.literal("§a+" + amount + " créditos depositados"));
-                                    player.sendMessage(Text.literal("§7Créditos totales: §e" + newCredits));
-                                    player.sendMessage(Text.literal("§7Stardust: §d" + stardust));
-                                    player.sendMessage(Text.literal("§7Usa tus créditos en §flospitufos.com/gacha"));
-                                    player.sendMessage(Text.literal(""));
+                                    player.sendMessage(ChatMessages.lines(
+                                        "",
+                                        "§6§l★ CASINO DEPOSIT ★",
+                                        "§a+" + amount + " créditos depositados",
+                                        "§7Créditos totales: §e" + newCredits,
+                                        "§7Stardust: §d" + stardust,
+                                        "§7Usa tus créditos en §flospitufos.com/gacha",
+                                        ""
+                                    ));
                                     
                                     logger.info("[CASINO] " + playerName + " deposited " + amount + " CD → " + newCredits + " credits");
                                 } else {
                                     // API failed, refund the money
-                                    String refundCommand = "cobbledollars give " + playerName + " " + amount;
-                                    server.getCommandManager().executeWithPrefix(
-                                        server.getCommandSource().withSilent(),
-                                        refundCommand
-                                    );
+                                    ledger.credit(playerName, amount, "casino-refund");
                                     String error = response != null && response.has("error") ? 
                                         response.get("error").getAsString() : "Error desconocido";
                                     player.sendMessage(Text.literal("§cError: " + error + " (dinero devuelto)"));
@@ -405,11 +384,7 @@ public class GachaManager {
                     .exceptionally(e -> {
                         // API failed, refund the money
                         server.execute(() -> {
-                            String refundCommand = "cobbledollars give " + playerName + " " + amount;
-                            server.getCommandManager().executeWithPrefix(
-                                server.getCommandSource().withSilent(),
-                                refundCommand
-                            );
+                            ledger.credit(playerName, amount, "casino-refund");
                             player.sendMessage(Text.literal("§cError de conexión. Dinero devuelto."));
                         });
                         return null;
@@ -427,6 +402,7 @@ public class GachaManager {
      */
     public void handleCasinoWithdraw(ServerPlayerEntity player, int amount) {
         if (player == null || server == null) return;
+        if (!rateLimiter.tryAcquire(player, RateLimiter.Action.CASINO)) return;
         if (amount <= 0) {
             player.sendMessage(Text.literal("§cLa cantidad debe ser mayor a 0."));
             return;
@@ -451,12 +427,14 @@ public class GachaManager {
                             int withdrawn = response.get("withdrawn").getAsInt();
                             
                             // The API creates a pending sync, so the money will be added automatically
-                            player.sendMessage(Text.literal(""));
-                            player.sendMessage(Text.literal("§6§l★ CASINO WITHDRAW ★"));
-                            player.sendMessage(Text.literal("§a+" + withdrawn + " CD en camino"));
-                            player.sendMessage(Text.literal("§7Créditos restantes: §e" + newCredits));
-                            player.sendMessage(Text.literal("§7El dinero llegará en unos segundos..."));
-                            player.sendMessage(Text.literal(""));
+                            player.sendMessage(ChatMessages.lines(
+                                "",
+                                "§6§l★ CASINO WITHDRAW ★",
+                                "§a+" + withdrawn + " CD en camino",
+                                "§7Créditos restantes: §e" + newCredits,
+                                "§7El dinero llegará en unos segundos...",
+                                ""
+                            ));
                             
                             logger.info("[CASINO] " + playerName + " withdrew " + withdrawn + " credits → CD");
                         } else {
@@ -482,6 +460,7 @@ public class GachaManager {
      */
     public void handleCasinoBalance(ServerPlayerEntity player) {
         if (player == null || server == null) return;
+        if (!rateLimiter.tryAcquire(player, RateLimiter.Action.CASINO)) return;
         
         UUID uuid = player.getUuid();
         
@@ -508,20 +487,22 @@ public class GachaManager {
                                     int stardust = response.has("stardust") ? response.get("stardust").getAsInt() : 0;
                                     boolean hasBoost = response.has("luckBoostUntil") && !response.get("luckBoostUntil").isJsonNull();
                                     
-                                    player.sendMessage(Text.literal(""));
-                                    player.sendMessage(Text.literal("§6§l★ CASINO BALANCE ★"));
-                                    player.sendMessage(Text.literal("§7Créditos: §e" + credits));
-                                    player.sendMessage(Text.literal("§7Stardust: §d" + stardust));
-                                    if (hasBoost) {
-                                        player.sendMessage(Text.literal("§a✓ Luck Boost ACTIVO"));
-                                    }
-                                    player.sendMessage(Text.literal(""));
-                                    player.sendMessage(Text.literal("§7/casino deposit <cantidad> §8- Depositar CD"));
-                                    player.sendMessage(Text.literal("§7/casino withdraw <cantidad> §8- Retirar CD"));
-                                    player.sendMessage(Text.literal(""));
+                                    player.sendMessage(ChatMessages.builder()
+                                        .blank()
+                                        .line("§6§l★ CASINO BALANCE ★")
+                                        .line("§7Créditos: §e" + credits)
+                                        .line("§7Stardust: §d" + stardust)
+                                        .lineIf(hasBoost, "§a✓ Luck Boost ACTIVO")
+                                        .blank()
+                                        .line("§7/casino deposit <cantidad> §8- Depositar CD")
+                                        .line("§7/casino withdraw <cantidad> §8- Retirar CD")
+                                        .blank()
+                                        .build());
                                 } else {
-                                    player.sendMessage(Text.literal("§7No tienes cuenta de casino aún."));
-                                    player.sendMessage(Text.literal("§7Usa §f/casino deposit <cantidad> §7para empezar."));
+                                    player.sendMessage(ChatMessages.lines(
+                                        "§7No tienes cuenta de casino aún.",
+                                        "§7Usa §f/casino deposit <cantidad> §7para empezar."
+                                    ));
                                 }
                             } catch (Exception e) {
                                 logger.error("Error showing balance: " + e.getMessage());
@@ -544,7 +525,8 @@ public class GachaManager {
     }
     
     /**
-     * Deliver rewards asynchronously with delays between each
+     * Submit rewards to the delivery engine (placed over the next ticks, summary after the last one)
+     * MUST be called from main server thread
      */
     private void deliverRewardsAsync(ServerPlayerEntity player, List<PendingReward> rewards) {
         if (player == null || rewards == null || rewards.isEmpty()) return;
@@ -560,66 +542,106 @@ public class GachaManager {
             player.sendMessage(Text.literal("§eEntregando " + MAX_REWARDS_PER_BATCH + " de " + rewards.size() + " recompensas..."));
         }
         
-        final AtomicInteger pokemonDelivered = new AtomicInteger(0);
-        final AtomicInteger itemsDelivered = new AtomicInteger(0);
-        final AtomicInteger failed = new AtomicInteger(0);
-        final AtomicInteger processed = new AtomicInteger(0);
+        DeliverySummary summary = new DeliverySummary(uuid);
+        for (PendingReward reward : batch) {
+            try {
+                if (deliveryEngine.submit(buildRewardDelivery(uuid, reward, summary))) {
+                    summary.expected++;
+                }
+            } catch (Exception e) {
+                logger.error("Error submitting reward: " + e.getMessage());
+            }
+        }
         
-        for (int i = 0; i < batch.size(); i++) {
-            final PendingReward reward = batch.get(i);
-            final int index = i;
-            
-            // Stagger deliveries to prevent lag
-            scheduler.schedule(() -> {
-                server.execute(() -> {
-                    try {
-                        ServerPlayerEntity p = server.getPlayerManager().getPlayer(uuid);
-                        if (p == null) {
-                            failed.incrementAndGet();
-                            processed.incrementAndGet();
-                            return;
-                        }
-                        
-                        boolean success = false;
-                        
-                        if ("pokemon".equals(reward.type)) {
-                            success = deliverPokemonSafe(p, reward);
-                            if (success) {
-                                pokemonDelivered.incrementAndGet();
-                                // Play sound and broadcast based on rarity
-                                playRewardSound(p, reward.rarity, reward.isShiny);
-                                broadcastRarePull(p, reward);
-                            }
-                        } else if ("item".equals(reward.type)) {
-                            success = deliverItemSafe(p, reward);
-                            if (success) itemsDelivered.incrementAndGet();
-                        }
-                        
-                        if (success) {
-                            markDeliverySuccessAsync(reward.rewardId);
-                        } else {
-                            markDeliveryFailedAsync(reward.rewardId, "Delivery failed");
-                            failed.incrementAndGet();
-                        }
-                        
-                        processed.incrementAndGet();
-                        
-                        // Send summary after last reward
-                        if (processed.get() == batch.size()) {
-                            sendDeliverySummary(p, pokemonDelivered.get(), itemsDelivered.get(), failed.get());
-                            // Clear cache after successful delivery
-                            rewardCache.remove(uuid);
-                        }
-                    } catch (Exception e) {
-                        logger.error("Error delivering reward: " + e.getMessage());
-                        failed.incrementAndGet();
-                        processed.incrementAndGet();
-                    }
-                });
-            }, (long) index * REWARD_DELIVERY_DELAY_MS, TimeUnit.MILLISECONDS);
+        if (summary.expected == 0) {
+            // Everything was already delivered or is still in the queue
+            rewardCache.invalidate(uuid);
         }
     }
     
+    /**
+     * Build the delivery request for one gacha reward
+     */
+    private DeliveryRequest buildRewardDelivery(UUID uuid, PendingReward reward, DeliverySummary summary) {
+        if (reward.rewardId == null || reward.rewardId.isEmpty()) {
+            throw new IllegalArgumentException("Reward without ID");
+        }
+        
+        DeliveryRequest.Builder builder = DeliveryRequest.builder("gacha:" + reward.rewardId, uuid)
+            .dropOverflow()
+            .confirm("/api/pokemon-gacha/claim/" + reward.rewardId, new JsonObject())
+            .reject("/api/pokemon-gacha/delivery/failed", reason -> {
+                JsonObject payload = new JsonObject();
+                payload.addProperty("rewardId", reward.rewardId);
+                payload.addProperty("reason", reason != null ? reason : "Unknown error");
+                return payload;
+            });
+        
+        if ("pokemon".equals(reward.type)) {
+            if (reward.pokemon == null || reward.pokemon.spec == null) {
+                String reason = reward.pokemon != null ? reward.pokemon.specError : "Pokemon data is null for reward";
+                logger.error("Invalid gacha reward " + reward.rewardId + ": " + reason);
+                builder.require(p -> false, reason);
+            } else {
+                builder.pokemon(reward.pokemon.spec::create);
+            }
+        } else if ("item".equals(reward.type)) {
+            builder.item(() -> createRewardItem(reward));
+        } else {
+            builder.require(p -> false, "Unknown reward type: " + reward.type);
+        }
+        
+        return builder.listener(new DeliveryRequest.Listener() {
+            @Override
+            public void onDelivered(ServerPlayerEntity p, DeliveryRequest.Receipt receipt) {
+                if ("pokemon".equals(reward.type)) {
+                    String name = receipt.pokemon.isEmpty() ? reward.pokemon.name : receipt.pokemon.get(0).getSpecies().getName();
+                    p.sendMessage(Text.literal(
+                        "§a✓ §f" + name + 
+                        (reward.pokemon.isShiny ? " §6✨SHINY" : "") + 
+                        (receipt.toParty > 0 ? " §eañadido a tu equipo!" : " §eenviado a tu PC (equipo lleno)!")
+                    ));
+                    // Play sound and broadcast based on rarity
+                    playRewardSound(p, reward.rarity, reward.isShiny);
+                    broadcastRarePull(p, reward);
+                    summary.pokemon++;
+                } else {
+                    int quantity = Math.max(1, Math.min(64, reward.item.quantity));
+                    p.sendMessage(Text.literal(receipt.itemsDropped > 0
+                        ? "§e" + quantity + "x " + reward.item.name + " §cdropeado (inventario lleno)!"
+                        : "§a✓ §f" + quantity + "x " + reward.item.name + " §eañadido a tu inventario!"));
+                    summary.items++;
+                }
+                summary.complete(p);
+            }
+            
+            @Override
+            public void onDeferred(ServerPlayerEntity p, String reason) {
+                if (p != null && "pokemon".equals(reward.type)) {
+                    p.sendMessage(Text.literal("§cNo hay espacio para " + reward.pokemon.name + ". ¡Libera espacio!"));
+                }
+                summary.failed++;
+                summary.complete(p);
+            }
+            
+            @Override
+            public void onFailed(ServerPlayerEntity p, String reason) {
+                if (p != null) {
+                    p.sendMessage(Text.literal("item".equals(reward.type)
+                        ? "§cError: Item no encontrado. Contacta a un admin."
+                        : "§cError: Pokémon no encontrado. Contacta a un admin."));
+                }
+                summary.failed++;
+                summary.complete(p);
+            }
+            
+            @Override
+            public void onAlreadyDelivered(ServerPlayerEntity p) {
+                summary.complete(p);
+            }
+        }).build();
+    }
+    
     /**
      * Send delivery summary message
      */
@@ -643,257 +665,72 @@ public class GachaManager {
     }
     
     /**
-     * Deliver a Pokemon reward (SAFE - with full error handling)
-     * MUST be called from main server thread
+     * Create the item stack for a reward (null if the item is unknown)
+     * Called by the delivery engine on the main server thread
      */
-    private boolean deliverPokemonSafe(ServerPlayerEntity player, PendingReward reward) {
-        try {
-            if (reward == null || reward.pokemon == null) {
-                logger.error("Pokemon data is null for reward");
-                return false;
-            }
-            
-            if (player == null || !player.isAlive()) {
-                logger.error("Player is null or dead");
-                return false;
-            }
-            
-            // Get species with null check
-            Species species = null;
-            try {
-                species = PokemonSpecies.INSTANCE.getByPokedexNumber(reward.pokemon.pokemonId, "");
-            } catch (Exception e) {
-                logger.error("Error getting species: " + e.getMessage());
-            }
-            
-            if (species == null) {
-                // Try by name as fallback
-                try {
-                    species = PokemonSpecies.INSTANCE.getByName(reward.pokemon.name.toLowerCase());
-                } catch (Exception e) {
-                    logger.error("Error getting species by name: " + e.getMessage());
-                }
-            }
-            
-            if (species == null) {
-                logger.error("Species not found for ID: " + reward.pokemon.pokemonId + " or name: " + reward.pokemon.name);
-                player.sendMessage(Text.literal("§cError: Pokémon no encontrado. Contacta a un admin."));
-                return false;
-            }
-            
-            // Create Pokemon with safe level
-            int level = Math.max(1, Math.min(100, reward.pokemon.level));
-            Pokemon pokemon = species.create(level);
-            
-            if (pokemon == null) {
-                logger.error("Failed to create Pokemon instance");
-                return false;
-            }
-            
-            // Set shiny (safe)
-            try {
-                if (reward.pokemon.isShiny) {
-                    pokemon.setShiny(true);
-                }
-            } catch (Exception e) {
-                logger.error("Error setting shiny: " + e.getMessage());
-            }
-            
-            // Set IVs (safe)
-            try {
-                if (reward.pokemon.ivs != null) {
-                    IVs ivs = pokemon.getIvs();
-                    if (ivs != null) {
-                        ivs.set(com.cobblemon.mod.common.api.pokemon.stats.Stats.HP, clampIV(reward.pokemon.ivs.hp));
-                        ivs.set(com.cobblemon.mod.common.api.pokemon.stats.Stats.ATTACK, clampIV(reward.pokemon.ivs.atk));
-                        ivs.set(com.cobblemon.mod.common.api.pokemon.stats.Stats.DEFENCE, clampIV(reward.pokemon.ivs.def));
-                        ivs.set(com.cobblemon.mod.common.api.pokemon.stats.Stats.SPECIAL_ATTACK, clampIV(reward.pokemon.ivs.spa));
-                        ivs.set(com.cobblemon.mod.common.api.pokemon.stats.Stats.SPECIAL_DEFENCE, clampIV(reward.pokemon.ivs.spd));
-                        ivs.set(com.cobblemon.mod.common.api.pokemon.stats.Stats.SPEED, clampIV(reward.pokemon.ivs.spe));
-                    }
-                }
-            } catch (Exception e) {
-                logger.error("Error setting IVs: " + e.getMessage());
-                // Continue anyway, IVs are not critical
-            }
-            
-            // Try to add to party first (safe)
-            try {
-                PlayerPartyStore party = Cobblemon.INSTANCE.getStorage().getParty(player);
-                if (party != null) {
-                    // Check if party has space (count non-null slots)
-                    int partySize = 0;
-                    for (int i = 0; i < 6; i++) {
-                        if (party.get(i) != null) partySize++;
-                    }
-                    
-                    if (partySize < 6) {
-                        party.add(pokemon);
-                        player.sendMessage(Text.literal(
-                            "§a✓ §f" + species.getName() + 
-                            (reward.pokemon.isShiny ? " §6✨SHINY" : "") + 
-                            " §eañadido a tu equipo!"
-                        ));
-                        return true;
-                    }
-                }
-            } catch (Exception e) {
-                logger.error("Error adding to party: " + e.getMessage());
-            }
-            
-            // Try PC if party is full (safe)
-            try {
-                PCStore pc = Cobblemon.INSTANCE.getStorage().getPC(player);
-                if (pc != null) {
-                    pc.add(pokemon);
-                    player.sendMessage(Text.literal(
-                        "§a✓ §f" + species.getName() + 
-                        (reward.pokemon.isShiny ? " §6✨SHINY" : "") + 
-                        " §eenviado a tu PC (equipo lleno)!"
-                    ));
-                    return true;
-                }
-            } catch (Exception e) {
-                logger.error("Error adding to PC: " + e.getMessage());
-            }
-            
-            player.sendMessage(Text.literal("§cNo hay espacio para " + species.getName() + ". ¡Libera espacio!"));
-            return false;
-            
-        } catch (Exception e) {
-            logger.error("Critical error delivering Pokemon: " + e.getMessage(), e);
-            try {
-                player.sendMessage(Text.literal("§cError crítico entregando Pokémon. Contacta a un admin."));
-            } catch (Exception ignored) {}
-            return false;
+    private ItemStack createRewardItem(PendingReward reward) {
+        if (reward == null || reward.item == null) {
+            logger.error("Item data is null for reward");
+            return null;
+        }
+        
+        // Parse item ID (format: namespace:item_name)
+        Identifier itemId = Identifier.tryParse(reward.item.itemId);
+        if (itemId == null) {
+            logger.error("Invalid item ID: " + reward.item.itemId);
+            return null;
+        }
+        
+        Item item = Registries.ITEM.get(itemId);
+        if (item == null) {
+            logger.error("Item not found: " + reward.item.itemId);
+            return null;
         }
+        
+        // Safe quantity
+        int quantity = Math.max(1, Math.min(64, reward.item.quantity));
+        return new ItemStack(item, quantity);
     }
     
+    // ============================================
+    // WARM RESTART
+    // ============================================
+    
     /**
-     * Clamp IV value to valid range
+     * Write cached rewards to the snapshot (each entry keeps its remaining TTL)
      */
-    private int clampIV(int value) {
-        return Math.max(0, Math.min(31, value));
+    public void saveWarmCache(WarmCacheSnapshot snapshot) {
+        rewardCache.forEach((uuid, cached, writtenAt) -> {
+            if (cached.raw == null || cached.rewards.isEmpty()) return;
+            
+            JsonObject value = new JsonObject();
+            value.addProperty("timestamp", writtenAt);
+            value.add("rewards", cached.raw);
+            snapshot.put(WARM_CACHE_SECTION, uuid.toString(), value, writtenAt + CACHE_TTL_MS);
+        });
     }
     
     /**
-     * Deliver an item reward (SAFE - with full error handling)
-     * MUST be called from main server thread
+     * Refill the reward cache from the snapshot (call before initialize)
      */
-    private boolean deliverItemSafe(ServerPlayerEntity player, PendingReward reward) {
-        try {
-            if (reward == null || reward.item == null) {
-                logger.error("Item data is null for reward");
-                return false;
-            }
-            
-            if (player == null || !player.isAlive()) {
-                logger.error("Player is null or dead");
-                return false;
-            }
-            
-            // Parse item ID (format: namespace:item_name)
-            Identifier itemId = null;
+    public void restoreWarmCache(WarmCacheSnapshot snapshot) {
+        for (Map.Entry<String, JsonElement> entry : snapshot.take(WARM_CACHE_SECTION).entrySet()) {
             try {
-                itemId = Identifier.tryParse(reward.item.itemId);
-            } catch (Exception e) {
-                logger.error("Error parsing item ID: " + e.getMessage());
-            }
-            
-            if (itemId == null) {
-                logger.error("Invalid item ID: " + reward.item.itemId);
-                player.sendMessage(Text.literal("§cError: Item inválido. Contacta a un admin."));
-                return false;
-            }
-            
-            Item item = null;
-            try {
-                item = Registries.ITEM.get(itemId);
-            } catch (Exception e) {
-                logger.error("Error getting item from registry: " + e.getMessage());
-            }
-            
-            if (item == null) {
-                logger.error("Item not found: " + reward.item.itemId);
-                player.sendMessage(Text.literal("§cError: Item no encontrado. Contacta a un admin."));
-                return false;
-            }
-            
-            // Safe quantity
-            int quantity = Math.max(1, Math.min(64, reward.item.quantity));
-            ItemStack stack = new ItemStack(item, quantity);
-            
-            // Try to give to player (safe)
-            try {
-                if (player.getInventory().insertStack(stack)) {
-                    player.sendMessage(Text.literal(
-                        "§a✓ §f" + quantity + "x " + reward.item.name + " §eañadido a tu inventario!"
-                    ));
-                    return true;
+                JsonObject value = entry.getValue().getAsJsonObject();
+                JsonArray raw = value.getAsJsonArray("rewards");
+                List<PendingReward> rewardList = new ArrayList<>();
+                for (JsonElement elem : raw) {
+                    rewardList.add(PendingReward.fromJson(elem.getAsJsonObject()));
                 }
+                long timestamp = value.get("timestamp").getAsLong();
+                // Written at its original time, so it keeps only the TTL it had left
+                rewardCache.put(UUID.fromString(entry.getKey()), new CachedRewards(rewardList, raw), timestamp);
             } catch (Exception e) {
-                logger.error("Error inserting to inventory: " + e.getMessage());
-            }
-            
-            // Drop on ground if inventory full (safe)
-            try {
-                player.dropItem(stack, false);
-                player.sendMessage(Text.literal(
-                    "§e" + quantity + "x " + reward.item.name + " §cdropeado (inventario lleno)!"
-                ));
-                return true;
-            } catch (Exception e) {
-                logger.error("Error dropping item: " + e.getMessage());
+                logger.debug("Skipping cached gacha rewards for " + entry.getKey() + ": " + e.getMessage());
             }
-            
-            return false;
-            
-        } catch (Exception e) {
-            logger.error("Critical error delivering item: " + e.getMessage(), e);
-            try {
-                player.sendMessage(Text.literal("§cError crítico entregando item. Contacta a un admin."));
-            } catch (Exception ignored) {}
-            return false;
         }
-    }
-    
-    /**
-     * Mark delivery success in API (async, fire-and-forget)
-     */
-    private void markDeliverySuccessAsync(String rewardId) {
-        if (rewardId == null || rewardId.isEmpty()) return;
-        
-        try {
-            httpClient.postAsync("/api/pokemon-gacha/claim/" + rewardId, new JsonObject())
-                .orTimeout(10, TimeUnit.SECONDS)
-                .exceptionally(e -> {
-                    logger.debug("Error marking delivery success: " + e.getMessage());
-                    return null;
-                });
-        } catch (Exception e) {
-            logger.error("Error initiating delivery success: " + e.getMessage());
-        }
-    }
-    
-    /**
-     * Mark delivery failed in API (async, fire-and-forget)
-     */
-    private void markDeliveryFailedAsync(String rewardId, String reason) {
-        if (rewardId == null || rewardId.isEmpty()) return;
-        
-        try {
-            JsonObject payload = new JsonObject();
-            payload.addProperty("rewardId", rewardId);
-            payload.addProperty("reason", reason != null ? reason : "Unknown error");
-            
-            httpClient.postAsync("/api/pokemon-gacha/delivery/failed", payload)
-                .orTimeout(10, TimeUnit.SECONDS)
-                .exceptionally(e -> {
-                    logger.debug("Error marking delivery failed: " + e.getMessage());
-                    return null;
-                });
-        } catch (Exception e) {
-            logger.error("Error initiating delivery failed: " + e.getMessage());
+        if (rewardCache.size() > 0) {
+            logger.info("Restored cached gacha rewards for " + rewardCache.size() + " players");
         }
     }
     
@@ -901,23 +738,10 @@ public class GachaManager {
         logger.info("Gacha Manager shutting down...");
         
         // Clear all caches
-        rewardCache.clear();
-        commandCooldowns.clear();
-        lastPollTime.clear();
+        rewardCache.invalidateAll();
         
         // Shutdown scheduler gracefully
-        scheduler.shutdown();
-        try {
-            if (!scheduler.awaitTermination(3, TimeUnit.SECONDS)) {
-                scheduler.shutdownNow();
-                if (!scheduler.awaitTermination(2, TimeUnit.SECONDS)) {
-                    logger.error("Scheduler did not terminate cleanly");
-                }
-            }
-        } catch (InterruptedException e) {
-            scheduler.shutdownNow();
-            Thread.currentThread().interrupt();
-        }
+        scheduler.shutdown(5, TimeUnit.SECONDS);
         
         logger.info("✓ Gacha Manager shutdown complete");
     }
@@ -1116,8 +940,9 @@ public class GachaManager {
                                 JsonObject stardust = stardustFuture.getNow(null);
                                 JsonObject daily = dailyFuture.getNow(null);
                                 
-                                player.sendMessage(Text.literal(""));
-                                player.sendMessage(Text.literal("§6§l★ GACHA INFO ★"));
+                                ChatMessages.Builder message = ChatMessages.builder()
+                                    .blank()
+                                    .line("§6§l★ GACHA INFO ★");
                                 
                                 // Pity info
                                 if (pity != null && pity.has("pityStatus")) {
@@ -1126,9 +951,9 @@ public class GachaManager {
                                     int untilHard = ps.has("pullsUntilHardPity") ? ps.get("pullsUntilHardPity").getAsInt() : 90;
                                     boolean softActive = ps.has("softPityActive") && ps.get("softPityActive").getAsBoolean();
                                     
-                                    player.sendMessage(Text.literal("§7Pity: §f" + currentPity + "/90 §7(" + untilHard + " para garantizado)"));
+                                    message.line("§7Pity: §f" + currentPity + "/90 §7(" + untilHard + " para garantizado)");
                                     if (softActive) {
-                                        player.sendMessage(Text.literal("§a✓ Soft Pity ACTIVO §7(probabilidad aumentada)"));
+                                        message.line("§a✓ Soft Pity ACTIVO §7(probabilidad aumentada)");
                                     }
                                 }
                                 
@@ -1136,7 +961,7 @@ public class GachaManager {
                                 if (stardust != null && stardust.has("stardust")) {
                                     JsonObject sd = stardust.getAsJsonObject("stardust");
                                     int balance = sd.has("balance") ? sd.get("balance").getAsInt() : 0;
-                                    player.sendMessage(Text.literal("§7Stardust: §d" + balance));
+                                    message.line("§7Stardust: §d" + balance);
                                 }
                                 
                                 // Daily pull info
@@ -1146,20 +971,21 @@ public class GachaManager {
                                     int streak = ds.has("currentStreak") ? ds.get("currentStreak").getAsInt() : 0;
                                     
                                     if (canClaim) {
-                                        player.sendMessage(Text.literal("§a✓ Tirada diaria DISPONIBLE"));
+                                        message.line("§a✓ Tirada diaria DISPONIBLE");
                                     } else {
                                         long timeUntil = ds.has("timeUntilNextPull") ? ds.get("timeUntilNextPull").getAsLong() : 0;
                                         int hours = (int) (timeUntil / 3600000);
                                         int mins = (int) ((timeUntil % 3600000) / 60000);
-                                        player.sendMessage(Text.literal("§7Tirada diaria: §c" + hours + "h " + mins + "m"));
+                                        message.line("§7Tirada diaria: §c" + hours + "h " + mins + "m");
                                     }
-                                    player.sendMessage(Text.literal("§7Racha diaria: §e" + streak + " días"));
+                                    message.line("§7Racha diaria: §e" + streak + " días");
                                 }
                                 
-                                player.sendMessage(Text.literal(""));
-                                player.sendMessage(Text.literal("§7Usa §f/claimgacha §7para reclamar recompensas"));
-                                player.sendMessage(Text.literal("§7Visita §flospitufos.com/gacha §7para tirar"));
-                                player.sendMessage(Text.literal(""));
+                                player.sendMessage(message.blank()
+                                    .line("§7Usa §f/claimgacha §7para reclamar recompensas")
+                                    .line("§7Visita §flospitufos.com/gacha §7para tirar")
+                                    .blank()
+                                    .build());
                                 
                             } catch (Exception e) {
                                 player.sendMessage(Text.literal("§cError mostrando información."));
@@ -1331,18 +1157,40 @@ public class GachaManager {
     }
     
     /**
-     * Cached rewards with timestamp for TTL
+     * Cached rewards (raw backend JSON kept for the warm-restart snapshot; TTL handled by the cache)
      */
     private static class CachedRewards {
         final List<PendingReward> rewards;
-        final long timestamp;
+        final JsonArray raw;
         
-        CachedRewards(List<PendingReward> rewards, long timestamp) {
+        CachedRewards(List<PendingReward> rewards, JsonArray raw) {
             this.rewards = rewards;
-            this.timestamp = timestamp;
+            this.raw = raw;
         }
     }
     
+    /**
+     * Per-claim counters, updated from delivery callbacks (main thread only)
+     */
+    private class DeliverySummary {
+        final UUID player;
+        int expected, done, pokemon, items, failed;
+
+        DeliverySummary(UUID player) {
+            this.player = player;
+        }
+
+        void complete(ServerPlayerEntity p) {
+            if (++done != expected) return;
+            // Nothing to report when every reward turned out to be delivered already
+            if (p != null && pokemon + items + failed > 0) {
+                sendDeliverySummary(p, pokemon, items, failed);
+            }
+            // Clear cache after delivery
+            rewardCache.invalidate(player);
+        }
+    }
+
     /**
      * Pending reward data class
      */
@@ -1383,6 +1231,8 @@ public class GachaManager {
         boolean isShiny;
         IVData ivs;
         String nature;
+        PokemonSpec spec;   // Validated at parse time (null if unusable)
+        String specError;   // Why spec is null
         
         static PokemonData fromJson(JsonObject json) {
             PokemonData data = new PokemonData();
@@ -1399,8 +1249,32 @@ public class GachaManager {
             } catch (Exception e) {
                 // Return partially filled data
             }
+            data.spec = data.toSpec();
             return data;
         }
+        
+        /**
+         * Species resolved and values clamped here (poll/claim callbacks), so delivery only runs create()
+         */
+        private PokemonSpec toSpec() {
+            try {
+                PokemonSpec.Builder builder = PokemonSpec.builder(pokemonId, name)
+                    .level(level)
+                    .shiny(isShiny);
+                if (ivs != null) {
+                    builder.iv(Stats.HP, ivs.hp)
+                        .iv(Stats.ATTACK, ivs.atk)
+                        .iv(Stats.DEFENCE, ivs.def)
+                        .iv(Stats.SPECIAL_ATTACK, ivs.spa)
+                        .iv(Stats.SPECIAL_DEFENCE, ivs.spd)
+                        .iv(Stats.SPEED, ivs.spe);
+                }
+                return builder.build();
+            } catch (Exception e) {
+                specError = e.getMessage();
+                return null;
+            }
+        }
     }
     
     private static class IVData {
@@ -1447,50 +1321,11 @@ public class GachaManager {
     
     /**
      * Get list of Pokemon species that the player has 3+ duplicates of
-     * Used for command autocompletion
+     * Used for command autocompletion - served from the PC species index
      */
     public List<String> getDuplicatePokemonSpecies(ServerPlayerEntity player) {
-        List<String> duplicates = new ArrayList<>();
-        if (player == null || server == null) return duplicates;
-        
-        try {
-            PCStore pc = Cobblemon.INSTANCE.getStorage().getPC(player);
-            if (pc == null) return duplicates;
-            
-            // Count Pokemon by species
-            Map<String, Integer> speciesCount = new HashMap<>();
-            
-            for (Object boxObj : pc.getBoxes()) {
-                com.cobblemon.mod.common.api.storage.pc.PCBox box = 
-                    (com.cobblemon.mod.common.api.storage.pc.PCBox) boxObj;
-                for (int slot = 0; slot < 30; slot++) {
-                    try {
-                        Pokemon pokemon = box.get(slot);
-                        if (pokemon != null) {
-                            String species = pokemon.getSpecies().getName().toLowerCase();
-                            speciesCount.merge(species, 1, Integer::sum);
-                        }
-                    } catch (Exception e) {
-                        // Skip invalid slots
-                    }
-                }
-            }
-            
-            // Filter to only species with 3+ duplicates
-            for (Map.Entry<String, Integer> entry : speciesCount.entrySet()) {
-                if (entry.getValue() >= 3) {
-                    duplicates.add(entry.getKey());
-                }
-            }
-            
-            // Sort alphabetically
-            Collections.sort(duplicates);
-            
-        } catch (Exception e) {
-            logger.error("Error getting duplicate species: " + e.getMessage());
-        }
-        
-        return duplicates;
+        if (player == null || server == null) return new ArrayList<>();
+        return pcIndex.getSpeciesWithAtLeast(player, FUSION_MIN_DUPLICATES);
     }
     
     /**
@@ -1512,27 +1347,14 @@ public class GachaManager {
                 return;
             }
             
-            // Find all Pokemon of this species
+            // Find all Pokemon of this species (index lookup, no PC scan)
             List<PokemonWithScore> pokemonList = new ArrayList<>();
-            
-            for (Object boxObj : pc.getBoxes()) {
-                com.cobblemon.mod.common.api.storage.pc.PCBox box = 
-                    (com.cobblemon.mod.common.api.storage.pc.PCBox) boxObj;
-                for (int slot = 0; slot < 30; slot++) {
-                    try {
-                        Pokemon pokemon = box.get(slot);
-                        if (pokemon != null && pokemon.getSpecies().getName().toLowerCase().equals(targetSpecies)) {
-                            int ivTotal = calculateIVTotal(pokemon);
-                            pokemonList.add(new PokemonWithScore(pokemon, ivTotal, box, slot));
-                        }
-                    } catch (Exception e) {
-                        // Skip invalid slots
-                    }
-                }
+            for (Pokemon pokemon : pcIndex.getPokemonOfSpecies(player, targetSpecies)) {
+                pokemonList.add(new PokemonWithScore(pokemon, calculateIVTotal(pokemon)));
             }
             
-            if (pokemonList.size() < 3) {
-                player.sendMessage(Text.literal("§cNecesitas al menos 3 " + targetSpecies + " para fusionar. Tienes: " + pokemonList.size()));
+            if (pokemonList.size() < FUSION_MIN_DUPLICATES) {
+                player.sendMessage(Text.literal("§cNecesitas al menos " + FUSION_MIN_DUPLICATES + " " + targetSpecies + " para fusionar. Tienes: " + pokemonList.size()));
                 return;
             }
             
@@ -1589,7 +1411,8 @@ public class GachaManager {
         payload.addProperty("stardust", stardust);
         payload.addProperty("source", "fusion_" + species);
         
-        httpClient.postAsync("/api/pokemon-gacha/credits/add-stardust", payload)
+        // Pokemon are already gone at this point - the credit must survive a backend outage or restart
+        outbox.enqueue("/api/pokemon-gacha/credits/add-stardust", payload)
             .orTimeout(10, TimeUnit.SECONDS)
             .thenAcceptAsync(response -> {
                 server.execute(() -> {
@@ -1597,22 +1420,26 @@ public class GachaManager {
                         if (response != null && response.has("success") && response.get("success").getAsBoolean()) {
                             int newStardust = response.has("stardust") ? response.get("stardust").getAsInt() : stardust;
                             
-                            player.sendMessage(Text.literal(""));
-                            player.sendMessage(Text.literal("§d§l★ FUSIÓN COMPLETADA ★"));
-                            player.sendMessage(Text.literal("§7Fusionaste §f" + fusedCount + "x " + species));
-                            player.sendMessage(Text.literal("§7Conservaste el mejor: §aIVs " + best.ivTotal + "/186"));
-                            player.sendMessage(Text.literal("§d+" + stardust + " Stardust §7(Total: " + newStardust + ")"));
-                            player.sendMessage(Text.literal(""));
+                            player.sendMessage(ChatMessages.lines(
+                                "",
+                                "§d§l★ FUSIÓN COMPLETADA ★",
+                                "§7Fusionaste §f" + fusedCount + "x " + species,
+                                "§7Conservaste el mejor: §aIVs " + best.ivTotal + "/186",
+                                "§d+" + stardust + " Stardust §7(Total: " + newStardust + ")",
+                                ""
+                            ));
                             
                             logger.info("[FUSION] " + player.getName().getString() + " fused " + fusedCount + "x " + species + " → " + stardust + " stardust");
                         } else {
                             // API failed but Pokemon already removed - still show success locally
-                            player.sendMessage(Text.literal(""));
-                            player.sendMessage(Text.literal("§d§l★ FUSIÓN COMPLETADA ★"));
-                            player.sendMessage(Text.literal("§7Fusionaste §f" + fusedCount + "x " + species));
-                            player.sendMessage(Text.literal("§7Conservaste el mejor: §aIVs " + best.ivTotal + "/186"));
-                            player.sendMessage(Text.literal("§d+" + stardust + " Stardust §7(pendiente sync)"));
-                            player.sendMessage(Text.literal(""));
+                            player.sendMessage(ChatMessages.lines(
+                                "",
+                                "§d§l★ FUSIÓN COMPLETADA ★",
+                                "§7Fusionaste §f" + fusedCount + "x " + species,
+                                "§7Conservaste el mejor: §aIVs " + best.ivTotal + "/186",
+                                "§d+" + stardust + " Stardust §7(pendiente sync)",
+                                ""
+                            ));
                         }
                     } catch (Exception e) {
                         logger.error("Error processing fusion response: " + e.getMessage());
@@ -1622,9 +1449,11 @@ public class GachaManager {
             .exceptionally(e -> {
                 server.execute(() -> {
                     // Show success anyway since Pokemon were removed
-                    player.sendMessage(Text.literal("§d§l★ FUSIÓN COMPLETADA ★"));
-                    player.sendMessage(Text.literal("§7Fusionaste §f" + fusedCount + "x " + species));
-                    player.sendMessage(Text.literal("§eStardust pendiente de sincronizar."));
+                    player.sendMessage(ChatMessages.lines(
+                        "§d§l★ FUSIÓN COMPLETADA ★",
+                        "§7Fusionaste §f" + fusedCount + "x " + species,
+                        "§eStardust pendiente de sincronizar."
+                    ));
                 });
                 return null;
             });
@@ -1636,14 +1465,10 @@ public class GachaManager {
     private static class PokemonWithScore {
         Pokemon pokemon;
         int ivTotal;
-        com.cobblemon.mod.common.api.storage.pc.PCBox box;
-        int slot;
         
-        PokemonWithScore(Pokemon pokemon, int ivTotal, com.cobblemon.mod.common.api.storage.pc.PCBox box, int slot) {
+        PokemonWithScore(Pokemon pokemon, int ivTotal) {
             this.pokemon = pokemon;
             this.ivTotal = ivTotal;
-            this.box = box;
-            this.slot = slot;
         }
     }
 }
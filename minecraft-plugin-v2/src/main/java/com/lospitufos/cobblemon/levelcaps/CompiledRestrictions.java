@@ -0,0 +1,82 @@
+package com.lospitufos.cobblemon.levelcaps;
+
+import com.cobblemon.mod.common.pokemon.Species;
+import com.lospitufos.cobblemon.data.SpeciesRegistry;
+
+import java.util.BitSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Compiled Restrictions - one restriction config resolved against every known species
+ *
+ * Features:
+ * - BitSet of blocked Pokedex numbers, allow-list overrides already applied
+ * - Block reason per Pokedex number in a parallel array
+ * - Species outside the dex table (addons) resolved once into an identity map (null = allowed)
+ * - Immutable: LevelCapManager swaps the whole object when the backend sends a new config
+ * - Species registered after compilation fall back to the config's own evaluation
+ */
+final class CompiledRestrictions {
+
+    private final BitSet blocked;
+    private final String[] reasons;
+    private final Map<Species, String> overflowReasons;
+    private final Function<Species, String> fallback;
+    private final int blockedCount;
+
+    private CompiledRestrictions(BitSet blocked, String[] reasons, Map<Species, String> overflowReasons,
+                                 Function<Species, String> fallback) {
+        this.blocked = blocked;
+        this.reasons = reasons;
+        this.overflowReasons = overflowReasons;
+        this.fallback = fallback;
+        this.blockedCount = blocked.cardinality()
+            + (int) overflowReasons.values().stream().filter(reason -> reason != null).count();
+    }
+
+    /**
+     * Resolve every classified species. reasonOf returns the block reason, or null if allowed
+     */
+    static CompiledRestrictions compile(Function<Species, String> reasonOf) {
+        BitSet blocked = new BitSet(SpeciesRegistry.maxDex() + 1);
+        String[] reasons = new String[SpeciesRegistry.maxDex() + 1];
+        Map<Species, String> overflow = new IdentityHashMap<>();
+
+        SpeciesRegistry.forEachSpecies(species -> {
+            String reason = reasonOf.apply(species);
+
+            if (!SpeciesRegistry.isIndexed(species)) {
+                overflow.put(species, reason); // null = allowed, still resolved
+            } else if (reason != null) {
+                int dex = species.getNationalPokedexNumber();
+                blocked.set(dex);
+                reasons[dex] = reason;
+            }
+        });
+
+        return new CompiledRestrictions(blocked, reasons, overflow, reasonOf);
+    }
+
+    /**
+     * Why the species is blocked, or null if it is allowed
+     */
+    String getBlockReason(Species species) {
+        if (species == null) return null;
+
+        if (SpeciesRegistry.isIndexed(species)) {
+            int dex = species.getNationalPokedexNumber();
+            return blocked.get(dex) ? reasons[dex] : null;
+        }
+
+        if (overflowReasons.containsKey(species)) {
+            return overflowReasons.get(species);
+        }
+        return fallback.apply(species);
+    }
+
+    int getBlockedCount() {
+        return blockedCount;
+    }
+}
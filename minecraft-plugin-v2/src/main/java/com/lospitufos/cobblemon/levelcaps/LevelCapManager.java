@@ -6,20 +6,26 @@ import com.cobblemon.mod.common.api.Priority;
 import com.cobblemon.mod.common.api.storage.party.PlayerPartyStore;
 import com.cobblemon.mod.common.api.storage.pc.PCStore;
 import com.cobblemon.mod.common.pokemon.Pokemon;
+import com.cobblemon.mod.common.pokemon.Species;
+import com.lospitufos.cobblemon.cache.ExpiringCache;
+import com.lospitufos.cobblemon.cache.TimerWheel;
 import com.lospitufos.cobblemon.core.Config;
-import com.lospitufos.cobblemon.data.LegendaryPokemonData;
+import com.lospitufos.cobblemon.core.TaskScope;
+import com.lospitufos.cobblemon.data.SpeciesRegistry;
+import com.lospitufos.cobblemon.utils.ChatMessages;
+import com.lospitufos.cobblemon.utils.ConnectivityMonitor;
 import com.lospitufos.cobblemon.utils.HttpClient;
 import com.lospitufos.cobblemon.utils.ModLogger;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayConnectionEvents;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.text.Text;
 
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -30,6 +36,7 @@ import java.util.concurrent.atomic.AtomicBoolean;
  * - Existing Pokémon gaining XP over cap = Warning + level regularized
  * - PC scan for illegal Pokémon (legendaries, blocked species) = DELETED + warning
  * - All HTTP calls are 100% async (never blocks server thread)
+ * - Last known caps/restrictions/version restored from disk on startup, refreshed in the background
  */
 public class LevelCapManager {
     
@@ -38,11 +45,18 @@ public class LevelCapManager {
     private final Config config;
     private MinecraftServer server;
     
-    // Cache of player caps - thread-safe
-    private final Map<UUID, PlayerCaps> capsCache = new ConcurrentHashMap<>();
+    // Cache of player caps - refreshed in the background, players unseen for the retention window dropped
+    private final ExpiringCache<UUID, PlayerCaps> capsCache;
     
-    // Global Pokemon restrictions cache
-    private volatile PokemonRestrictions globalRestrictions = new PokemonRestrictions();
+    // Global Pokemon restrictions, compiled per config and swapped as a whole
+    private volatile CompiledRestrictions globalRestrictions = new PokemonRestrictions().compile();
+    private volatile JsonObject lastRestrictionsJson = null; // raw form, kept for the snapshot
+    
+    // Caps handed to players we have no entry for yet (last global caps seen, else hard-coded)
+    private volatile PlayerCaps defaultCaps = null;
+    
+    // Disk snapshot of the above, rewritten when something changed
+    private final AtomicBoolean snapshotDirty = new AtomicBoolean(false);
     
     // Version tracking - atomic for thread safety
     private final AtomicInteger currentConfigVersion = new AtomicInteger(0);
@@ -50,15 +64,21 @@ public class LevelCapManager {
     private volatile long lastVersionCheck = 0;
 
     // Scheduler for periodic enforcement
-    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1);
+    private final TaskScope scheduler;
     
     // Constants
-    private static final long CACHE_DURATION_MS = 300000; // 5 min cache
+    private static final long CACHE_DURATION_MS = 300000; // Refresh caps older than 5 min
+    private static final int CACHE_MAX_PLAYERS = 10000;
     private static final long VERSION_CHECK_INTERVAL_MS = 60000; // Check version every 60s
     private static final int ENFORCEMENT_INTERVAL_SECONDS = 30; // Check levels every 30s
+    private static final int SNAPSHOT_SAVE_INTERVAL_SECONDS = 30;
+    private static final long SNAPSHOT_PLAYER_RETENTION_MS = 30L * 24 * 60 * 60 * 1000; // Forget players unseen for 30 days
+    private static final int FALLBACK_CAPTURE_CAP = 50;
+    private static final int FALLBACK_OWNERSHIP_CAP = 100;
     
     /**
-     * Pokemon restrictions configuration
+     * Pokemon restrictions configuration (as parsed from the backend)
+     * Never probed per Pokemon - compiled into CompiledRestrictions once per config
      */
     private static class PokemonRestrictions {
         boolean blockLegendaries = false;
@@ -67,42 +87,35 @@ public class LevelCapManager {
         boolean blockParadox = false;
         boolean blockMegas = false;
         boolean blockRestricted = false;
-        Set<String> blockedSpecies = new HashSet<>();
-        Set<String> allowedSpecies = new HashSet<>();
+        Set<String> blockedSpecies = new HashSet<>();   // normalized keys
+        Set<String> allowedSpecies = new HashSet<>();   // normalized keys
         
-        boolean isBlocked(String species) {
-            String normalized = species.toLowerCase().replace(" ", "").replace("-", "");
-            
-            // Check if explicitly allowed
-            if (allowedSpecies.contains(normalized)) {
-                return false;
-            }
-            
-            // Check if explicitly blocked
-            if (blockedSpecies.contains(normalized)) {
-                return true;
-            }
-            
-            // Check category blocks
-            if (blockLegendaries && LegendaryPokemonData.isLegendary(species)) return true;
-            if (blockMythicals && LegendaryPokemonData.isMythical(species)) return true;
-            if (blockUltraBeasts && LegendaryPokemonData.isUltraBeast(species)) return true;
-            if (blockParadox && LegendaryPokemonData.isParadox(species)) return true;
-            if (blockMegas && LegendaryPokemonData.isMega(species)) return true;
-            if (blockRestricted && LegendaryPokemonData.isRestricted(species)) return true;
-            
-            return false;
+        CompiledRestrictions compile() {
+            int blockedCategories = (blockLegendaries ? SpeciesRegistry.LEGENDARY : 0)
+                | (blockMythicals ? SpeciesRegistry.MYTHICAL : 0)
+                | (blockUltraBeasts ? SpeciesRegistry.ULTRA_BEAST : 0)
+                | (blockParadox ? SpeciesRegistry.PARADOX : 0)
+                | (blockMegas ? SpeciesRegistry.MEGA : 0)
+                | (blockRestricted ? SpeciesRegistry.RESTRICTED : 0);
+            return CompiledRestrictions.compile(species -> reasonFor(species, blockedCategories));
         }
         
-        String getBlockReason(String species) {
-            if (blockRestricted && LegendaryPokemonData.isRestricted(species)) return "Pokémon Restringido";
-            if (blockMythicals && LegendaryPokemonData.isMythical(species)) return "Pokémon Mítico";
-            if (blockLegendaries && LegendaryPokemonData.isLegendary(species)) return "Pokémon Legendario";
-            if (blockUltraBeasts && LegendaryPokemonData.isUltraBeast(species)) return "Ultra Bestia";
-            if (blockParadox && LegendaryPokemonData.isParadox(species)) return "Pokémon Paradox";
-            if (blockMegas && LegendaryPokemonData.isMega(species)) return "Mega Evolución";
-            if (blockedSpecies.contains(species.toLowerCase())) return "Especie Bloqueada";
-            return "Bloqueado";
+        /**
+         * Block reason for a species, null if allowed (allow-list wins over everything)
+         */
+        private String reasonFor(Species species, int blockedCategories) {
+            String key = SpeciesRegistry.key(species);
+            if (allowedSpecies.contains(key)) return null;
+            
+            int flags = SpeciesRegistry.flags(species) & blockedCategories;
+            if ((flags & SpeciesRegistry.RESTRICTED) != 0) return "Pokémon Restringido";
+            if ((flags & SpeciesRegistry.MYTHICAL) != 0) return "Pokémon Mítico";
+            if ((flags & SpeciesRegistry.LEGENDARY) != 0) return "Pokémon Legendario";
+            if ((flags & SpeciesRegistry.ULTRA_BEAST) != 0) return "Ultra Bestia";
+            if ((flags & SpeciesRegistry.PARADOX) != 0) return "Pokémon Paradox";
+            if ((flags & SpeciesRegistry.MEGA) != 0) return "Mega Evolución";
+            if (blockedSpecies.contains(key)) return "Especie Bloqueada";
+            return null;
         }
     }
 
@@ -112,26 +125,43 @@ public class LevelCapManager {
         final long cacheTime;
         
         PlayerCaps(int captureCap, int ownershipCap) {
-            this.captureCap = captureCap;
-            this.ownershipCap = ownershipCap;
-            this.cacheTime = System.currentTimeMillis();
+            this(captureCap, ownershipCap, System.currentTimeMillis());
         }
         
-        boolean isExpired() {
-            return System.currentTimeMillis() - cacheTime > CACHE_DURATION_MS;
+        PlayerCaps(int captureCap, int ownershipCap, long cacheTime) {
+            this.captureCap = captureCap;
+            this.ownershipCap = ownershipCap;
+            this.cacheTime = cacheTime;
         }
     }
     
-    public LevelCapManager(HttpClient httpClient, ModLogger logger, Config config) {
+    public LevelCapManager(HttpClient httpClient, ModLogger logger, Config config, TimerWheel timers, TaskScope scheduler) {
         this.httpClient = httpClient;
         this.logger = logger;
         this.config = config;
+        this.scheduler = scheduler;
+        this.capsCache = ExpiringCache.<UUID, PlayerCaps>builder("levelcaps.players", timers)
+            .maximumSize(CACHE_MAX_PLAYERS)
+            .expireAfterWrite(SNAPSHOT_PLAYER_RETENTION_MS)
+            .refreshAfterWrite(CACHE_DURATION_MS, (uuid, stale) -> fetchCapsAsync(uuid))
+            .build();
     }
     
     public void initialize(MinecraftServer server) {
         this.server = server;
         logger.info("Level caps initializing (STRICT MODE)...");
         
+        // Restore last known state before anyone can join - no HTTP needed for the first tick
+        loadSnapshot();
+        
+        // Refresh a returning player's caps in the background (snapshot values serve meanwhile)
+        ServerPlayConnectionEvents.JOIN.register((handler, sender, server1) -> {
+            ServerPlayerEntity player = handler.getPlayer();
+            if (player != null) {
+                capsCache.refresh(player.getUuid());
+            }
+        });
+        
         // Register capture event - STRICT: DELETE immediately if over cap or blocked
         CobblemonEvents.POKEMON_CAPTURED.subscribe(Priority.NORMAL, event -> {
             ServerPlayerEntity player = event.getPlayer();
@@ -142,19 +172,21 @@ public class LevelCapManager {
                 int level = pokemon.getLevel();
                 
                 // Check Pokemon restrictions FIRST - DELETE immediately
-                if (globalRestrictions.isBlocked(species)) {
+                String reason = globalRestrictions.getBlockReason(pokemon.getSpecies());
+                if (reason != null) {
                     PlayerPartyStore party = Cobblemon.INSTANCE.getStorage().getParty(player);
                     party.remove(pokemon);
                     
-                    String reason = globalRestrictions.getBlockReason(species);
-                    player.sendMessage(Text.literal(""));
-                    player.sendMessage(Text.literal("§c§l⚠ POKÉMON ILEGAL - ELIMINADO ⚠"));
-                    player.sendMessage(Text.literal("§7━━━━━━━━━━━━━━━━━━━━━━━━━━━━"));
-                    player.sendMessage(Text.literal("§e" + species + " §7es un §c" + reason));
-                    player.sendMessage(Text.literal("§cEste Pokémon NO está permitido."));
-                    player.sendMessage(Text.literal("§cHa sido ELIMINADO permanentemente."));
-                    player.sendMessage(Text.literal("§7━━━━━━━━━━━━━━━━━━━━━━━━━━━━"));
-                    player.sendMessage(Text.literal(""));
+                    player.sendMessage(ChatMessages.lines(
+                        "",
+                        "§c§l⚠ POKÉMON ILEGAL - ELIMINADO ⚠",
+                        "§7━━━━━━━━━━━━━━━━━━━━━━━━━━━━",
+                        "§e" + species + " §7es un §c" + reason,
+                        "§cEste Pokémon NO está permitido.",
+                        "§cHa sido ELIMINADO permanentemente.",
+                        "§7━━━━━━━━━━━━━━━━━━━━━━━━━━━━",
+                        ""
+                    ));
                     
                     logger.warn("DELETED illegal Pokemon: " + player.getName().getString() + " tried to capture " + species + " (" + reason + ")");
                     return kotlin.Unit.INSTANCE;
@@ -166,15 +198,17 @@ public class LevelCapManager {
                     PlayerPartyStore party = Cobblemon.INSTANCE.getStorage().getParty(player);
                     party.remove(pokemon);
                     
-                    player.sendMessage(Text.literal(""));
-                    player.sendMessage(Text.literal("§c§l⚠ POKÉMON SOBRE NIVEL - ELIMINADO ⚠"));
-                    player.sendMessage(Text.literal("§7━━━━━━━━━━━━━━━━━━━━━━━━━━━━"));
-                    player.sendMessage(Text.literal("§e" + species + " §7nivel §c" + level));
-                    player.sendMessage(Text.literal("§7Tu límite de captura es nivel §a" + caps.captureCap));
-                    player.sendMessage(Text.literal("§cEl Pokémon ha sido ELIMINADO."));
-                    player.sendMessage(Text.literal("§7No puedes capturar Pokémon sobre el límite."));
-                    player.sendMessage(Text.literal("§7━━━━━━━━━━━━━━━━━━━━━━━━━━━━"));
-                    player.sendMessage(Text.literal(""));
+                    player.sendMessage(ChatMessages.lines(
+                        "",
+                        "§c§l⚠ POKÉMON SOBRE NIVEL - ELIMINADO ⚠",
+                        "§7━━━━━━━━━━━━━━━━━━━━━━━━━━━━",
+                        "§e" + species + " §7nivel §c" + level,
+                        "§7Tu límite de captura es nivel §a" + caps.captureCap,
+                        "§cEl Pokémon ha sido ELIMINADO.",
+                        "§7No puedes capturar Pokémon sobre el límite.",
+                        "§7━━━━━━━━━━━━━━━━━━━━━━━━━━━━",
+                        ""
+                    ));
                     
                     logger.warn("DELETED over-level Pokemon: " + player.getName().getString() + " tried to capture " + species + " (Lv" + level + ", cap=" + caps.captureCap + ")");
                 }
@@ -213,14 +247,16 @@ public class LevelCapManager {
                             ServerPlayerEntity owner = server.getPlayerManager().getPlayer(ownerUuid);
                             if (owner != null) {
                                 String pokemonName = pokemon.getSpecies().getName();
-                                owner.sendMessage(Text.literal(""));
-                                owner.sendMessage(Text.literal("§6§l⚠ NIVEL REGULARIZADO ⚠"));
-                                owner.sendMessage(Text.literal("§7━━━━━━━━━━━━━━━━━━━━━━━━━━━━"));
-                                owner.sendMessage(Text.literal("§e" + pokemonName + " §7subió a nivel §c" + oldLevel));
-                                owner.sendMessage(Text.literal("§7Límite actual: §a" + caps.ownershipCap));
-                                owner.sendMessage(Text.literal("§7Nivel ajustado a §a" + caps.ownershipCap));
-                                owner.sendMessage(Text.literal("§7━━━━━━━━━━━━━━━━━━━━━━━━━━━━"));
-                                owner.sendMessage(Text.literal(""));
+                                owner.sendMessage(ChatMessages.lines(
+                                    "",
+                                    "§6§l⚠ NIVEL REGULARIZADO ⚠",
+                                    "§7━━━━━━━━━━━━━━━━━━━━━━━━━━━━",
+                                    "§e" + pokemonName + " §7subió a nivel §c" + oldLevel,
+                                    "§7Límite actual: §a" + caps.ownershipCap,
+                                    "§7Nivel ajustado a §a" + caps.ownershipCap,
+                                    "§7━━━━━━━━━━━━━━━━━━━━━━━━━━━━",
+                                    ""
+                                ));
                             }
                         }
                     }
@@ -232,6 +268,13 @@ public class LevelCapManager {
         // Initial version fetch (async)
         checkConfigVersionAsync();
         
+        // Caps may have changed while the backend was unreachable
+        httpClient.getConnectivity().addListener((previous, current) -> {
+            if (current == ConnectivityMonitor.State.HEALTHY && previous == ConnectivityMonitor.State.OFFLINE) {
+                checkConfigVersionAsync();
+            }
+        });
+        
         // Start periodic enforcement (party + PC scan)
         scheduler.scheduleAtFixedRate(
             this::enforceAllPlayerLevelsAndPC,
@@ -240,6 +283,13 @@ public class LevelCapManager {
             TimeUnit.SECONDS
         );
         
+        scheduler.scheduleWithFixedDelay(
+            this::saveSnapshotIfDirty,
+            SNAPSHOT_SAVE_INTERVAL_SECONDS,
+            SNAPSHOT_SAVE_INTERVAL_SECONDS,
+            TimeUnit.SECONDS
+        );
+        
         logger.info("✓ Level caps initialized (STRICT MODE, PC scan every " + ENFORCEMENT_INTERVAL_SECONDS + "s)");
     }
 
@@ -281,6 +331,7 @@ public class LevelCapManager {
      * Scan party storage and enforce rules
      */
     private void scanAndEnforceStorage(ServerPlayerEntity player, PlayerPartyStore party, PlayerCaps caps, String storageName) {
+        CompiledRestrictions restrictions = globalRestrictions; // one config for the whole sweep
         List<Pokemon> toRemove = new ArrayList<>();
         List<Pokemon> toRegularize = new ArrayList<>();
         
@@ -291,18 +342,20 @@ public class LevelCapManager {
             int level = pokemon.getLevel();
             
             // Check if blocked species - DELETE
-            if (globalRestrictions.isBlocked(species)) {
+            String reason = restrictions.getBlockReason(pokemon.getSpecies());
+            if (reason != null) {
                 toRemove.add(pokemon);
-                String reason = globalRestrictions.getBlockReason(species);
                 
-                player.sendMessage(Text.literal(""));
-                player.sendMessage(Text.literal("§c§l⚠ POKÉMON ILEGAL DETECTADO ⚠"));
-                player.sendMessage(Text.literal("§7━━━━━━━━━━━━━━━━━━━━━━━━━━━━"));
-                player.sendMessage(Text.literal("§e" + species + " §7(" + storageName + ")"));
-                player.sendMessage(Text.literal("§7Razón: §c" + reason));
-                player.sendMessage(Text.literal("§cELIMINADO permanentemente."));
-                player.sendMessage(Text.literal("§7━━━━━━━━━━━━━━━━━━━━━━━━━━━━"));
-                player.sendMessage(Text.literal(""));
+                player.sendMessage(ChatMessages.lines(
+                    "",
+                    "§c§l⚠ POKÉMON ILEGAL DETECTADO ⚠",
+                    "§7━━━━━━━━━━━━━━━━━━━━━━━━━━━━",
+                    "§e" + species + " §7(" + storageName + ")",
+                    "§7Razón: §c" + reason,
+                    "§cELIMINADO permanentemente.",
+                    "§7━━━━━━━━━━━━━━━━━━━━━━━━━━━━",
+                    ""
+                ));
                 
                 logger.warn("DELETED illegal: " + player.getName().getString() + "'s " + species + " from " + storageName + " (" + reason + ")");
             }
@@ -332,6 +385,7 @@ public class LevelCapManager {
      * Scan PC storage (all boxes) and enforce rules
      */
     private void scanAndEnforcePC(ServerPlayerEntity player, PCStore pc, PlayerCaps caps) {
+        CompiledRestrictions restrictions = globalRestrictions; // one config for the whole sweep
         List<Pokemon> toRemove = new ArrayList<>();
         List<Pokemon> toRegularize = new ArrayList<>();
         
@@ -345,19 +399,21 @@ public class LevelCapManager {
                     int level = pokemon.getLevel();
                     
                     // Check if blocked species - DELETE
-                    if (globalRestrictions.isBlocked(species)) {
+                    String reason = restrictions.getBlockReason(pokemon.getSpecies());
+                    if (reason != null) {
                         if (!toRemove.contains(pokemon)) {
                             toRemove.add(pokemon);
-                            String reason = globalRestrictions.getBlockReason(species);
                             
-                            player.sendMessage(Text.literal(""));
-                            player.sendMessage(Text.literal("§c§l⚠ POKÉMON ILEGAL EN PC ⚠"));
-                            player.sendMessage(Text.literal("§7━━━━━━━━━━━━━━━━━━━━━━━━━━━━"));
-                            player.sendMessage(Text.literal("§e" + species + " §7(PC)"));
-                            player.sendMessage(Text.literal("§7Razón: §c" + reason));
-                            player.sendMessage(Text.literal("§cELIMINADO permanentemente."));
-                            player.sendMessage(Text.literal("§7━━━━━━━━━━━━━━━━━━━━━━━━━━━━"));
-                            player.sendMessage(Text.literal(""));
+                            player.sendMessage(ChatMessages.lines(
+                                "",
+                                "§c§l⚠ POKÉMON ILEGAL EN PC ⚠",
+                                "§7━━━━━━━━━━━━━━━━━━━━━━━━━━━━",
+                                "§e" + species + " §7(PC)",
+                                "§7Razón: §c" + reason,
+                                "§cELIMINADO permanentemente.",
+                                "§7━━━━━━━━━━━━━━━━━━━━━━━━━━━━",
+                                ""
+                            ));
                             
                             logger.warn("DELETED illegal from PC: " + player.getName().getString() + "'s " + species + " (" + reason + ")");
                         }
@@ -390,28 +446,25 @@ public class LevelCapManager {
     }
 
     /**
-     * Gets caps INSTANTLY from cache - NEVER blocks
+     * Gets caps INSTANTLY from cache - NEVER blocks (stale caps are served while they refresh)
      */
     private PlayerCaps getCapsInstant(UUID playerUuid) {
         maybeCheckVersion();
         
-        PlayerCaps cached = capsCache.get(playerUuid);
-        
-        if (cached == null) {
-            PlayerCaps defaults = new PlayerCaps(50, 100);
-            capsCache.put(playerUuid, defaults);
-            fetchCapsAsync(playerUuid);
-            return defaults;
-        }
-        
-        if (cached.isExpired()) {
-            fetchCapsAsync(playerUuid);
-        }
+        PlayerCaps cached = capsCache.getIfPresent(playerUuid);
+        if (cached != null) return cached;
         
-        return cached;
+        PlayerCaps fallback = defaultCaps;
+        PlayerCaps defaults = fallback != null
+            ? new PlayerCaps(fallback.captureCap, fallback.ownershipCap)
+            : new PlayerCaps(FALLBACK_CAPTURE_CAP, FALLBACK_OWNERSHIP_CAP);
+        capsCache.put(playerUuid, defaults);
+        capsCache.refresh(playerUuid);
+        return defaults;
     }
     
     private void maybeCheckVersion() {
+        if (httpClient.isOffline()) return; // Serve cached caps, re-checked on recovery
         long now = System.currentTimeMillis();
         if (now - lastVersionCheck > VERSION_CHECK_INTERVAL_MS) {
             checkConfigVersionAsync();
@@ -434,11 +487,13 @@ public class LevelCapManager {
                         
                         if (current == 0) {
                             currentConfigVersion.set(backendVersion);
+                            snapshotDirty.set(true);
                             logger.info("Level caps version: " + backendVersion);
                         } else if (backendVersion > current) {
                             logger.info("🔔 Level caps updated! v" + current + " → v" + backendVersion);
-                            capsCache.clear();
+                            capsCache.invalidateAll();
                             currentConfigVersion.set(backendVersion);
+                            snapshotDirty.set(true);
                             fetchAndAnnounceNewCaps();
                         }
                     }
@@ -460,19 +515,28 @@ public class LevelCapManager {
                     int newOwnershipCap = response.get("ownershipCap").getAsInt();
                     
                     logger.info("New level caps: Capture=" + newCaptureCap + ", Ownership=" + newOwnershipCap);
+                    defaultCaps = new PlayerCaps(newCaptureCap, newOwnershipCap);
+                    snapshotDirty.set(true);
                     
                     if (server != null) {
                         server.execute(() -> {
+                            // Composed once, same Text sent to every player
+                            Text announcement = ChatMessages.cached(
+                                "levelcaps.updated:" + newCaptureCap + ":" + newOwnershipCap,
+                                () -> ChatMessages.lines(
+                                    "",
+                                    "§6§l⚠ LÍMITES DE NIVEL ACTUALIZADOS ⚠",
+                                    "§7━━━━━━━━━━━━━━━━━━━━━━━━━━━━",
+                                    "§e⚔ Captura máxima: §f" + newCaptureCap,
+                                    "§a✦ Nivel máximo: §f" + newOwnershipCap,
+                                    "§c⚠ Pokémon sobre el límite serán ELIMINADOS al capturar",
+                                    "§7━━━━━━━━━━━━━━━━━━━━━━━━━━━━",
+                                    ""
+                                )
+                            );
+                            
                             for (ServerPlayerEntity p : server.getPlayerManager().getPlayerList()) {
-                                p.sendMessage(Text.literal(""));
-                                p.sendMessage(Text.literal("§6§l⚠ LÍMITES DE NIVEL ACTUALIZADOS ⚠"));
-                                p.sendMessage(Text.literal("§7━━━━━━━━━━━━━━━━━━━━━━━━━━━━"));
-                                p.sendMessage(Text.literal("§e⚔ Captura máxima: §f" + newCaptureCap));
-                                p.sendMessage(Text.literal("§a✦ Nivel máximo: §f" + newOwnershipCap));
-                                p.sendMessage(Text.literal("§c⚠ Pokémon sobre el límite serán ELIMINADOS al capturar"));
-                                p.sendMessage(Text.literal("§7━━━━━━━━━━━━━━━━━━━━━━━━━━━━"));
-                                p.sendMessage(Text.literal(""));
-                                
+                                p.sendMessage(announcement);
                                 capsCache.put(p.getUuid(), new PlayerCaps(newCaptureCap, newOwnershipCap));
                             }
                         });
@@ -485,18 +549,21 @@ public class LevelCapManager {
             });
     }
     
-    private void fetchCapsAsync(UUID playerUuid) {
-        httpClient.getAsync("/api/level-caps/effective?uuid=" + playerUuid.toString())
-            .thenAccept(response -> {
-                if (response != null && response.has("captureCap") && response.has("ownershipCap")) {
-                    int captureCap = response.get("captureCap").getAsInt();
-                    int ownershipCap = response.get("ownershipCap").getAsInt();
-                    capsCache.put(playerUuid, new PlayerCaps(captureCap, ownershipCap));
-                    
-                    if (response.has("pokemonRestrictions")) {
-                        updateRestrictionsFromResponse(response.getAsJsonObject("pokemonRestrictions"));
-                    }
+    /**
+     * Cache reloader: fetch the player's effective caps (null keeps the cached caps)
+     */
+    private CompletableFuture<PlayerCaps> fetchCapsAsync(UUID playerUuid) {
+        return httpClient.getAsync("/api/level-caps/effective?uuid=" + playerUuid.toString())
+            .thenApply(response -> {
+                if (response == null || !response.has("captureCap") || !response.has("ownershipCap")) {
+                    return null;
+                }
+                
+                if (response.has("pokemonRestrictions")) {
+                    updateRestrictionsFromResponse(response.getAsJsonObject("pokemonRestrictions"));
                 }
+                snapshotDirty.set(true);
+                return new PlayerCaps(response.get("captureCap").getAsInt(), response.get("ownershipCap").getAsInt());
             })
             .exceptionally(ex -> null);
     }
@@ -527,40 +594,101 @@ public class LevelCapManager {
             if (restrictions.has("blockedSpecies") && restrictions.get("blockedSpecies").isJsonArray()) {
                 JsonArray blocked = restrictions.getAsJsonArray("blockedSpecies");
                 for (JsonElement elem : blocked) {
-                    newRestrictions.blockedSpecies.add(elem.getAsString().toLowerCase());
+                    newRestrictions.blockedSpecies.add(SpeciesRegistry.normalize(elem.getAsString()));
                 }
             }
             
             if (restrictions.has("allowedSpecies") && restrictions.get("allowedSpecies").isJsonArray()) {
                 JsonArray allowed = restrictions.getAsJsonArray("allowedSpecies");
                 for (JsonElement elem : allowed) {
-                    newRestrictions.allowedSpecies.add(elem.getAsString().toLowerCase());
+                    newRestrictions.allowedSpecies.add(SpeciesRegistry.normalize(elem.getAsString()));
                 }
             }
             
-            globalRestrictions = newRestrictions;
+            CompiledRestrictions compiled = newRestrictions.compile();
+            globalRestrictions = compiled;
+            
+            if (!restrictions.equals(lastRestrictionsJson)) {
+                lastRestrictionsJson = restrictions;
+                snapshotDirty.set(true);
+            }
             
             logger.debug("Pokemon restrictions updated: legendaries=" + newRestrictions.blockLegendaries +
                 ", mythicals=" + newRestrictions.blockMythicals +
                 ", ultraBeasts=" + newRestrictions.blockUltraBeasts +
                 ", paradox=" + newRestrictions.blockParadox +
                 ", megas=" + newRestrictions.blockMegas +
-                ", restricted=" + newRestrictions.blockRestricted);
+                ", restricted=" + newRestrictions.blockRestricted +
+                " (" + compiled.getBlockedCount() + " species blocked)");
                 
         } catch (Exception e) {
             logger.error("Error parsing restrictions: " + e.getMessage());
         }
     }
     
-    public void shutdown() {
-        scheduler.shutdown();
-        try {
-            if (!scheduler.awaitTermination(5, TimeUnit.SECONDS)) {
-                scheduler.shutdownNow();
+    // ============================================
+    // DISK SNAPSHOT
+    // ============================================
+    
+    private void loadSnapshot() {
+        LevelCapSnapshot snapshot = LevelCapSnapshot.load(logger);
+        if (snapshot == null) {
+            logger.info("No level cap snapshot yet - using defaults until the backend answers");
+            return;
+        }
+        
+        if (snapshot.version > 0) {
+            currentConfigVersion.set(snapshot.version);
+        }
+        
+        if (snapshot.defaults != null) {
+            defaultCaps = new PlayerCaps(snapshot.defaults.captureCap, snapshot.defaults.ownershipCap);
+        }
+        
+        if (snapshot.restrictions != null) {
+            updateRestrictionsFromResponse(snapshot.restrictions);
+        }
+        
+        for (Map.Entry<String, LevelCapSnapshot.Caps> entry : snapshot.players.entrySet()) {
+            LevelCapSnapshot.Caps caps = entry.getValue();
+            if (caps == null) continue;
+            try {
+                // Written at fetch time: players past the retention window are dropped, stale ones refresh on read
+                capsCache.put(UUID.fromString(entry.getKey()),
+                    new PlayerCaps(caps.captureCap, caps.ownershipCap, caps.fetchedAt), caps.fetchedAt);
+            } catch (IllegalArgumentException ignored) {
+                // Not a UUID - skip
             }
-        } catch (InterruptedException e) {
-            scheduler.shutdownNow();
         }
+        int restored = capsCache.size();
+        
+        // Restoring is not a change - nothing to write back
+        snapshotDirty.set(false);
+        
+        logger.info("Restored level cap snapshot v" + snapshot.version + " (" + restored + " players)");
+    }
+    
+    private void saveSnapshotIfDirty() {
+        if (!snapshotDirty.compareAndSet(true, false)) return;
+        
+        LevelCapSnapshot snapshot = new LevelCapSnapshot();
+        snapshot.version = currentConfigVersion.get();
+        snapshot.restrictions = lastRestrictionsJson;
+        
+        PlayerCaps defaults = defaultCaps;
+        if (defaults != null) {
+            snapshot.defaults = new LevelCapSnapshot.Caps(defaults.captureCap, defaults.ownershipCap, defaults.cacheTime);
+        }
+        
+        capsCache.forEach((uuid, caps, writtenAt) -> snapshot.players.put(uuid.toString(),
+            new LevelCapSnapshot.Caps(caps.captureCap, caps.ownershipCap, writtenAt)));
+        
+        snapshot.save(logger);
+    }
+    
+    public void shutdown() {
+        scheduler.shutdown(5, TimeUnit.SECONDS);
+        saveSnapshotIfDirty();
         logger.info("Level caps manager shutdown");
     }
 }
@@ -0,0 +1,84 @@
+package com.lospitufos.cobblemon.levelcaps;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import com.lospitufos.cobblemon.utils.ModLogger;
+
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.*;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Level Cap Snapshot - last known caps, restrictions and config version on disk
+ *
+ * Features:
+ * - Loaded synchronously before players can join, so enforcement is right from the first tick
+ * - Written by LevelCapManager in the background whenever the backend answers with something new
+ * - Atomic write (temp file + move)
+ * - Restrictions kept as the raw backend JSON, parsed by the same code as a live response
+ */
+class LevelCapSnapshot {
+
+    private static final String SNAPSHOT_DIR = "config/cobblemon-lospitufos-v2";
+    private static final String SNAPSHOT_FILE = "levelcaps-snapshot.json";
+    private static final Gson GSON = new GsonBuilder().create();
+
+    int version;
+    long savedAt;
+    Caps defaults;
+    JsonObject restrictions;
+    Map<String, Caps> players = new HashMap<>();
+
+    static class Caps {
+        int captureCap;
+        int ownershipCap;
+        long fetchedAt;
+
+        Caps(int captureCap, int ownershipCap, long fetchedAt) {
+            this.captureCap = captureCap;
+            this.ownershipCap = ownershipCap;
+            this.fetchedAt = fetchedAt;
+        }
+    }
+
+    /**
+     * Read the snapshot, or null if there is none (first start) or it cannot be parsed
+     */
+    static LevelCapSnapshot load(ModLogger logger) {
+        Path file = Paths.get(SNAPSHOT_DIR, SNAPSHOT_FILE);
+        if (!Files.exists(file)) return null;
+
+        try (Reader reader = Files.newBufferedReader(file)) {
+            LevelCapSnapshot snapshot = GSON.fromJson(reader, LevelCapSnapshot.class);
+            if (snapshot != null && snapshot.players == null) {
+                snapshot.players = new HashMap<>();
+            }
+            return snapshot;
+        } catch (Exception e) {
+            logger.error("Error loading level cap snapshot: " + e.getMessage());
+            return null;
+        }
+    }
+
+    void save(ModLogger logger) {
+        try {
+            Path dir = Paths.get(SNAPSHOT_DIR);
+            if (!Files.exists(dir)) {
+                Files.createDirectories(dir);
+            }
+
+            Path file = dir.resolve(SNAPSHOT_FILE);
+            Path temp = dir.resolve(SNAPSHOT_FILE + ".tmp");
+            savedAt = System.currentTimeMillis();
+            try (Writer writer = Files.newBufferedWriter(temp)) {
+                GSON.toJson(this, writer);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (Exception e) {
+            logger.error("Error saving level cap snapshot: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,505 @@
+package com.lospitufos.cobblemon.outbox;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.lospitufos.cobblemon.core.TaskScope;
+import com.lospitufos.cobblemon.utils.ConnectivityMonitor;
+import com.lospitufos.cobblemon.utils.HttpClient;
+import com.lospitufos.cobblemon.utils.ModLogger;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+
+/**
+ * Outbox - durable write-ahead log for backend mutations
+ *
+ * Features:
+ * - enqueue() appends the mutation to config/cobblemon-lospitufos-v2/outbox.log and returns at once
+ * - Group commit: appends within a 10ms window share one FileChannel.force()
+ * - A mutation is only sent after it is on disk; an ATTEMPT record is on disk before each send
+ * - An ACK record is appended once the backend answers (any status - a non-2xx answer is final)
+ * - Attempts that never reached the backend (offline, connection refused) are retried with backoff
+ * - Unattempted mutations are replayed on startup; the log is compacted on startup and truncated when idle
+ *
+ * The backend does not de-duplicate on "outboxId" yet, so once a request may have reached it (timeout,
+ * reset, crash mid-send) the mutation is logged and dropped, never resent: at-most-once past that point.
+ * Endpoints listed in IDEMPOTENT_PATHS (backend de-duplicates) get at-least-once delivery instead.
+ * No caller ever waits on disk or HTTP - the returned future completes from the IO / HTTP threads.
+ */
+public class Outbox {
+
+    private static final String OUTBOX_DIR = "config/cobblemon-lospitufos-v2";
+    private static final String OUTBOX_FILE = "outbox.log";
+
+    // Record: [type:1][seq:8][length:4][body:length][crc32:4]
+    private static final byte TYPE_MUTATION = 1;
+    private static final byte TYPE_ACK = 2;
+    private static final byte TYPE_ATTEMPT = 3;                       // A send is about to start
+    private static final byte TYPE_RELEASE = 4;                       // That send never reached the backend
+    private static final int HEADER_BYTES = 13;
+    private static final int CRC_BYTES = 4;
+
+    private static final long GROUP_COMMIT_MS = 10;
+    private static final int RETRY_CHECK_SECONDS = 5;
+    private static final long BASE_BACKOFF_MS = 5_000;
+    private static final long MAX_BACKOFF_MS = 5 * 60_000;
+    private static final int MAX_ATTEMPTS = 200;                      // ~16h at max backoff, then dropped
+    private static final int MAX_IN_FLIGHT = 8;
+    private static final long TRUNCATE_THRESHOLD_BYTES = 1L << 20;    // Reclaim the log once it passes 1MB and is idle
+
+    // Only endpoints whose backend handler de-duplicates on outboxId may be resent after an ambiguous attempt
+    private static final Set<String> IDEMPOTENT_PATHS = Set.of();
+
+    private final HttpClient httpClient;
+    private final ModLogger logger;
+    private final TaskScope io;                                        // Quota 1: serial, owns the channel
+    private final Queue<Entry> toWrite = new ConcurrentLinkedQueue<>();
+    private final Queue<Marker> markersToWrite = new ConcurrentLinkedQueue<>();
+    private final Map<Long, Entry> pending = new ConcurrentHashMap<>();
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+    private final AtomicLong nextSeq = new AtomicLong(1);
+    private volatile boolean open = false;
+    private FileChannel channel;                                       // IO scope only after initialize()
+
+    public Outbox(HttpClient httpClient, ModLogger logger, TaskScope io) {
+        this.httpClient = httpClient;
+        this.logger = logger;
+        this.io = io;
+    }
+
+    public void initialize() {
+        try {
+            Path dir = Paths.get(OUTBOX_DIR);
+            if (!Files.exists(dir)) {
+                Files.createDirectories(dir);
+            }
+            Path file = dir.resolve(OUTBOX_FILE);
+
+            replay(file);
+
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            open = true;
+
+            io.scheduleAtFixedRate(this::retryDue, RETRY_CHECK_SECONDS, RETRY_CHECK_SECONDS, TimeUnit.SECONDS);
+
+            // Backend back - send everything now instead of waiting out each entry's backoff
+            httpClient.getConnectivity().addListener((previous, current) -> {
+                if (current == ConnectivityMonitor.State.HEALTHY) {
+                    io.execute(this::retryAllNow);
+                }
+            });
+
+            logger.info("✓ Outbox initialized (" + pending.size() + " unsent mutations replayed)");
+        } catch (Exception e) {
+            // Fall back to plain fire-and-forget posts rather than losing the feature
+            logger.error("Outbox unavailable, mutations will not be durable: " + e.getMessage());
+        }
+    }
+
+    // ============================================
+    // PUBLIC API (any thread)
+    // ============================================
+
+    /**
+     * Durably record a mutation and send it. The future completes with the first backend
+     * response, or null if the first attempt got none (retried in the background only if it never reached the backend).
+     */
+    public CompletableFuture<JsonObject> enqueue(String path, JsonObject payload) {
+        JsonObject body = payload != null ? payload.deepCopy() : new JsonObject();
+        Entry entry = new Entry(nextSeq.getAndIncrement(), path, body, System.currentTimeMillis());
+        body.addProperty("outboxId", entry.outboxId());
+
+        if (!open) {
+            return httpClient.postAsync(path, body);
+        }
+
+        toWrite.add(entry);
+        scheduleFlush();
+        return entry.result;
+    }
+
+    public int getPendingCount() {
+        return pending.size() + toWrite.size();
+    }
+
+    // ============================================
+    // GROUP COMMIT (IO scope)
+    // ============================================
+
+    private void scheduleFlush() {
+        if (flushScheduled.compareAndSet(false, true)) {
+            try {
+                io.schedule(this::flush, GROUP_COMMIT_MS, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                flushScheduled.set(false);
+            }
+        }
+    }
+
+    /**
+     * One write + force for new mutations, markers and the ATTEMPT records of everything about to be sent
+     */
+    private void flush() {
+        flushScheduled.set(false);
+        if (channel == null) return;
+
+        List<ByteBuffer> buffers = new ArrayList<>();
+        Entry entry;
+        while ((entry = toWrite.poll()) != null) {
+            buffers.add(encode(TYPE_MUTATION, entry.seq, entry.encodeBody()));
+            pending.put(entry.seq, entry);
+        }
+        Marker marker;
+        while ((marker = markersToWrite.poll()) != null) {
+            buffers.add(encode(marker.type, marker.seq, new byte[0]));
+        }
+
+        List<Entry> due = selectDue();
+        for (Entry attempt : due) {
+            buffers.add(encode(TYPE_ATTEMPT, attempt.seq, new byte[0]));
+        }
+        if (buffers.isEmpty()) return;
+
+        try {
+            ByteBuffer[] array = buffers.toArray(new ByteBuffer[0]);
+            while (hasRemaining(array)) {
+                channel.write(array);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            // Neither the mutation nor its attempt is durable, so a restart can't resend it either
+            logger.error("Outbox write failed, sending without durability: " + e.getMessage());
+        }
+
+        // Only now (mutation and attempt on disk) do requests go out
+        for (Entry attempt : due) {
+            send(attempt);
+        }
+
+        truncateIfIdle();
+    }
+
+    /**
+     * Pending entries whose backoff is over, up to the free in-flight slots - reserved in inFlight here
+     */
+    private List<Entry> selectDue() {
+        // Nothing new goes out during the shutdown flush - it is replayed on next start instead
+        if (!open || httpClient.isOffline()) return Collections.emptyList();
+
+        List<Entry> due = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        for (Entry entry : pending.values()) {
+            if (inFlight.size() >= MAX_IN_FLIGHT) break;
+            if (entry.nextAttemptAt <= now && inFlight.add(entry.seq)) {
+                due.add(entry);
+            }
+        }
+        return due;
+    }
+
+    private void truncateIfIdle() {
+        try {
+            if (pending.isEmpty() && inFlight.isEmpty() && toWrite.isEmpty() && markersToWrite.isEmpty()
+                    && channel.size() > TRUNCATE_THRESHOLD_BYTES) {
+                channel.truncate(0);
+                channel.force(true);
+            }
+        } catch (IOException e) {
+            logger.debug("Outbox truncate failed: " + e.getMessage());
+        }
+    }
+
+    // ============================================
+    // SENDING
+    // ============================================
+
+    /**
+     * The seq stays in inFlight until the HTTP attempt itself finishes (bounded by the client's read timeout)
+     */
+    private void send(Entry entry) {
+        CompletableFuture<HttpClient.PostOutcome> attempt;
+        try {
+            attempt = httpClient.postOnceAsync(entry.path, entry.payload);
+        } catch (Exception e) {
+            attempt = CompletableFuture.completedFuture(HttpClient.PostOutcome.notSent(e.getMessage()));
+        }
+
+        attempt.whenComplete((outcome, error) -> {
+            if (error != null) {
+                outcome = HttpClient.PostOutcome.unknown(error.getMessage());
+            }
+
+            try {
+                switch (outcome.status) {
+                    case DELIVERED -> {
+                        acknowledge(entry);
+                        entry.result.complete(outcome.response);
+                    }
+                    case REJECTED -> {
+                        // The backend answered - resending the same payload gets the same answer
+                        logger.warn("Outbox: " + entry.path + " rejected (" + outcome.error + "), not retrying [" + entry.outboxId() + "]");
+                        acknowledge(entry);
+                        entry.result.complete(null);
+                    }
+                    case UNKNOWN -> {
+                        entry.result.complete(null);
+                        if (isIdempotent(entry.path)) {
+                            release(entry);
+                            scheduleRetry(entry);
+                        } else {
+                            logger.error("Outbox: no answer for " + entry.path + " (" + outcome.error
+                                + "), it may have been applied - not resending [" + entry.outboxId() + "]");
+                            acknowledge(entry);
+                        }
+                    }
+                    case NOT_SENT -> {
+                        entry.result.complete(null);
+                        release(entry);
+                        scheduleRetry(entry);
+                    }
+                }
+            } finally {
+                inFlight.remove(entry.seq);
+            }
+        });
+    }
+
+    private void scheduleRetry(Entry entry) {
+        if (httpClient.isOffline()) {
+            // Not the entry's fault - retried on recovery without using up attempts
+            entry.nextAttemptAt = System.currentTimeMillis() + MAX_BACKOFF_MS;
+            return;
+        }
+        entry.attempts++;
+
+        if (entry.attempts >= MAX_ATTEMPTS) {
+            logger.error("Outbox giving up on " + entry.path + " after " + entry.attempts + " attempts");
+            acknowledge(entry);
+            return;
+        }
+        long backoff = Math.min(MAX_BACKOFF_MS, BASE_BACKOFF_MS << Math.min(entry.attempts - 1, 10));
+        entry.nextAttemptAt = System.currentTimeMillis() + backoff;
+    }
+
+    private void acknowledge(Entry entry) {
+        if (pending.remove(entry.seq) != null) {
+            markersToWrite.add(new Marker(TYPE_ACK, entry.seq));
+            scheduleFlush();
+        }
+    }
+
+    /**
+     * The open attempt is known not to have reached the backend - the entry may be replayed again.
+     * If a crash beats the group commit the entry is only dropped on replay, never duplicated.
+     */
+    private void release(Entry entry) {
+        markersToWrite.add(new Marker(TYPE_RELEASE, entry.seq));
+        scheduleFlush();
+    }
+
+    private static boolean isIdempotent(String path) {
+        return IDEMPOTENT_PATHS.contains(path);
+    }
+
+    private void retryDue() {
+        try {
+            flush();
+        } catch (Exception e) {
+            logger.error("Error retrying outbox: " + e.getMessage());
+        }
+    }
+
+    private void retryAllNow() {
+        for (Entry entry : pending.values()) {
+            entry.nextAttemptAt = 0;
+        }
+        if (!pending.isEmpty()) {
+            logger.info("Outbox resending " + pending.size() + " queued mutations after reconnect");
+        }
+        retryDue();
+    }
+
+    // ============================================
+    // REPLAY & COMPACTION (startup)
+    // ============================================
+
+    private void replay(Path file) throws IOException {
+        if (!Files.exists(file)) return;
+
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+        Map<Long, Entry> mutations = new LinkedHashMap<>();
+        Set<Long> openAttempts = new HashSet<>();
+        long maxSeq = 0;
+        int records = 0;
+        int validEnd = 0;
+
+        while (buffer.remaining() >= HEADER_BYTES + CRC_BYTES) {
+            int start = buffer.position();
+            byte type = buffer.get();
+            long seq = buffer.getLong();
+            int length = buffer.getInt();
+            if (length < 0 || buffer.remaining() < length + CRC_BYTES) break; // Torn tail write
+
+            byte[] body = new byte[length];
+            buffer.get(body);
+            int crc = buffer.getInt();
+            if (crc != checksum(buffer.array(), start, HEADER_BYTES + length)) break;
+
+            records++;
+            validEnd = buffer.position();
+            maxSeq = Math.max(maxSeq, seq);
+            if (type == TYPE_MUTATION) {
+                Entry entry = Entry.decode(seq, body);
+                if (entry != null) mutations.put(seq, entry);
+            } else if (type == TYPE_ACK) {
+                mutations.remove(seq);
+                openAttempts.remove(seq);
+            } else if (type == TYPE_ATTEMPT) {
+                openAttempts.add(seq);
+            } else if (type == TYPE_RELEASE) {
+                openAttempts.remove(seq);
+            }
+        }
+
+        // Sent before the crash with no answer recorded: the backend may already have applied them
+        for (Long seq : openAttempts) {
+            Entry entry = mutations.get(seq);
+            if (entry != null && !isIdempotent(entry.path)) {
+                mutations.remove(seq);
+                logger.error("Outbox: dropping " + entry.path + " interrupted mid-send, it may have been applied ["
+                    + entry.outboxId() + "] " + entry.payload);
+            }
+        }
+
+        nextSeq.set(maxSeq + 1);
+        pending.putAll(mutations);
+
+        // Rewrite with only the live mutations (also drops any torn tail)
+        if (records > mutations.size() || validEnd < buffer.capacity()) {
+            Path temp = file.resolveSibling(OUTBOX_FILE + ".tmp");
+            try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                for (Entry entry : mutations.values()) {
+                    ByteBuffer record = encode(TYPE_MUTATION, entry.seq, entry.encodeBody());
+                    while (record.hasRemaining()) out.write(record);
+                }
+                out.force(true);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+
+    // ============================================
+    // ENCODING
+    // ============================================
+
+    private static ByteBuffer encode(byte type, long seq, byte[] body) {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + body.length + CRC_BYTES);
+        buffer.put(type).putLong(seq).putInt(body.length).put(body);
+        buffer.putInt(checksum(buffer.array(), 0, HEADER_BYTES + body.length));
+        buffer.flip();
+        return buffer;
+    }
+
+    private static int checksum(byte[] bytes, int offset, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes, offset, length);
+        return (int) crc.getValue();
+    }
+
+    private static boolean hasRemaining(ByteBuffer[] buffers) {
+        for (ByteBuffer buffer : buffers) {
+            if (buffer.hasRemaining()) return true;
+        }
+        return false;
+    }
+
+    public void shutdown() {
+        logger.info("Outbox shutting down...");
+        open = false;
+
+        // Last group commit so nothing enqueued before shutdown is lost (runs after anything already queued)
+        try {
+            io.execute(this::flush);
+        } catch (Exception e) {
+            logger.error("Error flushing outbox on shutdown: " + e.getMessage());
+        }
+        io.shutdown(5, TimeUnit.SECONDS);
+
+        try {
+            if (channel != null) channel.close();
+        } catch (IOException e) {
+            logger.debug("Error closing outbox: " + e.getMessage());
+        }
+
+        if (!pending.isEmpty()) {
+            logger.info("Outbox: " + pending.size() + " unsent mutations will be replayed on next start");
+        }
+    }
+
+    // ============================================
+    // INNER CLASSES
+    // ============================================
+
+    private static class Entry {
+        final long seq;
+        final String path;
+        final JsonObject payload;
+        final long createdAt;
+        final CompletableFuture<JsonObject> result = new CompletableFuture<>();
+        volatile int attempts;
+        volatile long nextAttemptAt;
+
+        Entry(long seq, String path, JsonObject payload, long createdAt) {
+            this.seq = seq;
+            this.path = path;
+            this.payload = payload;
+            this.createdAt = createdAt;
+        }
+
+        String outboxId() {
+            return Long.toString(createdAt, 36) + "-" + Long.toString(seq, 36);
+        }
+
+        byte[] encodeBody() {
+            JsonObject json = new JsonObject();
+            json.addProperty("path", path);
+            json.addProperty("createdAt", createdAt);
+            json.add("payload", payload);
+            return json.toString().getBytes(StandardCharsets.UTF_8);
+        }
+
+        static Entry decode(long seq, byte[] body) {
+            try {
+                JsonObject json = JsonParser.parseString(new String(body, StandardCharsets.UTF_8)).getAsJsonObject();
+                return new Entry(seq, json.get("path").getAsString(), json.getAsJsonObject("payload"),
+                    json.get("createdAt").getAsLong());
+            } catch (Exception e) {
+                return null;
+            }
+        }
+    }
+
+    private static final class Marker {
+        final byte type;
+        final long seq;
+
+        Marker(byte type, long seq) {
+            this.type = type;
+            this.seq = seq;
+        }
+    }
+}
@@ -1,23 +1,22 @@
 package com.lospitufos.cobblemon.playershop;
 
-import com.cobblemon.mod.common.Cobblemon;
-import com.cobblemon.mod.common.api.pokemon.Natures;
-import com.cobblemon.mod.common.api.pokemon.PokemonSpecies;
-import com.cobblemon.mod.common.api.pokemon.stats.Stats;
-import com.cobblemon.mod.common.api.storage.party.PlayerPartyStore;
-import com.cobblemon.mod.common.api.storage.pc.PCStore;
-import com.cobblemon.mod.common.pokemon.Pokemon;
-import com.cobblemon.mod.common.pokemon.Species;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import com.lospitufos.cobblemon.core.TaskScope;
+import com.lospitufos.cobblemon.data.PokemonSpec;
+import com.lospitufos.cobblemon.delivery.DeliveryEngine;
+import com.lospitufos.cobblemon.delivery.DeliveryRequest;
+import com.lospitufos.cobblemon.economy.BalanceLedger;
+import com.lospitufos.cobblemon.utils.ChatMessages;
 import com.lospitufos.cobblemon.utils.HttpClient;
 import com.lospitufos.cobblemon.utils.ModLogger;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.text.Text;
 
-import java.util.Set;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.*;
 
@@ -29,31 +28,31 @@ import java.util.concurrent.*;
  * - Auto-delivers purchased Pokemon to online players
  * - Handles escrow returns (cancelled listings, expired auctions)
  * - All operations are ASYNC to prevent server lag
- * - Duplicate delivery prevention with processing set
+ * - Deliveries parsed and validated off-thread (PokemonSpec) - the main thread only creates and places
+ * - Placement and duplicate prevention via the shared DeliveryEngine
  * - /claimmarket command for manual delivery check
  */
 public class PlayerShopManager {
     
     private final HttpClient httpClient;
     private final ModLogger logger;
-    private final ScheduledExecutorService scheduler;
-    private final Set<String> processingDeliveries;
+    private final DeliveryEngine deliveryEngine;
+    private final BalanceLedger ledger;
+    private final TaskScope scheduler;
     private MinecraftServer server;
     
     // Configuration
     private static final int POLL_INTERVAL_SECONDS = 15;
     private static final int INITIAL_DELAY_SECONDS = 10;
     
-    public PlayerShopManager(HttpClient httpClient, ModLogger logger) {
+    public PlayerShopManager(HttpClient httpClient, ModLogger logger, DeliveryEngine deliveryEngine, BalanceLedger ledger,
+                             TaskScope scheduler) {
         this.httpClient = httpClient;
         this.logger = logger;
-        // Single thread scheduler to prevent concurrent polling
-        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
-            Thread t = new Thread(r, "PlayerShop-Poller");
-            t.setDaemon(true);
-            return t;
-        });
-        this.processingDeliveries = ConcurrentHashMap.newKeySet();
+        this.deliveryEngine = deliveryEngine;
+        this.ledger = ledger;
+        // Quota-1 scope: polls never run concurrently
+        this.scheduler = scheduler;
     }
     
     /**
@@ -80,6 +79,7 @@ public class PlayerShopManager {
      */
     private void pollPendingDeliveries() {
         if (server == null) return;
+        if (httpClient.isOffline()) return; // Suspended until the backend is back
         
         try {
             // Get online players
@@ -103,8 +103,9 @@ public class PlayerShopManager {
                         
                         logger.info("Found " + deliveries.size() + " pending deliveries for " + player.getName().getString());
                         
-                        // Process deliveries on main thread (required for Cobblemon API)
-                        server.execute(() -> processDeliveries(player, deliveries));
+                        // Parse here, place on main thread (required for Cobblemon API)
+                        List<MarketDelivery> parsed = parseDeliveries(deliveries);
+                        server.execute(() -> processDeliveries(player, parsed));
                     })
                     .exceptionally(throwable -> {
                         // Silent fail - don't spam logs
@@ -118,78 +119,104 @@ public class PlayerShopManager {
     }
     
     /**
-     * Process pending deliveries for a player
-     * MUST run on main thread for Cobblemon API access
+     * Parse and validate deliveries (any thread) - entries with unusable data are logged and skipped
      */
-    private void processDeliveries(ServerPlayerEntity player, JsonArray deliveries) {
-        if (player == null || player.isDisconnected()) return;
-        
-        int delivered = 0;
+    private List<MarketDelivery> parseDeliveries(JsonArray deliveries) {
+        List<MarketDelivery> parsed = new ArrayList<>(deliveries.size());
         
         for (JsonElement element : deliveries) {
+            String deliveryId = null;
             try {
                 JsonObject delivery = element.getAsJsonObject();
                 
                 // Get delivery ID (handle MongoDB format)
-                String deliveryId = getIdFromJson(delivery.get("_id"));
+                deliveryId = getIdFromJson(delivery.get("_id"));
                 if (deliveryId == null) continue;
                 
-                // Skip if already processing
-                if (processingDeliveries.contains(deliveryId)) {
-                    logger.debug("Delivery " + deliveryId + " already processing, skipping");
-                    continue;
-                }
-                
-                // Mark as processing
-                processingDeliveries.add(deliveryId);
-                
                 // Get Pokemon data
                 JsonObject pokemonData = delivery.getAsJsonObject("pokemon");
                 if (pokemonData == null) {
                     logger.error("Delivery " + deliveryId + " has no pokemon data");
-                    processingDeliveries.remove(deliveryId);
                     continue;
                 }
                 
                 // Get delivery type
                 String type = delivery.has("type") ? delivery.get("type").getAsString() : "purchase";
+                String species = pokemonData.has("species") ? pokemonData.get("species").getAsString() : "Pokemon";
+                JsonObject balanceTransfer = delivery.has("balanceTransfer") ? delivery.getAsJsonObject("balanceTransfer") : null;
+                
+                parsed.add(new MarketDelivery(deliveryId, type, species, PokemonSpec.fromJson(pokemonData, 1), balanceTransfer));
                 
-                // Process balance transfer if present (for purchases)
-                if (delivery.has("balanceTransfer")) {
-                    JsonObject balanceTransfer = delivery.getAsJsonObject("balanceTransfer");
+            } catch (IllegalArgumentException e) {
+                logger.error("Failed to create Pokemon for delivery " + deliveryId + ": " + e.getMessage());
+            } catch (Exception e) {
+                logger.error("Error processing delivery: " + e.getMessage());
+            }
+        }
+        
+        return parsed;
+    }
+    
+    /**
+     * Process pending deliveries for a player
+     * MUST run on main thread for Cobblemon API access
+     */
+    private void processDeliveries(ServerPlayerEntity player, List<MarketDelivery> deliveries) {
+        if (player == null || player.isDisconnected()) return;
+        
+        int submitted = 0;
+        
+        for (MarketDelivery delivery : deliveries) {
+            try {
+                String deliveryId = delivery.id;
+                String type = delivery.type;
+                String species = delivery.species;
+                
+                DeliveryRequest.Builder builder = DeliveryRequest.builder("market:" + deliveryId, player.getUuid())
+                    .pokemon(delivery.pokemon::create)
+                    .confirm("/api/player-shop/deliveries/" + deliveryId + "/delivered", new JsonObject());
+                
+                // Process balance transfer if present (for purchases) - only once space is confirmed
+                if (delivery.balanceTransfer != null) {
+                    JsonObject balanceTransfer = delivery.balanceTransfer;
                     boolean balanceProcessed = balanceTransfer.has("processed") && balanceTransfer.get("processed").getAsBoolean();
                     
                     if (!balanceProcessed) {
-                        boolean balanceSuccess = processBalanceTransfer(balanceTransfer);
-                        if (!balanceSuccess) {
-                            logger.error("Failed to process balance transfer for delivery " + deliveryId);
-                            processingDeliveries.remove(deliveryId);
-                            continue;
-                        }
+                        builder.beforeCommit(() -> processBalanceTransfer(balanceTransfer));
                     }
                 }
                 
-                // Deliver the Pokemon
-                boolean success = deliverPokemon(player, pokemonData, type);
-                
-                if (success) {
-                    // Mark as delivered in backend
-                    markDelivered(deliveryId);
-                    delivered++;
-                    
-                    String species = pokemonData.has("species") ? pokemonData.get("species").getAsString() : "Pokemon";
-                    String message = getDeliveryMessage(type, species);
+                builder.listener(new DeliveryRequest.Listener() {
+                    @Override
+                    public void onDelivered(ServerPlayerEntity p, DeliveryRequest.Receipt receipt) {
+                        p.sendMessage(ChatMessages.lines(
+                            "",
+                            "§a§l✓ " + getDeliveryMessage(type, species),
+                            "§7¡Revisa tu equipo o PC!",
+                            ""
+                        ));
+                        logger.info("Delivered " + species + " to " + p.getName().getString() + " (" + type + ")");
+                    }
                     
-                    player.sendMessage(Text.literal(""));
-                    player.sendMessage(Text.literal("§a§l✓ " + message));
-                    player.sendMessage(Text.literal("§7¡Revisa tu equipo o PC!"));
-                    player.sendMessage(Text.literal(""));
+                    @Override
+                    public void onDeferred(ServerPlayerEntity p, String reason) {
+                        if (p == null) return;
+                        if ("Party and PC full".equals(reason)) {
+                            p.sendMessage(Text.literal("§c⚠ ¡Tu equipo y PC están llenos! Haz espacio para recibir tu Pokémon."));
+                        }
+                        // Failed to deliver - will retry on next poll
+                        logger.warn("Failed to deliver to " + p.getName().getString() + " - will retry (" + reason + ")");
+                    }
                     
-                    logger.info("Delivered " + species + " to " + player.getName().getString() + " (" + type + ")");
-                } else {
-                    // Failed to deliver - will retry on next poll
-                    processingDeliveries.remove(deliveryId);
-                    logger.warn("Failed to deliver to " + player.getName().getString() + " - will retry");
+                    @Override
+                    public void onFailed(ServerPlayerEntity p, String reason) {
+                        logger.error("Failed to create Pokemon for delivery " + deliveryId + ": " + reason);
+                    }
+                });
+                
+                // The delivery engine skips deliveries already queued or delivered (prevents duplicates)
+                if (deliveryEngine.submit(builder.build())) {
+                    submitted++;
                 }
                 
             } catch (Exception e) {
@@ -197,14 +224,14 @@ public class PlayerShopManager {
             }
         }
         
-        if (delivered > 0) {
-            logger.info("Delivered " + delivered + " Pokemon to " + player.getName().getString());
+        if (submitted > 0) {
+            logger.info("Queued " + submitted + " Pokemon deliveries for " + player.getName().getString());
         }
     }
     
     /**
-     * Process balance transfer using CobbleDollars commands
-     * Executes /cobbledollars remove and /cobbledollars add commands
+     * Process balance transfer through the balance ledger
+     * Debits the buyer, credits the seller
      */
     private boolean processBalanceTransfer(JsonObject balanceTransfer) {
         try {
@@ -214,22 +241,11 @@ public class PlayerShopManager {
             
             logger.info("Processing balance transfer: " + amount + " CD from " + fromUsername + " to " + toUsername);
             
-            // Execute CobbleDollars commands via server command dispatcher
             // Remove from buyer
-            String removeCommand = "cobbledollars remove " + fromUsername + " " + amount;
-            server.getCommandManager().executeWithPrefix(
-                server.getCommandSource().withSilent(),
-                removeCommand
-            );
-            logger.info("Executed: /" + removeCommand);
+            ledger.debit(fromUsername, amount, "market-purchase");
             
             // Give to seller
-            String giveCommand = "cobbledollars give " + toUsername + " " + amount;
-            server.getCommandManager().executeWithPrefix(
-                server.getCommandSource().withSilent(),
-                giveCommand
-            );
-            logger.info("Executed: /" + giveCommand);
+            ledger.credit(toUsername, amount, "market-sale");
             
             logger.info("✓ Balance transfer completed: " + amount + " CD from " + fromUsername + " to " + toUsername);
             return true;
@@ -241,163 +257,6 @@ public class PlayerShopManager {
         }
     }
     
-    /**
-     * Deliver a Pokemon to a player's party or PC
-     * Returns true if successful
-     */
-    private boolean deliverPokemon(ServerPlayerEntity player, JsonObject pokemonData, String type) {
-        try {
-            // Create Pokemon from JSON data
-            Pokemon pokemon = createPokemonFromJson(pokemonData);
-            if (pokemon == null) {
-                logger.error("Failed to create Pokemon from JSON");
-                return false;
-            }
-            
-            // Try to add to party first
-            PlayerPartyStore party = Cobblemon.INSTANCE.getStorage().getParty(player);
-            if (party != null) {
-                // Check if party has space (max 6)
-                int partySize = 0;
-                for (int i = 0; i < 6; i++) {
-                    if (party.get(i) != null) partySize++;
-                }
-                
-                if (partySize < 6) {
-                    party.add(pokemon);
-                    logger.debug("Added Pokemon to party");
-                    return true;
-                }
-            }
-            
-            // Party full - try PC
-            PCStore pc = Cobblemon.INSTANCE.getStorage().getPC(player);
-            if (pc != null) {
-                // Try to add to PC (Cobblemon handles finding a slot)
-                pc.add(pokemon);
-                logger.debug("Added Pokemon to PC");
-                return true;
-            }
-            
-            // Both party and PC are full or unavailable
-            player.sendMessage(Text.literal("§c⚠ ¡Tu equipo y PC están llenos! Haz espacio para recibir tu Pokémon."));
-            return false;
-            
-        } catch (Exception e) {
-            logger.error("Error delivering Pokemon: " + e.getMessage());
-            e.printStackTrace();
-            return false;
-        }
-    }
-    
-    /**
-     * Create a Pokemon from JSON data
-     */
-    private Pokemon createPokemonFromJson(JsonObject data) {
-        try {
-            int speciesId = data.has("speciesId") ? data.get("speciesId").getAsInt() : 0;
-            String speciesName = data.has("species") ? data.get("species").getAsString().toLowerCase() : "";
-            int level = data.has("level") ? data.get("level").getAsInt() : 1;
-            boolean shiny = data.has("shiny") && data.get("shiny").getAsBoolean();
-            
-            // Get Species by Pokedex number or name
-            Species species = null;
-            if (speciesId > 0) {
-                species = PokemonSpecies.INSTANCE.getByPokedexNumber(speciesId, "");
-            }
-            if (species == null && !speciesName.isEmpty()) {
-                species = PokemonSpecies.INSTANCE.getByName(speciesName);
-            }
-            
-            if (species == null) {
-                logger.error("Unknown species: " + speciesName + " (ID: " + speciesId + ")");
-                return null;
-            }
-            
-            // Create base Pokemon
-            Pokemon pokemon = species.create(level);
-            pokemon.setShiny(shiny);
-            
-            // Set gender if specified
-            if (data.has("gender")) {
-                String gender = data.get("gender").getAsString().toUpperCase();
-                try {
-                    pokemon.setGender(com.cobblemon.mod.common.pokemon.Gender.valueOf(gender));
-                } catch (Exception e) {
-                    // Use default gender
-                }
-            }
-            
-            // Set nature if specified
-            if (data.has("nature")) {
-                String nature = data.get("nature").getAsString().toLowerCase();
-                var natureObj = Natures.INSTANCE.getNature(nature);
-                if (natureObj != null) {
-                    pokemon.setNature(natureObj);
-                }
-            }
-            
-            // Set IVs if specified
-            if (data.has("ivs")) {
-                JsonObject ivs = data.getAsJsonObject("ivs");
-                var pokemonIvs = pokemon.getIvs();
-                if (ivs.has("hp")) pokemonIvs.set(Stats.HP, ivs.get("hp").getAsInt());
-                if (ivs.has("attack")) pokemonIvs.set(Stats.ATTACK, ivs.get("attack").getAsInt());
-                if (ivs.has("defense")) pokemonIvs.set(Stats.DEFENCE, ivs.get("defense").getAsInt());
-                if (ivs.has("spAttack")) pokemonIvs.set(Stats.SPECIAL_ATTACK, ivs.get("spAttack").getAsInt());
-                if (ivs.has("spDefense")) pokemonIvs.set(Stats.SPECIAL_DEFENCE, ivs.get("spDefense").getAsInt());
-                if (ivs.has("speed")) pokemonIvs.set(Stats.SPEED, ivs.get("speed").getAsInt());
-            }
-            
-            // Set EVs if specified
-            if (data.has("evs")) {
-                JsonObject evs = data.getAsJsonObject("evs");
-                var pokemonEvs = pokemon.getEvs();
-                if (evs.has("hp")) pokemonEvs.set(Stats.HP, evs.get("hp").getAsInt());
-                if (evs.has("attack")) pokemonEvs.set(Stats.ATTACK, evs.get("attack").getAsInt());
-                if (evs.has("defense")) pokemonEvs.set(Stats.DEFENCE, evs.get("defense").getAsInt());
-                if (evs.has("spAttack")) pokemonEvs.set(Stats.SPECIAL_ATTACK, evs.get("spAttack").getAsInt());
-                if (evs.has("spDefense")) pokemonEvs.set(Stats.SPECIAL_DEFENCE, evs.get("spDefense").getAsInt());
-                if (evs.has("speed")) pokemonEvs.set(Stats.SPEED, evs.get("speed").getAsInt());
-            }
-            
-            // Set nickname if specified
-            if (data.has("nickname") && !data.get("nickname").isJsonNull()) {
-                String nickname = data.get("nickname").getAsString();
-                if (!nickname.isEmpty()) {
-                    pokemon.setNickname(Text.literal(nickname));
-                }
-            }
-            
-            return pokemon;
-            
-        } catch (Exception e) {
-            logger.error("Error creating Pokemon from JSON: " + e.getMessage());
-            e.printStackTrace();
-            return null;
-        }
-    }
-    
-    /**
-     * Mark a delivery as completed in the backend
-     */
-    private void markDelivered(String deliveryId) {
-        httpClient.postAsync("/api/player-shop/deliveries/" + deliveryId + "/delivered", new JsonObject())
-            .thenAccept(response -> {
-                if (response != null && response.has("success") && response.get("success").getAsBoolean()) {
-                    logger.debug("Marked delivery " + deliveryId + " as completed");
-                    processingDeliveries.remove(deliveryId);
-                } else {
-                    logger.warn("Failed to mark delivery " + deliveryId + " as completed");
-                    // Keep in processing set to prevent re-delivery
-                }
-            })
-            .exceptionally(ex -> {
-                logger.error("Error marking delivery completed: " + ex.getMessage());
-                return null;
-            });
-    }
-    
     /**
      * Handle /claimmarket command - manual delivery check
      */
@@ -409,21 +268,23 @@ public class PlayerShopManager {
         
         httpClient.getAsync("/api/player-shop/deliveries?uuid=" + uuid.toString())
             .thenAccept(response -> {
+                JsonArray deliveries = response != null && response.has("deliveries") ? response.getAsJsonArray("deliveries") : null;
+                List<MarketDelivery> parsed = deliveries != null ? parseDeliveries(deliveries) : List.of();
+                
                 server.execute(() -> {
                     try {
-                        if (response == null || !response.has("deliveries")) {
+                        if (deliveries == null) {
                             player.sendMessage(Text.literal("§7No tienes entregas pendientes del mercado."));
                             return;
                         }
                         
-                        JsonArray deliveries = response.getAsJsonArray("deliveries");
                         if (deliveries.isEmpty()) {
                             player.sendMessage(Text.literal("§7No tienes entregas pendientes del mercado."));
                             player.sendMessage(Text.literal("§7Las entregas se procesan automáticamente."));
                             return;
                         }
                         
-                        processDeliveries(player, deliveries);
+                        processDeliveries(player, parsed);
                         
                     } catch (Exception e) {
                         logger.error("Error in claim command: " + e.getMessage());
@@ -443,16 +304,18 @@ public class PlayerShopManager {
     public void handleMarketCommand(ServerPlayerEntity player) {
         if (player == null) return;
         
-        player.sendMessage(Text.literal(""));
-        player.sendMessage(Text.literal("§6§l🏪 MERCADO DE JUGADORES"));
-        player.sendMessage(Text.literal("§7Compra y vende Pokémon con otros jugadores"));
-        player.sendMessage(Text.literal(""));
-        player.sendMessage(Text.literal("§e➤ §fVisita la web para ver el mercado:"));
-        player.sendMessage(Text.literal("§b  https://cobblemon-los-pitufos.vercel.app/mercado"));
-        player.sendMessage(Text.literal(""));
-        player.sendMessage(Text.literal("§e➤ §fComandos:"));
-        player.sendMessage(Text.literal("§a  /claimmarket §7- Reclamar entregas pendientes"));
-        player.sendMessage(Text.literal(""));
+        player.sendMessage(ChatMessages.lines(
+            "",
+            "§6§l🏪 MERCADO DE JUGADORES",
+            "§7Compra y vende Pokémon con otros jugadores",
+            "",
+            "§e➤ §fVisita la web para ver el mercado:",
+            "§b  https://cobblemon-los-pitufos.vercel.app/mercado",
+            "",
+            "§e➤ §fComandos:",
+            "§a  /claimmarket §7- Reclamar entregas pendientes",
+            ""
+        ));
     }
     
     /**
@@ -495,20 +358,31 @@ public class PlayerShopManager {
         return str.substring(0, 1).toUpperCase() + str.substring(1).toLowerCase();
     }
     
+    /**
+     * A pending delivery, already validated (built off the main thread)
+     */
+    private static final class MarketDelivery {
+        final String id;
+        final String type;
+        final String species;
+        final PokemonSpec pokemon;
+        final JsonObject balanceTransfer; // null if there is no transfer
+        
+        MarketDelivery(String id, String type, String species, PokemonSpec pokemon, JsonObject balanceTransfer) {
+            this.id = id;
+            this.type = type;
+            this.species = species;
+            this.pokemon = pokemon;
+            this.balanceTransfer = balanceTransfer;
+        }
+    }
+    
     /**
      * Shutdown the manager
      */
     public void shutdown() {
         logger.info("Player Shop system shutting down...");
-        scheduler.shutdown();
-        try {
-            if (!scheduler.awaitTermination(5, TimeUnit.SECONDS)) {
-                scheduler.shutdownNow();
-            }
-        } catch (InterruptedException e) {
-            scheduler.shutdownNow();
-        }
-        processingDeliveries.clear();
+        scheduler.shutdown(5, TimeUnit.SECONDS);
         logger.info("✓ Player Shop system shutdown complete");
     }
 }
@@ -0,0 +1,127 @@
+package com.lospitufos.cobblemon.session;
+
+import com.lospitufos.cobblemon.utils.ModLogger;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.fabricmc.fabric.api.event.player.AttackBlockCallback;
+import net.fabricmc.fabric.api.event.player.AttackEntityCallback;
+import net.fabricmc.fabric.api.event.player.UseBlockCallback;
+import net.fabricmc.fabric.api.event.player.UseEntityCallback;
+import net.fabricmc.fabric.api.event.player.UseItemCallback;
+import net.fabricmc.fabric.api.message.v1.ServerMessageEvents;
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.util.ActionResult;
+import net.minecraft.util.TypedActionResult;
+
+/**
+ * Activity Tracker - keeps each session's last activity current (AFK detection)
+ *
+ * Features:
+ * - Interaction hooks (use/attack items, blocks and entities, chat) touch the session as they happen
+ * - Movement sampled once per second per player, spread across ticks, on the tick thread
+ * - Only looking around or walking counts: riding a vehicle or drifting in water doesn't
+ * - One volatile write per activity - nothing polls sessions to find out who is active
+ */
+public class ActivityTracker {
+
+    private static final int SAMPLE_INTERVAL_TICKS = 20;
+    private static final double MIN_MOVE_SQUARED = 0.01;
+    private static final float MIN_LOOK_DEGREES = 1.0f;
+
+    private static final SessionKey<Sample> SAMPLE = SessionKey.of("activity", Sample::new);
+
+    private final PlayerSessionRegistry sessions;
+    private final ModLogger logger;
+
+    public ActivityTracker(PlayerSessionRegistry sessions, ModLogger logger) {
+        this.sessions = sessions;
+        this.logger = logger;
+    }
+
+    public void initialize() {
+        ServerTickEvents.END_SERVER_TICK.register(this::sampleMovement);
+
+        UseItemCallback.EVENT.register((player, world, hand) -> {
+            touch(player);
+            return TypedActionResult.pass(player.getStackInHand(hand));
+        });
+        UseBlockCallback.EVENT.register((player, world, hand, hitResult) -> {
+            touch(player);
+            return ActionResult.PASS;
+        });
+        UseEntityCallback.EVENT.register((player, world, hand, entity, hitResult) -> {
+            touch(player);
+            return ActionResult.PASS;
+        });
+        AttackBlockCallback.EVENT.register((player, world, hand, pos, direction) -> {
+            touch(player);
+            return ActionResult.PASS;
+        });
+        AttackEntityCallback.EVENT.register((player, world, hand, entity, hitResult) -> {
+            touch(player);
+            return ActionResult.PASS;
+        });
+        ServerMessageEvents.CHAT_MESSAGE.register((message, sender, params) -> touch(sender));
+
+        logger.info("✓ Activity tracker initialized");
+    }
+
+    private void touch(PlayerEntity player) {
+        if (!(player instanceof ServerPlayerEntity)) return;
+        PlayerSession session = sessions.find(player.getUuid());
+        if (session != null) {
+            session.touch(System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * Each player is compared with their last sample every SAMPLE_INTERVAL_TICKS (offset by entity id)
+     */
+    private void sampleMovement(MinecraftServer server) {
+        int tick = server.getTicks();
+
+        for (ServerPlayerEntity player : server.getPlayerManager().getPlayerList()) {
+            if ((tick + player.getId()) % SAMPLE_INTERVAL_TICKS != 0) continue;
+
+            PlayerSession session = sessions.find(player.getUuid());
+            if (session == null) continue;
+
+            Sample sample = session.get(SAMPLE);
+            double x = player.getX();
+            double z = player.getZ();
+            float yaw = player.getYaw();
+            float pitch = player.getPitch();
+
+            if (sample.taken) {
+                boolean looked = Math.abs(yaw - sample.yaw) >= MIN_LOOK_DEGREES
+                    || Math.abs(pitch - sample.pitch) >= MIN_LOOK_DEGREES;
+                double dx = x - sample.x;
+                double dz = z - sample.z;
+                boolean walked = dx * dx + dz * dz >= MIN_MOVE_SQUARED
+                    && !player.hasVehicle() && !player.isTouchingWater();
+
+                if (looked || walked) {
+                    session.touch(System.currentTimeMillis());
+                }
+            }
+
+            sample.x = x;
+            sample.z = z;
+            sample.yaw = yaw;
+            sample.pitch = pitch;
+            sample.taken = true;
+        }
+    }
+
+    /**
+     * Last sampled position and look (tick thread only)
+     */
+    private static class Sample {
+        boolean taken;
+        double x;
+        double z;
+        float yaw;
+        float pitch;
+    }
+}
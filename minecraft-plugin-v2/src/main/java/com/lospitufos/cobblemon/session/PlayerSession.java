@@ -0,0 +1,88 @@
+package com.lospitufos.cobblemon.session;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Player Session - everything the plugin keeps about one online player, from join to disconnect
+ *
+ * Features:
+ * - Core fields shared by every subsystem (join time, last activity) as primitives
+ * - One typed extension slot per subsystem (see SessionKey), created on first use
+ * - Dropped as a whole on disconnect - a subsystem can't forget to clean up its entry
+ * - Safe from any thread: extensions are published with CAS, fields are volatile
+ */
+public final class PlayerSession {
+
+    private final UUID uuid;
+    private final String name;
+    private final long joinedAt;
+    private volatile long lastActivityAt;
+    private volatile boolean retired = false;
+    private final AtomicReferenceArray<Object> extensions = new AtomicReferenceArray<>(SessionKey.MAX_KEYS);
+
+    PlayerSession(UUID uuid, String name, long joinedAt) {
+        this.uuid = uuid;
+        this.name = name;
+        this.joinedAt = joinedAt;
+        this.lastActivityAt = joinedAt;
+    }
+
+    public UUID getUuid() {
+        return uuid;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getJoinedAt() {
+        return joinedAt;
+    }
+
+    public long getLastActivityAt() {
+        return lastActivityAt;
+    }
+
+    /**
+     * Record player activity (used for AFK detection)
+     */
+    public void touch(long now) {
+        lastActivityAt = now;
+    }
+
+    /**
+     * True once the player disconnected - late async callbacks can check before writing
+     */
+    public boolean isRetired() {
+        return retired;
+    }
+
+    void retire() {
+        retired = true;
+    }
+
+    // ============================================
+    // EXTENSIONS
+    // ============================================
+
+    /**
+     * The subsystem's extension, created on first access
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(SessionKey<T> key) {
+        Object existing = extensions.get(key.slot);
+        if (existing != null) return (T) existing;
+
+        T created = key.factory.get();
+        return extensions.compareAndSet(key.slot, null, created) ? created : (T) extensions.get(key.slot);
+    }
+
+    /**
+     * The subsystem's extension, or null if it never attached one
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T peek(SessionKey<T> key) {
+        return (T) extensions.get(key.slot);
+    }
+}
@@ -0,0 +1,110 @@
+package com.lospitufos.cobblemon.session;
+
+import com.lospitufos.cobblemon.core.LosPitufosPlugin;
+import com.lospitufos.cobblemon.utils.ModLogger;
+import net.fabricmc.fabric.api.event.Event;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayConnectionEvents;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.util.Identifier;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Player Session Registry - one PlayerSession per online player
+ *
+ * Features:
+ * - Session opened on join, before any other join handler runs
+ * - Session retired on disconnect, after every other disconnect handler ran
+ * - Offline players have no session: lookups return null, nothing lingers after a disconnect
+ * - Players online before the registry saw their join get a session on first lookup
+ */
+public class PlayerSessionRegistry {
+
+    // Phases around the default one, so subsystems always see a live session in their own handlers
+    private static final Identifier OPEN_PHASE = Identifier.of(LosPitufosPlugin.MOD_ID, "session-open");
+    private static final Identifier RETIRE_PHASE = Identifier.of(LosPitufosPlugin.MOD_ID, "session-retire");
+
+    private final ModLogger logger;
+    private final Map<UUID, PlayerSession> sessions = new ConcurrentHashMap<>();
+
+    public PlayerSessionRegistry(ModLogger logger) {
+        this.logger = logger;
+    }
+
+    public void initialize() {
+        ServerPlayConnectionEvents.JOIN.addPhaseOrdering(OPEN_PHASE, Event.DEFAULT_PHASE);
+        ServerPlayConnectionEvents.JOIN.register(OPEN_PHASE, (handler, sender, server) -> open(handler.getPlayer()));
+
+        ServerPlayConnectionEvents.DISCONNECT.addPhaseOrdering(Event.DEFAULT_PHASE, RETIRE_PHASE);
+        ServerPlayConnectionEvents.DISCONNECT.register(RETIRE_PHASE, (handler, server) -> {
+            if (handler.getPlayer() != null) {
+                retire(handler.getPlayer().getUuid());
+            }
+        });
+
+        logger.info("✓ Player session registry initialized");
+    }
+
+    // ============================================
+    // LOOKUP
+    // ============================================
+
+    /**
+     * The player's session (opened now if missing), or null if the player is no longer connected
+     */
+    public PlayerSession get(ServerPlayerEntity player) {
+        if (player == null) return null;
+
+        PlayerSession session = sessions.get(player.getUuid());
+        if (session != null) return session;
+        if (player.isDisconnected()) return null;
+        return open(player);
+    }
+
+    /**
+     * The session of an online player, or null if they are offline
+     */
+    public PlayerSession find(UUID uuid) {
+        return uuid != null ? sessions.get(uuid) : null;
+    }
+
+    /**
+     * Every open session (live view)
+     */
+    public Collection<PlayerSession> all() {
+        return Collections.unmodifiableCollection(sessions.values());
+    }
+
+    public int size() {
+        return sessions.size();
+    }
+
+    // ============================================
+    // LIFECYCLE
+    // ============================================
+
+    private PlayerSession open(ServerPlayerEntity player) {
+        if (player == null) return null;
+
+        return sessions.computeIfAbsent(player.getUuid(),
+            uuid -> new PlayerSession(uuid, player.getName().getString(), System.currentTimeMillis()));
+    }
+
+    private void retire(UUID uuid) {
+        PlayerSession session = sessions.remove(uuid);
+        if (session != null) {
+            session.retire();
+        }
+    }
+
+    public void shutdown() {
+        for (PlayerSession session : sessions.values()) {
+            session.retire();
+        }
+        sessions.clear();
+    }
+}
@@ -0,0 +1,41 @@
+package com.lospitufos.cobblemon.session;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Session Key - typed handle for one subsystem's extension on a PlayerSession
+ *
+ * Features:
+ * - Declared once as a static constant by the owning subsystem
+ * - Each key owns a fixed slot, so a lookup is an array read (no per-session map)
+ * - The factory creates the extension the first time the subsystem asks for it
+ */
+public final class SessionKey<T> {
+
+    static final int MAX_KEYS = 16;
+    private static final AtomicInteger NEXT_SLOT = new AtomicInteger();
+
+    final int slot;
+    final String name;
+    final Supplier<T> factory;
+
+    private SessionKey(int slot, String name, Supplier<T> factory) {
+        this.slot = slot;
+        this.name = name;
+        this.factory = factory;
+    }
+
+    public static <T> SessionKey<T> of(String name, Supplier<T> factory) {
+        int slot = NEXT_SLOT.getAndIncrement();
+        if (slot >= MAX_KEYS) {
+            throw new IllegalStateException("Too many session keys (max " + MAX_KEYS + "): " + name);
+        }
+        return new SessionKey<>(slot, name, factory);
+    }
+
+    @Override
+    public String toString() {
+        return "SessionKey[" + name + "]";
+    }
+}
@@ -3,7 +3,12 @@ package com.lospitufos.cobblemon.shop;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import com.lospitufos.cobblemon.core.TaskScope;
+import com.lospitufos.cobblemon.delivery.DeliveryEngine;
+import com.lospitufos.cobblemon.delivery.DeliveryRequest;
+import com.lospitufos.cobblemon.economy.BalanceLedger;
 import com.lospitufos.cobblemon.economy.CobbleDollarsManager;
+import com.lospitufos.cobblemon.utils.ChatMessages;
 import com.lospitufos.cobblemon.utils.HttpClient;
 import com.lospitufos.cobblemon.utils.ModLogger;
 import net.minecraft.item.Item;
@@ -14,7 +19,6 @@ import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.text.Text;
 import net.minecraft.util.Identifier;
 
-import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.*;
 
@@ -23,7 +27,7 @@ import java.util.concurrent.*;
  * 
  * Features:
  * - Polls backend every 15 seconds for pending purchases
- * - Auto-delivers pokeballs to online players
+ * - Auto-delivers pokeballs to online players through the shared DeliveryEngine
  * - Shows notification in-game
  * - All operations are ASYNC (no lag, no ticks behind)
  * - /claim command still available as fallback
@@ -33,16 +37,21 @@ public class ShopManager {
     private final HttpClient httpClient;
     private final ModLogger logger;
     private final CobbleDollarsManager cobbleDollarsManager;
-    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1);
-    private final Set<String> processingPurchases = ConcurrentHashMap.newKeySet();
+    private final DeliveryEngine deliveryEngine;
+    private final BalanceLedger ledger;
+    private final TaskScope scheduler;
     private MinecraftServer server;
     
     private static final int POLL_INTERVAL_SECONDS = 15;
     
-    public ShopManager(HttpClient httpClient, ModLogger logger) {
+    public ShopManager(HttpClient httpClient, ModLogger logger, CobbleDollarsManager cobbleDollarsManager,
+                       DeliveryEngine deliveryEngine, BalanceLedger ledger, TaskScope scheduler) {
         this.httpClient = httpClient;
         this.logger = logger;
-        this.cobbleDollarsManager = new CobbleDollarsManager(logger);
+        this.cobbleDollarsManager = cobbleDollarsManager;
+        this.deliveryEngine = deliveryEngine;
+        this.ledger = ledger;
+        this.scheduler = scheduler;
     }
     
     public void initialize(MinecraftServer server) {
@@ -81,6 +90,7 @@ public class ShopManager {
 
     private void pollPendingPurchases() {
         if (server == null) return;
+        if (httpClient.isOffline()) return; // Suspended until the backend is back
         
         try {
             int playerCount = server.getPlayerManager().getPlayerList().size();
@@ -122,8 +132,7 @@ public class ShopManager {
         if (player == null || player.isDisconnected()) return;
         
         UUID uuid = player.getUuid();
-        int totalItems = 0;
-        StringBuilder itemsReceived = new StringBuilder();
+        PurchaseSummary summary = new PurchaseSummary();
         
         for (JsonElement purchaseElement : purchases) {
             try {
@@ -139,51 +148,78 @@ public class ShopManager {
                     purchaseId = idElement.getAsString();
                 }
                 
-                // CRITICAL: Skip if already being processed (prevents duplicates)
-                if (processingPurchases.contains(purchaseId)) {
-                    logger.debug("Purchase " + purchaseId + " already in processingPurchases, skipping");
-                    continue;
-                }
-                
-                // Add to processing set BEFORE any delivery attempt
-                processingPurchases.add(purchaseId);
-                logger.debug("Processing purchase ID: " + purchaseId);
-                
                 String ballId = purchase.get("ballId").getAsString();
                 int quantity = purchase.get("quantity").getAsInt();
                 String ballName = purchase.has("ballName") ? purchase.get("ballName").getAsString() : ballId;
                 
-                ItemStack ballStack = createPokeball(ballId, quantity);
-                if (ballStack == null) {
-                    logger.error("Failed to create pokeball: " + ballId);
-                    // Don't remove from processingPurchases - let it timeout on backend
-                    continue;
-                }
+                JsonObject claim = new JsonObject();
+                claim.addProperty("uuid", uuid.toString());
+                claim.addProperty("purchaseId", purchaseId);
                 
-                if (!player.getInventory().insertStack(ballStack)) {
-                    player.sendMessage(Text.literal("§c⚠ ¡Inventario lleno! Haz espacio para " + quantity + "x " + ballName));
-                    // Don't remove from processingPurchases - will retry on next poll after backend timeout
-                    continue;
-                }
-                
-                // Successfully delivered - mark as claimed
-                markAsClaimed(uuid, purchaseId);
+                // The delivery engine skips purchases already queued or delivered (prevents duplicates)
+                // Unknown items are not rejected - the backend times them out
+                DeliveryRequest request = DeliveryRequest.builder("shop:" + purchaseId, uuid)
+                    .item(() -> createPokeball(ballId, quantity))
+                    .confirm("/api/shop/claim", claim)
+                    .listener(new DeliveryRequest.Listener() {
+                        @Override
+                        public void onDelivered(ServerPlayerEntity p, DeliveryRequest.Receipt receipt) {
+                            summary.totalItems += quantity;
+                            if (summary.itemsReceived.length() > 0) summary.itemsReceived.append(", ");
+                            summary.itemsReceived.append(quantity).append("x ").append(ballName);
+                            summary.complete(p);
+                        }
+                        
+                        @Override
+                        public void onDeferred(ServerPlayerEntity p, String reason) {
+                            if (p != null && "Inventory full".equals(reason)) {
+                                p.sendMessage(Text.literal("§c⚠ ¡Inventario lleno! Haz espacio para " + quantity + "x " + ballName));
+                            }
+                            summary.complete(p);
+                        }
+                        
+                        @Override
+                        public void onFailed(ServerPlayerEntity p, String reason) {
+                            logger.error("Failed to create pokeball: " + ballId);
+                            summary.complete(p);
+                        }
+                        
+                        @Override
+                        public void onAlreadyDelivered(ServerPlayerEntity p) {
+                            summary.complete(p);
+                        }
+                    })
+                    .build();
                 
-                totalItems += quantity;
-                if (itemsReceived.length() > 0) itemsReceived.append(", ");
-                itemsReceived.append(quantity).append("x ").append(ballName);
+                if (deliveryEngine.submit(request)) {
+                    summary.expected++;
+                } else {
+                    logger.debug("Purchase " + purchaseId + " already queued or delivered, skipping");
+                }
                 
             } catch (Exception e) {
                 logger.error("Error delivering purchase: " + e.getMessage());
             }
         }
+    }
+    
+    /**
+     * Collects one poll's purchases into a single chat message (delivery callbacks, main thread only)
+     */
+    private class PurchaseSummary {
+        int expected, done, totalItems;
+        final StringBuilder itemsReceived = new StringBuilder();
         
-        if (totalItems > 0) {
-            player.sendMessage(Text.literal(""));
-            player.sendMessage(Text.literal("§a§l✓ ¡COMPRA ENTREGADA!"));
-            player.sendMessage(Text.literal("§7Recibiste: §f" + itemsReceived.toString()));
-            player.sendMessage(Text.literal("§e¡Gracias por tu compra en la tienda web!"));
-            player.sendMessage(Text.literal(""));
+        void complete(ServerPlayerEntity player) {
+            if (++done != expected || totalItems == 0 || player == null) return;
+            
+            player.sendMessage(ChatMessages.lines(
+                "",
+                "§a§l✓ ¡COMPRA ENTREGADA!",
+                "§7Recibiste: §f" + itemsReceived,
+                "§e¡Gracias por tu compra en la tienda web!",
+                ""
+            ));
             
             logger.info("Auto-delivered to " + player.getName().getString() + ": " + itemsReceived);
             
@@ -211,16 +247,11 @@ public class ShopManager {
                     // Update in-game balance to reflect the purchase deduction
                     server.execute(() -> {
                         try {
-                            // Use CobbleDollars command: /cobbledollars set <player> <amount>
-                            String command = "cobbledollars set " + playerName + " " + backendBalance;
-                            server.getCommandManager().executeWithPrefix(
-                                server.getCommandSource(),
-                                command
-                            );
+                            ledger.set(playerName, backendBalance, "shop-purchase");
                             logger.info("Updated balance after purchase for " + playerName + ": " + backendBalance);
                             player.sendMessage(Text.literal("§7Balance actualizado: §e" + backendBalance + " CobbleDollars"));
                         } catch (Exception e) {
-                            logger.debug("Could not execute cobbledollars command: " + e.getMessage());
+                            logger.debug("Could not update balance after purchase: " + e.getMessage());
                         }
                     });
                 }
@@ -349,39 +380,8 @@ public class ShopManager {
         }
     }
     
-    private void markAsClaimed(UUID playerUuid, String purchaseId) {
-        JsonObject payload = new JsonObject();
-        payload.addProperty("uuid", playerUuid.toString());
-        payload.addProperty("purchaseId", purchaseId);
-        
-        httpClient.postAsync("/api/shop/claim", payload)
-            .thenAccept(response -> {
-                if (response != null && response.has("success") && response.get("success").getAsBoolean()) {
-                    logger.debug("Marked purchase " + purchaseId + " as claimed");
-                    // Only remove from processingPurchases on successful claim
-                    processingPurchases.remove(purchaseId);
-                } else {
-                    logger.warn("Failed to mark purchase " + purchaseId + " as claimed - will retry");
-                    // Keep in processingPurchases to prevent re-delivery, backend will timeout
-                }
-            })
-            .exceptionally(ex -> {
-                logger.error("Failed to mark claimed: " + ex.getMessage());
-                // Keep in processingPurchases - backend will timeout and reset status
-                return null;
-            });
-    }
-    
     public void shutdown() {
         logger.info("Shop system shutting down...");
-        scheduler.shutdown();
-        try {
-            if (!scheduler.awaitTermination(5, TimeUnit.SECONDS)) {
-                scheduler.shutdownNow();
-            }
-        } catch (InterruptedException e) {
-            scheduler.shutdownNow();
-        }
-        processingPurchases.clear();
+        scheduler.shutdown(5, TimeUnit.SECONDS);
     }
 }
@@ -1,11 +1,12 @@
 package com.lospitufos.cobblemon.starter;
 
 import com.cobblemon.mod.common.Cobblemon;
-import com.cobblemon.mod.common.api.pokemon.PokemonSpecies;
-import com.cobblemon.mod.common.api.storage.party.PlayerPartyStore;
 import com.cobblemon.mod.common.pokemon.Pokemon;
 import com.cobblemon.mod.common.pokemon.Species;
 import com.google.gson.JsonObject;
+import com.lospitufos.cobblemon.data.SpeciesRegistry;
+import com.lospitufos.cobblemon.delivery.DeliveryEngine;
+import com.lospitufos.cobblemon.delivery.DeliveryRequest;
 import com.lospitufos.cobblemon.utils.HttpClient;
 import com.lospitufos.cobblemon.utils.ModLogger;
 import net.fabricmc.fabric.api.command.v2.CommandRegistrationCallback;
@@ -18,23 +19,21 @@ import net.minecraft.util.Identifier;
 
 import java.util.LinkedHashSet;
 import java.util.UUID;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 /**
  * Manages starter Pokemon assignment using Cobblemon native APIs
- * NO manual JSON manipulation
+ * NO manual JSON manipulation - placement goes through the DeliveryEngine (main thread)
  */
 public class StarterManager {
     
     private final HttpClient httpClient;
     private final ModLogger logger;
-    private final ExecutorService executor;
+    private final DeliveryEngine deliveryEngine;
     
-    public StarterManager(HttpClient httpClient, ModLogger logger) {
+    public StarterManager(HttpClient httpClient, ModLogger logger, DeliveryEngine deliveryEngine) {
         this.httpClient = httpClient;
         this.logger = logger;
-        this.executor = Executors.newSingleThreadExecutor();
+        this.deliveryEngine = deliveryEngine;
     }
     
     public void initialize(MinecraftServer server) {
@@ -60,92 +59,99 @@ public class StarterManager {
         
         // Check if player has pending starter from API - FIXED ENDPOINT
         httpClient.getAsync("/api/gacha/delivery/status?uuid=" + uuid.toString())
-            .thenAcceptAsync(response -> {
+            .thenAccept(response -> {
                 if (response != null && response.has("deliveryInProgress") && response.get("deliveryInProgress").getAsBoolean()) {
                     int pokemonId = response.get("starterId").getAsInt();
                     boolean isShiny = response.has("isShiny") && response.get("isShiny").getAsBoolean();
+                    String grantKey = grantKey(response, pokemonId, isShiny);
                     
                     logger.info("Giving starter to " + player.getName().getString() + " - ID: " + pokemonId + ", Shiny: " + isShiny);
-                    giveStarterPokemon(player, pokemonId, isShiny);
+                    giveStarterPokemon(player, grantKey, pokemonId, isShiny);
                 }
-            }, executor);
+            });
     }
     
-    private void giveStarterPokemon(ServerPlayerEntity player, int pokemonId, boolean isShiny) {
-        try {
-            // Get player's party using Cobblemon API
-            PlayerPartyStore party = Cobblemon.INSTANCE.getStorage().getParty(player);
-            
-            // Check if player already has Pokemon - DO NOT give duplicate starter
-            if (!party.isEmpty()) {
-                logger.info("Player " + player.getName().getString() + " already has Pokemon in party - skipping starter");
-                player.sendMessage(Text.literal("§e⚠ Ya tienes Pokémon en tu equipo"));
-                
-                // Notify API that starter delivery failed (already has Pokemon)
-                notifyStarterFailed(player.getUuid(), "Player already has Pokemon in party");
-                return;
-            }
-            
-            // Get Species by Pokedex number (empty string for default aspects)
-            Species species = PokemonSpecies.INSTANCE.getByPokedexNumber(pokemonId, "");
-            
-            if (species == null) {
-                logger.error("Species not found for Pokedex ID: " + pokemonId);
-                player.sendMessage(Text.literal("§cError: Pokémon no encontrado"));
-                notifyStarterFailed(player.getUuid(), "Species not found for ID: " + pokemonId);
-                return;
-            }
-            
-            // Create Pokemon at level 5
-            Pokemon pokemon = species.create(5);
-            
-            if (isShiny) {
-                pokemon.setShiny(true);
+    /**
+     * Idempotency key for one starter grant - a new grant (admin reset, re-grant after a failed claim)
+     * must get a new key, or the delivery engine would treat it as already delivered.
+     * The backend's delivery ID when it sends one; otherwise the grant's own fields plus its attempt counter.
+     */
+    private static String grantKey(JsonObject status, int pokemonId, boolean isShiny) {
+        for (String field : new String[] { "deliveryId", "claimId", "nonce" }) {
+            if (status.has(field) && !status.get(field).isJsonNull()) {
+                return status.get(field).getAsString();
             }
-            
-            // Add to party
-            party.add(pokemon);
-            
-            player.sendMessage(Text.literal("§a✓ ¡Has recibido tu Pokémon inicial!"));
-            logger.info("Successfully gave starter " + species.getName() + " to " + player.getName().getString());
-            
-            // Notify API that starter was successfully delivered
-            notifyStarterSuccess(player.getUuid());
-            
-        } catch (Exception e) {
-            logger.error("Error giving starter: " + e.getMessage(), e);
-            player.sendMessage(Text.literal("§cError al dar el Pokémon inicial"));
-            notifyStarterFailed(player.getUuid(), "Exception: " + e.getMessage());
         }
+        int attempts = status.has("deliveryAttempts") && !status.get("deliveryAttempts").isJsonNull()
+            ? status.get("deliveryAttempts").getAsInt()
+            : 0;
+        return pokemonId + (isShiny ? "s" : "") + ":" + attempts;
     }
     
-    private void notifyStarterSuccess(UUID playerUuid) {
-        JsonObject payload = new JsonObject();
-        payload.addProperty("uuid", playerUuid.toString());
+    /**
+     * Submit the starter to the delivery engine - the party is only touched on the main thread
+     */
+    private void giveStarterPokemon(ServerPlayerEntity player, String grantKey, int pokemonId, boolean isShiny) {
+        UUID uuid = player.getUuid();
         
-        httpClient.postAsync("/api/gacha/delivery/success", payload)
-            .thenAccept(response -> {
-                if (response != null && response.has("success")) {
-                    logger.info("Notified API about successful starter delivery for " + playerUuid);
+        JsonObject success = new JsonObject();
+        success.addProperty("uuid", uuid.toString());
+        success.addProperty("deliveryId", grantKey);
+        
+        deliveryEngine.submit(DeliveryRequest.builder("starter:" + uuid + ":" + grantKey, uuid)
+            // Check if player already has Pokemon - DO NOT give duplicate starter
+            .require(p -> Cobblemon.INSTANCE.getStorage().getParty(p).isEmpty(), "Player already has Pokemon in party")
+            .pokemon(() -> createStarter(pokemonId, isShiny))
+            .partyOnly()
+            .confirm("/api/gacha/delivery/success", success)
+            .reject("/api/gacha/delivery/failed", reason -> {
+                JsonObject payload = new JsonObject();
+                payload.addProperty("uuid", uuid.toString());
+                payload.addProperty("reason", reason);
+                return payload;
+            })
+            .listener(new DeliveryRequest.Listener() {
+                @Override
+                public void onDelivered(ServerPlayerEntity p, DeliveryRequest.Receipt receipt) {
+                    p.sendMessage(Text.literal("§a✓ ¡Has recibido tu Pokémon inicial!"));
+                    logger.info("Successfully gave starter " + receipt.pokemon.get(0).getSpecies().getName() + " to " + p.getName().getString());
                 }
-            });
+                
+                @Override
+                public void onFailed(ServerPlayerEntity p, String reason) {
+                    if (p == null) return;
+                    if ("Player already has Pokemon in party".equals(reason)) {
+                        logger.info("Player " + p.getName().getString() + " already has Pokemon in party - skipping starter");
+                        p.sendMessage(Text.literal("§e⚠ Ya tienes Pokémon en tu equipo"));
+                    } else {
+                        p.sendMessage(Text.literal("§cError al dar el Pokémon inicial"));
+                    }
+                }
+            })
+            .build());
     }
     
-    private void notifyStarterFailed(UUID playerUuid, String reason) {
-        JsonObject payload = new JsonObject();
-        payload.addProperty("uuid", playerUuid.toString());
-        payload.addProperty("reason", reason);
+    /**
+     * Create the starter at level 5 (called by the delivery engine on the main thread)
+     */
+    private Pokemon createStarter(int pokemonId, boolean isShiny) {
+        // Get Species by Pokedex number
+        Species species = SpeciesRegistry.byDex(pokemonId);
         
-        httpClient.postAsync("/api/gacha/delivery/failed", payload)
-            .thenAccept(response -> {
-                if (response != null && response.has("success")) {
-                    logger.info("Notified API about failed starter delivery for " + playerUuid);
-                }
-            });
+        if (species == null) {
+            throw new IllegalStateException("Species not found for ID: " + pokemonId);
+        }
+        
+        Pokemon pokemon = species.create(5);
+        
+        if (isShiny) {
+            pokemon.setShiny(true);
+        }
+        
+        return pokemon;
     }
     
     public void shutdown() {
         logger.info("Starter management shutting down...");
-        executor.shutdown();
     }
 }
@@ -0,0 +1,316 @@
+package com.lospitufos.cobblemon.storage;
+
+import com.cobblemon.mod.common.Cobblemon;
+import com.cobblemon.mod.common.api.reactive.ObservableSubscription;
+import com.cobblemon.mod.common.api.storage.pc.PCBox;
+import com.cobblemon.mod.common.api.storage.pc.PCPosition;
+import com.cobblemon.mod.common.api.storage.pc.PCStore;
+import com.cobblemon.mod.common.pokemon.Pokemon;
+import com.lospitufos.cobblemon.utils.ModLogger;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayConnectionEvents;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.network.ServerPlayerEntity;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * PC Species Index - per-player lookup tables over the Cobblemon PC
+ *
+ * Features:
+ * - species -> count, species -> Pokemon UUIDs, Pokemon UUID -> (box, slot)
+ * - Invalidated by the PC's own change observable, rebuilt once on the next read
+ * - Repeated reads (e.g. command suggestions on every keystroke) never rescan the PC
+ * - Subscriptions attached on join and released on disconnect
+ * - MUST be queried from the main thread (Cobblemon storage access)
+ */
+public class PCSpeciesIndex {
+
+    private final ModLogger logger;
+    private final Map<UUID, PlayerIndex> indexes = new ConcurrentHashMap<>();
+    private MinecraftServer server;
+
+    private static final int SLOTS_PER_BOX = 30;
+
+    public PCSpeciesIndex(ModLogger logger) {
+        this.logger = logger;
+    }
+
+    public void initialize(MinecraftServer server) {
+        this.server = server;
+
+        ServerPlayConnectionEvents.JOIN.register((handler, sender, server1) -> {
+            try {
+                attach(handler.getPlayer());
+            } catch (Exception e) {
+                logger.debug("Could not attach PC index on join: " + e.getMessage());
+            }
+        });
+
+        ServerPlayConnectionEvents.DISCONNECT.register((handler, server1) -> {
+            ServerPlayerEntity player = handler.getPlayer();
+            if (player != null) {
+                detach(player.getUuid());
+            }
+        });
+
+        logger.info("✓ PC species index initialized");
+    }
+
+    // ============================================
+    // QUERIES
+    // ============================================
+
+    /**
+     * Species (lowercase, sorted) the player has at least minCount of in the PC
+     */
+    public List<String> getSpeciesWithAtLeast(ServerPlayerEntity player, int minCount) {
+        Snapshot snapshot = snapshot(player);
+        return snapshot != null ? snapshot.speciesWithAtLeast(minCount) : Collections.emptyList();
+    }
+
+    /**
+     * Number of Pokemon of a species in the player's PC
+     */
+    public int getSpeciesCount(ServerPlayerEntity player, String species) {
+        Snapshot snapshot = snapshot(player);
+        if (snapshot == null) return 0;
+        List<UUID> uuids = snapshot.bySpecies.get(species.toLowerCase());
+        return uuids != null ? uuids.size() : 0;
+    }
+
+    /**
+     * All Pokemon of a species in the player's PC, resolved through the slot index
+     */
+    public List<Pokemon> getPokemonOfSpecies(ServerPlayerEntity player, String species) {
+        String key = species.toLowerCase();
+
+        // Two attempts: if a slot no longer matches, the index is rebuilt once and retried
+        for (int attempt = 0; attempt < 2; attempt++) {
+            Snapshot snapshot = snapshot(player);
+            if (snapshot == null) return Collections.emptyList();
+
+            List<UUID> uuids = snapshot.bySpecies.get(key);
+            if (uuids == null) return Collections.emptyList();
+
+            PCStore pc = Cobblemon.INSTANCE.getStorage().getPC(player);
+            List<Pokemon> result = new ArrayList<>(uuids.size());
+            boolean stale = false;
+
+            for (UUID uuid : uuids) {
+                Pokemon pokemon = resolve(pc, snapshot.locations.get(uuid), uuid);
+                if (pokemon == null) {
+                    stale = true;
+                    break;
+                }
+                result.add(pokemon);
+            }
+
+            if (!stale) return result;
+            invalidate(player.getUuid());
+        }
+
+        return Collections.emptyList();
+    }
+
+    /**
+     * Find a Pokemon in the player's PC by its UUID, or null if not there
+     */
+    public Pokemon findInPC(ServerPlayerEntity player, UUID pokemonUuid) {
+        for (int attempt = 0; attempt < 2; attempt++) {
+            Snapshot snapshot = snapshot(player);
+            if (snapshot == null) return null;
+
+            PCPosition position = snapshot.locations.get(pokemonUuid);
+            if (position == null) return null;
+
+            Pokemon pokemon = resolve(Cobblemon.INSTANCE.getStorage().getPC(player), position, pokemonUuid);
+            if (pokemon != null) return pokemon;
+            invalidate(player.getUuid());
+        }
+
+        return null;
+    }
+
+    /**
+     * Position (box, slot) of a Pokemon in the player's PC, or null if unknown
+     */
+    public PCPosition getPosition(ServerPlayerEntity player, UUID pokemonUuid) {
+        Snapshot snapshot = snapshot(player);
+        return snapshot != null ? snapshot.locations.get(pokemonUuid) : null;
+    }
+
+    /**
+     * Force a rebuild on the next read
+     */
+    public void invalidate(UUID playerUuid) {
+        PlayerIndex index = indexes.get(playerUuid);
+        if (index != null) {
+            index.dirty = true;
+        }
+    }
+
+    // ============================================
+    // INDEX MAINTENANCE
+    // ============================================
+
+    private void attach(ServerPlayerEntity player) {
+        if (player == null) return;
+
+        PCStore pc = Cobblemon.INSTANCE.getStorage().getPC(player);
+        if (pc == null) return;
+
+        UUID uuid = player.getUuid();
+        PlayerIndex index = new PlayerIndex();
+        index.subscription = pc.getAnyChangeObservable().subscribe(
+            com.cobblemon.mod.common.api.Priority.NORMAL,
+            unit -> {
+                index.dirty = true;
+                return kotlin.Unit.INSTANCE;
+            }
+        );
+
+        PlayerIndex previous = indexes.put(uuid, index);
+        if (previous != null) {
+            previous.release();
+        }
+    }
+
+    private void detach(UUID playerUuid) {
+        PlayerIndex index = indexes.remove(playerUuid);
+        if (index != null) {
+            index.release();
+        }
+    }
+
+    private Snapshot snapshot(ServerPlayerEntity player) {
+        if (player == null || server == null) return null;
+
+        try {
+            PlayerIndex index = indexes.get(player.getUuid());
+            if (index == null) {
+                attach(player);
+                index = indexes.get(player.getUuid());
+                if (index == null) return null;
+            }
+
+            if (index.dirty || index.snapshot == null) {
+                // Clear the flag before scanning so a change during the rebuild is not lost
+                index.dirty = false;
+                index.snapshot = build(Cobblemon.INSTANCE.getStorage().getPC(player));
+            }
+            return index.snapshot;
+
+        } catch (Exception e) {
+            logger.error("Error building PC species index: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private Snapshot build(PCStore pc) {
+        Map<String, List<UUID>> bySpecies = new HashMap<>();
+        Map<UUID, PCPosition> locations = new HashMap<>();
+
+        if (pc != null) {
+            int boxIndex = 0;
+            for (PCBox box : pc.getBoxes()) {
+                for (int slot = 0; slot < SLOTS_PER_BOX; slot++) {
+                    try {
+                        Pokemon pokemon = box.get(slot);
+                        if (pokemon != null) {
+                            String species = pokemon.getSpecies().getName().toLowerCase();
+                            bySpecies.computeIfAbsent(species, k -> new ArrayList<>()).add(pokemon.getUuid());
+                            locations.put(pokemon.getUuid(), new PCPosition(boxIndex, slot));
+                        }
+                    } catch (Exception e) {
+                        // Skip invalid slots
+                    }
+                }
+                boxIndex++;
+            }
+        }
+
+        return new Snapshot(bySpecies, locations);
+    }
+
+    private Pokemon resolve(PCStore pc, PCPosition position, UUID expected) {
+        if (pc == null || position == null) return null;
+        try {
+            Pokemon pokemon = pc.get(position);
+            return pokemon != null && pokemon.getUuid().equals(expected) ? pokemon : null;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    public void shutdown() {
+        for (PlayerIndex index : indexes.values()) {
+            index.release();
+        }
+        indexes.clear();
+    }
+
+    // ============================================
+    // INNER CLASSES
+    // ============================================
+
+    private static class PlayerIndex {
+        volatile boolean dirty = true;
+        volatile Snapshot snapshot;
+        ObservableSubscription<?> subscription;
+
+        void release() {
+            if (subscription != null) {
+                subscription.unsubscribe();
+                subscription = null;
+            }
+            snapshot = null;
+        }
+    }
+
+    /**
+     * Immutable view of one PC at rebuild time
+     */
+    private static class Snapshot {
+        final Map<String, List<UUID>> bySpecies;
+        final Map<UUID, PCPosition> locations;
+        private final List<String> sortedSpecies;
+        private volatile Filtered lastFiltered;                        // One read gives a matching (min, result) pair
+
+        Snapshot(Map<String, List<UUID>> bySpecies, Map<UUID, PCPosition> locations) {
+            this.bySpecies = bySpecies;
+            this.locations = locations;
+            List<String> sorted = new ArrayList<>(bySpecies.keySet());
+            Collections.sort(sorted);
+            this.sortedSpecies = sorted;
+        }
+
+        List<String> speciesWithAtLeast(int minCount) {
+            Filtered last = lastFiltered;
+            if (last != null && last.minCount == minCount) return last.species;
+
+            List<String> result = new ArrayList<>();
+            for (String species : sortedSpecies) {
+                if (bySpecies.get(species).size() >= minCount) {
+                    result.add(species);
+                }
+            }
+            Filtered filtered = new Filtered(minCount, Collections.unmodifiableList(result));
+            lastFiltered = filtered;
+            return filtered.species;
+        }
+    }
+
+    /**
+     * Last speciesWithAtLeast result, published as one object
+     */
+    private static final class Filtered {
+        final int minCount;
+        final List<String> species;
+
+        Filtered(int minCount, List<String> species) {
+            this.minCount = minCount;
+            this.species = species;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.lospitufos.cobblemon.storage;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.lospitufos.cobblemon.utils.ModLogger;
+
+import java.nio.file.*;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Warm Cache Snapshot - in-memory caches carried across a clean restart
+ *
+ * Features:
+ * - One file, one section per cache, one entry per key
+ * - Every entry has its own expiry; expired entries are dropped on restore, never handed back
+ * - Written at server stopping (before managers clear their maps), read at server started
+ *   (before managers start polling)
+ * - Consumed on load: a crash after startup never restores a snapshot from an older shutdown
+ * - Atomic write (temp file + move)
+ */
+public class WarmCacheSnapshot {
+
+    private static final String SNAPSHOT_DIR = "config/cobblemon-lospitufos-v2";
+    private static final String SNAPSHOT_FILE = "warm-cache.json";
+    private static final int VERSION = 1;
+
+    private final ModLogger logger;
+    private final Map<String, Map<String, Entry>> sections = new ConcurrentHashMap<>();
+
+    private static class Entry {
+        final long expiresAt;
+        final JsonElement value;
+
+        Entry(long expiresAt, JsonElement value) {
+            this.expiresAt = expiresAt;
+            this.value = value;
+        }
+    }
+
+    public WarmCacheSnapshot(ModLogger logger) {
+        this.logger = logger;
+    }
+
+    // ============================================
+    // WRITING (server stopping)
+    // ============================================
+
+    /**
+     * Add an entry that is valid until expiresAt (epoch millis); already-expired entries are skipped
+     */
+    public void put(String section, String key, JsonElement value, long expiresAt) {
+        if (value == null || expiresAt <= System.currentTimeMillis()) return;
+        sections.computeIfAbsent(section, s -> new ConcurrentHashMap<>()).put(key, new Entry(expiresAt, value));
+    }
+
+    public void save() {
+        try {
+            Path dir = Paths.get(SNAPSHOT_DIR);
+            if (!Files.exists(dir)) {
+                Files.createDirectories(dir);
+            }
+
+            JsonObject root = new JsonObject();
+            root.addProperty("version", VERSION);
+            root.addProperty("savedAt", System.currentTimeMillis());
+
+            JsonObject sectionsJson = new JsonObject();
+            int count = 0;
+            for (Map.Entry<String, Map<String, Entry>> section : sections.entrySet()) {
+                JsonObject entriesJson = new JsonObject();
+                for (Map.Entry<String, Entry> entry : section.getValue().entrySet()) {
+                    JsonObject entryJson = new JsonObject();
+                    entryJson.addProperty("expiresAt", entry.getValue().expiresAt);
+                    entryJson.add("value", entry.getValue().value);
+                    entriesJson.add(entry.getKey(), entryJson);
+                    count++;
+                }
+                sectionsJson.add(section.getKey(), entriesJson);
+            }
+            root.add("sections", sectionsJson);
+
+            Path file = dir.resolve(SNAPSHOT_FILE);
+            Path temp = dir.resolve(SNAPSHOT_FILE + ".tmp");
+            Files.writeString(temp, root.toString());
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            logger.info("✓ Warm cache snapshot saved (" + count + " entries)");
+        } catch (Exception e) {
+            logger.error("Error saving warm cache snapshot: " + e.getMessage());
+        }
+    }
+
+    // ============================================
+    // READING (server started)
+    // ============================================
+
+    /**
+     * Read and delete the snapshot file. Returns an empty snapshot if there is none or it is unreadable
+     */
+    public static WarmCacheSnapshot load(ModLogger logger) {
+        WarmCacheSnapshot snapshot = new WarmCacheSnapshot(logger);
+        Path file = Paths.get(SNAPSHOT_DIR, SNAPSHOT_FILE);
+        if (!Files.exists(file)) return snapshot;
+
+        try {
+            JsonObject root = JsonParser.parseString(Files.readString(file)).getAsJsonObject();
+            if (root.has("version") && root.get("version").getAsInt() == VERSION && root.has("sections")) {
+                for (Map.Entry<String, JsonElement> section : root.getAsJsonObject("sections").entrySet()) {
+                    for (Map.Entry<String, JsonElement> entry : section.getValue().getAsJsonObject().entrySet()) {
+                        JsonObject entryJson = entry.getValue().getAsJsonObject();
+                        snapshot.put(section.getKey(), entry.getKey(),
+                            entryJson.get("value"), entryJson.get("expiresAt").getAsLong());
+                    }
+                }
+            }
+        } catch (Exception e) {
+            logger.error("Error loading warm cache snapshot: " + e.getMessage());
+        }
+
+        try {
+            Files.deleteIfExists(file);
+        } catch (Exception e) {
+            logger.debug("Could not delete warm cache snapshot: " + e.getMessage());
+        }
+
+        return snapshot;
+    }
+
+    /**
+     * Entries of a section that are still valid (key -> value). Each section can be taken once
+     */
+    public Map<String, JsonElement> take(String section) {
+        Map<String, Entry> entries = sections.remove(section);
+        Map<String, JsonElement> result = new HashMap<>();
+        if (entries == null) return result;
+
+        long now = System.currentTimeMillis();
+        for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+            if (entry.getValue().expiresAt > now) {
+                result.put(entry.getKey(), entry.getValue().value);
+            }
+        }
+        return result;
+    }
+}
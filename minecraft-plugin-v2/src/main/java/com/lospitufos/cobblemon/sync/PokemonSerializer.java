@@ -0,0 +1,235 @@
+package com.lospitufos.cobblemon.sync;
+
+import com.cobblemon.mod.common.api.pokemon.stats.Stat;
+import com.cobblemon.mod.common.api.pokemon.stats.Stats;
+import com.cobblemon.mod.common.pokemon.Pokemon;
+import com.cobblemon.mod.common.pokemon.PokemonStats;
+import com.google.gson.stream.JsonWriter;
+import net.minecraft.item.ItemStack;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Pokemon Serializer - streams Pokémon records straight to JSON bytes
+ *
+ * Features:
+ * - One schema for every Pokémon payload: web sync (party/PC) and Tutorías battle logs
+ * - Writes through a streaming JsonWriter - no JsonObject tree per Pokémon, no Gson re-serialization
+ * - Per-thread reusable buffer: a payload costs one byte[] copy at the end, whatever its size
+ * - IVs/EVs read once per Pokémon, stat keys fixed per schema
+ * - Wire format unchanged: each schema keeps the keys its backend endpoint already reads
+ */
+public final class PokemonSerializer {
+
+    /**
+     * Field set for a Pokémon record (each backend endpoint reads its own keys)
+     */
+    public enum Schema {
+        /** /api/players/sync - full record with moves PP, health and status */
+        SYNC("hp", "attack", "defense", "spAttack", "spDefense", "speed"),
+        /** /api/tutorias/battle-log/store - compact team snapshot for AI analysis */
+        BATTLE_LOG("hp", "attack", "defense", "specialAttack", "specialDefense", "speed");
+
+        private final String[] statKeys;
+
+        Schema(String... statKeys) {
+            this.statKeys = statKeys;
+        }
+    }
+
+    /**
+     * Writes one JSON document into the serializer's writer
+     */
+    @FunctionalInterface
+    public interface Body {
+        void write(JsonWriter out) throws IOException;
+    }
+
+    // Same order as Schema.statKeys
+    private static final Stat[] STATS = {
+        Stats.HP, Stats.ATTACK, Stats.DEFENCE, Stats.SPECIAL_ATTACK, Stats.SPECIAL_DEFENCE, Stats.SPEED
+    };
+
+    private static final int INITIAL_BUFFER_BYTES = 16 * 1024;
+    private static final int MAX_RETAINED_BUFFER_BYTES = 1024 * 1024; // A huge payload doesn't pin its buffer forever
+
+    private static final ThreadLocal<Buffer> BUFFER = ThreadLocal.withInitial(Buffer::new);
+
+    private PokemonSerializer() {}
+
+    // ============================================
+    // DOCUMENTS
+    // ============================================
+
+    /**
+     * Serialize one JSON document using this thread's buffer. The returned array is the caller's to keep
+     */
+    public static byte[] write(Body body) throws IOException {
+        Buffer buffer = BUFFER.get();
+        if (buffer.inUse) {
+            // Nested call (a Body serializing another document) - don't clobber the outer one
+            return new Buffer().serialize(body);
+        }
+        return buffer.serialize(body);
+    }
+
+    /**
+     * Serialize a JSON array of Pokémon records (e.g. a battle team), for embedding with JsonWriter.jsonValue
+     */
+    public static String writeArray(Iterable<Pokemon> pokemon, Schema schema) throws IOException {
+        byte[] json = write(out -> {
+            out.beginArray();
+            for (Pokemon p : pokemon) {
+                if (p != null) {
+                    writePokemon(out, p, schema, -1);
+                }
+            }
+            out.endArray();
+        });
+        return new String(json, StandardCharsets.UTF_8);
+    }
+
+    // ============================================
+    // RECORDS
+    // ============================================
+
+    /**
+     * Write one Pokémon record. slot >= 0 adds the PC slot (sync schema only)
+     */
+    public static void writePokemon(JsonWriter out, Pokemon pokemon, Schema schema, int slot) throws IOException {
+        out.beginObject();
+
+        if (schema == Schema.SYNC) {
+            out.name("uuid").value(pokemon.getUuid().toString());
+        }
+        out.name("species").value(pokemon.getSpecies().getName());
+        if (schema == Schema.SYNC) {
+            out.name("speciesId").value(pokemon.getSpecies().getNationalPokedexNumber());
+        }
+        out.name("level").value(pokemon.getLevel());
+        if (schema == Schema.SYNC) {
+            out.name("experience").value(pokemon.getExperience());
+            out.name("form").value(pokemon.getForm().getName());
+            out.name("gender").value(pokemon.getGender().name());
+        }
+        out.name("nature").value(pokemon.getNature().getName().getPath());
+        if (pokemon.getAbility() != null) {
+            out.name("ability").value(pokemon.getAbility().getName());
+        }
+        if (schema == Schema.SYNC) {
+            out.name("friendship").value(pokemon.getFriendship());
+            out.name("ball").value(pokemon.getCaughtBall().getName().getPath());
+        }
+        out.name("shiny").value(pokemon.getShiny());
+
+        writeStats(out, "ivs", pokemon.getIvs(), schema);
+        writeStats(out, "evs", pokemon.getEvs(), schema);
+        writeMoves(out, pokemon, schema);
+
+        ItemStack held = pokemon.heldItem();
+        if (held != null && !held.isEmpty()) {
+            if (schema == Schema.SYNC) {
+                out.name("heldItem").value(held.getItem().toString());
+                out.name("heldItemCount").value(held.getCount());
+            } else {
+                out.name("heldItem").value(held.getName().getString());
+            }
+        }
+
+        if (schema == Schema.SYNC) {
+            out.name("currentHealth").value(pokemon.getCurrentHealth());
+            out.name("maxHealth").value(pokemon.getMaxHealth());
+            if (pokemon.getStatus() != null) {
+                out.name("status").value(pokemon.getStatus().getStatus().getName().getPath());
+            }
+            if (slot >= 0) {
+                out.name("slot").value(slot);
+            }
+        }
+
+        out.endObject();
+    }
+
+    private static void writeStats(JsonWriter out, String name, PokemonStats stats, Schema schema) throws IOException {
+        out.name(name).beginObject();
+        for (int i = 0; i < STATS.length; i++) {
+            out.name(schema.statKeys[i]).value(stats.getOrDefault(STATS[i]));
+        }
+        out.endObject();
+    }
+
+    private static void writeMoves(JsonWriter out, Pokemon pokemon, Schema schema) throws IOException {
+        out.name("moves").beginArray();
+        for (var move : pokemon.getMoveSet()) {
+            if (move == null) continue;
+
+            // Read everything before writing: a move that can't be read is skipped, not left half-written
+            String moveName;
+            int pp;
+            int maxPp;
+            try {
+                moveName = move.getTemplate().getName();
+                pp = move.getCurrentPp();
+                maxPp = move.getTemplate().getPp();
+            } catch (RuntimeException e) {
+                continue;
+            }
+
+            if (schema == Schema.SYNC) {
+                out.beginObject();
+                out.name("name").value(moveName);
+                out.name("pp").value(pp);
+                out.name("maxPp").value(maxPp);
+                out.endObject();
+            } else {
+                out.value(moveName);
+            }
+        }
+        out.endArray();
+    }
+
+    // ============================================
+    // BUFFER
+    // ============================================
+
+    /**
+     * Reusable byte buffer plus the UTF-8 writer on top of it (one per thread)
+     */
+    private static class Buffer extends ByteArrayOutputStream {
+        private final Writer chars = new OutputStreamWriter(this, StandardCharsets.UTF_8);
+        private boolean inUse = false;
+
+        Buffer() {
+            super(INITIAL_BUFFER_BYTES);
+        }
+
+        byte[] serialize(Body body) throws IOException {
+            inUse = true;
+            try {
+                reset();
+                // JsonWriter holds one document only, so it is the one thing created per payload
+                JsonWriter out = new JsonWriter(chars);
+                body.write(out);
+                out.flush();
+                return Arrays.copyOf(buf, count);
+            } finally {
+                // A body that threw can leave chars in the encoder - push them out so the reset drops them
+                try {
+                    chars.flush();
+                } catch (IOException ignored) {
+                    // Only ever writes to memory
+                }
+                if (buf.length > MAX_RETAINED_BUFFER_BYTES) {
+                    buf = new byte[INITIAL_BUFFER_BYTES];
+                }
+                count = 0;
+                inUse = false;
+            }
+        }
+    }
+}
@@ -9,6 +9,7 @@ import com.cobblemon.mod.common.pokemon.Pokemon;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
 import com.lospitufos.cobblemon.core.Config;
+import com.lospitufos.cobblemon.core.TaskScope;
 import com.lospitufos.cobblemon.economy.CobbleDollarsManager;
 import com.lospitufos.cobblemon.utils.HttpClient;
 import com.lospitufos.cobblemon.utils.ModLogger;
@@ -19,9 +20,8 @@ import net.minecraft.registry.Registries;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.network.ServerPlayerEntity;
 
+import java.nio.charset.StandardCharsets;
 import java.util.UUID;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -29,22 +29,24 @@ import java.util.concurrent.TimeUnit;
  * - Periodic sync
  * - Event-driven sync on capture/evolution
  * - NO manual JSON reading
+ * - Payloads streamed through PokemonSerializer (shared with Tutorías battle logs)
  */
 public class WebSyncManager {
 
     private final HttpClient httpClient;
     private final ModLogger logger;
     private final Config config;
-    private final ScheduledExecutorService scheduler;
+    private final TaskScope scheduler;
     private final CobbleDollarsManager cobbleDollarsManager;
     private MinecraftServer server;
 
-    public WebSyncManager(HttpClient httpClient, ModLogger logger, Config config) {
+    public WebSyncManager(HttpClient httpClient, ModLogger logger, Config config, CobbleDollarsManager cobbleDollarsManager,
+                          TaskScope scheduler) {
         this.httpClient = httpClient;
         this.logger = logger;
         this.config = config;
-        this.scheduler = Executors.newScheduledThreadPool(1);
-        this.cobbleDollarsManager = new CobbleDollarsManager(logger);
+        this.scheduler = scheduler;
+        this.cobbleDollarsManager = cobbleDollarsManager;
     }
 
     public void initialize(MinecraftServer server) {
@@ -134,6 +136,8 @@ public class WebSyncManager {
     private void performPeriodicSync() {
         if (server == null)
             return;
+        if (httpClient.isOffline())
+            return; // Suspended until the backend is back
 
         var playerList = server.getPlayerManager().getPlayerList();
         if (playerList.isEmpty())
@@ -159,79 +163,90 @@ public class WebSyncManager {
         syncPlayerIndex++;
     }
 
-    public void syncPlayerData(ServerPlayerEntity player) {
-        // DEFENSIVE CHECK: Verify player is still valid and online
-        if (player == null || player.networkHandler == null || player.isDisconnected()) {
-            logger.debug("Skipping sync for disconnected/invalid player");
-            return;
-        }
-
+    /**
+     * The first 2 PC boxes as a JSON array, for embedding with jsonValue - "[]" if the PC can't be read
+     */
+    private String serializePcStorage(ServerPlayerEntity player) {
         try {
-            UUID uuid = player.getUuid();
-
-            // Get player's party
-            PlayerPartyStore party = Cobblemon.INSTANCE.getStorage().getParty(player);
-
-            // Build sync payload
-            JsonObject payload = new JsonObject();
-            payload.addProperty("uuid", uuid.toString());
-            payload.addProperty("username", player.getName().getString());
-            payload.addProperty("online", true);
-            payload.addProperty("lastSeen", java.time.Instant.now().toString());
-            
-            // Add player position for BlueMap integration
-            payload.addProperty("x", player.getX());
-            payload.addProperty("y", player.getY());
-            payload.addProperty("z", player.getZ());
-            payload.addProperty("world", player.getWorld().getRegistryKey().getValue().getPath());
-
-            // Add party data with full details
-            JsonArray partyArray = new JsonArray();
-            for (Pokemon pokemon : party) {
-                if (pokemon != null) {
-                    partyArray.add(buildPokemonData(pokemon));
-                }
-            }
-            payload.add("party", partyArray);
-
-            // Add PC Storage data - OPTIMIZED: Only sync first 2 boxes to reduce payload
-            try {
-                PCStore pc = Cobblemon.INSTANCE.getStorage().getPC(player);
-                JsonArray pcData = new JsonArray();
-
-                // Only sync first 2 boxes (60 Pokemon max) to reduce payload size
-                int maxBoxes = Math.min(2, pc.getBoxes().size());
+            PCStore pcStore = Cobblemon.INSTANCE.getStorage().getPC(player);
+            byte[] json = PokemonSerializer.write(out -> {
+                out.beginArray();
+                int maxBoxes = Math.min(2, pcStore.getBoxes().size());
                 int boxIndex = 0;
-                for (Object boxObj : pc.getBoxes()) {
+                for (Object boxObj : pcStore.getBoxes()) {
                     if (boxIndex >= maxBoxes)
                         break;
 
                     com.cobblemon.mod.common.api.storage.pc.PCBox box = (com.cobblemon.mod.common.api.storage.pc.PCBox) boxObj;
-                    JsonObject boxData = new JsonObject();
-                    boxData.addProperty("boxNumber", boxIndex);
-
-                    JsonArray pokemonInBox = new JsonArray();
+                    out.beginObject();
+                    out.name("boxNumber").value(boxIndex);
+                    out.name("pokemon").beginArray();
                     for (int slot = 0; slot < 30; slot++) {
                         Pokemon pokemon = box.get(slot);
                         if (pokemon != null) {
-                            JsonObject pokemonData = buildPokemonData(pokemon);
-                            pokemonData.addProperty("slot", slot);
-                            pokemonInBox.add(pokemonData);
+                            PokemonSerializer.writePokemon(out, pokemon, PokemonSerializer.Schema.SYNC, slot);
                         }
                     }
-                    boxData.add("pokemon", pokemonInBox);
-                    pcData.add(boxData);
+                    out.endArray();
+                    out.endObject();
                     boxIndex++;
                 }
-                payload.add("pcStorage", pcData);
-            } catch (Exception e) {
-                logger.error("Failed to sync PC Storage: " + e.getMessage());
-                payload.add("pcStorage", new JsonArray());
-            }
+                out.endArray();
+            });
+            return new String(json, StandardCharsets.UTF_8);
+        } catch (Exception e) {
+            logger.error("Failed to sync PC Storage: " + e.getMessage());
+            return "[]";
+        }
+    }
+
+    public void syncPlayerData(ServerPlayerEntity player) {
+        // DEFENSIVE CHECK: Verify player is still valid and online
+        if (player == null || player.networkHandler == null || player.isDisconnected()) {
+            logger.debug("Skipping sync for disconnected/invalid player");
+            return;
+        }
+
+        try {
+            UUID uuid = player.getUuid();
+
+            // Get player's party; the PC section is serialized on its own first, so any PC failure
+            // (store, box or Pokemon) only drops that section, as before
+            PlayerPartyStore party = Cobblemon.INSTANCE.getStorage().getParty(player);
+            String pcStorage = serializePcStorage(player);
 
             // Add CobbleDollars balance if mod is installed
             int balance = cobbleDollarsManager.getPlayerBalance(uuid);
-            payload.addProperty("cobbleDollarsBalance", balance);
+
+            // Stream the payload straight to bytes (no JsonObject tree per Pokemon)
+            byte[] payload = PokemonSerializer.write(out -> {
+                out.beginObject();
+                out.name("uuid").value(uuid.toString());
+                out.name("username").value(player.getName().getString());
+                out.name("online").value(true);
+                out.name("lastSeen").value(java.time.Instant.now().toString());
+
+                // Add player position for BlueMap integration
+                out.name("x").value(player.getX());
+                out.name("y").value(player.getY());
+                out.name("z").value(player.getZ());
+                out.name("world").value(player.getWorld().getRegistryKey().getValue().getPath());
+
+                // Add party data with full details
+                out.name("party").beginArray();
+                for (Pokemon pokemon : party) {
+                    if (pokemon != null) {
+                        PokemonSerializer.writePokemon(out, pokemon, PokemonSerializer.Schema.SYNC, -1);
+                    }
+                }
+                out.endArray();
+
+                // Add PC Storage data - OPTIMIZED: Only sync first 2 boxes to reduce payload
+                out.name("pcStorage").jsonValue(pcStorage);
+
+                out.name("cobbleDollarsBalance").value(balance);
+                out.endObject();
+            });
 
             // Send to API
             httpClient.postAsync("/api/players/sync", payload)
@@ -263,90 +278,6 @@ public class WebSyncManager {
         }
     }
 
-    private JsonObject buildPokemonData(Pokemon pokemon) {
-        JsonObject data = new JsonObject();
-
-        // Basic info
-        data.addProperty("uuid", pokemon.getUuid().toString());
-        data.addProperty("species", pokemon.getSpecies().getName());
-        data.addProperty("speciesId", pokemon.getSpecies().getNationalPokedexNumber());
-        data.addProperty("level", pokemon.getLevel());
-        data.addProperty("experience", pokemon.getExperience());
-        data.addProperty("shiny", pokemon.getShiny());
-        data.addProperty("form", pokemon.getForm().getName());
-
-        // Gender, Nature, Ability
-        data.addProperty("gender", pokemon.getGender().name());
-        data.addProperty("nature", pokemon.getNature().getName().getPath());
-        data.addProperty("ability", pokemon.getAbility().getName());
-        data.addProperty("friendship", pokemon.getFriendship());
-
-        // Ball type
-        data.addProperty("ball", pokemon.getCaughtBall().getName().getPath());
-
-        // IVs
-        JsonObject ivs = new JsonObject();
-        ivs.addProperty("hp", pokemon.getIvs().getOrDefault(com.cobblemon.mod.common.api.pokemon.stats.Stats.HP));
-        ivs.addProperty("attack",
-                pokemon.getIvs().getOrDefault(com.cobblemon.mod.common.api.pokemon.stats.Stats.ATTACK));
-        ivs.addProperty("defense",
-                pokemon.getIvs().getOrDefault(com.cobblemon.mod.common.api.pokemon.stats.Stats.DEFENCE));
-        ivs.addProperty("spAttack",
-                pokemon.getIvs().getOrDefault(com.cobblemon.mod.common.api.pokemon.stats.Stats.SPECIAL_ATTACK));
-        ivs.addProperty("spDefense",
-                pokemon.getIvs().getOrDefault(com.cobblemon.mod.common.api.pokemon.stats.Stats.SPECIAL_DEFENCE));
-        ivs.addProperty("speed", pokemon.getIvs().getOrDefault(com.cobblemon.mod.common.api.pokemon.stats.Stats.SPEED));
-        data.add("ivs", ivs);
-
-        // EVs
-        JsonObject evs = new JsonObject();
-        evs.addProperty("hp", pokemon.getEvs().getOrDefault(com.cobblemon.mod.common.api.pokemon.stats.Stats.HP));
-        evs.addProperty("attack",
-                pokemon.getEvs().getOrDefault(com.cobblemon.mod.common.api.pokemon.stats.Stats.ATTACK));
-        evs.addProperty("defense",
-                pokemon.getEvs().getOrDefault(com.cobblemon.mod.common.api.pokemon.stats.Stats.DEFENCE));
-        evs.addProperty("spAttack",
-                pokemon.getEvs().getOrDefault(com.cobblemon.mod.common.api.pokemon.stats.Stats.SPECIAL_ATTACK));
-        evs.addProperty("spDefense",
-                pokemon.getEvs().getOrDefault(com.cobblemon.mod.common.api.pokemon.stats.Stats.SPECIAL_DEFENCE));
-        evs.addProperty("speed", pokemon.getEvs().getOrDefault(com.cobblemon.mod.common.api.pokemon.stats.Stats.SPEED));
-        data.add("evs", evs);
-
-        // Moves
-        JsonArray moves = new JsonArray();
-        try {
-            var moveSet = pokemon.getMoveSet();
-            for (var move : moveSet) {
-                if (move != null) {
-                    JsonObject moveObj = new JsonObject();
-                    // Get the move template name properly
-                    String moveName = move.getTemplate().getName();
-                    moveObj.addProperty("name", moveName);
-                    moveObj.addProperty("pp", move.getCurrentPp());
-                    moveObj.addProperty("maxPp", move.getTemplate().getPp());
-                    moves.add(moveObj);
-                }
-            }
-        } catch (Exception e) {
-            logger.debug("Could not retrieve moves for Pokemon: " + e.getMessage());
-        }
-        data.add("moves", moves);
-
-        // Held item
-        if (pokemon.heldItem() != null && !pokemon.heldItem().isEmpty()) {
-            data.addProperty("heldItem", pokemon.heldItem().getItem().toString());
-            data.addProperty("heldItemCount", pokemon.heldItem().getCount());
-        }
-
-        // Status
-        data.addProperty("currentHealth", pokemon.getCurrentHealth());
-        data.addProperty("maxHealth", pokemon.getMaxHealth());
-        data.addProperty("status",
-                pokemon.getStatus() != null ? pokemon.getStatus().getStatus().getName().getPath() : null);
-
-        return data;
-    }
-
     public void handleSyncCommand(ServerPlayerEntity player) {
         if (player == null)
             return;
@@ -371,14 +302,7 @@ public class WebSyncManager {
 
     public void shutdown() {
         logger.info("Web sync shutting down...");
-        scheduler.shutdown();
-        try {
-            if (!scheduler.awaitTermination(5, TimeUnit.SECONDS)) {
-                scheduler.shutdownNow();
-            }
-        } catch (InterruptedException e) {
-            scheduler.shutdownNow();
-        }
+        scheduler.shutdown(5, TimeUnit.SECONDS);
     }
 
     /**
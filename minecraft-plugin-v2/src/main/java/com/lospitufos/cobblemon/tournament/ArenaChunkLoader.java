@@ -0,0 +1,116 @@
+package com.lospitufos.cobblemon.tournament;
+
+import com.lospitufos.cobblemon.utils.ModLogger;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.world.ChunkTicketType;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.ChunkPos;
+
+import java.util.*;
+
+/**
+ * Arena Chunk Loader - keeps the tournament arena loaded while a tournament runs
+ *
+ * Features:
+ * - One chunk ticket around the arena, added as soon as a tournament opens registration
+ * - Chunks load in the background during registration, so teleport waves land in loaded chunks
+ * - Held per tournament ID, released when the tournament is neither in registration nor active
+ * - Safety expiry so a missed status change never pins the chunks forever
+ * - MUST be used from the main thread (server chunk manager)
+ */
+public class ArenaChunkLoader {
+
+    private static final ChunkTicketType<ChunkPos> ARENA_TICKET =
+        ChunkTicketType.create("lospitufos_arena", Comparator.comparingLong(ChunkPos::toLong));
+
+    private final ModLogger logger;
+    private final ChunkPos center;
+    private final int radius;
+    private final Map<String, Long> holds = new HashMap<>(); // tournamentId -> acquired at (main thread only)
+    private MinecraftServer server;
+
+    /**
+     * @param radius ticket radius in chunks (a (2r+1)^2 area is kept fully loaded)
+     */
+    public ArenaChunkLoader(ModLogger logger, double arenaX, double arenaZ, int radius) {
+        this.logger = logger;
+        this.center = new ChunkPos((int) Math.floor(arenaX) >> 4, (int) Math.floor(arenaZ) >> 4);
+        this.radius = radius;
+    }
+
+    public void initialize(MinecraftServer server) {
+        this.server = server;
+    }
+
+    /**
+     * Start holding the arena for a tournament (idempotent per tournament)
+     */
+    public void acquire(String tournamentId) {
+        if (server == null || holds.containsKey(tournamentId)) return;
+
+        if (holds.isEmpty()) {
+            world().getChunkManager().addTicket(ARENA_TICKET, center, radius, center);
+            logger.info("Pre-loading tournament arena chunks around " + center + " (radius " + radius + ")");
+        }
+        holds.put(tournamentId, System.currentTimeMillis());
+    }
+
+    /**
+     * Stop holding the arena for a tournament; the ticket goes when the last hold does
+     */
+    public void release(String tournamentId) {
+        if (holds.remove(tournamentId) == null) return;
+
+        if (holds.isEmpty()) {
+            removeTicket();
+        }
+    }
+
+    /**
+     * Release every hold not in the given set (tournaments in registration or active), or older than maxHoldMs
+     */
+    public void retainOnly(Set<String> tournamentIds, long maxHoldMs) {
+        if (holds.isEmpty()) return;
+
+        long cutoff = System.currentTimeMillis() - maxHoldMs;
+        for (String tournamentId : new ArrayList<>(holds.keySet())) {
+            if (!tournamentIds.contains(tournamentId) || holds.get(tournamentId) < cutoff) {
+                release(tournamentId);
+            }
+        }
+    }
+
+    /**
+     * True once every chunk in the ticket area is loaded - the teleport sequence waits for this
+     */
+    public boolean isArenaLoaded() {
+        if (server == null) return false;
+
+        ServerWorld world = world();
+        for (int dx = -radius; dx <= radius; dx++) {
+            for (int dz = -radius; dz <= radius; dz++) {
+                if (!world.isChunkLoaded(center.x + dx, center.z + dz)) return false;
+            }
+        }
+        return true;
+    }
+
+    public void releaseAll() {
+        if (holds.isEmpty()) return;
+        holds.clear();
+        removeTicket();
+    }
+
+    private void removeTicket() {
+        try {
+            world().getChunkManager().removeTicket(ARENA_TICKET, center, radius, center);
+            logger.info("Released tournament arena chunks");
+        } catch (Exception e) {
+            logger.error("Error releasing arena chunk ticket: " + e.getMessage());
+        }
+    }
+
+    private ServerWorld world() {
+        return server.getOverworld();
+    }
+}
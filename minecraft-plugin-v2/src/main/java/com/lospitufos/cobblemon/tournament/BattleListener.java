@@ -4,6 +4,7 @@ import com.cobblemon.mod.common.api.battles.model.PokemonBattle;
 import com.cobblemon.mod.common.api.battles.model.actor.BattleActor;
 import com.cobblemon.mod.common.api.events.CobblemonEvents;
 import com.cobblemon.mod.common.battles.actor.PlayerBattleActor;
+import com.lospitufos.cobblemon.core.TaskScope;
 import com.lospitufos.cobblemon.utils.ModLogger;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.network.ServerPlayerEntity;
@@ -27,7 +28,7 @@ public class BattleListener {
     
     private final TournamentManager tournamentManager;
     private final ModLogger logger;
-    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1);
+    private final TaskScope scheduler;
     
     // Track active battles for disconnect handling
     private final Map<UUID, ActiveBattle> activeBattles = new ConcurrentHashMap<>();
@@ -40,9 +41,10 @@ public class BattleListener {
     private static final long DISCONNECT_TIMEOUT_MS = 3 * 60 * 1000; // 3 minutes
     private static final int DISCONNECT_CHECK_SECONDS = 30;
     
-    public BattleListener(TournamentManager tournamentManager, ModLogger logger) {
+    public BattleListener(TournamentManager tournamentManager, ModLogger logger, TaskScope scheduler) {
         this.tournamentManager = tournamentManager;
         this.logger = logger;
+        this.scheduler = scheduler;
     }
     
     public void initialize(MinecraftServer server) {
@@ -286,14 +288,7 @@ public class BattleListener {
     
     public void shutdown() {
         logger.info("Battle listener shutting down...");
-        scheduler.shutdown();
-        try {
-            if (!scheduler.awaitTermination(5, TimeUnit.SECONDS)) {
-                scheduler.shutdownNow();
-            }
-        } catch (InterruptedException e) {
-            scheduler.shutdownNow();
-        }
+        scheduler.shutdown(5, TimeUnit.SECONDS);
         activeBattles.clear();
         disconnectedPlayers.clear();
     }
@@ -1,5 +1,7 @@
 package com.lospitufos.cobblemon.tournament;
 
+import com.lospitufos.cobblemon.core.TaskScope;
+import com.lospitufos.cobblemon.utils.ChatMessages;
 import com.lospitufos.cobblemon.utils.ModLogger;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.network.ServerPlayerEntity;
@@ -21,7 +23,7 @@ import java.util.concurrent.*;
 public class NotificationManager {
     
     private final ModLogger logger;
-    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1);
+    private final TaskScope scheduler;
     
     // Track no-show warnings (player UUID -> scheduled warning task)
     private final Map<UUID, ScheduledFuture<?>> noShowWarnings = new ConcurrentHashMap<>();
@@ -31,8 +33,9 @@ public class NotificationManager {
     private static final int NO_SHOW_WARNING_MINUTES = 5;
     private static final int NO_SHOW_FORFEIT_MINUTES = 10;
     
-    public NotificationManager(ModLogger logger) {
+    public NotificationManager(ModLogger logger, TaskScope scheduler) {
         this.logger = logger;
+        this.scheduler = scheduler;
     }
     
     public void initialize(MinecraftServer server) {
@@ -54,17 +57,19 @@ public class NotificationManager {
         if (player == null || player.isDisconnected()) return;
         
         // Send formatted message
-        player.sendMessage(Text.literal(""));
-        player.sendMessage(Text.literal("§6§l╔═══════════════════════════════╗"));
-        player.sendMessage(Text.literal("§6§l║    §e§l¡MATCH PROGRAMADO!    §6§l║"));
-        player.sendMessage(Text.literal("§6§l╠═══════════════════════════════╣"));
-        player.sendMessage(Text.literal("§6§l║ §7Torneo: §f" + padRight(tournamentName, 18) + "§6§l║"));
-        player.sendMessage(Text.literal("§6§l║ §7Ronda: §f" + padRight(String.valueOf(roundNumber), 19) + "§6§l║"));
-        player.sendMessage(Text.literal("§6§l║ §7Oponente: §c" + padRight(opponentName, 16) + "§6§l║"));
-        player.sendMessage(Text.literal("§6§l╠═══════════════════════════════╣"));
-        player.sendMessage(Text.literal("§6§l║ §e¡Busca a tu oponente y pelea! §6§l║"));
-        player.sendMessage(Text.literal("§6§l╚═══════════════════════════════╝"));
-        player.sendMessage(Text.literal(""));
+        player.sendMessage(ChatMessages.lines(
+            "",
+            "§6§l╔═══════════════════════════════╗",
+            "§6§l║    §e§l¡MATCH PROGRAMADO!    §6§l║",
+            "§6§l╠═══════════════════════════════╣",
+            "§6§l║ §7Torneo: §f" + padRight(tournamentName, 18) + "§6§l║",
+            "§6§l║ §7Ronda: §f" + padRight(String.valueOf(roundNumber), 19) + "§6§l║",
+            "§6§l║ §7Oponente: §c" + padRight(opponentName, 16) + "§6§l║",
+            "§6§l╠═══════════════════════════════╣",
+            "§6§l║ §e¡Busca a tu oponente y pelea! §6§l║",
+            "§6§l╚═══════════════════════════════╝",
+            ""
+        ));
         
         // Play notification sound
         playNotificationSound(player);
@@ -87,21 +92,23 @@ public class NotificationManager {
         // Cancel any pending no-show warnings
         cancelNoShowWarning(playerUuid);
         
-        player.sendMessage(Text.literal(""));
-        player.sendMessage(Text.literal("§a§l╔═══════════════════════════════╗"));
-        player.sendMessage(Text.literal("§a§l║      §6§l✓ ¡VICTORIA!      §a§l║"));
-        player.sendMessage(Text.literal("§a§l╠═══════════════════════════════╣"));
-        player.sendMessage(Text.literal("§a§l║ §7Torneo: §f" + padRight(tournamentName, 18) + "§a§l║"));
-        player.sendMessage(Text.literal("§a§l║ §7¡Avanzas a la siguiente ronda! §a§l║"));
+        ChatMessages.Builder message = ChatMessages.builder()
+            .blank()
+            .line("§a§l╔═══════════════════════════════╗")
+            .line("§a§l║      §6§l✓ ¡VICTORIA!      §a§l║")
+            .line("§a§l╠═══════════════════════════════╣")
+            .line("§a§l║ §7Torneo: §f" + padRight(tournamentName, 18) + "§a§l║")
+            .line("§a§l║ §7¡Avanzas a la siguiente ronda! §a§l║");
         
         if (nextOpponent != null) {
-            player.sendMessage(Text.literal("§a§l╠═══════════════════════════════╣"));
-            player.sendMessage(Text.literal("§a§l║ §7Próximo oponente: §c" + padRight(nextOpponent, 10) + "§a§l║"));
-            player.sendMessage(Text.literal("§a§l║ §7Ronda: §f" + padRight(String.valueOf(nextRound), 19) + "§a§l║"));
+            message.line("§a§l╠═══════════════════════════════╣")
+                .line("§a§l║ §7Próximo oponente: §c" + padRight(nextOpponent, 10) + "§a§l║")
+                .line("§a§l║ §7Ronda: §f" + padRight(String.valueOf(nextRound), 19) + "§a§l║");
         }
         
-        player.sendMessage(Text.literal("§a§l╚═══════════════════════════════╝"));
-        player.sendMessage(Text.literal(""));
+        message.line("§a§l╚═══════════════════════════════╝")
+            .blank();
+        player.sendMessage(message.build());
         
         // Play victory sound
         playVictorySound(player);
@@ -121,16 +128,18 @@ public class NotificationManager {
         
         String placementText = getPlacementText(finalPlacement);
         
-        player.sendMessage(Text.literal(""));
-        player.sendMessage(Text.literal("§c§l╔═══════════════════════════════╗"));
-        player.sendMessage(Text.literal("§c§l║    §4§l✗ ELIMINADO    §c§l║"));
-        player.sendMessage(Text.literal("§c§l╠═══════════════════════════════╣"));
-        player.sendMessage(Text.literal("§c§l║ §7Torneo: §f" + padRight(tournamentName, 18) + "§c§l║"));
-        player.sendMessage(Text.literal("§c§l║ §7Posición final: §e" + padRight(placementText, 13) + "§c§l║"));
-        player.sendMessage(Text.literal("§c§l╠═══════════════════════════════╣"));
-        player.sendMessage(Text.literal("§c§l║ §7¡Gracias por participar!     §c§l║"));
-        player.sendMessage(Text.literal("§c§l╚═══════════════════════════════╝"));
-        player.sendMessage(Text.literal(""));
+        player.sendMessage(ChatMessages.lines(
+            "",
+            "§c§l╔═══════════════════════════════╗",
+            "§c§l║    §4§l✗ ELIMINADO    §c§l║",
+            "§c§l╠═══════════════════════════════╣",
+            "§c§l║ §7Torneo: §f" + padRight(tournamentName, 18) + "§c§l║",
+            "§c§l║ §7Posición final: §e" + padRight(placementText, 13) + "§c§l║",
+            "§c§l╠═══════════════════════════════╣",
+            "§c§l║ §7¡Gracias por participar!     §c§l║",
+            "§c§l╚═══════════════════════════════╝",
+            ""
+        ));
         
         // Play elimination sound
         playEliminationSound(player);
@@ -148,18 +157,20 @@ public class NotificationManager {
         // Cancel any pending no-show warnings
         cancelNoShowWarning(playerUuid);
         
-        player.sendMessage(Text.literal(""));
-        player.sendMessage(Text.literal("§6§l╔═══════════════════════════════════════╗"));
-        player.sendMessage(Text.literal("§6§l║                                       ║"));
-        player.sendMessage(Text.literal("§6§l║   §e§l★ ★ ★ §6§l¡CAMPEÓN! §e§l★ ★ ★   §6§l║"));
-        player.sendMessage(Text.literal("§6§l║                                       ║"));
-        player.sendMessage(Text.literal("§6§l╠═══════════════════════════════════════╣"));
-        player.sendMessage(Text.literal("§6§l║ §7Torneo: §f" + padRight(tournamentName, 24) + "§6§l║"));
-        player.sendMessage(Text.literal("§6§l║                                       ║"));
-        player.sendMessage(Text.literal("§6§l║ §e¡Felicidades! Has ganado el torneo! §6§l║"));
-        player.sendMessage(Text.literal("§6§l║                                       ║"));
-        player.sendMessage(Text.literal("§6§l╚═══════════════════════════════════════╝"));
-        player.sendMessage(Text.literal(""));
+        player.sendMessage(ChatMessages.lines(
+            "",
+            "§6§l╔═══════════════════════════════════════╗",
+            "§6§l║                                       ║",
+            "§6§l║   §e§l★ ★ ★ §6§l¡CAMPEÓN! §e§l★ ★ ★   §6§l║",
+            "§6§l║                                       ║",
+            "§6§l╠═══════════════════════════════════════╣",
+            "§6§l║ §7Torneo: §f" + padRight(tournamentName, 24) + "§6§l║",
+            "§6§l║                                       ║",
+            "§6§l║ §e¡Felicidades! Has ganado el torneo! §6§l║",
+            "§6§l║                                       ║",
+            "§6§l╚═══════════════════════════════════════╝",
+            ""
+        ));
         
         // Play champion sound
         playChampionSound(player);
@@ -194,14 +205,16 @@ public class NotificationManager {
             ServerPlayerEntity player = server.getPlayerManager().getPlayer(playerUuid);
             if (player == null || player.isDisconnected()) return;
             
-            player.sendMessage(Text.literal(""));
-            player.sendMessage(Text.literal("§c§l⚠ ¡ADVERTENCIA DE NO-SHOW! ⚠"));
-            player.sendMessage(Text.literal("§7Torneo: §f" + tournamentName));
-            player.sendMessage(Text.literal("§7Oponente: §c" + opponentName));
-            player.sendMessage(Text.literal(""));
-            player.sendMessage(Text.literal("§cTienes §e" + minutesRemaining + " minutos §cpara comenzar tu match."));
-            player.sendMessage(Text.literal("§cSi no te presentas, serás §4DESCALIFICADO§c."));
-            player.sendMessage(Text.literal(""));
+            player.sendMessage(ChatMessages.lines(
+                "",
+                "§c§l⚠ ¡ADVERTENCIA DE NO-SHOW! ⚠",
+                "§7Torneo: §f" + tournamentName,
+                "§7Oponente: §c" + opponentName,
+                "",
+                "§cTienes §e" + minutesRemaining + " minutos §cpara comenzar tu match.",
+                "§cSi no te presentas, serás §4DESCALIFICADO§c.",
+                ""
+            ));
             
             // Play warning sound
             playWarningSound(player);
@@ -375,11 +388,8 @@ public class NotificationManager {
     private void broadcastToAll(String message) {
         if (server == null) return;
         
-        for (ServerPlayerEntity player : server.getPlayerManager().getPlayerList()) {
-            if (player != null && !player.isDisconnected()) {
-                player.sendMessage(Text.literal(message));
-            }
-        }
+        // Build the Text once and reuse it for every recipient
+        ChatMessages.broadcast(server, Text.literal(message));
     }
     
     // ============================================
@@ -447,13 +457,6 @@ public class NotificationManager {
         }
         noShowWarnings.clear();
         
-        scheduler.shutdown();
-        try {
-            if (!scheduler.awaitTermination(5, TimeUnit.SECONDS)) {
-                scheduler.shutdownNow();
-            }
-        } catch (InterruptedException e) {
-            scheduler.shutdownNow();
-        }
+        scheduler.shutdown(5, TimeUnit.SECONDS);
     }
 }
@@ -1,8 +1,16 @@
 package com.lospitufos.cobblemon.tournament;
 
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import com.lospitufos.cobblemon.cache.ExpiringCache;
+import com.lospitufos.cobblemon.cache.TimerWheel;
+import com.lospitufos.cobblemon.core.TaskScope;
+import com.lospitufos.cobblemon.outbox.Outbox;
+import com.lospitufos.cobblemon.storage.WarmCacheSnapshot;
+import com.lospitufos.cobblemon.utils.ChatMessages;
 import com.lospitufos.cobblemon.utils.HttpClient;
 import com.lospitufos.cobblemon.utils.ModLogger;
 import net.minecraft.server.MinecraftServer;
@@ -21,37 +29,68 @@ import java.util.concurrent.*;
  * - View tournament info with /torneo info
  * - Auto-detect battle results and report to backend
  * - In-game notifications for match updates
+ * - Arena chunks pre-loaded for the start teleport wave
  */
 public class TournamentManager {
     
     private final HttpClient httpClient;
+    private final Outbox outbox;
     private final ModLogger logger;
-    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(3);
+    private final TaskScope scheduler;
     
-    // Cache of active tournament data per player
-    private final Map<UUID, CachedTournament> playerTournaments = new ConcurrentHashMap<>();
+    // Cache of active tournament data per player (online players re-written every refresh, offline ones expire)
+    private final ExpiringCache<UUID, CachedTournament> playerTournaments;
     
     // Cache of active matches (player UUID -> match info)
-    private final Map<UUID, CachedMatch> activeMatches = new ConcurrentHashMap<>();
+    private final ExpiringCache<UUID, CachedMatch> activeMatches;
     
-    // Cache of known tournaments (to detect new ones)
-    private final Set<String> knownTournamentIds = ConcurrentHashMap.newKeySet();
+    // Cache of known tournaments (to detect new ones) - kept alive while the backend still lists them
+    private final ExpiringCache<String, Boolean> knownTournamentIds;
     
-    // Cache of tournament statuses (to detect status changes)
-    private final Map<String, String> tournamentStatuses = new ConcurrentHashMap<>();
+    // Cache of tournament statuses (to detect status changes) - re-written on every poll
+    private final ExpiringCache<String, String> tournamentStatuses;
     
     // Notification manager for announcements
     private NotificationManager notificationManager;
     
+    // Arena chunk tickets held while a tournament is running
+    private ArenaChunkLoader arenaChunks;
+    
     private MinecraftServer server;
     
     private static final int CACHE_REFRESH_SECONDS = 30;
     private static final int MATCH_CHECK_SECONDS = 10;
     private static final int TOURNAMENT_POLL_SECONDS = 15; // Check for new tournaments every 15 seconds
     
-    public TournamentManager(HttpClient httpClient, ModLogger logger) {
+    // Cache lifetimes since the last write - also how long warm-restart snapshot entries stay usable
+    private static final Gson GSON = new GsonBuilder().create();
+    private static final long KNOWN_IDS_TTL_MS = 24 * 60 * 60 * 1000L; // Never re-announce within a day
+    private static final long STATUS_TTL_MS = 10 * 60 * 1000L;         // Start detection only across short gaps
+    private static final long PLAYER_TTL_MS = 30 * 60 * 1000L;         // Outlives short backend outages
+    private static final int MAX_CACHED_PLAYERS = 1024;
+    private static final int MAX_CACHED_TOURNAMENTS = 256;
+    
+    public TournamentManager(HttpClient httpClient, ModLogger logger, Outbox outbox, TimerWheel timers, TaskScope scheduler) {
         this.httpClient = httpClient;
+        this.outbox = outbox;
         this.logger = logger;
+        this.scheduler = scheduler;
+        this.playerTournaments = ExpiringCache.<UUID, CachedTournament>builder("tournament.player", timers)
+            .maximumSize(MAX_CACHED_PLAYERS)
+            .expireAfterWrite(PLAYER_TTL_MS)
+            .build();
+        this.activeMatches = ExpiringCache.<UUID, CachedMatch>builder("tournament.match", timers)
+            .maximumSize(MAX_CACHED_PLAYERS)
+            .expireAfterWrite(PLAYER_TTL_MS)
+            .build();
+        this.knownTournamentIds = ExpiringCache.<String, Boolean>builder("tournament.known", timers)
+            .maximumSize(MAX_CACHED_TOURNAMENTS)
+            .expireAfterWrite(KNOWN_IDS_TTL_MS)
+            .build();
+        this.tournamentStatuses = ExpiringCache.<String, String>builder("tournament.status", timers)
+            .maximumSize(MAX_CACHED_TOURNAMENTS)
+            .expireAfterWrite(STATUS_TTL_MS)
+            .build();
     }
     
     public void initialize(MinecraftServer server) {
@@ -59,9 +98,13 @@ public class TournamentManager {
         logger.info("Tournament system initializing...");
         
         // Initialize notification manager
-        this.notificationManager = new NotificationManager(logger);
+        this.notificationManager = new NotificationManager(logger, scheduler);
         this.notificationManager.initialize(server);
         
+        // Arena pre-loading (tickets added at tournament start, released when it ends)
+        this.arenaChunks = new ArenaChunkLoader(logger, ARENA_X, ARENA_Z, ARENA_CHUNK_RADIUS);
+        this.arenaChunks.initialize(server);
+        
         // Refresh tournament cache periodically
         scheduler.scheduleAtFixedRate(
             this::refreshTournamentCache,
@@ -96,6 +139,7 @@ public class TournamentManager {
      */
     private void pollForNewTournaments() {
         if (server == null) return;
+        if (httpClient.isOffline()) return; // Suspended until the backend is back
         
         httpClient.getAsync("/api/tournaments/active")
             .thenAccept(response -> {
@@ -103,28 +147,41 @@ public class TournamentManager {
                 
                 try {
                     JsonArray tournaments = response.getAsJsonArray("data");
+                    Set<String> arenaIds = new HashSet<>();
                     
                     for (JsonElement elem : tournaments) {
                         JsonObject tournament = elem.getAsJsonObject();
                         String id = getIdFromJson(tournament.get("_id"));
                         String status = tournament.get("status").getAsString();
-                        String previousStatus = tournamentStatuses.get(id);
+                        String previousStatus = tournamentStatuses.getIfPresent(id);
                         
                         // Update status cache
                         tournamentStatuses.put(id, status);
                         
+                        // Hold the arena from registration on, so it is loaded well before the first teleport
+                        if ("registration".equals(status) || "active".equals(status)) {
+                            arenaIds.add(id);
+                            server.execute(() -> arenaChunks.acquire(id));
+                        }
+                        
                         // Check if tournament just started (status changed to "active")
                         if ("active".equals(status) && previousStatus != null && !"active".equals(previousStatus)) {
                             logger.info("Tournament " + id + " just started! Triggering epic teleport...");
                             onTournamentStart(id);
                         }
                         
+                        // Re-written while listed, so an announced ID only expires once the backend drops it
+                        boolean known = knownTournamentIds.containsKey(id);
+                        if (known) {
+                            knownTournamentIds.put(id, Boolean.TRUE);
+                        }
+                        
                         // Only announce tournaments with open registration
                         if (!"registration".equals(status)) continue;
                         
                         // Check if this is a new tournament we haven't seen
-                        if (!knownTournamentIds.contains(id)) {
-                            knownTournamentIds.add(id);
+                        if (!known) {
+                            knownTournamentIds.put(id, Boolean.TRUE);
                             
                             // Announce to server
                             String name = tournament.get("name").getAsString();
@@ -146,6 +203,9 @@ public class TournamentManager {
                             });
                         }
                     }
+                    
+                    // Let go of the arena once its tournaments are finished or cancelled
+                    server.execute(() -> arenaChunks.retainOnly(arenaIds, MAX_ARENA_HOLD_MS));
                 } catch (Exception e) {
                     logger.debug("Error polling tournaments: " + e.getMessage());
                 }
@@ -195,9 +255,9 @@ public class TournamentManager {
         }
         
         // Check if already in a tournament
-        if (playerTournaments.containsKey(uuid)) {
-            CachedTournament cached = playerTournaments.get(uuid);
-            player.sendMessage(Text.literal("§c¡Ya estás inscrito en el torneo \"" + cached.name + "\"!"));
+        CachedTournament existing = playerTournaments.getIfPresent(uuid);
+        if (existing != null) {
+            player.sendMessage(Text.literal("§c¡Ya estás inscrito en el torneo \"" + existing.name + "\"!"));
             player.sendMessage(Text.literal("§7Usa §e/torneo leave §7para salir primero."));
             return;
         }
@@ -274,15 +334,17 @@ public class TournamentManager {
             playerTournaments.put(player.getUuid(), cached);
             
             // Send success messages
-            player.sendMessage(Text.literal(""));
-            player.sendMessage(Text.literal("§a§l✓ ¡INSCRIPCIÓN EXITOSA!"));
-            player.sendMessage(Text.literal("§7Torneo: §f" + tournamentName));
-            player.sendMessage(Text.literal("§7Código: §e" + tournamentCode));
-            player.sendMessage(Text.literal("§7Tu seed: §b#" + seed));
-            player.sendMessage(Text.literal("§7Participantes: §f" + currentParticipants + "/" + maxParticipants));
-            player.sendMessage(Text.literal(""));
-            player.sendMessage(Text.literal("§7Usa §e/torneo info §7para ver el estado del torneo."));
-            player.sendMessage(Text.literal(""));
+            player.sendMessage(ChatMessages.lines(
+                "",
+                "§a§l✓ ¡INSCRIPCIÓN EXITOSA!",
+                "§7Torneo: §f" + tournamentName,
+                "§7Código: §e" + tournamentCode,
+                "§7Tu seed: §b#" + seed,
+                "§7Participantes: §f" + currentParticipants + "/" + maxParticipants,
+                "",
+                "§7Usa §e/torneo info §7para ver el estado del torneo.",
+                ""
+            ));
             
             logger.info("Player " + player.getName().getString() + " joined tournament " + tournamentName);
             
@@ -300,13 +362,12 @@ public class TournamentManager {
         
         UUID uuid = player.getUuid();
         
-        if (!playerTournaments.containsKey(uuid)) {
+        CachedTournament cached = playerTournaments.getIfPresent(uuid);
+        if (cached == null) {
             player.sendMessage(Text.literal("§c¡No estás inscrito en ningún torneo!"));
             return;
         }
         
-        CachedTournament cached = playerTournaments.get(uuid);
-        
         // Can't leave if tournament is active
         if ("active".equals(cached.status)) {
             player.sendMessage(Text.literal("§c¡No puedes abandonar un torneo en curso!"));
@@ -320,7 +381,7 @@ public class TournamentManager {
         httpClient.postAsync("/api/tournaments/" + cached.id + "/leave", createPlayerPayload(uuid))
             .thenAccept(response -> {
                 server.execute(() -> {
-                    playerTournaments.remove(uuid);
+                    playerTournaments.invalidate(uuid);
                     player.sendMessage(Text.literal("§a✓ Has abandonado el torneo \"" + cached.name + "\"."));
                     logger.info("Player " + player.getName().getString() + " left tournament " + cached.name);
                 });
@@ -328,7 +389,7 @@ public class TournamentManager {
             .exceptionally(ex -> {
                 server.execute(() -> {
                     // Remove from cache anyway
-                    playerTournaments.remove(uuid);
+                    playerTournaments.invalidate(uuid);
                     player.sendMessage(Text.literal("§a✓ Has abandonado el torneo."));
                 });
                 return null;
@@ -343,29 +404,32 @@ public class TournamentManager {
         
         UUID uuid = player.getUuid();
         
-        if (!playerTournaments.containsKey(uuid)) {
+        CachedTournament cached = playerTournaments.getIfPresent(uuid);
+        if (cached == null) {
             player.sendMessage(Text.literal("§c¡No estás inscrito en ningún torneo!"));
             player.sendMessage(Text.literal("§7Usa §e/torneo join [código] §7para inscribirte."));
             return;
         }
         
-        CachedTournament cached = playerTournaments.get(uuid);
-        
-        player.sendMessage(Text.literal(""));
-        player.sendMessage(Text.literal("§6§l═══ TORNEO INFO ═══"));
-        player.sendMessage(Text.literal("§7Nombre: §f" + cached.name));
-        player.sendMessage(Text.literal("§7Código: §e" + cached.code));
-        player.sendMessage(Text.literal("§7Estado: " + getStatusDisplay(cached.status)));
-        player.sendMessage(Text.literal("§7Tu seed: §b#" + cached.seed));
+        player.sendMessage(ChatMessages.lines(
+            "",
+            "§6§l═══ TORNEO INFO ═══",
+            "§7Nombre: §f" + cached.name,
+            "§7Código: §e" + cached.code,
+            "§7Estado: " + getStatusDisplay(cached.status),
+            "§7Tu seed: §b#" + cached.seed
+        ));
         
         // Show next opponent if available
-        if (activeMatches.containsKey(uuid)) {
-            CachedMatch match = activeMatches.get(uuid);
-            player.sendMessage(Text.literal(""));
-            player.sendMessage(Text.literal("§a§l¡TIENES UN MATCH ACTIVO!"));
-            player.sendMessage(Text.literal("§7Oponente: §c" + match.opponentName));
-            player.sendMessage(Text.literal("§7Ronda: §f" + match.roundNumber));
-            player.sendMessage(Text.literal("§e¡Busca a tu oponente y comienza la batalla!"));
+        CachedMatch match = activeMatches.getIfPresent(uuid);
+        if (match != null) {
+            player.sendMessage(ChatMessages.lines(
+                "",
+                "§a§l¡TIENES UN MATCH ACTIVO!",
+                "§7Oponente: §c" + match.opponentName,
+                "§7Ronda: §f" + match.roundNumber,
+                "§e¡Busca a tu oponente y comienza la batalla!"
+            ));
         }
         
         player.sendMessage(Text.literal("§6§l═══════════════════"));
@@ -429,7 +493,8 @@ public class TournamentManager {
                     resultPayload.addProperty("victoryType", victoryType);
                     resultPayload.addProperty("tournamentId", tournamentId);
                     
-                    httpClient.postAsync("/api/tournaments/matches/" + matchId + "/result", resultPayload)
+                    // Durable: the result is replayed if the backend is down or the server stops
+                    outbox.enqueue("/api/tournaments/matches/" + matchId + "/result", resultPayload)
                         .thenAccept(resultResponse -> {
                             if (resultResponse != null && resultResponse.has("success") && 
                                 resultResponse.get("success").getAsBoolean()) {
@@ -468,24 +533,28 @@ public class TournamentManager {
         ServerPlayerEntity loser = server.getPlayerManager().getPlayer(loserUuid);
         
         if (winner != null && !winner.isDisconnected()) {
-            winner.sendMessage(Text.literal(""));
-            winner.sendMessage(Text.literal("§a§l✓ ¡VICTORIA EN TORNEO!"));
-            winner.sendMessage(Text.literal("§7Torneo: §f" + tournamentName));
-            winner.sendMessage(Text.literal("§7¡Avanzas a la siguiente ronda!"));
-            winner.sendMessage(Text.literal("§eUsa §6/torneo info §epara ver tu próximo match."));
-            winner.sendMessage(Text.literal(""));
+            winner.sendMessage(ChatMessages.lines(
+                "",
+                "§a§l✓ ¡VICTORIA EN TORNEO!",
+                "§7Torneo: §f" + tournamentName,
+                "§7¡Avanzas a la siguiente ronda!",
+                "§eUsa §6/torneo info §epara ver tu próximo match.",
+                ""
+            ));
         }
         
         if (loser != null && !loser.isDisconnected()) {
-            loser.sendMessage(Text.literal(""));
-            loser.sendMessage(Text.literal("§c§l✗ ELIMINADO DEL TORNEO"));
-            loser.sendMessage(Text.literal("§7Torneo: §f" + tournamentName));
-            loser.sendMessage(Text.literal("§7¡Gracias por participar!"));
-            loser.sendMessage(Text.literal(""));
+            loser.sendMessage(ChatMessages.lines(
+                "",
+                "§c§l✗ ELIMINADO DEL TORNEO",
+                "§7Torneo: §f" + tournamentName,
+                "§7¡Gracias por participar!",
+                ""
+            ));
             
             // Remove from cache
-            playerTournaments.remove(loserUuid);
-            activeMatches.remove(loserUuid);
+            playerTournaments.invalidate(loserUuid);
+            activeMatches.invalidate(loserUuid);
         }
     }
     
@@ -509,13 +578,14 @@ public class TournamentManager {
      * Announce a message to all online players
      */
     public void announceToServer(String message) {
-        if (server == null) return;
-        
-        for (ServerPlayerEntity player : server.getPlayerManager().getPlayerList()) {
-            if (player != null && !player.isDisconnected()) {
-                player.sendMessage(Text.literal(message));
-            }
-        }
+        announceToServer(Text.literal(message));
+    }
+    
+    /**
+     * Announce a pre-composed (possibly multi-line) message - one packet per player
+     */
+    public void announceToServer(Text message) {
+        ChatMessages.broadcast(server, message);
     }
     
     /**
@@ -525,15 +595,17 @@ public class TournamentManager {
         ServerPlayerEntity player = server.getPlayerManager().getPlayer(playerUuid);
         if (player == null || player.isDisconnected()) return;
         
-        player.sendMessage(Text.literal(""));
-        player.sendMessage(Text.literal("§6§l═══ ¡MATCH PROGRAMADO! ═══"));
-        player.sendMessage(Text.literal("§7Torneo: §f" + tournamentName));
-        player.sendMessage(Text.literal("§7Ronda: §f" + roundNumber));
-        player.sendMessage(Text.literal("§7Oponente: §c" + opponentName));
-        player.sendMessage(Text.literal(""));
-        player.sendMessage(Text.literal("§e¡Busca a tu oponente y comienza la batalla!"));
-        player.sendMessage(Text.literal("§6§l═══════════════════════════"));
-        player.sendMessage(Text.literal(""));
+        player.sendMessage(ChatMessages.lines(
+            "",
+            "§6§l═══ ¡MATCH PROGRAMADO! ═══",
+            "§7Torneo: §f" + tournamentName,
+            "§7Ronda: §f" + roundNumber,
+            "§7Oponente: §c" + opponentName,
+            "",
+            "§e¡Busca a tu oponente y comienza la batalla!",
+            "§6§l═══════════════════════════",
+            ""
+        ));
     }
     
     /**
@@ -543,11 +615,13 @@ public class TournamentManager {
         ServerPlayerEntity player = server.getPlayerManager().getPlayer(playerUuid);
         if (player == null || player.isDisconnected()) return;
         
-        player.sendMessage(Text.literal(""));
-        player.sendMessage(Text.literal("§c§l⚠ ¡ADVERTENCIA DE NO-SHOW!"));
-        player.sendMessage(Text.literal("§7Tienes §c" + minutesRemaining + " minutos §7para comenzar tu match."));
-        player.sendMessage(Text.literal("§7Si no te presentas, serás descalificado."));
-        player.sendMessage(Text.literal(""));
+        player.sendMessage(ChatMessages.lines(
+            "",
+            "§c§l⚠ ¡ADVERTENCIA DE NO-SHOW!",
+            "§7Tienes §c" + minutesRemaining + " minutos §7para comenzar tu match.",
+            "§7Si no te presentas, serás descalificado.",
+            ""
+        ));
     }
 
     
@@ -557,6 +631,7 @@ public class TournamentManager {
     
     private void refreshTournamentCache() {
         if (server == null) return;
+        if (httpClient.isOffline()) return; // Suspended until the backend is back
         
         for (ServerPlayerEntity player : server.getPlayerManager().getPlayerList()) {
             if (player == null || player.isDisconnected()) continue;
@@ -569,8 +644,8 @@ public class TournamentManager {
             .thenAccept(response -> {
                 if (response == null || !response.has("data") || response.get("data").isJsonNull()) {
                     // Player not in any tournament
-                    playerTournaments.remove(playerUuid);
-                    activeMatches.remove(playerUuid);
+                    playerTournaments.invalidate(playerUuid);
+                    activeMatches.invalidate(playerUuid);
                     return;
                 }
                 
@@ -609,16 +684,14 @@ public class TournamentManager {
     
     private void checkActiveMatches() {
         if (server == null) return;
+        if (httpClient.isOffline()) return; // Suspended until the backend is back
         
-        for (Map.Entry<UUID, CachedTournament> entry : playerTournaments.entrySet()) {
-            UUID playerUuid = entry.getKey();
-            CachedTournament cached = entry.getValue();
-            
-            if (!"active".equals(cached.status)) continue;
+        playerTournaments.forEach((playerUuid, cached, writtenAt) -> {
+            if (!"active".equals(cached.status)) return;
             
             // Check for active match
             checkPlayerActiveMatch(playerUuid, cached);
-        }
+        });
     }
     
     private void checkPlayerActiveMatch(UUID playerUuid, CachedTournament cached) {
@@ -661,7 +734,7 @@ public class TournamentManager {
                                 cachedMatch.roundNumber = round.get("roundNumber").getAsInt();
                                 cachedMatch.status = status;
                                 
-                                CachedMatch previousMatch = activeMatches.get(playerUuid);
+                                CachedMatch previousMatch = activeMatches.getIfPresent(playerUuid);
                                 
                                 // Notify if this is a new match
                                 if (previousMatch == null || !previousMatch.matchId.equals(cachedMatch.matchId)) {
@@ -678,7 +751,7 @@ public class TournamentManager {
                     }
                     
                     // No active match found
-                    activeMatches.remove(playerUuid);
+                    activeMatches.invalidate(playerUuid);
                     
                 } catch (Exception e) {
                     logger.debug("Error checking active match: " + e.getMessage());
@@ -700,6 +773,10 @@ public class TournamentManager {
     private static final double ARENA_Z = 1494;
     private static final int SPAWN_RADIUS = 5;
     private static final long TELEPORT_INTERVAL_MS = 4000; // 4 seconds between each player
+    private static final int ARENA_CHUNK_RADIUS = 4;       // 9x9 chunks kept loaded around the arena
+    private static final long MAX_ARENA_HOLD_MS = 4 * 60 * 60 * 1000L; // Safety release after 4 hours
+    private static final long ARENA_LOAD_POLL_MS = 250;
+    private static final long MAX_ARENA_LOAD_WAIT_MS = 15000;       // Teleport anyway after this
     
     /**
      * Participant data for epic intro
@@ -734,7 +811,7 @@ public class TournamentManager {
     /**
      * Epic tournament start sequence:
      * 1. Set weather to thunder (dramatic)
-     * 2. Teleport players one by one with lightning (4 seconds apart)
+     * 2. Once the arena chunks are loaded, teleport players one by one with lightning (4 seconds apart)
      * 3. Announce each player globally as they arrive
      * 4. After all teleports, announce matches in order
      * 5. Clear weather
@@ -751,19 +828,47 @@ public class TournamentManager {
             server.getOverworld().setWeather(0, weatherDuration, true, true);
             
             // Epic announcement
-            announceToServer("");
-            announceToServer("§0§l▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬");
-            announceToServer("");
-            announceToServer("§5§l          ⚡ TORNEO: " + tournamentName.toUpperCase() + " ⚡");
-            announceToServer("");
-            announceToServer("§d§l              ¡ESTÁ POR COMENZAR!");
-            announceToServer("");
-            announceToServer("§7              " + participants.size() + " participantes");
-            announceToServer("");
-            announceToServer("§0§l▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬");
-            announceToServer("");
+            announceToServer(ChatMessages.lines(
+                "",
+                "§0§l▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬",
+                "",
+                "§5§l          ⚡ TORNEO: " + tournamentName.toUpperCase() + " ⚡",
+                "",
+                "§d§l              ¡ESTÁ POR COMENZAR!",
+                "",
+                "§7              " + participants.size() + " participantes",
+                "",
+                "§0§l▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬▬",
+                ""
+            ));
         });
         
+        // Steps 2-5 are timed from the moment the arena is loaded
+        whenArenaLoaded(() -> scheduleArrivals(participants, matches), 0);
+    }
+    
+    /**
+     * Run the action on the main thread once the arena chunks are loaded (or after MAX_ARENA_LOAD_WAIT_MS)
+     */
+    private void whenArenaLoaded(Runnable action, long waitedMs) {
+        server.execute(() -> {
+            boolean loaded = arenaChunks.isArenaLoaded();
+            if (loaded || waitedMs >= MAX_ARENA_LOAD_WAIT_MS) {
+                if (!loaded) {
+                    logger.warn("Tournament arena still loading after " + (waitedMs / 1000) + "s - teleporting anyway");
+                }
+                action.run();
+                return;
+            }
+            scheduler.schedule(() -> whenArenaLoaded(action, waitedMs + ARENA_LOAD_POLL_MS),
+                ARENA_LOAD_POLL_MS, TimeUnit.MILLISECONDS);
+        });
+    }
+    
+    /**
+     * Teleports, arrival and match announcements, and the weather reset
+     */
+    private void scheduleArrivals(List<ParticipantData> participants, List<MatchData> matches) {
         // Step 2: Teleport players one by one with 4 second intervals
         for (int i = 0; i < participants.size(); i++) {
             final int index = i;
@@ -780,9 +885,11 @@ public class TournamentManager {
         // Announce "all players ready"
         scheduler.schedule(() -> {
             server.execute(() -> {
-                announceToServer("");
-                announceToServer("§a§l✓ ¡TODOS LOS PARTICIPANTES HAN LLEGADO!");
-                announceToServer("");
+                announceToServer(ChatMessages.lines(
+                    "",
+                    "§a§l✓ ¡TODOS LOS PARTICIPANTES HAN LLEGADO!",
+                    ""
+                ));
             });
         }, afterTeleportsTime, TimeUnit.MILLISECONDS);
         
@@ -800,15 +907,17 @@ public class TournamentManager {
         long finalAnnouncementTime = afterTeleportsTime + 2000 + (matches.size() * 2000L) + 2000;
         scheduler.schedule(() -> {
             server.execute(() -> {
-                announceToServer("");
-                announceToServer("§6§l⚔ ═══════════════════════════════════════ ⚔");
-                announceToServer("");
-                announceToServer("§e§l          ¡QUE COMIENCE EL TORNEO!");
-                announceToServer("");
-                announceToServer("§a§l              ¡BUENA SUERTE A TODOS!");
-                announceToServer("");
-                announceToServer("§6§l⚔ ═══════════════════════════════════════ ⚔");
-                announceToServer("");
+                announceToServer(ChatMessages.lines(
+                    "",
+                    "§6§l⚔ ═══════════════════════════════════════ ⚔",
+                    "",
+                    "§e§l          ¡QUE COMIENCE EL TORNEO!",
+                    "",
+                    "§a§l              ¡BUENA SUERTE A TODOS!",
+                    "",
+                    "§6§l⚔ ═══════════════════════════════════════ ⚔",
+                    ""
+                ));
             });
         }, finalAnnouncementTime, TimeUnit.MILLISECONDS);
         
@@ -825,13 +934,15 @@ public class TournamentManager {
      * Announce a single match globally
      */
     private void announceMatch(MatchData match, int matchNumber, int totalMatches) {
-        announceToServer("");
-        announceToServer("§6§l⚔ COMBATE #" + matchNumber + " de " + totalMatches + " ⚔");
-        announceToServer("");
-        announceToServer("§c§l  " + match.player1Name);
-        announceToServer("§7§l         VS");
-        announceToServer("§9§l  " + match.player2Name);
-        announceToServer("");
+        announceToServer(ChatMessages.lines(
+            "",
+            "§6§l⚔ COMBATE #" + matchNumber + " de " + totalMatches + " ⚔",
+            "",
+            "§c§l  " + match.player1Name,
+            "§7§l         VS",
+            "§9§l  " + match.player2Name,
+            ""
+        ));
     }
     
     /**
@@ -871,15 +982,19 @@ public class TournamentManager {
         );
         
         // Global announcement of player arrival
-        announceToServer("");
-        announceToServer("§5⚡ §e§l" + participant.username + " §7ha llegado a la arena §8[§a" + (index + 1) + "§8/§a" + totalPlayers + "§8]");
+        announceToServer(ChatMessages.lines(
+            "",
+            "§5⚡ §e§l" + participant.username + " §7ha llegado a la arena §8[§a" + (index + 1) + "§8/§a" + totalPlayers + "§8]"
+        ));
         
         // Personal message to the player
-        player.sendMessage(Text.literal(""));
-        player.sendMessage(Text.literal("§5§l⚡ ¡BIENVENIDO AL TORNEO! ⚡"));
-        player.sendMessage(Text.literal("§7Tu seed: §e#" + participant.seed));
-        player.sendMessage(Text.literal("§7Posición: §a" + (index + 1) + " §7de §a" + totalPlayers));
-        player.sendMessage(Text.literal(""));
+        player.sendMessage(ChatMessages.lines(
+            "",
+            "§5§l⚡ ¡BIENVENIDO AL TORNEO! ⚡",
+            "§7Tu seed: §e#" + participant.seed,
+            "§7Posición: §a" + (index + 1) + " §7de §a" + totalPlayers,
+            ""
+        ));
         
         // Play thunder sound to everyone nearby
         for (ServerPlayerEntity nearby : server.getPlayerManager().getPlayerList()) {
@@ -901,6 +1016,9 @@ public class TournamentManager {
      * Triggers the epic teleport sequence with match announcements
      */
     public void onTournamentStart(String tournamentId) {
+        // Normally held since registration - this covers a tournament that skipped it between polls
+        server.execute(() -> arenaChunks.acquire(tournamentId));
+        
         // Fetch tournament participants and bracket
         httpClient.getAsync("/api/tournaments/" + tournamentId)
             .thenAccept(response -> {
@@ -1057,34 +1175,79 @@ public class TournamentManager {
      * Get cached tournament for a player
      */
     public CachedTournament getPlayerTournament(UUID playerUuid) {
-        return playerTournaments.get(playerUuid);
+        return playerTournaments.getIfPresent(playerUuid);
     }
     
     /**
      * Get active match for a player
      */
     public CachedMatch getPlayerActiveMatch(UUID playerUuid) {
-        return activeMatches.get(playerUuid);
+        return activeMatches.getIfPresent(playerUuid);
     }
     
-    public void shutdown() {
-        logger.info("Tournament system shutting down...");
-        scheduler.shutdown();
+    // ============================================
+    // WARM RESTART
+    // ============================================
+    
+    /**
+     * Write tournament caches to the snapshot (each entry keeps the lifetime it had left)
+     */
+    public void saveWarmCache(WarmCacheSnapshot snapshot) {
+        knownTournamentIds.forEach((id, known, writtenAt) ->
+            snapshot.put("tournament.known", id, GSON.toJsonTree(true), writtenAt + KNOWN_IDS_TTL_MS));
+        tournamentStatuses.forEach((id, status, writtenAt) ->
+            snapshot.put("tournament.status", id, GSON.toJsonTree(status), writtenAt + STATUS_TTL_MS));
+        playerTournaments.forEach((uuid, cached, writtenAt) ->
+            snapshot.put("tournament.player", uuid.toString(), GSON.toJsonTree(cached), writtenAt + PLAYER_TTL_MS));
+        activeMatches.forEach((uuid, match, writtenAt) ->
+            snapshot.put("tournament.match", uuid.toString(), GSON.toJsonTree(match), writtenAt + PLAYER_TTL_MS));
+    }
+    
+    /**
+     * Refill tournament caches from the snapshot (call before initialize, so the first poll
+     * does not re-announce tournaments that were already announced)
+     */
+    public void restoreWarmCache(WarmCacheSnapshot snapshot) {
+        for (String id : snapshot.take("tournament.known").keySet()) {
+            knownTournamentIds.put(id, Boolean.TRUE);
+        }
+        
+        for (Map.Entry<String, JsonElement> entry : snapshot.take("tournament.status").entrySet()) {
+            tournamentStatuses.put(entry.getKey(), entry.getValue().getAsString());
+        }
+        
         try {
-            if (!scheduler.awaitTermination(5, TimeUnit.SECONDS)) {
-                scheduler.shutdownNow();
+            for (Map.Entry<String, JsonElement> entry : snapshot.take("tournament.player").entrySet()) {
+                playerTournaments.put(UUID.fromString(entry.getKey()), GSON.fromJson(entry.getValue(), CachedTournament.class));
             }
-        } catch (InterruptedException e) {
-            scheduler.shutdownNow();
+            for (Map.Entry<String, JsonElement> entry : snapshot.take("tournament.match").entrySet()) {
+                activeMatches.put(UUID.fromString(entry.getKey()), GSON.fromJson(entry.getValue(), CachedMatch.class));
+            }
+        } catch (Exception e) {
+            logger.error("Error restoring tournament cache: " + e.getMessage());
         }
-        playerTournaments.clear();
-        activeMatches.clear();
-        knownTournamentIds.clear();
-        tournamentStatuses.clear();
+        
+        if (knownTournamentIds.size() > 0 || playerTournaments.size() > 0) {
+            logger.info("Restored tournament cache (" + knownTournamentIds.size() + " tournaments, "
+                + playerTournaments.size() + " players)");
+        }
+    }
+    
+    public void shutdown() {
+        logger.info("Tournament system shutting down...");
+        scheduler.shutdown(5, TimeUnit.SECONDS);
+        playerTournaments.invalidateAll();
+        activeMatches.invalidateAll();
+        knownTournamentIds.invalidateAll();
+        tournamentStatuses.invalidateAll();
         
         if (notificationManager != null) {
             notificationManager.shutdown();
         }
+        
+        if (arenaChunks != null) {
+            arenaChunks.releaseAll();
+        }
     }
     
     // ============================================
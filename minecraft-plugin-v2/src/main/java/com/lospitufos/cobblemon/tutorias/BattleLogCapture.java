@@ -6,13 +6,15 @@ import com.cobblemon.mod.common.api.events.CobblemonEvents;
 import com.cobblemon.mod.common.battles.actor.PlayerBattleActor;
 import com.cobblemon.mod.common.battles.pokemon.BattlePokemon;
 import com.cobblemon.mod.common.pokemon.Pokemon;
-import com.google.gson.JsonArray;
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
+import com.lospitufos.cobblemon.core.TaskScope;
+import com.lospitufos.cobblemon.sync.PokemonSerializer;
 import com.lospitufos.cobblemon.utils.HttpClient;
 import com.lospitufos.cobblemon.utils.ModLogger;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.network.ServerPlayerEntity;
 
+import java.io.IOException;
 import java.util.*;
 import java.util.concurrent.*;
 
@@ -23,7 +25,7 @@ import java.util.concurrent.*;
  * - Captures battle start/end events
  * - Records each turn's moves and damage
  * - Tracks Pokemon switches and faints
- * - Sends complete battle logs to backend for AI analysis
+ * - Sends complete battle logs to backend for AI analysis (spooled to disk first, see BattleLogSpool)
  * - Supports both PvP and PvE battles
  */
 public class BattleLogCapture {
@@ -35,12 +37,13 @@ public class BattleLogCapture {
     // Track active battles with their logs
     private final Map<UUID, BattleLog> activeBattles = new ConcurrentHashMap<>();
     
-    // Executor for async HTTP calls
-    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+    // Finished logs are spooled to disk and uploaded in the background
+    private final BattleLogSpool spool;
     
-    public BattleLogCapture(HttpClient httpClient, ModLogger logger) {
+    public BattleLogCapture(HttpClient httpClient, ModLogger logger, TaskScope spoolWriter, TaskScope spoolUploader) {
         this.httpClient = httpClient;
         this.logger = logger;
+        this.spool = new BattleLogSpool(httpClient, logger, spoolWriter, spoolUploader);
     }
     
     public void initialize(MinecraftServer server) {
@@ -49,6 +52,9 @@ public class BattleLogCapture {
         logger.info("[TUTORIAS] BattleLogCapture initializing...");
         logger.info("[TUTORIAS] Server: " + (server != null ? "OK" : "NULL"));
         
+        // Upload anything left over from the last run, then keep draining
+        spool.initialize();
+        
         // Register Cobblemon battle events
         registerBattleEvents();
         
@@ -254,70 +260,19 @@ public class BattleLogCapture {
     }
     
     /**
-     * Extract team data from a player battle actor
+     * Extract team data from a player battle actor (serialized once, at battle start)
      */
-    private JsonArray extractTeamData(PlayerBattleActor actor) {
-        JsonArray team = new JsonArray();
-        
+    private String extractTeamData(PlayerBattleActor actor) {
         try {
+            List<Pokemon> team = new ArrayList<>(6);
             for (BattlePokemon battlePokemon : actor.getPokemonList()) {
-                Pokemon pokemon = battlePokemon.getOriginalPokemon();
-                if (pokemon == null) continue;
-                
-                JsonObject pokeData = new JsonObject();
-                pokeData.addProperty("species", pokemon.getSpecies().getName());
-                pokeData.addProperty("level", pokemon.getLevel());
-                pokeData.addProperty("nature", pokemon.getNature().getName().getPath());
-                
-                // Ability
-                if (pokemon.getAbility() != null) {
-                    pokeData.addProperty("ability", pokemon.getAbility().getName());
-                }
-                
-                // Moves
-                JsonArray moves = new JsonArray();
-                pokemon.getMoveSet().forEach(move -> {
-                    if (move != null) {
-                        moves.add(move.getName());
-                    }
-                });
-                pokeData.add("moves", moves);
-                
-                // IVs
-                JsonObject ivs = new JsonObject();
-                ivs.addProperty("hp", pokemon.getIvs().get(com.cobblemon.mod.common.api.pokemon.stats.Stats.HP));
-                ivs.addProperty("attack", pokemon.getIvs().get(com.cobblemon.mod.common.api.pokemon.stats.Stats.ATTACK));
-                ivs.addProperty("defense", pokemon.getIvs().get(com.cobblemon.mod.common.api.pokemon.stats.Stats.DEFENCE));
-                ivs.addProperty("specialAttack", pokemon.getIvs().get(com.cobblemon.mod.common.api.pokemon.stats.Stats.SPECIAL_ATTACK));
-                ivs.addProperty("specialDefense", pokemon.getIvs().get(com.cobblemon.mod.common.api.pokemon.stats.Stats.SPECIAL_DEFENCE));
-                ivs.addProperty("speed", pokemon.getIvs().get(com.cobblemon.mod.common.api.pokemon.stats.Stats.SPEED));
-                pokeData.add("ivs", ivs);
-                
-                // EVs
-                JsonObject evs = new JsonObject();
-                evs.addProperty("hp", pokemon.getEvs().get(com.cobblemon.mod.common.api.pokemon.stats.Stats.HP));
-                evs.addProperty("attack", pokemon.getEvs().get(com.cobblemon.mod.common.api.pokemon.stats.Stats.ATTACK));
-                evs.addProperty("defense", pokemon.getEvs().get(com.cobblemon.mod.common.api.pokemon.stats.Stats.DEFENCE));
-                evs.addProperty("specialAttack", pokemon.getEvs().get(com.cobblemon.mod.common.api.pokemon.stats.Stats.SPECIAL_ATTACK));
-                evs.addProperty("specialDefense", pokemon.getEvs().get(com.cobblemon.mod.common.api.pokemon.stats.Stats.SPECIAL_DEFENCE));
-                evs.addProperty("speed", pokemon.getEvs().get(com.cobblemon.mod.common.api.pokemon.stats.Stats.SPEED));
-                pokeData.add("evs", evs);
-                
-                // Held item
-                if (pokemon.heldItem() != null && !pokemon.heldItem().isEmpty()) {
-                    pokeData.addProperty("heldItem", pokemon.heldItem().getName().getString());
-                }
-                
-                // Shiny status
-                pokeData.addProperty("shiny", pokemon.getShiny());
-                
-                team.add(pokeData);
+                team.add(battlePokemon.getOriginalPokemon());
             }
+            return PokemonSerializer.writeArray(team, PokemonSerializer.Schema.BATTLE_LOG);
         } catch (Exception e) {
             logger.error("Error extracting team data: " + e.getMessage());
+            return "[]";
         }
-        
-        return team;
     }
     
     /**
@@ -331,83 +286,63 @@ public class BattleLogCapture {
 
     
     /**
-     * Send battle log to backend
+     * Send battle log to backend (via the disk spool - never lost if the backend is down)
      */
     private void sendBattleLog(BattleLog log) {
-        executor.submit(() -> {
-            try {
-                logger.info("[TUTORIAS] Preparing battle log payload for: " + log.internalId);
+        try {
+            logger.info("[TUTORIAS] Preparing battle log payload for: " + log.internalId);
+            
+            byte[] payload = PokemonSerializer.write(out -> {
+                out.beginObject();
+                out.name("battleId").value(log.internalId.toString());
+                out.name("cobblemonBattleId").value(log.battleId.toString());
+                out.name("startTime").value(log.startTime);
+                out.name("endTime").value(log.endTime);
+                out.name("duration").value(log.endTime - log.startTime);
+                out.name("totalTurns").value(log.totalTurns);
+                out.name("result").value(log.result);
+                out.name("winnerUuid").value(log.winnerUuid.toString());
+                out.name("loserUuid").value(log.loserUuid.toString());
                 
-                JsonObject payload = new JsonObject();
-                payload.addProperty("battleId", log.internalId.toString());
-                payload.addProperty("cobblemonBattleId", log.battleId.toString());
-                payload.addProperty("startTime", log.startTime);
-                payload.addProperty("endTime", log.endTime);
-                payload.addProperty("duration", log.endTime - log.startTime);
-                payload.addProperty("totalTurns", log.totalTurns);
-                payload.addProperty("result", log.result);
-                payload.addProperty("winnerUuid", log.winnerUuid.toString());
-                payload.addProperty("loserUuid", log.loserUuid.toString());
-                
-                // Player 1 data
-                JsonObject player1Data = new JsonObject();
-                player1Data.addProperty("uuid", log.player1.uuid.toString());
-                if (log.player1.discordId != null) {
-                    player1Data.addProperty("discordId", log.player1.discordId);
-                }
-                player1Data.add("team", log.player1.team);
-                player1Data.addProperty("isWinner", log.player1.uuid.equals(log.winnerUuid));
-                payload.add("player1", player1Data);
-                
-                // Player 2 data
-                JsonObject player2Data = new JsonObject();
-                player2Data.addProperty("uuid", log.player2.uuid.toString());
-                if (log.player2.discordId != null) {
-                    player2Data.addProperty("discordId", log.player2.discordId);
-                }
-                player2Data.add("team", log.player2.team);
-                player2Data.addProperty("isWinner", log.player2.uuid.equals(log.winnerUuid));
-                payload.add("player2", player2Data);
+                // Player data (teams were serialized at battle start)
+                writePlayer(out, "player1", log.player1, log.winnerUuid);
+                writePlayer(out, "player2", log.player2, log.winnerUuid);
                 
                 // Turn data (if captured)
-                JsonArray turnsArray = new JsonArray();
+                out.name("turns").beginArray();
                 for (TurnData turn : log.turns) {
-                    JsonObject turnObj = new JsonObject();
-                    turnObj.addProperty("turn", turn.turnNumber);
-                    turnObj.addProperty("player1Move", turn.player1Move);
-                    turnObj.addProperty("player2Move", turn.player2Move);
-                    turnObj.addProperty("player1Pokemon", turn.player1ActivePokemon);
-                    turnObj.addProperty("player2Pokemon", turn.player2ActivePokemon);
+                    out.beginObject();
+                    out.name("turn").value(turn.turnNumber);
+                    out.name("player1Move").value(turn.player1Move);
+                    out.name("player2Move").value(turn.player2Move);
+                    out.name("player1Pokemon").value(turn.player1ActivePokemon);
+                    out.name("player2Pokemon").value(turn.player2ActivePokemon);
                     if (turn.notes != null) {
-                        turnObj.addProperty("notes", turn.notes);
-                    }
-                    turnsArray.add(turnObj);
-                }
-                payload.add("turns", turnsArray);
-                
-                logger.info("[TUTORIAS] Sending POST to /api/tutorias/battle-log/store");
-                
-                // Send to backend
-                JsonObject response = httpClient.post("/api/tutorias/battle-log/store", payload);
-                
-                if (response != null) {
-                    logger.info("[TUTORIAS] Response received: " + response.toString());
-                    if (response.has("success") && response.get("success").getAsBoolean()) {
-                        logger.info("[TUTORIAS] ✓ Battle log sent successfully: " + log.internalId);
-                    } else {
-                        String error = response.has("error") 
-                            ? response.get("error").getAsString() 
-                            : "Unknown error";
-                        logger.error("[TUTORIAS] ✗ Failed to send battle log: " + error);
+                        out.name("notes").value(turn.notes);
                     }
-                } else {
-                    logger.error("[TUTORIAS] ✗ No response from backend (null)");
+                    out.endObject();
                 }
-            } catch (Exception e) {
-                logger.error("[TUTORIAS] ✗ Error sending battle log: " + e.getMessage());
-                e.printStackTrace();
-            }
-        });
+                out.endArray();
+                out.endObject();
+            });
+            
+            spool.append(payload);
+            logger.info("[TUTORIAS] ✓ Battle log spooled for upload: " + log.internalId);
+        } catch (Exception e) {
+            logger.error("[TUTORIAS] ✗ Error preparing battle log: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+    
+    private static void writePlayer(JsonWriter out, String name, PlayerInfo player, UUID winnerUuid) throws IOException {
+        out.name(name).beginObject();
+        out.name("uuid").value(player.uuid.toString());
+        if (player.discordId != null) {
+            out.name("discordId").value(player.discordId);
+        }
+        out.name("team").jsonValue(player.team);
+        out.name("isWinner").value(player.uuid.equals(winnerUuid));
+        out.endObject();
     }
     
     /**
@@ -506,14 +441,7 @@ public class BattleLogCapture {
         }
         
         activeBattles.clear();
-        executor.shutdown();
-        try {
-            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
-                executor.shutdownNow();
-            }
-        } catch (InterruptedException e) {
-            executor.shutdownNow();
-        }
+        spool.shutdown();
         
         logger.info("BattleLogCapture shutdown complete");
     }
@@ -546,7 +474,7 @@ public class BattleLogCapture {
     private static class PlayerInfo {
         UUID uuid;
         String discordId;
-        JsonArray team;
+        String team;            // Serialized JSON array (PokemonSerializer)
     }
     
     /**
@@ -0,0 +1,462 @@
+package com.lospitufos.cobblemon.tutorias;
+
+import com.google.gson.JsonObject;
+import com.lospitufos.cobblemon.core.TaskScope;
+import com.lospitufos.cobblemon.utils.ConnectivityMonitor;
+import com.lospitufos.cobblemon.utils.HttpClient;
+import com.lospitufos.cobblemon.utils.ModLogger;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Battle Log Spool - completed battle logs go to disk first, then to the backend
+ *
+ * Features:
+ * - Rolling segment files in config/cobblemon-lospitufos-v2/battle-spool (gzip'd JSON per record)
+ * - Writer scope appends and rolls segments; uploader scope only reads closed segments (both quota 1, serial)
+ * - Uploader drains in batches, oldest segment first, with exponential backoff while the backend is down
+ * - Each batch goes out as one request body; one request per log only if the backend has no batch endpoint
+ * - Per-segment progress file, so a restart resumes instead of resending the whole segment
+ * - Logs the backend explicitly rejects are skipped, not retried forever
+ * - A segment cut short before its header (crash right after creating it) counts as empty and is deleted
+ * - Spool size capped - the oldest segment is dropped if the backend stays down for very long
+ */
+public class BattleLogSpool {
+
+    private static final String SPOOL_DIR = "config/cobblemon-lospitufos-v2/battle-spool";
+    private static final String OPEN_SEGMENT = "current.open";
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String POSITION_SUFFIX = ".pos";
+    private static final String UPLOAD_PATH = "/api/tutorias/battle-log/store";
+    private static final String BATCH_UPLOAD_PATH = "/api/tutorias/battle-log/store-batch";
+    private static final int MAGIC = 0x4C50424C; // "LPBL"
+
+    private static final long ROLL_AGE_MS = 5000;                  // Close a segment 5s after its first record
+    private static final long ROLL_SIZE_BYTES = 1024 * 1024;        // ...or once it reaches 1MB
+    private static final long MAX_SPOOL_BYTES = 64L * 1024 * 1024;  // Drop oldest segments past 64MB
+    private static final int UPLOAD_BATCH_SIZE = 25;                // Records per uploader pass
+    private static final int UPLOAD_BATCH_BYTES = 512 * 1024;       // ...and at most this much JSON per request
+    private static final long UPLOAD_INTERVAL_MS = 2000;
+    private static final long BACKOFF_INITIAL_MS = 5000;
+    private static final long BACKOFF_MAX_MS = 5 * 60 * 1000;
+
+    private final HttpClient httpClient;
+    private final ModLogger logger;
+    private final Path dir = Paths.get(SPOOL_DIR);
+    private final TaskScope writer;
+    private final TaskScope uploader;
+
+    // Writer scope only
+    private DataOutputStream openSegment;
+    private long openSegmentBytes = 0;
+    private long openSegmentSince = 0;
+    private long nextSegmentSeq;
+
+    // Uploader scope only
+    private long backoffMs = 0;
+    private long nextUploadAt = 0;
+    private boolean batchEndpoint = true;                           // Until the backend answers 404 to it
+
+    public BattleLogSpool(HttpClient httpClient, ModLogger logger, TaskScope writer, TaskScope uploader) {
+        this.httpClient = httpClient;
+        this.logger = logger;
+        this.writer = writer;
+        this.uploader = uploader;
+    }
+
+    public void initialize() {
+        try {
+            Files.createDirectories(dir);
+
+            // A segment left open by a crash is still valid up to its last whole record
+            Path leftover = dir.resolve(OPEN_SEGMENT);
+            nextSegmentSeq = Math.max(System.currentTimeMillis(), highestSegmentSeq() + 1);
+            if (Files.exists(leftover)) {
+                Files.move(leftover, dir.resolve(segmentName(nextSegmentSeq++)), StandardCopyOption.ATOMIC_MOVE);
+            }
+        } catch (IOException e) {
+            logger.error("[TUTORIAS] Could not prepare battle log spool: " + e.getMessage());
+        }
+
+        writer.scheduleWithFixedDelay(this::rollIfDue, ROLL_AGE_MS, ROLL_AGE_MS / 2, TimeUnit.MILLISECONDS);
+        uploader.scheduleWithFixedDelay(this::uploadPass, UPLOAD_INTERVAL_MS, UPLOAD_INTERVAL_MS, TimeUnit.MILLISECONDS);
+
+        // Drop the backoff as soon as the backend answers again
+        httpClient.getConnectivity().addListener((previous, current) -> {
+            if (current == ConnectivityMonitor.State.HEALTHY) {
+                uploader.execute(() -> {
+                    backoffMs = 0;
+                    nextUploadAt = 0;
+                });
+            }
+        });
+
+        int pending = closedSegments().size();
+        logger.info("[TUTORIAS] Battle log spool ready" + (pending > 0 ? " (" + pending + " segments pending upload)" : ""));
+    }
+
+    /**
+     * Queue a finished battle log (serialized JSON) for upload (never blocks the caller on I/O)
+     */
+    public void append(byte[] json) {
+        try {
+            writer.execute(() -> writeRecord(json));
+        } catch (RejectedExecutionException e) {
+            logger.error("[TUTORIAS] Battle log spool closed, log dropped");
+        }
+    }
+
+    // ============================================
+    // WRITER
+    // ============================================
+
+    private void writeRecord(byte[] json) {
+        try {
+            if (openSegment == null) {
+                openSegment = new DataOutputStream(new BufferedOutputStream(
+                    Files.newOutputStream(dir.resolve(OPEN_SEGMENT), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)));
+                openSegment.writeInt(MAGIC);
+                openSegmentBytes = 4;
+                openSegmentSince = System.currentTimeMillis();
+            }
+
+            byte[] compressed = gzip(json);
+            openSegment.writeInt(compressed.length);
+            openSegment.write(compressed);
+            openSegment.flush();
+            openSegmentBytes += 4 + compressed.length;
+
+            if (openSegmentBytes >= ROLL_SIZE_BYTES) {
+                roll();
+            }
+        } catch (IOException e) {
+            logger.error("[TUTORIAS] Error spooling battle log: " + e.getMessage());
+        }
+    }
+
+    private void rollIfDue() {
+        if (openSegment != null && System.currentTimeMillis() - openSegmentSince >= ROLL_AGE_MS) {
+            roll();
+        }
+    }
+
+    /**
+     * Close the open segment and hand it to the uploader
+     */
+    private void roll() {
+        if (openSegment == null) return;
+
+        try {
+            openSegment.close();
+            Files.move(dir.resolve(OPEN_SEGMENT), dir.resolve(segmentName(nextSegmentSeq++)), StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.error("[TUTORIAS] Error rolling battle log segment: " + e.getMessage());
+        } finally {
+            openSegment = null;
+            openSegmentBytes = 0;
+        }
+
+        enforceSpoolCap();
+    }
+
+    private void enforceSpoolCap() {
+        List<Path> segments = closedSegments();
+        long total = 0;
+        for (Path segment : segments) {
+            total += sizeOf(segment);
+        }
+
+        // Oldest first - those are the ones the backend has been refusing longest
+        for (int i = 0; i < segments.size() - 1 && total > MAX_SPOOL_BYTES; i++) {
+            Path oldest = segments.get(i);
+            total -= sizeOf(oldest);
+            deleteSegment(oldest);
+            logger.warn("[TUTORIAS] Battle log spool full - dropped " + oldest.getFileName());
+        }
+    }
+
+    // ============================================
+    // UPLOADER
+    // ============================================
+
+    private void uploadPass() {
+        if (httpClient.isOffline() || System.currentTimeMillis() < nextUploadAt) return;
+
+        List<Path> segments = closedSegments();
+        if (segments.isEmpty()) return;
+
+        Path segment = segments.get(0);
+        try {
+            List<byte[]> records = readRecords(segment);
+            int position = readPosition(segment);
+
+            // Next slice, bounded by count and by uncompressed size (always at least one record)
+            List<byte[]> batch = new ArrayList<>();
+            int batchBytes = 0;
+            for (int i = position; i < records.size() && batch.size() < UPLOAD_BATCH_SIZE; i++) {
+                byte[] json = gunzip(records.get(i));
+                if (!batch.isEmpty() && batchBytes + json.length > UPLOAD_BATCH_BYTES) break;
+                batch.add(json);
+                batchBytes += json.length;
+            }
+
+            if (!batch.isEmpty()) {
+                int sent = batchEndpoint ? uploadBatch(segment, position, batch) : uploadEach(segment, position, batch);
+                position += sent;
+                if (sent < batch.size()) {
+                    // Backend down or erroring - keep the rest, back off
+                    writePosition(segment, position);
+                    backOff();
+                    return;
+                }
+            }
+
+            if (position >= records.size()) {
+                deleteSegment(segment);
+            } else {
+                writePosition(segment, position);
+            }
+            backoffMs = 0;
+        } catch (IOException e) {
+            logger.error("[TUTORIAS] ✗ Error uploading battle logs: " + e.getMessage());
+            backOff();
+        } catch (Exception e) {
+            // Unreadable segment - nothing to retry
+            logger.error("[TUTORIAS] ✗ Corrupt battle log segment " + segment.getFileName() + ", dropping: " + e.getMessage());
+            deleteSegment(segment);
+        }
+    }
+
+    /**
+     * The whole slice in one request ({"logs": [...]}, stored bytes sent as-is).
+     * Returns how many records are done: all of them, or none if the backend didn't take the batch.
+     */
+    private int uploadBatch(Path segment, int position, List<byte[]> batch) {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        body.writeBytes("{\"logs\":[".getBytes(StandardCharsets.UTF_8));
+        for (int i = 0; i < batch.size(); i++) {
+            if (i > 0) body.write(',');
+            body.writeBytes(batch.get(i));
+        }
+        body.writeBytes("]}".getBytes(StandardCharsets.UTF_8));
+
+        HttpClient.PostOutcome outcome = httpClient.postOnce(BATCH_UPLOAD_PATH, body.toByteArray());
+        switch (outcome.status) {
+            case DELIVERED -> {
+                JsonObject response = outcome.response;
+                if (response.has("success") && !response.get("success").getAsBoolean()) {
+                    String error = response.has("error") ? response.get("error").getAsString() : "Unknown error";
+                    logger.error("[TUTORIAS] ✗ Backend rejected battle log batch, skipping: " + error);
+                } else if (response.has("rejected") && response.get("rejected").getAsInt() > 0) {
+                    logger.error("[TUTORIAS] ✗ Backend rejected " + response.get("rejected").getAsInt()
+                        + " of " + batch.size() + " battle logs, skipping them");
+                }
+                logger.debug("[TUTORIAS] ✓ " + batch.size() + " battle logs uploaded: " + segment.getFileName() + " #" + position);
+                return batch.size();
+            }
+            case REJECTED -> {
+                if (outcome.statusCode == 404 || outcome.statusCode == 405) {
+                    logger.warn("[TUTORIAS] Backend has no battle log batch endpoint - uploading one log per request");
+                    batchEndpoint = false;
+                    return uploadEach(segment, position, batch);
+                }
+                if (outcome.statusCode < 500) {
+                    // Refused as a whole - let the backend judge each log on its own
+                    return uploadEach(segment, position, batch);
+                }
+                return 0;
+            }
+            default -> {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * One request per record. Returns how many are done before the backend stopped answering
+     */
+    private int uploadEach(Path segment, int position, List<byte[]> batch) {
+        int sent = 0;
+        for (byte[] json : batch) {
+            if (uploader.isShutdown()) break;
+
+            JsonObject response;
+            try {
+                response = httpClient.post(UPLOAD_PATH, json);
+            } catch (IOException e) {
+                logger.error("[TUTORIAS] ✗ Error uploading battle log: " + e.getMessage());
+                break;
+            }
+            if (response == null) break;
+
+            if (response.has("success") && !response.get("success").getAsBoolean()) {
+                String error = response.has("error") ? response.get("error").getAsString() : "Unknown error";
+                logger.error("[TUTORIAS] ✗ Backend rejected battle log, skipping: " + error);
+            } else {
+                logger.debug("[TUTORIAS] ✓ Battle log uploaded: " + segment.getFileName() + " #" + (position + sent));
+            }
+            sent++;
+        }
+        return sent;
+    }
+
+    private void backOff() {
+        backoffMs = backoffMs == 0 ? BACKOFF_INITIAL_MS : Math.min(backoffMs * 2, BACKOFF_MAX_MS);
+        nextUploadAt = System.currentTimeMillis() + backoffMs;
+        logger.debug("[TUTORIAS] Battle log upload backing off for " + (backoffMs / 1000) + "s");
+    }
+
+    /**
+     * Every whole record in a segment (a torn tail from a crash is ignored).
+     * A segment that is gone, or ends before its header, has no records
+     */
+    private List<byte[]> readRecords(Path segment) throws IOException {
+        List<byte[]> records = new ArrayList<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(segment)))) {
+            int magic;
+            try {
+                magic = in.readInt();
+            } catch (EOFException shortHeader) {
+                return records;
+            }
+            if (magic != MAGIC) {
+                throw new IllegalStateException("bad segment header");
+            }
+            while (true) {
+                int length;
+                try {
+                    length = in.readInt();
+                } catch (EOFException end) {
+                    break;
+                }
+                byte[] record = new byte[length];
+                try {
+                    in.readFully(record);
+                } catch (EOFException torn) {
+                    break;
+                }
+                records.add(record);
+            }
+        } catch (NoSuchFileException gone) {
+            return records;
+        }
+        return records;
+    }
+
+    private int readPosition(Path segment) {
+        Path position = positionFile(segment);
+        if (!Files.exists(position)) return 0;
+        try {
+            return Integer.parseInt(Files.readString(position).trim());
+        } catch (Exception e) {
+            return 0;
+        }
+    }
+
+    private void writePosition(Path segment, int position) {
+        try {
+            Path file = positionFile(segment);
+            Path temp = dir.resolve(file.getFileName() + ".tmp");
+            Files.writeString(temp, Integer.toString(position));
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.debug("[TUTORIAS] Could not save spool position: " + e.getMessage());
+        }
+    }
+
+    // ============================================
+    // FILES
+    // ============================================
+
+    private List<Path> closedSegments() {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files
+                .filter(path -> path.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                .sorted()
+                .toList();
+        } catch (IOException e) {
+            return new ArrayList<>();
+        }
+    }
+
+    private long highestSegmentSeq() {
+        long highest = 0;
+        for (Path segment : closedSegments()) {
+            String name = segment.getFileName().toString();
+            try {
+                highest = Math.max(highest, Long.parseLong(name.substring("spool-".length(), name.length() - SEGMENT_SUFFIX.length())));
+            } catch (Exception ignored) {
+                // Not one of ours
+            }
+        }
+        return highest;
+    }
+
+    private static String segmentName(long seq) {
+        // Zero-padded so name order is upload order
+        return String.format("spool-%019d%s", seq, SEGMENT_SUFFIX);
+    }
+
+    private Path positionFile(Path segment) {
+        return dir.resolve(segment.getFileName() + POSITION_SUFFIX);
+    }
+
+    private void deleteSegment(Path segment) {
+        try {
+            Files.deleteIfExists(segment);
+            Files.deleteIfExists(positionFile(segment));
+        } catch (IOException e) {
+            logger.error("[TUTORIAS] Could not delete battle log segment: " + e.getMessage());
+        }
+    }
+
+    private static long sizeOf(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(data.length / 4 + 64);
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(data);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] gunzip(byte[] data) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(data))) {
+            return in.readAllBytes();
+        }
+    }
+
+    /**
+     * Write out everything queued and close the open segment; unsent logs stay on disk for next start
+     */
+    public void shutdown() {
+        // An upload pass in progress stops after its current record and saves its position
+        uploader.shutdown(0, TimeUnit.SECONDS);
+
+        try {
+            writer.execute(this::roll);
+        } catch (RejectedExecutionException ignored) {
+            // Already shut down
+        }
+        writer.shutdown(5, TimeUnit.SECONDS);
+
+        int pending = closedSegments().size();
+        if (pending > 0) {
+            logger.info("[TUTORIAS] " + pending + " battle log segments kept on disk for the next start");
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.lospitufos.cobblemon.tutorias;
 
+import com.lospitufos.cobblemon.core.TaskScope;
 import com.lospitufos.cobblemon.utils.HttpClient;
 import com.lospitufos.cobblemon.utils.ModLogger;
 import net.minecraft.server.MinecraftServer;
@@ -15,13 +16,17 @@ public class TutoriasManager {
     
     private final HttpClient httpClient;
     private final ModLogger logger;
+    private final TaskScope spoolWriter;
+    private final TaskScope spoolUploader;
     private MinecraftServer server;
     private BattleLogCapture battleLogCapture;
     private boolean enabled = true;
     
-    public TutoriasManager(HttpClient httpClient, ModLogger logger) {
+    public TutoriasManager(HttpClient httpClient, ModLogger logger, TaskScope spoolWriter, TaskScope spoolUploader) {
         this.httpClient = httpClient;
         this.logger = logger;
+        this.spoolWriter = spoolWriter;
+        this.spoolUploader = spoolUploader;
     }
     
     public void initialize(MinecraftServer server) {
@@ -31,7 +36,7 @@ public class TutoriasManager {
         logger.info("[TUTORIAS] TutoriasManager initializing...");
         
         // Initialize battle log capture
-        battleLogCapture = new BattleLogCapture(httpClient, logger);
+        battleLogCapture = new BattleLogCapture(httpClient, logger, spoolWriter, spoolUploader);
         battleLogCapture.initialize(server);
         
         logger.info("[TUTORIAS] ✓ Tutorías system initialized - Battle logging ENABLED");
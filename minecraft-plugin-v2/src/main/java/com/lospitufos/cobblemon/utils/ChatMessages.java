@@ -0,0 +1,117 @@
+package com.lospitufos.cobblemon.utils;
+
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.text.MutableText;
+import net.minecraft.text.Text;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Chat message composition helpers
+ *
+ * Features:
+ * - Builds multi-line announcements as ONE Text (one chat packet per player)
+ * - Each line is its own sibling, so § formatting resets per line like separate messages
+ * - Broadcasts reuse the same Text instance for every recipient
+ * - Small template cache for messages that repeat with the same arguments
+ *
+ * Composed Text instances are shared - never mutate them after build().
+ */
+public final class ChatMessages {
+
+    private static final int MAX_CACHED_TEMPLATES = 256;
+    private static final Map<String, Text> templateCache = new ConcurrentHashMap<>();
+
+    private ChatMessages() {}
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Compose plain § lines into a single Text
+     */
+    public static Text lines(String... lines) {
+        Builder builder = new Builder();
+        for (String line : lines) {
+            builder.line(line);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Get a composed message from the template cache, building it on first use.
+     * The key must include every argument that changes the rendered output.
+     */
+    public static Text cached(String key, Supplier<Text> factory) {
+        Text cached = templateCache.get(key);
+        if (cached != null) return cached;
+
+        // Bounded: a full cache is simply reset (keys are cheap to rebuild)
+        if (templateCache.size() >= MAX_CACHED_TEMPLATES) {
+            templateCache.clear();
+        }
+
+        Text built = factory.get();
+        templateCache.put(key, built);
+        return built;
+    }
+
+    /**
+     * Drop cached templates whose key starts with the given prefix
+     */
+    public static void invalidate(String keyPrefix) {
+        templateCache.keySet().removeIf(key -> key.startsWith(keyPrefix));
+    }
+
+    /**
+     * Send one pre-built message to every online player. MUST run on main thread.
+     */
+    public static void broadcast(MinecraftServer server, Text message) {
+        if (server == null || message == null) return;
+
+        for (ServerPlayerEntity player : server.getPlayerManager().getPlayerList()) {
+            if (player != null && !player.isDisconnected()) {
+                player.sendMessage(message);
+            }
+        }
+    }
+
+    /**
+     * Line-by-line builder for a single multi-line Text
+     */
+    public static final class Builder {
+        private final MutableText root = Text.empty();
+        private boolean empty = true;
+
+        private Builder() {}
+
+        public Builder line(String line) {
+            return line(Text.literal(line));
+        }
+
+        public Builder line(Text line) {
+            if (!empty) {
+                root.append(Text.literal("\n"));
+            }
+            root.append(line);
+            empty = false;
+            return this;
+        }
+
+        public Builder blank() {
+            return line("");
+        }
+
+        public Builder lineIf(boolean condition, String line) {
+            return condition ? line(line) : this;
+        }
+
+        public Text build() {
+            return root;
+        }
+    }
+}
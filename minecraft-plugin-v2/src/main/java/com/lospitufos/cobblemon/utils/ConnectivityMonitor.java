@@ -0,0 +1,177 @@
+package com.lospitufos.cobblemon.utils;
+
+import com.lospitufos.cobblemon.core.TaskScope;
+
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Connectivity Monitor - plugin-wide view of whether the web backend is reachable
+ *
+ * Features:
+ * - HEALTHY -> DEGRADED on the first transport failure (connect error, timeout, 5xx)
+ * - DEGRADED -> OFFLINE after OFFLINE_THRESHOLD consecutive failures
+ * - Any answer from the backend -> HEALTHY
+ * - While OFFLINE a single background probe checks the backend with backoff (5s up to 60s);
+ *   regular requests fail fast instead of waiting on timeouts
+ * - Listeners are told about every transition (used to suspend pollers and reconcile on recovery)
+ * - Fed by HttpClient only - managers read it, they never report to it
+ */
+public class ConnectivityMonitor {
+
+    public enum State { HEALTHY, DEGRADED, OFFLINE }
+
+    /**
+     * Called on the thread that caused the transition - hop to the main thread if needed
+     */
+    @FunctionalInterface
+    public interface Listener {
+        void onStateChanged(State previous, State current);
+    }
+
+    private static final int OFFLINE_THRESHOLD = 3;
+    private static final long PROBE_INITIAL_MS = 5000;
+    private static final long PROBE_MAX_MS = 60000;
+
+    private final ModLogger logger;
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final TaskScope prober;
+    private BooleanSupplier probe;
+
+    private State state = State.HEALTHY;
+    private int consecutiveFailures = 0;
+    private long stateSince = System.currentTimeMillis();
+    private long probeDelayMs = PROBE_INITIAL_MS;
+    private ScheduledFuture<?> pendingProbe;
+
+    public ConnectivityMonitor(ModLogger logger, TaskScope prober) {
+        this.logger = logger;
+        this.prober = prober;
+    }
+
+    /**
+     * Set the reachability check run while OFFLINE (true = backend answered)
+     */
+    void setProbe(BooleanSupplier probe) {
+        this.probe = probe;
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    // ============================================
+    // REPORTING (HttpClient)
+    // ============================================
+
+    void recordSuccess() {
+        State previous;
+        synchronized (this) {
+            consecutiveFailures = 0;
+            if (state == State.HEALTHY) return;
+            previous = state;
+            transition(State.HEALTHY);
+        }
+        fire(previous, State.HEALTHY);
+    }
+
+    void recordFailure() {
+        State previous;
+        State next;
+        synchronized (this) {
+            consecutiveFailures++;
+            next = consecutiveFailures >= OFFLINE_THRESHOLD ? State.OFFLINE : State.DEGRADED;
+            if (next == state || state == State.OFFLINE) return;
+            previous = state;
+            transition(next);
+            if (next == State.OFFLINE) {
+                probeDelayMs = PROBE_INITIAL_MS;
+                scheduleProbe();
+            }
+        }
+        fire(previous, next);
+    }
+
+    // ============================================
+    // QUERIES
+    // ============================================
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public boolean isOffline() {
+        return getState() == State.OFFLINE;
+    }
+
+    /**
+     * How long the current state has lasted (how stale cached backend data may be when not HEALTHY)
+     */
+    public synchronized long getStateAgeMs() {
+        return System.currentTimeMillis() - stateSince;
+    }
+
+    // ============================================
+    // INTERNALS
+    // ============================================
+
+    private void transition(State next) {
+        state = next;
+        stateSince = System.currentTimeMillis();
+        if (next != State.OFFLINE && pendingProbe != null) {
+            pendingProbe.cancel(false);
+            pendingProbe = null;
+        }
+    }
+
+    private void scheduleProbe() {
+        try {
+            pendingProbe = prober.schedule(this::runProbe, probeDelayMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException ignored) {
+            // Shutting down
+        }
+    }
+
+    private void runProbe() {
+        boolean reachable;
+        try {
+            reachable = probe != null && probe.getAsBoolean();
+        } catch (Exception e) {
+            reachable = false;
+        }
+
+        if (reachable) {
+            recordSuccess();
+            return;
+        }
+
+        synchronized (this) {
+            if (state != State.OFFLINE) return;
+            probeDelayMs = Math.min(probeDelayMs * 2, PROBE_MAX_MS);
+            scheduleProbe();
+        }
+    }
+
+    private void fire(State previous, State current) {
+        if (current == State.HEALTHY) {
+            logger.info("✓ Backend reachable again (was " + previous + ")");
+        } else if (current == State.OFFLINE) {
+            logger.warn("Backend OFFLINE - pollers suspended, mutations queued locally until it comes back");
+        } else {
+            logger.warn("Backend DEGRADED - requests are failing, using short timeouts");
+        }
+
+        for (Listener listener : listeners) {
+            try {
+                listener.onStateChanged(previous, current);
+            } catch (Exception e) {
+                logger.error("Error in connectivity listener: " + e.getMessage());
+            }
+        }
+    }
+
+    public void shutdown() {
+        prober.shutdown(0, TimeUnit.SECONDS);
+    }
+}
@@ -4,6 +4,7 @@ import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
+import com.lospitufos.cobblemon.core.TaskScope;
 
 import java.io.*;
 import java.net.HttpURLConnection;
@@ -13,6 +14,7 @@ import java.util.concurrent.*;
 
 /**
  * HTTP Client for making async requests to the web API
+ * Reports every outcome to a ConnectivityMonitor; while the backend is OFFLINE requests fail fast
  */
 public class HttpClient {
 
@@ -20,16 +22,33 @@ public class HttpClient {
     private static final int TIMEOUT_MS = 60000; // 60 seconds - increased for slow connections
     private static final int MAX_RETRIES = 3; // Maximum retry attempts
     private static final int INITIAL_RETRY_DELAY_MS = 1000; // Start with 1 second
+    private static final int DEGRADED_CONNECT_TIMEOUT_MS = 5000; // Don't wait a minute on a backend that is already failing
+    private static final int PROBE_TIMEOUT_MS = 5000;
+    private static final String PROBE_ENDPOINT = "/health";
 
     private final String baseUrl;
     private final ModLogger logger;
-    private final ExecutorService executor;
+    private final TaskScope executor;
+    private final ConnectivityMonitor connectivity;
 
-    public HttpClient(String baseUrl, ModLogger logger) {
+    public HttpClient(String baseUrl, ModLogger logger, TaskScope requests, TaskScope probes) {
         this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
         this.logger = logger;
-        // Increased thread pool to 8 for better concurrency
-        this.executor = Executors.newFixedThreadPool(8);
+        // Up to 8 requests in flight on the shared workers (blocking I/O)
+        this.executor = requests;
+        this.connectivity = new ConnectivityMonitor(logger, probes);
+        this.connectivity.setProbe(this::probe);
+    }
+
+    public ConnectivityMonitor getConnectivity() {
+        return connectivity;
+    }
+
+    /**
+     * True while the backend is considered OFFLINE - pollers should skip their run
+     */
+    public boolean isOffline() {
+        return connectivity.isOffline();
     }
 
     /**
@@ -39,6 +58,9 @@ public class HttpClient {
         return CompletableFuture.supplyAsync(() -> {
             try {
                 return get(endpoint);
+            } catch (BackendOfflineException e) {
+                logger.debug("GET skipped (backend offline): " + endpoint);
+                return null;
             } catch (IOException e) {
                 logger.error("GET request failed: " + endpoint, e);
                 return null;
@@ -63,11 +85,12 @@ public class HttpClient {
         try {
             conn = (HttpURLConnection) url.openConnection();
             conn.setRequestMethod("GET");
-            conn.setConnectTimeout(TIMEOUT_MS);
+            conn.setConnectTimeout(connectTimeoutMs());
             conn.setReadTimeout(TIMEOUT_MS);
             conn.setRequestProperty("Content-Type", "application/json");
 
             int responseCode = conn.getResponseCode();
+            recordStatus(responseCode);
 
             if (responseCode == 200) {
                 try (BufferedReader reader = new BufferedReader(
@@ -116,6 +139,26 @@ public class HttpClient {
         return CompletableFuture.supplyAsync(() -> {
             try {
                 return post(endpoint, payload);
+            } catch (BackendOfflineException e) {
+                logger.debug("POST skipped (backend offline): " + endpoint);
+                return null;
+            } catch (IOException e) {
+                logger.error("POST request failed: " + endpoint, e);
+                return null;
+            }
+        }, executor);
+    }
+
+    /**
+     * Async POST of an already-serialized JSON body (see PokemonSerializer)
+     */
+    public CompletableFuture<JsonObject> postAsync(String endpoint, byte[] json) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return post(endpoint, json);
+            } catch (BackendOfflineException e) {
+                logger.debug("POST skipped (backend offline): " + endpoint);
+                return null;
             } catch (IOException e) {
                 logger.error("POST request failed: " + endpoint, e);
                 return null;
@@ -127,31 +170,39 @@ public class HttpClient {
      * Sync POST request with retry logic
      */
     public JsonObject post(String endpoint, JsonObject payload) throws IOException {
-        return executeWithRetry(() -> postInternal(endpoint, payload), endpoint, "POST");
+        byte[] json = GSON.toJson(payload).getBytes(StandardCharsets.UTF_8);
+        return post(endpoint, json);
+    }
+
+    /**
+     * Sync POST of an already-serialized JSON body, with retry logic
+     */
+    public JsonObject post(String endpoint, byte[] json) throws IOException {
+        return executeWithRetry(() -> postInternal(endpoint, json), endpoint, "POST");
     }
 
     /**
      * Internal POST request implementation
      */
-    private JsonObject postInternal(String endpoint, JsonObject payload) throws IOException {
+    private JsonObject postInternal(String endpoint, byte[] json) throws IOException {
         URL url = new URL(baseUrl + endpoint);
         HttpURLConnection conn = null;
 
         try {
             conn = (HttpURLConnection) url.openConnection();
             conn.setRequestMethod("POST");
-            conn.setConnectTimeout(TIMEOUT_MS);
+            conn.setConnectTimeout(connectTimeoutMs());
             conn.setReadTimeout(TIMEOUT_MS);
             conn.setRequestProperty("Content-Type", "application/json");
             conn.setDoOutput(true);
 
             // Write payload
             try (OutputStream os = conn.getOutputStream()) {
-                byte[] input = GSON.toJson(payload).getBytes(StandardCharsets.UTF_8);
-                os.write(input, 0, input.length);
+                os.write(json, 0, json.length);
             }
 
             int responseCode = conn.getResponseCode();
+            recordStatus(responseCode);
 
             if (responseCode >= 200 && responseCode < 300) {
                 try (BufferedReader reader = new BufferedReader(
@@ -193,24 +244,140 @@ public class HttpClient {
         }
     }
 
+    /**
+     * Async single POST attempt (no retries) - see postOnce
+     */
+    public CompletableFuture<PostOutcome> postOnceAsync(String endpoint, JsonObject payload) {
+        return CompletableFuture.supplyAsync(() -> postOnce(endpoint, payload), executor);
+    }
+
+    /**
+     * One POST attempt for non-idempotent mutations (Outbox, delivery acks).
+     * Tells apart "never reached the backend" (safe to resend) from "may have been applied" (not safe).
+     */
+    public PostOutcome postOnce(String endpoint, JsonObject payload) {
+        return postOnce(endpoint, GSON.toJson(payload).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * One POST attempt of an already-serialized JSON body - see postOnce(String, JsonObject)
+     */
+    public PostOutcome postOnce(String endpoint, byte[] json) {
+        if (connectivity.isOffline()) {
+            return PostOutcome.notSent("backend offline");
+        }
+
+        HttpURLConnection conn = null;
+        try {
+            conn = (HttpURLConnection) new URL(baseUrl + endpoint).openConnection();
+            conn.setRequestMethod("POST");
+            conn.setConnectTimeout(connectTimeoutMs());
+            conn.setReadTimeout(TIMEOUT_MS);
+            conn.setRequestProperty("Content-Type", "application/json");
+            conn.setDoOutput(true);
+
+            try {
+                conn.connect();
+            } catch (IOException e) {
+                // No connection, no request - the backend never saw it
+                connectivity.recordFailure();
+                return PostOutcome.notSent(e.getMessage());
+            }
+
+            try (OutputStream os = conn.getOutputStream()) {
+                os.write(json, 0, json.length);
+            }
+
+            int responseCode = conn.getResponseCode();
+            recordStatus(responseCode);
+
+            if (responseCode < 200 || responseCode >= 300) {
+                logger.warn("POST rejected: " + endpoint + " (Status: " + responseCode + ")");
+                return PostOutcome.rejected(responseCode);
+            }
+
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(conn.getInputStream(), StandardCharsets.UTF_8))) {
+                return PostOutcome.delivered(JsonParser.parseReader(reader).getAsJsonObject());
+            } catch (RuntimeException e) {
+                // Accepted, just not a JSON object body
+                return PostOutcome.delivered(new JsonObject());
+            }
+        } catch (IOException e) {
+            // Connected but no answer (timeout, reset) - the backend may have applied it
+            connectivity.recordFailure();
+            return PostOutcome.unknown(e.getMessage());
+        } finally {
+            if (conn != null) {
+                conn.disconnect();
+            }
+        }
+    }
+
+    /**
+     * Result of a single POST attempt
+     */
+    public static final class PostOutcome {
+        public enum Status {
+            DELIVERED, // 2xx - response holds the body
+            REJECTED,  // Non-2xx answer - final, resending won't change it
+            NOT_SENT,  // Never reached the backend - safe to resend
+            UNKNOWN    // Sent but no answer - may or may not have been applied
+        }
+
+        public final Status status;
+        public final JsonObject response;
+        public final int statusCode;
+        public final String error;
+
+        private PostOutcome(Status status, JsonObject response, int statusCode, String error) {
+            this.status = status;
+            this.response = response;
+            this.statusCode = statusCode;
+            this.error = error;
+        }
+
+        static PostOutcome delivered(JsonObject response) {
+            return new PostOutcome(Status.DELIVERED, response, 200, null);
+        }
+
+        static PostOutcome rejected(int statusCode) {
+            return new PostOutcome(Status.REJECTED, null, statusCode, "HTTP " + statusCode);
+        }
+
+        public static PostOutcome notSent(String error) {
+            return new PostOutcome(Status.NOT_SENT, null, 0, error);
+        }
+
+        public static PostOutcome unknown(String error) {
+            return new PostOutcome(Status.UNKNOWN, null, 0, error);
+        }
+    }
+
     /**
      * Execute request with exponential backoff retry logic
      */
     private JsonObject executeWithRetry(IOSupplier<JsonObject> supplier, String endpoint, String method)
             throws IOException {
+        if (connectivity.isOffline()) {
+            throw new BackendOfflineException(endpoint);
+        }
+
+        // Only a healthy backend earns retries - a failing one gets a single quick attempt
+        int maxAttempts = connectivity.getState() == ConnectivityMonitor.State.HEALTHY ? MAX_RETRIES : 1;
         int attempt = 0;
         IOException lastException = null;
 
-        while (attempt < MAX_RETRIES) {
+        while (attempt < maxAttempts) {
             try {
                 return supplier.get();
             } catch (java.net.SocketTimeoutException | java.net.ConnectException e) {
                 lastException = e;
                 attempt++;
 
-                if (attempt < MAX_RETRIES) {
+                if (attempt < maxAttempts) {
                     int delayMs = INITIAL_RETRY_DELAY_MS * (int) Math.pow(2, attempt - 1);
-                    logger.warn(method + " request failed (attempt " + attempt + "/" + MAX_RETRIES + "): " + endpoint +
+                    logger.warn(method + " request failed (attempt " + attempt + "/" + maxAttempts + "): " + endpoint +
                             ". Retrying in " + delayMs + "ms...");
 
                     try {
@@ -220,14 +387,59 @@ public class HttpClient {
                         throw new IOException("Request interrupted during retry", ie);
                     }
                 } else {
-                    logger.error(method + " request failed after " + MAX_RETRIES + " attempts: " + endpoint);
+                    logger.error(method + " request failed after " + maxAttempts + " attempts: " + endpoint);
                 }
             }
         }
 
+        connectivity.recordFailure();
         throw lastException;
     }
 
+    /**
+     * Any answer below 500 means the backend is up, even if it rejected this request
+     */
+    private void recordStatus(int responseCode) {
+        if (responseCode >= 500) {
+            connectivity.recordFailure();
+        } else {
+            connectivity.recordSuccess();
+        }
+    }
+
+    private int connectTimeoutMs() {
+        return connectivity.getState() == ConnectivityMonitor.State.HEALTHY ? TIMEOUT_MS : DEGRADED_CONNECT_TIMEOUT_MS;
+    }
+
+    /**
+     * Reachability check used by the connectivity monitor while OFFLINE (any HTTP status counts)
+     */
+    private boolean probe() {
+        HttpURLConnection conn = null;
+        try {
+            conn = (HttpURLConnection) new URL(baseUrl + PROBE_ENDPOINT).openConnection();
+            conn.setRequestMethod("GET");
+            conn.setConnectTimeout(PROBE_TIMEOUT_MS);
+            conn.setReadTimeout(PROBE_TIMEOUT_MS);
+            return conn.getResponseCode() > 0 && conn.getResponseCode() < 500;
+        } catch (IOException e) {
+            return false;
+        } finally {
+            if (conn != null) {
+                conn.disconnect();
+            }
+        }
+    }
+
+    /**
+     * Thrown instead of touching the network while the backend is OFFLINE
+     */
+    public static class BackendOfflineException extends IOException {
+        public BackendOfflineException(String endpoint) {
+            super("Backend offline, request not sent: " + endpoint);
+        }
+    }
+
     /**
      * Functional interface for IO operations
      */
@@ -237,16 +449,10 @@ public class HttpClient {
     }
 
     /**
-     * Shutdown executor
+     * Stop the probe and let in-flight requests finish (threads belong to the PluginRuntime)
      */
     public void shutdown() {
-        executor.shutdown();
-        try {
-            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
-                executor.shutdownNow();
-            }
-        } catch (InterruptedException e) {
-            executor.shutdownNow();
-        }
+        connectivity.shutdown();
+        executor.shutdown(5, TimeUnit.SECONDS);
     }
 }
@@ -0,0 +1,193 @@
+package com.lospitufos.cobblemon.utils;
+
+import com.lospitufos.cobblemon.cache.TimerWheel;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.text.Text;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Shared token-bucket rate limiter keyed by (player, action)
+ *
+ * Features:
+ * - One AtomicLongArray per player, one packed slot per action
+ * - Updates run inside ConcurrentHashMap.compute on the player's key (safe from main thread, schedulers
+ *   and HTTP callbacks), so a release can never drop a bucket an acquire is drawing from; reads stay lock-free
+ * - Lazy refill on access - no periodic sweeps
+ * - Burst / refill per action, overridable from config
+ * - Players are dropped on disconnect, or by a one-shot timer once their slowest bucket is full again
+ *
+ * Slot layout: [ last refill (ms, 48 bits) | tokens (16 bits) ], 0 = untouched (full)
+ */
+public class RateLimiter {
+
+    /** Key for server-wide limits (e.g. OP commands that hit every player) */
+    public static final UUID GLOBAL = new UUID(0L, 0L);
+
+    public enum Action {
+        GACHA_CLAIM(1, 5_000),        // /claimgacha
+        GACHA_POLL(1, 60_000),        // Background pending-rewards poll per player
+        SHOP_CLAIM(2, 10_000),        // /claimshop
+        MARKET_CLAIM(2, 10_000),      // /claimmarket
+        SYNC_NOW(1, 30_000),          // /syncnow
+        CASINO(3, 5_000),             // /casino deposit|withdraw|balance
+        RANKING_SYNC(1, 60_000);      // /ranking sync (GLOBAL)
+
+        private final int defaultBurst;
+        private final long defaultRefillMs;
+
+        Action(int defaultBurst, long defaultRefillMs) {
+            this.defaultBurst = defaultBurst;
+            this.defaultRefillMs = defaultRefillMs;
+        }
+    }
+
+    private static final Action[] ACTIONS = Action.values();
+    private static final long TOKEN_MASK = 0xFFFFL;
+    private static final int MAX_BURST = (int) TOKEN_MASK;
+
+    private final ModLogger logger;
+    private final TimerWheel timers;
+    private final Map<UUID, AtomicLongArray> buckets = new ConcurrentHashMap<>();
+    private final Map<UUID, TimerWheel.Timeout> pendingReleases = new ConcurrentHashMap<>();
+    private final int[] burst = new int[ACTIONS.length];
+    private final long[] refillMs = new long[ACTIONS.length];
+    private final long origin = System.nanoTime();
+
+    public RateLimiter(ModLogger logger, TimerWheel timers) {
+        this.logger = logger;
+        this.timers = timers;
+        for (Action action : ACTIONS) {
+            burst[action.ordinal()] = action.defaultBurst;
+            refillMs[action.ordinal()] = action.defaultRefillMs;
+        }
+    }
+
+    /**
+     * Apply overrides from config (keys are action names, case-insensitive)
+     */
+    public void configure(Map<String, int[]> overrides) {
+        if (overrides == null) return;
+
+        for (Map.Entry<String, int[]> entry : overrides.entrySet()) {
+            try {
+                Action action = Action.valueOf(entry.getKey().toUpperCase());
+                int[] values = entry.getValue();
+                if (values == null || values.length < 2 || values[0] < 1 || values[1] < 1) {
+                    logger.warn("Ignoring invalid rate limit for " + entry.getKey() + " (expected [burst, refillMs])");
+                    continue;
+                }
+                burst[action.ordinal()] = Math.min(values[0], MAX_BURST);
+                refillMs[action.ordinal()] = values[1];
+            } catch (IllegalArgumentException e) {
+                logger.warn("Unknown rate limit action in config: " + entry.getKey());
+            }
+        }
+    }
+
+    /**
+     * Take one token for (key, action). Returns false if the bucket is empty.
+     */
+    public boolean tryAcquire(UUID key, Action action) {
+        int i = action.ordinal();
+        int capacity = burst[i];
+        long interval = refillMs[i];
+        boolean[] acquired = new boolean[1];
+
+        buckets.compute(key, (k, slots) -> {
+            if (slots == null) {
+                slots = new AtomicLongArray(ACTIONS.length);
+            }
+
+            long now = now();
+            long state = slots.get(i);
+            long last = state == 0 ? now : state >>> 16;
+            long tokens = state == 0 ? capacity : state & TOKEN_MASK;
+
+            long regained = (now - last) / interval;
+            if (regained > 0) {
+                tokens = Math.min(capacity, tokens + regained);
+                last = tokens == capacity ? now : last + regained * interval;
+            }
+
+            if (tokens > 0) {
+                slots.set(i, pack(last, tokens - 1));
+                acquired[0] = true;
+            }
+            return slots;
+        });
+        return acquired[0];
+    }
+
+    /**
+     * Milliseconds until (key, action) has a token again, 0 if available now
+     */
+    public long getRetryAfterMs(UUID key, Action action) {
+        AtomicLongArray slots = buckets.get(key);
+        if (slots == null) return 0;
+
+        int i = action.ordinal();
+        long state = slots.get(i);
+        if (state == 0 || (state & TOKEN_MASK) > 0) return 0;
+
+        long elapsed = now() - (state >>> 16);
+        return Math.max(0, refillMs[i] - elapsed);
+    }
+
+    /**
+     * Acquire for a player, telling them how long to wait when limited
+     */
+    public boolean tryAcquire(ServerPlayerEntity player, Action action) {
+        if (player == null) return true;
+
+        if (tryAcquire(player.getUuid(), action)) return true;
+
+        long seconds = Math.max(1, (getRetryAfterMs(player.getUuid(), action) + 999) / 1000);
+        player.sendMessage(Text.literal("§cEspera " + seconds + " segundos antes de usar este comando de nuevo."));
+        return false;
+    }
+
+    /**
+     * Drop a player's buckets once they are all full again (called on disconnect).
+     * A full bucket behaves exactly like a missing one, so dropping is safe even if the player is back.
+     */
+    public void release(UUID key) {
+        TimerWheel.Timeout previous = pendingReleases.remove(key);
+        if (previous != null) previous.cancel();
+
+        long[] retryInMs = new long[1];
+
+        // Checked and dropped under the key's lock - no acquire can draw from it in between
+        buckets.computeIfPresent(key, (k, slots) -> {
+            long now = now();
+            long fullAt = now;
+            for (int i = 0; i < ACTIONS.length; i++) {
+                long state = slots.get(i);
+                if (state == 0) continue;
+                long missing = burst[i] - (state & TOKEN_MASK);
+                fullAt = Math.max(fullAt, (state >>> 16) + missing * refillMs[i]);
+            }
+
+            if (fullAt <= now) return null;
+            retryInMs[0] = fullAt - now;
+            return slots;
+        });
+
+        if (retryInMs[0] > 0) {
+            // Still cooling down - check again when the slowest bucket has refilled
+            pendingReleases.put(key, timers.scheduleAfter(retryInMs[0], () -> release(key)));
+        }
+    }
+
+    private long now() {
+        // Monotonic, starts at 1 so a packed state is never 0
+        return (System.nanoTime() - origin) / 1_000_000L + 1;
+    }
+
+    private static long pack(long last, long tokens) {
+        return (last << 16) | tokens;
+    }
+}
@@ -1,7 +1,18 @@
 package com.lospitufos.cobblemon.verification;
 
+import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import com.lospitufos.cobblemon.cache.ExpiringCache;
+import com.lospitufos.cobblemon.cache.TimerWheel;
 import com.lospitufos.cobblemon.core.LosPitufosPlugin;
+import com.lospitufos.cobblemon.core.TaskScope;
+import com.lospitufos.cobblemon.session.PlayerSession;
+import com.lospitufos.cobblemon.session.PlayerSessionRegistry;
+import com.lospitufos.cobblemon.session.SessionKey;
+import com.lospitufos.cobblemon.storage.WarmCacheSnapshot;
+import com.lospitufos.cobblemon.utils.ChatMessages;
+import com.lospitufos.cobblemon.utils.ConnectivityMonitor;
 import com.lospitufos.cobblemon.utils.HttpClient;
 import com.lospitufos.cobblemon.utils.ModLogger;
 import net.fabricmc.fabric.api.networking.v1.ServerPlayConnectionEvents;
@@ -13,6 +24,7 @@ import net.minecraft.text.Style;
 import net.minecraft.text.Text;
 
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.*;
 
@@ -23,23 +35,40 @@ import java.util.concurrent.*;
  * 3. Player posts code in ANY Discord channel of the server
  * 4. Discord bot reads message and links accounts automatically
  * 5. Player is verified and can play normally
+ *
+ * While the backend is OFFLINE, joining players whose status cannot be checked play on a grace
+ * pass instead of being frozen; they are re-checked as soon as the backend is reachable again.
  */
 public class VerificationManager {
     
     private final HttpClient httpClient;
     private final ModLogger logger;
-    private final Map<UUID, Boolean> verifiedPlayers = new ConcurrentHashMap<>();
-    private final Map<UUID, String> pendingCodes = new ConcurrentHashMap<>();
-    private final Map<UUID, Long> lastReminderTime = new ConcurrentHashMap<>();
-    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1);
+    private final PlayerSessionRegistry sessions;
+    private final ExpiringCache<UUID, Boolean> verifiedPlayers; // Kept alive while online, offline players expire
+    private final Set<UUID> restoredVerified = ConcurrentHashMap.newKeySet();
+    private final TaskScope scheduler;
     private PlayerMovementBlocker movementBlocker;
     private MinecraftServer server;
     
     private static final long REMINDER_INTERVAL_MS = 10000; // 10 seconds
+    private static final long VERIFIED_TTL_MS = 30 * 60 * 1000L;     // Also the restart window that skips the re-check
+    private static final long VERIFIED_REFRESH_MS = 10 * 60 * 1000L;
+    private static final int MAX_CACHED_PLAYERS = 4096;
     
-    public VerificationManager(HttpClient httpClient, ModLogger logger) {
+    // Pending code, reminder clock and grace pass live on the player's session (gone on disconnect)
+    private static final SessionKey<VerificationSession> SESSION = SessionKey.of("verification", VerificationSession::new);
+    
+    public VerificationManager(HttpClient httpClient, ModLogger logger, PlayerSessionRegistry sessions, TimerWheel timers,
+                               TaskScope scheduler) {
         this.httpClient = httpClient;
         this.logger = logger;
+        this.sessions = sessions;
+        this.scheduler = scheduler;
+        this.verifiedPlayers = ExpiringCache.<UUID, Boolean>builder("verification.verified", timers)
+            .maximumSize(MAX_CACHED_PLAYERS)
+            .expireAfterWrite(VERIFIED_TTL_MS)
+            .refreshAfterWrite(VERIFIED_REFRESH_MS, this::reloadVerified)
+            .build();
     }
     
     public void initialize(MinecraftServer server, com.lospitufos.cobblemon.core.Config config) {
@@ -58,6 +87,13 @@ public class VerificationManager {
         // Start verification checker (every 5 seconds)
         scheduler.scheduleAtFixedRate(this::checkVerificationAndRemind, 5, 5, TimeUnit.SECONDS);
         
+        // Backend back - re-check everyone who joined on a grace pass
+        httpClient.getConnectivity().addListener((previous, current) -> {
+            if (current == ConnectivityMonitor.State.HEALTHY) {
+                server.execute(this::recheckGracePlayers);
+            }
+        });
+        
         logger.info("Verification system initialized (DISCORD CHANNEL FLOW)");
     }
 
@@ -75,18 +111,22 @@ public class VerificationManager {
                 if (player == null || player.isDisconnected()) continue;
                 
                 UUID uuid = player.getUuid();
-                Boolean isVerified = verifiedPlayers.get(uuid);
+                Boolean isVerified = verifiedPlayers.getIfPresent(uuid); // Also keeps the entry refreshed
                 
                 // Only process unverified players
                 if (isVerified != null && !isVerified) {
                     // Check if player has been verified via Discord
-                    checkPlayerVerificationAsync(player);
+                    if (!httpClient.isOffline()) {
+                        checkPlayerVerificationAsync(player);
+                    }
                     
                     // Send reminder every 10 seconds
-                    Long lastReminder = lastReminderTime.get(uuid);
-                    if (lastReminder == null || (now - lastReminder) >= REMINDER_INTERVAL_MS) {
-                        sendVerificationReminder(player);
-                        lastReminderTime.put(uuid, now);
+                    PlayerSession session = sessions.get(player);
+                    if (session == null) continue;
+                    VerificationSession verification = session.get(SESSION);
+                    if (now - verification.lastReminderAt >= REMINDER_INTERVAL_MS) {
+                        sendVerificationReminder(player, verification.pendingCode);
+                        verification.lastReminderAt = now;
                     }
                 }
             }
@@ -110,8 +150,7 @@ public class VerificationManager {
             .thenAccept(response -> {
                 if (response != null && response.has("verified") && response.get("verified").getAsBoolean()) {
                     verifiedPlayers.put(uuid, true);
-                    pendingCodes.remove(uuid);
-                    lastReminderTime.remove(uuid);
+                    clearPendingCode(uuid);
                     
                     String discordUsername = response.has("discordUsername") 
                         ? response.get("discordUsername").getAsString() 
@@ -120,11 +159,13 @@ public class VerificationManager {
                     server.execute(() -> {
                         ServerPlayerEntity onlinePlayer = server.getPlayerManager().getPlayer(uuid);
                         if (onlinePlayer != null && !onlinePlayer.isDisconnected()) {
-                            onlinePlayer.sendMessage(Text.literal(""));
-                            onlinePlayer.sendMessage(Text.literal("\u00A7a\u00A7l\u2713 \u00A1CUENTA VERIFICADA!"));
-                            onlinePlayer.sendMessage(Text.literal("\u00A77Vinculado a Discord: \u00A7b" + discordUsername));
-                            onlinePlayer.sendMessage(Text.literal("\u00A77Ya puedes jugar normalmente."));
-                            onlinePlayer.sendMessage(Text.literal(""));
+                            onlinePlayer.sendMessage(ChatMessages.lines(
+                                "",
+                                "\u00A7a\u00A7l\u2713 \u00A1CUENTA VERIFICADA!",
+                                "\u00A77Vinculado a Discord: \u00A7b" + discordUsername,
+                                "\u00A77Ya puedes jugar normalmente.",
+                                ""
+                            ));
                         }
                     });
                     
@@ -137,28 +178,21 @@ public class VerificationManager {
     /**
      * Send verification reminder to player
      */
-    private void sendVerificationReminder(ServerPlayerEntity player) {
-        UUID uuid = player.getUuid();
-        String code = pendingCodes.get(uuid);
-        
+    private void sendVerificationReminder(ServerPlayerEntity player, String code) {
         if (code == null) return;
         
-        // Create clickable code text
-        Text codeText = Text.literal("\u00A7e\u00A7l" + code)
-            .setStyle(Style.EMPTY
-                .withClickEvent(new ClickEvent(ClickEvent.Action.COPY_TO_CLIPBOARD, code))
-                .withHoverEvent(new HoverEvent(HoverEvent.Action.SHOW_TEXT, Text.literal("\u00A7aClick para copiar el codigo")))
-            );
-        
-        player.sendMessage(Text.literal(""));
-        player.sendMessage(Text.literal("\u00A7c\u00A7l\u26A0 VERIFICACION REQUERIDA"));
-        player.sendMessage(Text.literal("\u00A77Pon este codigo en el Discord del servidor:"));
-        player.sendMessage(Text.literal(""));
-        player.sendMessage(Text.literal("\u00A78[").append(codeText).append(Text.literal("\u00A78]")));
-        player.sendMessage(Text.literal(""));
-        player.sendMessage(Text.literal("\u00A77Discord: \u00A7bdiscord.gg/lospitufos"));
-        player.sendMessage(Text.literal("\u00A78(Click en el codigo para copiarlo)"));
-        player.sendMessage(Text.literal(""));
+        // Same code -> same message: composed once and reused for every reminder
+        player.sendMessage(ChatMessages.cached("verify.reminder:" + code, () -> ChatMessages.builder()
+            .blank()
+            .line("\u00A7c\u00A7l\u26A0 VERIFICACION REQUERIDA")
+            .line("\u00A77Pon este codigo en el Discord del servidor:")
+            .blank()
+            .line(Text.literal("\u00A78[").append(createCodeText(code, "\u00A7aClick para copiar el codigo")).append(Text.literal("\u00A78]")))
+            .blank()
+            .line("\u00A77Discord: \u00A7bdiscord.gg/lospitufos")
+            .line("\u00A78(Click en el codigo para copiarlo)")
+            .blank()
+            .build()));
     }
 
     
@@ -200,6 +234,12 @@ public class VerificationManager {
         UUID uuid = player.getUuid();
         String username = player.getName().getString();
         
+        // Verified before the restart - no need to ask again (once per player)
+        if (restoredVerified.remove(uuid) && Boolean.TRUE.equals(verifiedPlayers.getIfPresent(uuid))) {
+            logger.debug("Player " + username + " verified (restored from warm cache)");
+            return;
+        }
+        
         JsonObject payload = new JsonObject();
         payload.addProperty("uuid", uuid.toString());
         payload.addProperty("username", username);
@@ -207,6 +247,11 @@ public class VerificationManager {
         
         httpClient.postAsync("/api/players/sync", payload)
             .thenAccept(response -> {
+                if (response == null && httpClient.isOffline()) {
+                    grantOfflineGrace(player);
+                    return;
+                }
+                
                 boolean verified = response != null && response.has("verified") && response.get("verified").getAsBoolean();
                 verifiedPlayers.put(uuid, verified);
                 
@@ -245,7 +290,9 @@ public class VerificationManager {
                     }
                     
                     String code = response.get("code").getAsString();
-                    pendingCodes.put(uuid, code);
+                    PlayerSession session = sessions.find(uuid);
+                    if (session == null) return; // Left before the code arrived
+                    session.get(SESSION).pendingCode = code;
                     
                     // Show initial verification message
                     server.execute(() -> showInitialVerificationMessage(player, code));
@@ -264,29 +311,24 @@ public class VerificationManager {
      * Show initial verification message when player joins
      */
     private void showInitialVerificationMessage(ServerPlayerEntity player, String code) {
-        // Create clickable code text
-        Text codeText = Text.literal("\u00A7e\u00A7l" + code)
-            .setStyle(Style.EMPTY
-                .withClickEvent(new ClickEvent(ClickEvent.Action.COPY_TO_CLIPBOARD, code))
-                .withHoverEvent(new HoverEvent(HoverEvent.Action.SHOW_TEXT, Text.literal("\u00A7aClick para copiar el codigo")))
-            );
-        
-        player.sendMessage(Text.literal(""));
-        player.sendMessage(Text.literal("\u00A7e\u00A7l====================================="));
-        player.sendMessage(Text.literal("\u00A7c\u00A7l\u26A0 \u00A1BIENVENIDO! Tu cuenta no esta verificada"));
-        player.sendMessage(Text.literal(""));
-        player.sendMessage(Text.literal("\u00A7aPara verificarte y poder jugar:"));
-        player.sendMessage(Text.literal("\u00A771. Ve al Discord del servidor"));
-        player.sendMessage(Text.literal("\u00A772. Pon este codigo en CUALQUIER canal:"));
-        player.sendMessage(Text.literal(""));
-        player.sendMessage(Text.literal("   \u00A78[").append(codeText).append(Text.literal("\u00A78]")));
-        player.sendMessage(Text.literal(""));
-        player.sendMessage(Text.literal("\u00A773. \u00A1Listo! El bot te verificara automaticamente"));
-        player.sendMessage(Text.literal(""));
-        player.sendMessage(Text.literal("\u00A77Discord: \u00A7bhttps://discord.gg/GEmFwa4d"));
-        player.sendMessage(Text.literal("\u00A78(Click en el codigo para copiarlo)"));
-        player.sendMessage(Text.literal("\u00A7e\u00A7l====================================="));
-        player.sendMessage(Text.literal(""));
+        player.sendMessage(ChatMessages.cached("verify.initial:" + code, () -> ChatMessages.builder()
+            .blank()
+            .line("\u00A7e\u00A7l=====================================")
+            .line("\u00A7c\u00A7l\u26A0 \u00A1BIENVENIDO! Tu cuenta no esta verificada")
+            .blank()
+            .line("\u00A7aPara verificarte y poder jugar:")
+            .line("\u00A771. Ve al Discord del servidor")
+            .line("\u00A772. Pon este codigo en CUALQUIER canal:")
+            .blank()
+            .line(Text.literal("   \u00A78[").append(createCodeText(code, "\u00A7aClick para copiar el codigo")).append(Text.literal("\u00A78]")))
+            .blank()
+            .line("\u00A773. \u00A1Listo! El bot te verificara automaticamente")
+            .blank()
+            .line("\u00A77Discord: \u00A7bhttps://discord.gg/GEmFwa4d")
+            .line("\u00A78(Click en el codigo para copiarlo)")
+            .line("\u00A7e\u00A7l=====================================")
+            .blank()
+            .build()));
     }
 
     /**
@@ -330,18 +372,19 @@ public class VerificationManager {
                     
                     if (response.has("success") && response.get("success").getAsBoolean()) {
                         verifiedPlayers.put(uuid, true);
-                        pendingCodes.remove(uuid);
-                        lastReminderTime.remove(uuid);
+                        clearPendingCode(uuid);
                         
                         String discordUsername = response.has("discordUsername") 
                             ? response.get("discordUsername").getAsString() 
                             : "Discord";
                         
-                        player.sendMessage(Text.literal(""));
-                        player.sendMessage(Text.literal("\u00A7a\u00A7l\u2713 \u00A1CUENTA VERIFICADA!"));
-                        player.sendMessage(Text.literal("\u00A77Vinculado a Discord: \u00A7b" + discordUsername));
-                        player.sendMessage(Text.literal("\u00A77Ya puedes jugar normalmente."));
-                        player.sendMessage(Text.literal(""));
+                        player.sendMessage(ChatMessages.lines(
+                            "",
+                            "\u00A7a\u00A7l\u2713 \u00A1CUENTA VERIFICADA!",
+                            "\u00A77Vinculado a Discord: \u00A7b" + discordUsername,
+                            "\u00A77Ya puedes jugar normalmente.",
+                            ""
+                        ));
                         
                         logger.info("Player " + username + " verified via /verify command");
                     } else {
@@ -375,21 +418,18 @@ public class VerificationManager {
             return;
         }
         
-        String code = pendingCodes.get(uuid);
+        PlayerSession session = sessions.get(player);
+        String code = session != null ? session.get(SESSION).pendingCode : null;
         if (code != null) {
-            Text codeText = Text.literal("\u00A7e\u00A7l" + code)
-                .setStyle(Style.EMPTY
-                    .withClickEvent(new ClickEvent(ClickEvent.Action.COPY_TO_CLIPBOARD, code))
-                    .withHoverEvent(new HoverEvent(HoverEvent.Action.SHOW_TEXT, Text.literal("\u00A7aClick para copiar")))
-                );
-            
-            player.sendMessage(Text.literal(""));
-            player.sendMessage(Text.literal("\u00A7eTu codigo de verificacion:"));
-            player.sendMessage(Text.literal("   \u00A78[").append(codeText).append(Text.literal("\u00A78]")));
-            player.sendMessage(Text.literal(""));
-            player.sendMessage(Text.literal("\u00A77Ponlo en cualquier canal del Discord"));
-            player.sendMessage(Text.literal("\u00A77Discord: \u00A7bdiscord.gg/lospitufos"));
-            player.sendMessage(Text.literal(""));
+            player.sendMessage(ChatMessages.builder()
+                .blank()
+                .line("\u00A7eTu codigo de verificacion:")
+                .line(Text.literal("   \u00A78[").append(createCodeText(code, "\u00A7aClick para copiar")).append(Text.literal("\u00A78]")))
+                .blank()
+                .line("\u00A77Ponlo en cualquier canal del Discord")
+                .line("\u00A77Discord: \u00A7bdiscord.gg/lospitufos")
+                .blank()
+                .build());
         } else {
             // Generate new code
             generateCodeForPlayer(player);
@@ -398,21 +438,117 @@ public class VerificationManager {
     }
     
     public boolean isVerified(UUID playerUuid) {
-        return verifiedPlayers.getOrDefault(playerUuid, false);
+        if (Boolean.TRUE.equals(verifiedPlayers.getIfPresent(playerUuid))) return true;
+        
+        PlayerSession session = sessions.find(playerUuid);
+        VerificationSession verification = session != null ? session.peek(SESSION) : null;
+        return verification != null && verification.offlineGrace;
     }
     
-    public void shutdown() {
-        logger.info("Verification system shutting down...");
-        scheduler.shutdown();
-        try {
-            if (!scheduler.awaitTermination(5, TimeUnit.SECONDS)) {
-                scheduler.shutdownNow();
+    /**
+     * Cache reloader: keeps an online player's status alive, lets offline players expire.
+     * Status changes come from the join check and the reminder loop, never from a refresh
+     */
+    private CompletableFuture<Boolean> reloadVerified(UUID uuid, Boolean current) {
+        return CompletableFuture.completedFuture(sessions.find(uuid) != null ? current : null);
+    }
+    
+    /**
+     * Verified - the code and its reminders are no longer needed
+     */
+    private void clearPendingCode(UUID uuid) {
+        PlayerSession session = sessions.find(uuid);
+        VerificationSession verification = session != null ? session.peek(SESSION) : null;
+        if (verification != null) {
+            verification.pendingCode = null;
+            verification.lastReminderAt = 0;
+        }
+    }
+    
+    /**
+     * Backend unreachable - let the player in for now instead of freezing them indefinitely
+     */
+    private void grantOfflineGrace(ServerPlayerEntity player) {
+        PlayerSession session = sessions.get(player);
+        if (session == null) return; // Already gone
+        session.get(SESSION).offlineGrace = true;
+        logger.warn("Backend offline - " + player.getName().getString() + " joined on a verification grace pass");
+        
+        server.execute(() -> player.sendMessage(ChatMessages.lines(
+            "",
+            "\u00A7e\u26A0 El servidor web no esta disponible ahora mismo.",
+            "\u00A77Puedes jugar; tu verificacion se revisara cuando vuelva.",
+            ""
+        )));
+    }
+    
+    /**
+     * Run the normal join checks (ban + verification) for every player on a grace pass
+     */
+    private void recheckGracePlayers() {
+        for (PlayerSession session : sessions.all()) {
+            VerificationSession verification = session.peek(SESSION);
+            if (verification == null || !verification.offlineGrace) continue;
+            
+            verification.offlineGrace = false;
+            ServerPlayerEntity player = server.getPlayerManager().getPlayer(session.getUuid());
+            if (player != null && !player.isDisconnected()) {
+                onPlayerJoin(player);
             }
-        } catch (InterruptedException e) {
-            scheduler.shutdownNow();
         }
-        verifiedPlayers.clear();
-        pendingCodes.clear();
-        lastReminderTime.clear();
+    }
+    
+    /**
+     * Clickable code text (click copies the code to the clipboard)
+     */
+    private Text createCodeText(String code, String hover) {
+        return Text.literal("\u00A7e\u00A7l" + code)
+            .setStyle(Style.EMPTY
+                .withClickEvent(new ClickEvent(ClickEvent.Action.COPY_TO_CLIPBOARD, code))
+                .withHoverEvent(new HoverEvent(HoverEvent.Action.SHOW_TEXT, Text.literal(hover)))
+            );
+    }
+    
+    /**
+     * Write verified players to the snapshot (unverified ones always re-check)
+     */
+    public void saveWarmCache(WarmCacheSnapshot snapshot) {
+        long expiresAt = System.currentTimeMillis() + VERIFIED_TTL_MS;
+        verifiedPlayers.forEach((uuid, verified, writtenAt) -> {
+            if (verified) {
+                snapshot.put("verification.verified", uuid.toString(), new JsonPrimitive(true), expiresAt);
+            }
+        });
+    }
+    
+    /**
+     * Restore verified players (call before initialize) - they rejoin without being frozen
+     */
+    public void restoreWarmCache(WarmCacheSnapshot snapshot) {
+        for (Map.Entry<String, JsonElement> entry : snapshot.take("verification.verified").entrySet()) {
+            try {
+                UUID uuid = UUID.fromString(entry.getKey());
+                verifiedPlayers.put(uuid, true);
+                restoredVerified.add(uuid);
+            } catch (IllegalArgumentException ignored) {
+                // Not a UUID - skip
+            }
+        }
+    }
+    
+    public void shutdown() {
+        logger.info("Verification system shutting down...");
+        scheduler.shutdown(5, TimeUnit.SECONDS);
+        verifiedPlayers.invalidateAll();
+        restoredVerified.clear();
+    }
+    
+    /**
+     * Verification extension of a player's session
+     */
+    private static class VerificationSession {
+        volatile String pendingCode;        // Code shown to the player, null once verified
+        volatile long lastReminderAt = 0;
+        volatile boolean offlineGrace = false; // Joined while the backend was offline
     }
 }